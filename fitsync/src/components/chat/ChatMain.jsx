@@ -278,24 +278,21 @@ const ChatMain = () => {
       setRooms(roomList);
       setFilteredRoomCount(roomList.length);
 
-      // 각 채팅방의 읽지 않은 메시지 개수 조회
+      // 읽지 않은 메시지 개수와 마지막 메시지는 채팅방 목록 응답에 포함되어 있음 (채팅방별 추가 요청 없음)
       const unreadData = {};
       const lastMessageData = {};
 
       for (const room of roomList) {
-        try {
-          // 읽지 않은 메시지 개수 조회
-          const unreadResponse = await ChatApi.unreadCount(room.room_idx);
-          unreadData[room.room_idx] = unreadResponse.unreadCount || 0;
-
-          // 마지막 메시지 조회
-          const messages = await ChatApi.readMessageList(room.room_idx, 0, 1);
-          if (messages.length > 0) {
-            lastMessageData[room.room_idx] = messages[messages.length - 1];
-          }
-
-        } catch (error) {
-          unreadData[room.room_idx] = 0;
+        unreadData[room.room_idx] = room.unread_count || 0;
+
+        if (room.last_message_senddate) {
+          lastMessageData[room.room_idx] = {
+            message_idx: room.last_message,
+            sender_idx: room.last_sender_idx,
+            message_content: room.last_message_content,
+            message_type: room.last_message_type,
+            message_senddate: room.last_message_senddate
+          };
         }
       }
       setUnreadCounts(unreadData);
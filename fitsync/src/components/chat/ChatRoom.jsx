@@ -70,6 +70,12 @@ const MessagesContainer = styled.div`
   }
 `;
 
+const TypingIndicator = styled.div`
+  padding: 0.4rem 1.2rem 0;
+  font-size: 1.2rem;
+  color: var(--text-tertiary);
+`;
+
 const InputWrapper = styled.div`
   flex-shrink: 0;
   position: relative;
@@ -118,6 +124,11 @@ const OldMessagesText = styled.span`
   font-weight: 500;
 `;
 
+const MESSAGE_PAGE_SIZE = 50; // 메시지 커서 조회 한 페이지 크기
+const INITIAL_MESSAGE_PAGES = 10; // 초기 로드 시 최대 조회 페이지 수 (오래된 메시지가 나오면 그 전에 멈춤)
+const ROOM_SEQ_GAP_RETRIES = 1; // 누락 구간 재조회 추가 시도 횟수
+const ROOM_SEQ_GAP_RETRY_DELAY_MS = 1500; // 재조회 간격 (지연 저장/늦은 수신 대기)
+
 // 채팅방 메인 컴포넌트 - 실시간 메시지 송수신, 이미지 업로드, 매칭 시스템 등을 담당
 const ChatRoom = () => {
   const { roomId } = useParams();
@@ -140,6 +151,7 @@ const ChatRoom = () => {
   const [imageLoadingCount, setImageLoadingCount] = useState(0);
   const [totalImageCount, setTotalImageCount] = useState(0);
   const [blockDate, setBlockDate] = useState(null);
+  const [otherPresence, setOtherPresence] = useState({ present: false, typing: false });
 
   // 지난 대화 관련 상태
   const [hasOldMessages, setHasOldMessages] = useState(false);
@@ -167,9 +179,14 @@ const ChatRoom = () => {
   const messagesContainerRef = useRef(null);
   const scrollAdjustmentTimerRef = useRef(null);
   const lastScrollHeight = useRef(0);
+  const lastTypingRef = useRef({ typing: false, sentAt: 0 });
+  const syncCursorRef = useRef(null); // 재접속 동기화 커서 (epoch / change_since)
+  const lastRoomSeqRef = useRef(0); // 화면에 반영된 마지막 채팅방 순번 (누락 감지용)
+  const olderCursorRef = useRef(null); // 지난 대화 조회 커서 (next_before_room_seq, null 이면 처음까지 받음)
+  const heldOldMessagesRef = useRef([]); // 초기 로드에서 받았지만 오래되어 숨겨 둔 메시지
 
   // WebSocket 연결 및 기능들
-  const { connected, subscribeToRoom, sendMessage, markAsRead, sendDeleteNotification, subscribeToMatchingUpdates } = useWebSocket();
+  const { connected, subscribeToRoom, sendMessage, markAsRead, sendDeleteNotification, sendTyping, subscribeToMatchingUpdates } = useWebSocket();
 
   // 맨 아래로 스크롤 함수
   const scrollToBottom = useCallback((smooth = true, retryCount = 0) => {
@@ -322,6 +339,16 @@ const ChatRoom = () => {
   const handleAttachmentUploadComplete = useCallback((attachmentData) => {
     const messageIdx = attachmentData.message_idx;
     
+    // 업로드 실패 시 로딩 상태만 해제
+    if (messageIdx && attachmentData.type === 'attachment_failed') {
+      setPendingImageMessages(prev => {
+        const newSet = new Set(prev);
+        newSet.delete(messageIdx);
+        return newSet;
+      });
+      return;
+    }
+    
     if (messageIdx && attachmentData.cloudinary_url) {
       // 첨부파일 정보를 즉시 상태에 반영
       const attachmentInfo = {
@@ -784,29 +811,62 @@ const ChatRoom = () => {
     }
   };
 
-  // 메시지 로드 함수 - 필터링 적용
-  const loadMessages = async (memberIdx = null, loadAll = false) => {
+  // 메시지 로드 함수 - 커서 기반 페이지 조회 + 최근 메시지 필터링
+  // 초기 로드: 최신 페이지부터 이전 방향으로 받다가 오래된 메시지가 나오거나 처음에 닿으면 멈추고,
+  //           오래된 메시지는 화면에 넣지 않고 보관했다가 "지난 대화 보기" 때 붙인다.
+  // 지난 대화 보기(loadOlder): 보관한 메시지와 커서 이전 한 페이지를 목록 앞에 붙인다.
+  const loadMessages = async (memberIdx = null, loadOlder = false) => {
     try {
-      setLoading(true);
+      if (!loadOlder) {
+        setLoading(true);
+      }
 
-      const messageList = await chatApi.readMessageList(parseInt(roomId));
-      
       let finalMessages;
-      let hasOldMessagesResult = false;
-      
-      if (loadAll) {
-        // 지난 대화 보기 클릭 시 전체 메시지 로드
-        finalMessages = messageList;
-        setAllOldMessagesLoaded(true);
+
+      if (loadOlder) {
+        let olderMessages = heldOldMessagesRef.current;
+        heldOldMessagesRef.current = [];
+
+        if (olderCursorRef.current) {
+          const page = await chatApi.readMessagesBefore(parseInt(roomId), olderCursorRef.current, MESSAGE_PAGE_SIZE);
+          olderMessages = [...page.messages, ...olderMessages];
+          olderCursorRef.current = page.has_more ? page.next_before_room_seq : null;
+        }
+
+        finalMessages = olderMessages;
+        const noMoreMessages = !olderCursorRef.current;
+        setAllOldMessagesLoaded(noMoreMessages);
+        setHasOldMessages(!noMoreMessages);
+        setMessages(prev => {
+          const existingIdxs = new Set(prev.map(msg => msg.message_idx));
+          return [...olderMessages.filter(msg => !existingIdxs.has(msg.message_idx)), ...prev];
+        });
       } else {
-        // 초기 로드 시 최근 메시지만 필터링
-        const { recentMessages, hasOldMessages } = filterRecentMessages(messageList, roomEnterTime);
-        finalMessages = recentMessages;
-        hasOldMessagesResult = hasOldMessages;
+        let recentPages = [];
+        let heldOld = [];
+        let cursor = 0;
+
+        for (let page = 0; page < INITIAL_MESSAGE_PAGES; page++) {
+          const result = await chatApi.readMessagesBefore(parseInt(roomId), cursor, MESSAGE_PAGE_SIZE);
+          const { recentMessages, hasOldMessages } = filterRecentMessages(result.messages, roomEnterTime);
+          recentPages = [...recentMessages, ...recentPages];
+          if (hasOldMessages) {
+            const recentIdxs = new Set(recentMessages.map(msg => msg.message_idx));
+            heldOld = result.messages.filter(msg => !recentIdxs.has(msg.message_idx));
+          }
+          cursor = result.has_more ? result.next_before_room_seq : null;
+          if (!cursor || hasOldMessages) break;
+        }
+
+        finalMessages = recentPages;
+        heldOldMessagesRef.current = heldOld;
+        olderCursorRef.current = cursor;
+
+        const hasOlder = heldOld.length > 0 || !!cursor;
+        setAllOldMessagesLoaded(!hasOlder);
+        setMessages(finalMessages);
+        setHasOldMessages(hasOlder);
       }
-      
-      setMessages(finalMessages);
-      setHasOldMessages(hasOldMessagesResult);
 
       const imageMessages = finalMessages.filter(msg => 
         msg.message_type === 'image' && msg.attach_idx && msg.attach_idx > 0
@@ -815,7 +875,7 @@ const ChatRoom = () => {
       setTotalImageCount(imageMessages.length);
       setImageLoadingCount(imageMessages.length);
 
-      if (memberIdx) {
+      if (memberIdx && !loadOlder) {
         const unreadMessages = finalMessages.filter(msg => 
           msg.sender_idx !== memberIdx && !msg.message_readdate
         );
@@ -861,7 +921,7 @@ const ChatRoom = () => {
       const currentScrollHeight = container ? container.scrollHeight : 0;
       const currentScrollTop = container ? container.scrollTop : 0;
 
-      // 전체 메시지 다시 로드
+      // 이전 페이지 불러와 앞에 붙이기
       await loadMessages(currentMemberIdx, true);
 
       // 스크롤 위치 복원
@@ -992,25 +1052,76 @@ const ChatRoom = () => {
     }, 500);
   };
 
-  // 개별 읽음 처리 함수
+  // 초기 읽음 처리 함수 (워터마크 방식)
   const performInitialReadMark = () => {
     if (connected && currentMemberIdx && messages.length > 0 && !initialReadDone.current) {
       initialReadDone.current = true;
 
-      // 읽지 않은 메시지들을 모두 찾아서 개별적으로 읽음 처리
+      // 읽지 않은 메시지 중 가장 마지막 메시지까지 한 번에 읽음 처리
       const unreadMessages = messages.filter(msg => 
         msg.receiver_idx === currentMemberIdx && !msg.message_readdate
       );
 
-      // 각 메시지에 대해 개별적으로 읽음 처리
-      unreadMessages.forEach((msg, index) => {
-        setTimeout(() => {
-          markAsRead(msg.message_idx, parseInt(roomId, 10));
-        }, index * 50); // 50ms 간격으로 순차 처리
-      });
+      if (unreadMessages.length > 0) {
+        const lastUnreadSeq = Math.max(...unreadMessages.map(msg => msg.room_seq || 0));
+        markAsRead(lastUnreadSeq, parseInt(roomId, 10));
+      }
     }
   };
 
+  // 상대방 접속/입력 중 상태 알림 처리
+  const handlePresence = useCallback((presenceData) => {
+    if (presenceData.member_idx === currentMemberIdx) return;
+
+    if (presenceData.type === 'presence') {
+      setOtherPresence(prev => ({ present: presenceData.present, typing: presenceData.present && prev.typing }));
+    } else if (presenceData.type === 'typing') {
+      setOtherPresence(prev => ({ ...prev, typing: presenceData.typing }));
+    }
+  }, [currentMemberIdx]);
+
+  // 입력 중 상태 전송 - 상태가 바뀔 때와 입력 중 유지 갱신(3초)에만 전송
+  const handleTyping = useCallback((typing) => {
+    const now = Date.now();
+    const last = lastTypingRef.current;
+    if (typing !== last.typing || (typing && now - last.sentAt >= 3000)) {
+      lastTypingRef.current = { typing, sentAt: now };
+      sendTyping(parseInt(roomId), typing);
+    }
+  }, [roomId, sendTyping]);
+
+  // 화면 메시지 기준 마지막 채팅방 순번 갱신
+  useEffect(() => {
+    lastRoomSeqRef.current = messages.reduce((max, msg) => Math.max(max, msg.room_seq || 0), 0);
+  }, [messages]);
+
+  // 실시간 메시지 순번이 건너뛰었으면 빠진 구간만 조회해 순번 순서로 끼워 넣음
+  // 순번은 저장 전에 발급되므로 저장에 실패한 메시지의 순번은 끝내 채워지지 않는다.
+  // 아직 저장/수신 전인 메시지를 위해 한 번만 더 조회하고, 그래도 없는 순번은 건너뛴다.
+  const fillRoomSeqGap = useCallback(async (fromSeq, toSeq, attempt = 0) => {
+    let found = 0;
+    try {
+      const result = await chatApi.readMessagesBySeq(parseInt(roomId), fromSeq, toSeq);
+      if (result && result.success && result.messages.length > 0) {
+        found = result.messages.length;
+        setMessages(prev => {
+          const existingIdxs = new Set(prev.map(msg => msg.message_idx));
+          const missing = result.messages.filter(msg => !existingIdxs.has(msg.message_idx));
+          if (missing.length === 0) return prev;
+          return [...prev, ...missing].sort((a, b) => (
+            a.room_seq && b.room_seq ? a.room_seq - b.room_seq : a.message_idx - b.message_idx
+          ));
+        });
+      }
+    } catch (error) {
+      // 누락 구간 조회 실패 시 재시도 후에도 실패하면 재접속 동기화에서 반영
+    }
+
+    if (found < toSeq - fromSeq + 1 && attempt < ROOM_SEQ_GAP_RETRIES) {
+      setTimeout(() => fillRoomSeqGap(fromSeq, toSeq, attempt + 1), ROOM_SEQ_GAP_RETRY_DELAY_MS);
+    }
+  }, [roomId]);
+
   // WebSocket 구독 설정 - 첨부파일 업로드 완료 구독 강화
   useEffect(() => {
     if (connected && roomId && currentMemberIdx) {
@@ -1018,6 +1129,15 @@ const ChatRoom = () => {
         parseInt(roomId),
         async (newMessage) => {
           
+          // 순번 누락 감지 (마지막 순번 + 1 이 아니면 사이 구간 재조회)
+          if (newMessage.room_seq) {
+            const lastSeq = lastRoomSeqRef.current;
+            if (lastSeq > 0 && newMessage.room_seq > lastSeq + 1) {
+              fillRoomSeqGap(lastSeq + 1, newMessage.room_seq - 1);
+            }
+            lastRoomSeqRef.current = Math.max(lastSeq, newMessage.room_seq);
+          }
+
           setMessages(prev => {
             const existingMessage = prev.find(msg => msg.message_idx === newMessage.message_idx);
             if (existingMessage) return prev;
@@ -1054,13 +1174,14 @@ const ChatRoom = () => {
           // 실시간 메시지 개별 읽음 처리
           if (newMessage.receiver_idx === currentMemberIdx) {
             setTimeout(() => {
-              markAsRead(newMessage.message_idx, parseInt(roomId));
+              markAsRead(newMessage.room_seq, parseInt(roomId));
             }, 100);
           }
         },
         (readData) => {
+          // 읽음 워터마크: 해당 수신자의 채팅방 순번 room_seq 이하 메시지를 모두 읽음 처리
           setMessages(prev => prev.map(msg => {
-            if (msg.message_idx === readData.message_idx) {
+            if (msg.receiver_idx === readData.receiver_idx && (msg.room_seq || 0) <= readData.room_seq && !msg.message_readdate) {
               return { ...msg, message_readdate: new Date().toISOString() };
             }
             return msg;
@@ -1078,12 +1199,119 @@ const ChatRoom = () => {
           }
         },
         // 첨부파일 업로드 완료 콜백
-        handleAttachmentUploadComplete
+        handleAttachmentUploadComplete,
+        // 상대방 접속/입력 중 상태 콜백
+        handlePresence
       );
 
       return unsubscribe;
     }
-  }, [connected, roomId, subscribeToRoom, markAsRead, currentMemberIdx, loadRealtimeAttachment, handleAttachmentUploadComplete, pendingImageMessages]);
+  }, [connected, roomId, subscribeToRoom, markAsRead, currentMemberIdx, loadRealtimeAttachment, handleAttachmentUploadComplete, handlePresence, pendingImageMessages, fillRoomSeqGap]);
+
+  // 입장 시 상대방 접속 상태 1회 조회 (이후 변경은 presence 알림으로 반영)
+  useEffect(() => {
+    if (connected && roomId && currentMemberIdx) {
+      chatApi.roomPresence(parseInt(roomId))
+        .then(result => {
+          if (result && result.success) {
+            setOtherPresence({
+              present: result.present.some(idx => idx !== currentMemberIdx),
+              typing: result.typing.some(idx => idx !== currentMemberIdx)
+            });
+          }
+        })
+        .catch(() => {
+          // 조회 실패 시 알림으로만 반영
+        });
+    }
+  }, [connected, roomId, currentMemberIdx]);
+
+  // 재접속 동기화 - 최초 연결 시 커서만 받아 두고, 재연결될 때마다 끊긴 동안의 새 메시지/읽음/삭제를 한 번에 반영
+  useEffect(() => {
+    if (!connected || !roomId || !currentMemberIdx) return;
+
+    let cancelled = false;
+    const roomIdx = parseInt(roomId);
+
+    const applySyncPage = (result) => {
+      const newMessages = (result.messages || []).filter(msg => msg.room_idx === roomIdx);
+      const reads = (result.reads || []).filter(read => read.room_idx === roomIdx);
+      const deletedIdxs = new Set((result.deletes || [])
+        .filter(del => del.room_idx === roomIdx)
+        .map(del => del.message_idx));
+
+      if (newMessages.length === 0 && reads.length === 0 && deletedIdxs.size === 0) return;
+
+      setMessages(prev => {
+        const existingIdxs = new Set(prev.map(msg => msg.message_idx));
+        let merged = [...prev, ...newMessages.filter(msg => !existingIdxs.has(msg.message_idx))];
+
+        reads.forEach(read => {
+          const readDate = new Date(read.timestamp).toISOString();
+          merged = merged.map(msg => {
+            if (msg.receiver_idx === read.receiver_idx && (msg.room_seq || 0) <= read.room_seq && !msg.message_readdate) {
+              return { ...msg, message_readdate: readDate };
+            }
+            return msg;
+          });
+        });
+
+        if (deletedIdxs.size > 0) {
+          merged = merged.filter(msg => !deletedIdxs.has(msg.message_idx));
+        }
+        return merged;
+      });
+
+      if (deletedIdxs.size > 0) {
+        setAttachments(prev => {
+          const newAttachments = { ...prev };
+          deletedIdxs.forEach(idx => delete newAttachments[idx]);
+          return newAttachments;
+        });
+      }
+
+      // 끊긴 동안 받은 메시지 읽음 처리
+      const unread = newMessages.filter(msg => msg.receiver_idx === currentMemberIdx && !msg.message_readdate);
+      if (unread.length > 0) {
+        markAsRead(Math.max(...unread.map(msg => msg.room_seq || 0)), roomIdx);
+      }
+    };
+
+    const runSync = async () => {
+      try {
+        if (!syncCursorRef.current) {
+          const bootstrap = await chatApi.sync(null);
+          if (!cancelled && bootstrap && bootstrap.success) {
+            syncCursorRef.current = bootstrap.cursor;
+          }
+          return;
+        }
+
+        // has_more 인 동안 페이지를 이어서 조회 (과도한 누락 시 최대 10페이지 후 다음 재연결로 넘김)
+        for (let page = 0; page < 10; page++) {
+          const result = await chatApi.sync(syncCursorRef.current);
+          if (cancelled || !result || !result.success) return;
+
+          syncCursorRef.current = result.cursor;
+          if (result.reset) {
+            // 서버의 변경 이력이 커서를 덮어씀 - 현재 채팅방은 최신 페이지부터 다시 조회
+            await loadMessages(currentMemberIdx);
+            return;
+          }
+
+          applySyncPage(result);
+          if (!result.has_more) break;
+        }
+      } catch (error) {
+        // 동기화 실패 시 다음 재연결에서 같은 커서로 재시도
+      }
+    };
+
+    runSync();
+    return () => {
+      cancelled = true;
+    };
+  }, [connected, roomId, currentMemberIdx]);
 
   // 매칭 상태 업데이트 구독
   useEffect(() => {
@@ -1280,7 +1508,7 @@ const ChatRoom = () => {
           // 2. 짧은 지연 후 DB에서 저장된 메시지 조회
           setTimeout(async () => {
             try {
-              const messageList = await chatApi.readMessageList(parseInt(roomId));
+              const { messages: messageList } = await chatApi.readMessagesBefore(parseInt(roomId));
               
               // 방금 전송한 메시지 찾기 (개선된 검색 로직)
               const targetMessage = messageList
@@ -1300,6 +1528,12 @@ const ChatRoom = () => {
               // 3. 파일 업로드
               const uploadResult = await chatApi.uploadFile(file, targetMessage.message_idx);
               
+              // 업로드는 서버에서 비동기로 진행 - 완료 시 attachment_uploaded 알림으로 첨부파일 반영
+              if (uploadResult.pending) {
+                resolve(targetMessage);
+                return;
+              }
+              
               // 4. 첨부파일 정보 즉시 로컬 상태에 반영
               const attachmentInfo = {
                 attach_idx: uploadResult.attachIdx,
@@ -1502,6 +1736,9 @@ const ChatRoom = () => {
       </MessagesWrapper>
 
       <InputWrapper>
+        {otherPresence.typing && (
+          <TypingIndicator>{getOtherPersonName()}님이 입력 중...</TypingIndicator>
+        )}
         <MessageInput
           onSendMessage={handleSendMessage}
           disabled={!connected}
@@ -1509,6 +1746,7 @@ const ChatRoom = () => {
           onCancelReply={handleCancelReply}
           attachments={attachments}
           blockDate={blockDate}
+          onTyping={handleTyping}
         />
       </InputWrapper>
 
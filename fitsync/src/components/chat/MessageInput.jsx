@@ -232,7 +232,8 @@ const MessageInput = ({
   replyToMessage = null,
   onCancelReply = null,
   attachments = {},
-  blockDate
+  blockDate,
+  onTyping = null
 }) => {
   const [messageText, setMessageText] = useState('');
   const [selectedFiles, setSelectedFiles] = useState([]);
@@ -281,6 +282,7 @@ const MessageInput = ({
 
     const textToSend = messageText.trim();
     const filesToSend = [...selectedFiles];
+    onTyping && onTyping(false);
 
     // 입력창 즉시 초기화
     setMessageText('');
@@ -358,6 +360,7 @@ const MessageInput = ({
   // 텍스트 입력 및 높이 자동 조절
   const handleTextChange = (e) => {
     setMessageText(e.target.value);
+    onTyping && onTyping(e.target.value.trim() !== '');
 
     const textArea = e.target;
     textArea.style.height = 'auto';
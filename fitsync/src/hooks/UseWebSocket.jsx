@@ -300,7 +300,7 @@ export const useWebSocket = (shouldConnect = true) => {
   }, []);
 
   // 채팅방 구독 함수
-  const subscribeToRoom = useCallback((room_idx, onMessageReceived, onReadReceived, onDeleteReceived, onAttachmentReceived) => {
+  const subscribeToRoom = useCallback((room_idx, onMessageReceived, onReadReceived, onDeleteReceived, onAttachmentReceived, onPresenceReceived) => {
     
     if (client && connected) {
       
@@ -346,7 +346,7 @@ export const useWebSocket = (shouldConnect = true) => {
         try {
           const attachmentData = JSON.parse(message.body);
           
-          if (attachmentData.type === 'attachment_uploaded') {
+          if (attachmentData.type === 'attachment_uploaded' || attachmentData.type === 'attachment_failed') {
             // 첨부파일 업로드 완료 시 콜백 호출
             
             // 첨부파일 업로드 완료 콜백 호출
@@ -359,6 +359,16 @@ export const useWebSocket = (shouldConnect = true) => {
         }
       });
       
+      // 접속/입력 중 상태 구독 (DB 저장 없는 실시간 알림)
+      const presenceSubscription = onPresenceReceived ? client.subscribe(`/topic/room/${room_idx}/presence`, (message) => {
+        try {
+          const presenceData = JSON.parse(message.body);
+          onPresenceReceived(presenceData);
+        } catch (error) {
+          // 오류 무시
+        }
+      }) : null;
+      
       // 구독 해제 함수 반환
       return () => {
         try {
@@ -366,6 +376,7 @@ export const useWebSocket = (shouldConnect = true) => {
           readSubscription.unsubscribe();
           deleteSubscription.unsubscribe();
           attachmentSubscription.unsubscribe(); // 첨부파일 구독 해제 추가
+          presenceSubscription && presenceSubscription.unsubscribe();
         } catch (error) {
           // 오류 무시
         }
@@ -517,8 +528,8 @@ export const useWebSocket = (shouldConnect = true) => {
     }
   }, [client, connected, isMessageProcessed]);
 
-  // 개별 메시지 읽음 처리 함수 - 특정 메시지를 읽음 상태로 표시
-  const markAsRead = useCallback((message_idx, room_idx) => {
+  // 메시지 읽음 처리 함수 - 채팅방 순번 room_seq 까지의 메시지를 모두 읽음 상태로 표시 (워터마크)
+  const markAsRead = useCallback((room_seq, room_idx) => {
     
     const sessionMemberIdx = sessionStorage.getItem('chat_member_idx');
     const memberIdx = sessionMemberIdx ? parseInt(sessionMemberIdx) : null;
@@ -527,7 +538,7 @@ export const useWebSocket = (shouldConnect = true) => {
       
       // 타입 안전성 보장
       const readData = {
-        message_idx: parseInt(message_idx),
+        room_seq: parseInt(room_seq),
         room_idx: parseInt(room_idx),
         receiver_idx: memberIdx,
         timestamp: Date.now()
@@ -614,6 +625,20 @@ export const useWebSocket = (shouldConnect = true) => {
     }
   }, [client, connected]);
 
+  // 입력 중 상태 전송 - 서버에서 회원/채팅방별 간격 제한으로 병합되며 DB에 저장되지 않음
+  const sendTyping = useCallback((room_idx, typing) => {
+    if (client && connected) {
+      try {
+        client.publish({
+          destination: '/app/chat.typing',
+          body: JSON.stringify({ room_idx, typing })
+        });
+      } catch (error) {
+        // 오류 무시
+      }
+    }
+  }, [client, connected]);
+
   // 타이머 정리 (메모리 누수 방지)
   useEffect(() => {
     return () => {
@@ -637,6 +662,7 @@ export const useWebSocket = (shouldConnect = true) => {
       sendMessage: () => {},
       markAsRead: () => {},
       sendDeleteNotification: () => {},
+      sendTyping: () => {},
       broadcastMatchingStatus: () => {},
       disconnect: () => {}
     };
@@ -650,6 +676,7 @@ export const useWebSocket = (shouldConnect = true) => {
     sendMessage,                 // 메시지 전송
     markAsRead,                  // 읽음 처리
     sendDeleteNotification,      // 삭제 알림
+    sendTyping,                  // 입력 중 상태
     broadcastMatchingStatus,     // 매칭 상태 브로드캐스트
     disconnect                   // 수동 연결 해제 함수
   };
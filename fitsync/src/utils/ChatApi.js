@@ -27,10 +27,20 @@ const chatApi = {
     return response.data;
   },
 
-  // 채팅방 메시지 목록 조회
-  readMessageList: async (room_idx, page = 0, size = 50) => {
+  // 채팅방 메시지 커서 조회 - 채팅방 순번 before_room_seq 이전(0 이면 최신) 메시지를 size 건까지 오름차순으로
+  // 응답의 next_before_room_seq 를 다음 호출에 넘기면 그 이전 페이지 (has_more 가 false 면 처음까지 받은 것)
+  readMessagesBefore: async (room_idx, before_room_seq = 0, size = 50) => {
     const response = await axios.get(`/api/chat/room/${room_idx}/messages`, {
-      params: { page, size },
+      params: { before_room_seq, size },
+      withCredentials: true
+    });
+    return response.data;
+  },
+
+  // 채팅방 순번 구간 메시지 조회 (실시간 수신 중 누락된 구간만 다시 받기)
+  readMessagesBySeq: async (room_idx, from_seq, to_seq) => {
+    const response = await axios.get(`/api/chat/room/${room_idx}/messages`, {
+      params: { from_seq, to_seq },
       withCredentials: true
     });
     return response.data;
@@ -53,6 +63,28 @@ const chatApi = {
     return response.data;
   },
 
+  // 채팅방 접속 상태 조회 (입장 시 1회, 이후 변경은 WebSocket presence 알림으로 수신)
+  roomPresence: async (room_idx) => {
+    const response = await axios.get(`/api/chat/room/${room_idx}/presence`, {
+      withCredentials: true
+    });
+    return response.data;
+  },
+
+  // 재접속 동기화 - 모든 채팅방의 커서 이후 새 메시지와 읽음/삭제 변경 조회
+  // cursor 가 없으면 현재 위치 커서만 반환됨 (응답 cursor 를 보관했다가 다음 호출에 그대로 전달)
+  sync: async (cursor, size = 200) => {
+    const response = await axios.get('/api/chat/sync', {
+      params: cursor ? {
+        epoch: cursor.epoch,
+        change_since: cursor.change_since,
+        size
+      } : { size },
+      withCredentials: true
+    });
+    return response.data;
+  },
+
   // 파일 업로드
   uploadFile: async (file, message_idx) => {
     const formData = new FormData();
@@ -1,9 +1,24 @@
 package org.fitsync.config;
 
+import java.io.IOException;
+
+import org.fitsync.util.ChatMetrics;
+import org.fitsync.util.CloudinaryMediaStorage;
+import org.fitsync.util.DedupeCache;
+import org.fitsync.util.LocalMediaStorage;
+import org.fitsync.util.MediaStorage;
+import org.fitsync.util.MemberPrincipalCache;
+import org.fitsync.util.OAuthHttpClient;
+import org.fitsync.util.RateLimiter;
+import org.fitsync.util.RoomSequencer;
+import org.fitsync.util.SanctionCache;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.client.RestTemplate;
 
+import com.cloudinary.Cloudinary;
+
 @Configuration
 public class AppConfig {
 
@@ -11,4 +26,83 @@ public class AppConfig {
     public RestTemplate restTemplate() {
         return new RestTemplate();
     }
+
+    // 채팅 메시지 unique_id 중복 처리 방지 캐시 (클라이언트 재전송 대비)
+    @Bean
+    public DedupeCache chatMessageDedupe(
+            @Value("${chat.dedupe.ttl.ms:600000}") long ttlMs,
+            @Value("${chat.dedupe.max.size:50000}") int maxSize) {
+        return new DedupeCache("chat.send", ttlMs, maxSize);
+    }
+
+    // 회원 제재 정보 캐시 (루트 컨텍스트 하나만 두어 제재 적용 시 모든 조회 경로에서 함께 무효화)
+    @Bean
+    public SanctionCache sanctionCache(
+            @Value("${sanction.cache.ttl.ms:600000}") long ttlMs,
+            @Value("${sanction.cache.max.size:100000}") int maxSize) {
+        return new SanctionCache(ttlMs, maxSize);
+    }
+
+    // 회원 인증 정보 캐시 (인증 필터와 회원 정보 변경 경로가 같은 캐시를 쓰도록 루트 컨텍스트에 하나만 둠)
+    @Bean
+    public MemberPrincipalCache memberPrincipalCache(
+            @Value("${member.principal.cache.ttl.ms:600000}") long ttlMs,
+            @Value("${member.principal.cache.max.size:100000}") int maxSize) {
+        return new MemberPrincipalCache(ttlMs, maxSize);
+    }
+
+    // 첨부파일 저장소 (cloudinary: Cloudinary CDN, local: 로컬 디렉터리 - 외부 연결 없이 확인용)
+    @Bean
+    public MediaStorage mediaStorage(
+            Cloudinary cloudinary,
+            @Value("${chat.upload.storage:cloudinary}") String storage,
+            @Value("${chat.upload.local.dir:${java.io.tmpdir}/fitsync-media}") String localDir,
+            @Value("${chat.upload.local.base-url:/chat-media/}") String localBaseUrl) throws IOException {
+        if ("local".equalsIgnoreCase(storage)) {
+            return new LocalMediaStorage(localDir, localBaseUrl);
+        }
+        return new CloudinaryMediaStorage(cloudinary);
+    }
+
+    // 채팅 처리 구간별 지연/실패 집계 (WebSocket 컨트롤러와 서비스가 같은 집계를 쓰도록 루트 컨텍스트에 하나만 둠)
+    @Bean
+    public ChatMetrics chatMetrics() {
+        return new ChatMetrics();
+    }
+
+    // 채팅방별 메시지 순번 발급 현황 집계 (순번 자체는 채팅방 행에서 발급)
+    @Bean
+    public RoomSequencer roomSequencer() {
+        return new RoomSequencer();
+    }
+
+    // 회원별 채팅 전송 제한 (/app/chat.send, /app/chat.delete)
+    @Bean
+    public RateLimiter chatSendRateLimiter(
+            @Value("${chat.ratelimit.send.burst:20}") int burst,
+            @Value("${chat.ratelimit.send.per.minute:120}") int perMinute,
+            @Value("${chat.ratelimit.capacity:65536}") int capacity) {
+        return new RateLimiter("chat.send", burst, perMinute, capacity);
+    }
+
+    // 회원별 채팅 쓰기 API 제한 (첨부파일 업로드, 메시지 신고, 매칭 요청/수락)
+    @Bean
+    public RateLimiter chatWriteRateLimiter(
+            @Value("${chat.ratelimit.write.burst:10}") int burst,
+            @Value("${chat.ratelimit.write.per.minute:30}") int perMinute,
+            @Value("${chat.ratelimit.capacity:65536}") int capacity) {
+        return new RateLimiter("chat.write", burst, perMinute, capacity);
+    }
+
+    // 소셜 로그인 공급자 호출용 공용 HTTP 클라이언트 (연결 재사용, 시간 상한, 공급자별 동시 요청 제한)
+    @Bean(destroyMethod = "shutdown")
+    public OAuthHttpClient oauthHttpClient(
+            @Value("${oauth.http.connect.timeout.ms:2000}") long connectTimeoutMs,
+            @Value("${oauth.http.request.timeout.ms:3000}") long requestTimeoutMs,
+            @Value("${oauth.http.max.concurrency:32}") int maxConcurrency,
+            @Value("${oauth.http.threads:4}") int threads,
+            @Value("${oauth.login.threads:8}") int loginThreads,
+            @Value("${oauth.login.queue.capacity:200}") int loginQueueCapacity) {
+        return new OAuthHttpClient(connectTimeoutMs, requestTimeoutMs, maxConcurrency, threads, loginThreads, loginQueueCapacity);
+    }
 }
@@ -6,7 +6,6 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import javax.servlet.http.HttpSession;
 
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -23,6 +22,7 @@ import org.springframework.web.bind.annotation.RestController;
 
 import lombok.extern.log4j.Log4j;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.ApiLogVO;
 import org.fitsync.domain.ApiResponseDTO;
 import org.fitsync.mapper.PtMapper;
@@ -59,8 +59,8 @@ public class AIController {
 
 
 	@PostMapping(value = "/getAiTest", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-	public ResponseEntity<ApiResponseDTO> askAI(@RequestBody Map<String, String> request, HttpSession session) {
-		Object memberIdx = session.getAttribute("member_idx");
+	public ResponseEntity<ApiResponseDTO> askAI(@RequestBody Map<String, String> request, AuthPrincipal principal) {
+		Object memberIdx = principal.getMember_idx();
 		
 	    try {
 	        String userMessage = request.get("message");
@@ -80,8 +80,8 @@ public class AIController {
 	}
 	
 	@PostMapping(value = "/routine", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-	public ResponseEntity<ApiResponseDTO> createRoutine(@RequestBody Map<String, String> request, HttpSession session) {
-		Object memberIdx = session.getAttribute("member_idx");
+	public ResponseEntity<ApiResponseDTO> createRoutine(@RequestBody Map<String, String> request, AuthPrincipal principal) {
+		Object memberIdx = principal.getMember_idx();
 		
 	    try {
 	    	if (memberIdx == null) {
@@ -123,8 +123,8 @@ public class AIController {
 	}
 	
 	@GetMapping(value = "/apilog/{memberIdx}", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
-	public ResponseEntity<?> getApiLogByMemberIdx(@PathVariable int memberIdx, HttpSession session) {
-		int sessionMemberIdx = (int) session.getAttribute("member_idx");
+	public ResponseEntity<?> getApiLogByMemberIdx(@PathVariable int memberIdx, AuthPrincipal principal) {
+		int sessionMemberIdx = (int) principal.getMember_idx();
 		
 		try {
 			if (memberIdx != sessionMemberIdx) {
@@ -144,7 +144,7 @@ public class AIController {
 	}
 
 	@PostMapping("/feedback")
-	public ResponseEntity<?> getFeedback(@RequestBody Map<Object, String> body, HttpSession session) {
+	public ResponseEntity<?> getFeedback(@RequestBody Map<Object, String> body, AuthPrincipal principal) {
 		String message = body.get("message");
 
 		try {
@@ -6,8 +6,8 @@ import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpSession;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.ApiLogSearchCriteria;
 import org.fitsync.domain.ApiLogStatsDTO;
 import org.fitsync.domain.ApiLogVO;
@@ -16,11 +16,31 @@ import org.fitsync.domain.GymVO;
 import org.fitsync.domain.PtVO;
 import org.fitsync.domain.ReportVO;
 import org.fitsync.domain.SearchCriteria;
+import org.fitsync.filter.RoutePolicy;
 import org.fitsync.service.ApiLogServiceImple;
 import org.fitsync.service.AwardsServiceImple;
+import org.fitsync.service.ChatChangeJournal;
+import org.fitsync.service.ChatMessageWriteBehind;
+import org.fitsync.service.ChatRecentMessageBuffer;
+import org.fitsync.service.ChatSearchIndex;
+import org.fitsync.service.ChatUnreadCounter;
 import org.fitsync.service.GymServiceImple;
 import org.fitsync.service.PtServiceImple;
 import org.fitsync.service.ReportServiceImple;
+import org.fitsync.service.RoomSummaryCache;
+import org.fitsync.util.ChatMetrics;
+import org.fitsync.util.DedupeCache;
+import org.fitsync.util.MemberPrincipalCache;
+import org.fitsync.util.OAuthHttpClient;
+import org.fitsync.util.RateLimiter;
+import org.fitsync.util.RoomSequencer;
+import org.fitsync.util.SanctionCache;
+import org.fitsync.websocket.ChatAttachmentUploader;
+import org.fitsync.websocket.ChatOutboundBackpressure;
+import org.fitsync.websocket.ChatPresenceRegistry;
+import org.fitsync.websocket.ChatBrokerRelay;
+import org.fitsync.websocket.ChatRoomDispatcher;
+import org.fitsync.websocket.ReadReceiptCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -55,6 +75,48 @@ public class AdminController {
 	GymServiceImple gymService;
 	@Autowired
 	PtServiceImple ptService;
+	@Autowired
+	ChatRoomDispatcher chatRoomDispatcher;
+	@Autowired
+	ChatMessageWriteBehind chatMessageWriteBehind;
+	@Autowired
+	DedupeCache chatMessageDedupe;
+	@Autowired
+	ReadReceiptCoalescer readReceiptCoalescer;
+	@Autowired
+	ChatUnreadCounter chatUnreadCounter;
+	@Autowired
+	RoomSummaryCache roomSummaryCache;
+	@Autowired
+	ChatSearchIndex chatSearchIndex;
+	@Autowired
+	ChatBrokerRelay chatBrokerRelay;
+	@Autowired
+	SanctionCache sanctionCache;
+	@Autowired
+	MemberPrincipalCache memberPrincipalCache;
+	@Autowired
+	ChatMetrics chatMetrics;
+	@Autowired
+	ChatRecentMessageBuffer chatRecentMessageBuffer;
+	@Autowired
+	ChatAttachmentUploader chatAttachmentUploader;
+	@Autowired
+	ChatPresenceRegistry chatPresenceRegistry;
+	@Autowired
+	ChatChangeJournal chatChangeJournal;
+	@Autowired
+	ChatOutboundBackpressure chatOutboundBackpressure;
+	@Autowired
+	RoomSequencer roomSequencer;
+	@Autowired
+	RateLimiter chatSendRateLimiter;
+	@Autowired
+	RateLimiter chatWriteRateLimiter;
+	@Autowired
+	RoutePolicy routePolicy;
+	@Autowired
+	OAuthHttpClient oauthHttpClient;
 	
     @GetMapping(value = "/test", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
     public ResponseEntity<String> test() {
@@ -110,7 +172,7 @@ public class AdminController {
 	
 	// 신고 목록 조회
 	@GetMapping("/report")
-	public ResponseEntity<?> getReport(HttpSession session){
+	public ResponseEntity<?> getReport(AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		List<ReportVO> vo =  rservice.getReport();
 		if(vo != null) {
@@ -125,7 +187,7 @@ public class AdminController {
 	
 	// 신고 제재 업데이트
 	@PutMapping("/report/{report_idx}/{member_idx}")
-	public ResponseEntity<?> updateReportBlock(@PathVariable int report_idx, @RequestBody Map<String, Integer> body, @PathVariable int member_idx, HttpSession session){
+	public ResponseEntity<?> updateReportBlock(@PathVariable int report_idx, @RequestBody Map<String, Integer> body, @PathVariable int member_idx, AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		int report_data_idx = body.get("report_data_idx") != null ? (int) body.get("report_data_idx") : -1 ;
 		int block_set = (int) body.get("block_set");
@@ -146,7 +208,7 @@ public class AdminController {
 	}
 	
 	@PutMapping("/report/hidden/{report_idx}")
-	public ResponseEntity<?> updateReport(@PathVariable int report_idx, HttpSession session){
+	public ResponseEntity<?> updateReport(@PathVariable int report_idx, AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		boolean update = rservice.updateReport(report_idx, -1, 0);
 		if(update) {
@@ -159,7 +221,7 @@ public class AdminController {
 	}
 	
 	@GetMapping("/awards")
-	public ResponseEntity<?> getAwards(HttpSession session){
+	public ResponseEntity<?> getAwards(AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		List<AwardsVO> vo = awardService.getAwards();
 		if(vo != null) {
@@ -173,7 +235,7 @@ public class AdminController {
 	} 
 	
 	@PutMapping("/awards")
-	public ResponseEntity<?> updateAwards(@RequestBody AwardsVO vo, HttpSession session){
+	public ResponseEntity<?> updateAwards(@RequestBody AwardsVO vo, AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		boolean update = awardService.updateAwards(vo);
 		if(update) {
@@ -185,7 +247,7 @@ public class AdminController {
 	} 
 		
 	@GetMapping("/workout")
-	public ResponseEntity<?> getWorkOut(HttpSession session){
+	public ResponseEntity<?> getWorkOut(AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<String, Object>();
 		List<PtVO> list = ptService.getWorkOut();
 		if(list != null) {
@@ -338,5 +400,68 @@ public class AdminController {
 		return ResponseEntity.ok(result);
 	}
 
+	// 적용 중인 경로별 접근 정책 조회 (root-context.xml 의 routePolicy)
+	@GetMapping(value = "/routes", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public ResponseEntity<?> getRoutePolicy() {
+		Map<String, Object> result = new HashMap<>(routePolicy.getTable());
+		result.put("success", true);
+		return ResponseEntity.ok(result);
+	}
 
-}
\ No newline at end of file
+	// 채팅 처리 현황 조회 (채팅방 디스패처 대기열 길이, 메시지 지연 저장 현황 등)
+	@GetMapping(value = "/chat/stats", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public ResponseEntity<?> getChatStats() {
+		Map<String, Object> result = new HashMap<>();
+		result.put("success", true);
+		result.put("dispatch", chatRoomDispatcher.getStats());
+		result.put("persist", chatMessageWriteBehind.getStats());
+		result.put("dedupe", chatMessageDedupe.getStats());
+		result.put("read", readReceiptCoalescer.getStats());
+		result.put("unread", chatUnreadCounter.getStats());
+		result.put("rooms", roomSummaryCache.getStats());
+		result.put("search", chatSearchIndex.getStats());
+		result.put("relay", chatBrokerRelay.getStats());
+		result.put("sanction", sanctionCache.getStats());
+		result.put("principal", memberPrincipalCache.getStats());
+		result.put("oauth", oauthHttpClient.getStats());
+		result.put("recent", chatRecentMessageBuffer.getStats());
+		result.put("upload", chatAttachmentUploader.getStats());
+		result.put("presence", chatPresenceRegistry.getStats());
+		result.put("sync", chatChangeJournal.getStats());
+		result.put("outbound", chatOutboundBackpressure.getStats());
+		result.put("room_seq", roomSequencer.getStats());
+		result.put("rate_limit", Map.of(
+			"send", chatSendRateLimiter.getStats(),
+			"write", chatWriteRateLimiter.getStats()
+		));
+		return ResponseEntity.ok(result);
+	}
+	
+	// 채팅 검색 색인 재생성 (room_idx 없으면 전체 제거 후 검색 시 재생성)
+	@PostMapping(value = "/chat/search-index/rebuild", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public ResponseEntity<?> rebuildChatSearchIndex(@RequestParam(required = false) Integer room_idx) {
+		Map<String, Object> result = new HashMap<>(chatSearchIndex.rebuild(room_idx));
+		result.put("success", true);
+		result.put("msg", "검색 색인 재생성 완료");
+		return ResponseEntity.ok(result);
+	}
+	
+	// 채팅 처리 구간별 처리량/지연 시간(백분위)/실패 사유 조회
+	@GetMapping(value = "/chat/metrics", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public ResponseEntity<?> getChatMetrics() {
+		Map<String, Object> result = new HashMap<>();
+		result.put("success", true);
+		result.put("metrics", chatMetrics.getStats());
+		return ResponseEntity.ok(result);
+	}
+	
+	// 채팅 처리 지표 초기화 (재측정 시작)
+	@PostMapping(value = "/chat/metrics/reset", produces = MediaType.APPLICATION_JSON_UTF8_VALUE)
+	public ResponseEntity<?> resetChatMetrics() {
+		chatMetrics.reset();
+		Map<String, Object> result = new HashMap<>();
+		result.put("success", true);
+		result.put("msg", "채팅 처리 지표 초기화 완료");
+		return ResponseEntity.ok(result);
+	}
+}
@@ -4,9 +4,10 @@ import java.util.Date;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
 
-import javax.servlet.http.HttpSession;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.ChatAttachVO;
 import org.fitsync.domain.MatchingVO;
 import org.fitsync.domain.MemberVO;
@@ -17,9 +18,11 @@ import org.fitsync.service.LessonService;
 import org.fitsync.service.MatchingService;
 import org.fitsync.service.MemberService;
 import org.fitsync.service.ReportService;
+import org.fitsync.util.RateLimiter;
+import org.fitsync.websocket.ChatAttachmentUploader;
+import org.fitsync.websocket.ChatPresenceRegistry;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
 import org.springframework.web.bind.annotation.CrossOrigin;
 import org.springframework.web.bind.annotation.DeleteMapping;
 import org.springframework.web.bind.annotation.GetMapping;
@@ -53,17 +56,24 @@ public class ChatRestController {
     private LessonService lessonService;
     
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private ChatAttachmentUploader chatAttachmentUploader;
+    
+    @Autowired
+    private ChatPresenceRegistry chatPresenceRegistry;
+    
+    // 회원별 쓰기 API 제한 (업로드, 신고, 매칭 요청/수락)
+    @Autowired
+    private RateLimiter chatWriteRateLimiter;
     
     //채팅용 회원 정보 조회 API
     @GetMapping("/member-info")
-    public ResponseEntity<Map<String, Object>> getChatMemberInfo(HttpSession session) {
-        Integer member_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<Map<String, Object>> getChatMemberInfo(AuthPrincipal principal) {
+        Integer member_idx = principal.getMember_idx();
         
         if (member_idx != null) {
             // 차단된 사용자인지 확인
-            if(session.getAttribute("block_date") != null) {
-            	Date block_date = (Date) session.getAttribute("block_date");
+            if(principal.getBlock_date() != null) {
+            	Date block_date = principal.getBlock_date();
             	return ResponseEntity.ok(Map.of(
         			"success", true,
         			"member_idx", member_idx,
@@ -85,8 +95,8 @@ public class ChatRestController {
     
     //채팅방 생성 또는 기존 채팅방 조회
     @PostMapping("/room")
-    public ResponseEntity<RoomVO> registerRoom(@RequestBody Map<String, Object> request, HttpSession session) {
-        int user_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<RoomVO> registerRoom(@RequestBody Map<String, Object> request, AuthPrincipal principal) {
+        int user_idx = principal.getMember_idx();
         int trainer_idx = Integer.valueOf(request.get("trainer_idx").toString());
         String room_name = request.get("room_name").toString();
         
@@ -96,8 +106,8 @@ public class ChatRestController {
     
     //사용자의 채팅방 목록 조회
     @GetMapping("/rooms")
-    public ResponseEntity<List<RoomVO>> readRoomList(HttpSession session) {
-        Integer member_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<List<RoomVO>> readRoomList(AuthPrincipal principal) {
+        Integer member_idx = principal.getMember_idx();
         
         if (member_idx == null) {
             return ResponseEntity.status(401).body(null);
@@ -112,15 +122,59 @@ public class ChatRestController {
         }
     }
     
+    //재접속 동기화 - 모든 채팅방의 커서 이후 새 메시지, 읽음/삭제 변경을 한 번에 조회
+    // change_since 없이 호출하면 현재 위치 커서만 반환 (최초 접속 시), has_more 면 응답 cursor 로 이어서 호출
+    @GetMapping("/sync")
+    public ResponseEntity<?> syncSince(
+            @RequestParam(required = false) String epoch,
+            @RequestParam(required = false) Long change_since,
+            @RequestParam(defaultValue = "200") int size,
+            AuthPrincipal principal) {
+        Integer member_idx = principal.getMember_idx();
+        
+        if (member_idx == null) {
+            return ResponseEntity.status(401).body(Map.of("success", false, "msg", "로그인이 필요합니다."));
+        }
+        
+        try {
+            Map<String, Object> result = chatService.syncSince(member_idx, epoch, change_since, size);
+            result.put("success", true);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            return ResponseEntity.status(500).body(Map.of("success", false, "msg", "동기화 중 오류가 발생했습니다."));
+        }
+    }
+    
     //특정 채팅방의 메시지 목록 조회
+    // before_room_seq / after_room_seq 가 있으면 채팅방 순번 커서 기반 조회, 없으면 기존 page/size 방식
+    // from_seq / to_seq 가 있으면 채팅방 순번 구간 조회 (실시간 수신 중 누락 구간 재조회)
     @GetMapping("/room/{room_idx}/messages")
-    public ResponseEntity<List<MessageVO>> readMessageList(
+    public ResponseEntity<?> readMessageList(
             @PathVariable int room_idx, 
             @RequestParam(defaultValue = "0") int page, 
             @RequestParam(defaultValue = "50") int size, 
-            HttpSession session) {
+            @RequestParam(required = false) Integer before_room_seq, 
+            @RequestParam(required = false) Integer after_room_seq, 
+            @RequestParam(required = false) Integer from_seq, 
+            @RequestParam(required = false) Integer to_seq, 
+            AuthPrincipal principal) {
+        
+        int member_idx = principal.getMember_idx();
+        
+        if (from_seq != null && to_seq != null) {
+            // 한 번에 최대 200건 구간까지만 조회
+            int toSeq = Math.min(to_seq, from_seq + 199);
+            Map<String, Object> result = new HashMap<>();
+            result.put("success", true);
+            result.put("messages", chatService.readMessageListBySeq(room_idx, from_seq, toSeq));
+            result.put("to_seq", toSeq);
+            return ResponseEntity.ok(result);
+        }
+        
+        if (before_room_seq != null || after_room_seq != null) {
+            return ResponseEntity.ok(readMessageCursor(room_idx, size, before_room_seq, after_room_seq));
+        }
         
-        int member_idx = (Integer) session.getAttribute("member_idx");
         List<MessageVO> messages;
         
         // 기본값인 경우 전체 메시지 조회, 그렇지 않으면 페이징 처리
@@ -133,77 +187,110 @@ public class ChatRestController {
         return ResponseEntity.ok(messages);
     }
     
+    //커서 기반 메시지 조회 결과 구성 (size + 1 건을 조회해 다음 페이지 존재 여부 판단)
+    private Map<String, Object> readMessageCursor(int room_idx, int size, Integer before_room_seq, Integer after_room_seq) {
+        int limit = Math.max(1, Math.min(size, 200));
+        Map<String, Object> result = new HashMap<>();
+        List<MessageVO> messages;
+        boolean hasMore;
+        
+        if (after_room_seq != null) {
+            // 이후 메시지: 오름차순이므로 초과분은 목록 끝에서 제거
+            messages = chatService.readMessageListAfter(room_idx, after_room_seq, limit + 1);
+            hasMore = messages.size() > limit;
+            if (hasMore) {
+                messages = messages.subList(0, limit);
+            }
+            int lastSeq = messages.isEmpty() ? after_room_seq : messages.get(messages.size() - 1).getRoom_seq();
+            result.put("next_after_room_seq", lastSeq);
+        } else {
+            // 이전 메시지: 오름차순 정렬된 목록의 맨 앞이 가장 오래된 초과분
+            messages = chatService.readMessageListBefore(room_idx, before_room_seq, limit + 1);
+            hasMore = messages.size() > limit;
+            if (hasMore) {
+                messages = messages.subList(1, messages.size());
+            }
+            result.put("next_before_room_seq", hasMore ? messages.get(0).getRoom_seq() : null);
+        }
+        
+        result.put("success", true);
+        result.put("messages", messages);
+        result.put("has_more", hasMore);
+        return result;
+    }
+    
     //채팅방 내 메시지 검색
     @GetMapping("/room/{room_idx}/search")
     public ResponseEntity<List<MessageVO>> searchMessage(
             @PathVariable int room_idx, 
             @RequestParam String keyword, 
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        int member_idx = (Integer) session.getAttribute("member_idx");
+        int member_idx = principal.getMember_idx();
         List<MessageVO> messages = chatService.searchMessage(room_idx, keyword);
         return ResponseEntity.ok(messages);
     }
     
     //특정 채팅방의 읽지 않은 메시지 수 조회
     @GetMapping("/room/{room_idx}/unread")
-    public ResponseEntity<Map<String, Integer>> unreadCount(@PathVariable int room_idx, HttpSession session) {
-        int member_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<Map<String, Integer>> unreadCount(@PathVariable int room_idx, AuthPrincipal principal) {
+        int member_idx = principal.getMember_idx();
         int count = chatService.unreadCount(room_idx, member_idx);
         return ResponseEntity.ok(Map.of("unreadCount", count));
     }
     
+    //채팅방 접속 상태 조회 (입장 시 1회 조회, 이후 변경은 /topic/room/{room_idx}/presence 로 수신)
+    @GetMapping("/room/{room_idx}/presence")
+    public ResponseEntity<?> roomPresence(@PathVariable int room_idx, AuthPrincipal principal) {
+        int member_idx = principal.getMember_idx();
+        RoomVO room = chatService.readRoom(room_idx);
+        if (room == null || (room.getTrainer_idx() != member_idx && room.getUser_idx() != member_idx)) {
+            return ResponseEntity.status(403).body(Map.of("success", false, "msg", "채팅방 참여자만 조회할 수 있습니다."));
+        }
+        
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", true);
+        result.put("room_idx", room_idx);
+        result.put("present", chatPresenceRegistry.getRoomMembers(room_idx));
+        result.put("typing", chatPresenceRegistry.getTypingMembers(room_idx));
+        result.put("online", Map.of(
+            String.valueOf(room.getTrainer_idx()), chatPresenceRegistry.isOnline(room.getTrainer_idx()),
+            String.valueOf(room.getUser_idx()), chatPresenceRegistry.isOnline(room.getUser_idx())
+        ));
+        return ResponseEntity.ok(result);
+    }
+    
     //채팅 첨부파일 업로드 API
+    // 파일은 임시 파일로 받아 두고 미리 할당한 첨부파일 번호로 바로 응답 (pending)
+    // CDN 업로드가 끝나면 /topic/room/{room_idx}/attachment 로 attachment_uploaded 알림 전송
     @PostMapping("/upload")
     public ResponseEntity<Map<String, Object>> uploadFile(
             @RequestParam("file") MultipartFile file, 
             @RequestParam("message_idx") int message_idx, 
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        int member_idx = (Integer) session.getAttribute("member_idx");
+        int member_idx = principal.getMember_idx();
+        
+        if (!chatWriteRateLimiter.tryAcquire(member_idx)) {
+            return ResponseEntity.status(429).body(Map.of("success", false, "error", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요."));
+        }
         
         try {
-            // 1. 파일을 Cloudinary에 업로드
-            ChatAttachVO attachment = chatService.uploadFile(file);
-            
-            // 2. 메시지와 첨부파일 연결
-            chatService.linkAttachmentToMessage(message_idx, attachment.getAttach_idx());
+            int attach_idx = chatAttachmentUploader.submit(message_idx, file);
             
-            // 3. 메시지 정보를 조회하여 채팅방 정보 획득
-            MessageVO messageInfo = chatService.getMessage(message_idx);
-            if (messageInfo != null && messageInfo.getRoom_idx() > 0) {
-                // 4. 첨부파일 업로드 완료 실시간 알림 전송
-                try {
-                    Map<String, Object> uploadNotification = Map.of(
-                        "type", "attachment_uploaded",
-                        "message_idx", message_idx,
-                        "room_idx", messageInfo.getRoom_idx(),
-                        "cloudinary_url", attachment.getCloudinary_url(),
-                        "original_filename", attachment.getOriginal_filename(),
-                        "attach_idx", attachment.getAttach_idx(),
-                        "file_size_bytes", attachment.getFile_size_bytes(),
-                        "mime_type", attachment.getMime_type() != null ? attachment.getMime_type() : "image/jpeg",
-                        "timestamp", System.currentTimeMillis()
-                    );
-                    
-                    // 채팅방 첨부파일 전용 채널로 브로드캐스트
-                    messagingTemplate.convertAndSend("/topic/room/" + messageInfo.getRoom_idx() + "/attachment", uploadNotification);
-                } catch (Exception e) {
-                    // 브로드캐스트 실패는 파일 업로드 성공에 영향을 주지 않음
-                }
-            }
-            
-            // 5. 응답 데이터 구성
+            // 응답 데이터 구성 (URL 은 업로드 완료 알림으로 전달)
             Map<String, Object> result = new HashMap<>();
             result.put("success", true);
-            result.put("attachIdx", attachment.getAttach_idx());
-            result.put("originalFilename", attachment.getOriginal_filename());
-            result.put("cloudinaryUrl", attachment.getCloudinary_url());
-            result.put("fileSize", attachment.getFile_size_bytes());
-            result.put("mimeType", attachment.getMime_type());
+            result.put("pending", true);
+            result.put("attachIdx", attach_idx);
+            result.put("originalFilename", file.getOriginalFilename());
+            result.put("fileSize", file.getSize());
+            result.put("mimeType", file.getContentType());
             
             return ResponseEntity.ok(result);
             
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(503).body(Map.of("error", "업로드 요청이 많습니다. 잠시 후 다시 시도해주세요."));
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(Map.of("error", "파일 업로드 실패: " + e.getMessage()));
         }
@@ -211,8 +298,8 @@ public class ChatRestController {
     
     //채팅 첨부파일 삭제 API
     @DeleteMapping("/file/{attach_idx}")
-    public ResponseEntity<Map<String, Object>> deleteFile(@PathVariable int attach_idx, HttpSession session) {
-        int member_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<Map<String, Object>> deleteFile(@PathVariable int attach_idx, AuthPrincipal principal) {
+        int member_idx = principal.getMember_idx();
         
         try {
             boolean isDeleted = chatService.deleteFile(attach_idx);
@@ -229,8 +316,8 @@ public class ChatRestController {
     
     //특정 메시지의 첨부파일 정보 조회 API
     @GetMapping("/message/{message_idx}/files")
-    public ResponseEntity<ChatAttachVO> readFile(@PathVariable int message_idx, HttpSession session) {
-        int member_idx = (Integer) session.getAttribute("member_idx");
+    public ResponseEntity<ChatAttachVO> readFile(@PathVariable int message_idx, AuthPrincipal principal) {
+        int member_idx = principal.getMember_idx();
         
         ChatAttachVO attachment = chatService.readFile(message_idx);
         
@@ -245,9 +332,9 @@ public class ChatRestController {
     @DeleteMapping("/message/{message_idx}")
     public ResponseEntity<Map<String, Object>> deleteMessage(
             @PathVariable int message_idx, 
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        Integer member_idx = (Integer) session.getAttribute("member_idx");
+        Integer member_idx = principal.getMember_idx();
         Map<String, Object> result = new HashMap<>();
         
         if (member_idx == null) {
@@ -281,9 +368,9 @@ public class ChatRestController {
     public ResponseEntity<Map<String, Object>> reportMessage(
             @PathVariable int message_idx,
             @RequestBody Map<String, String> requestBody,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        Integer member_idx = (Integer) session.getAttribute("member_idx");
+        Integer member_idx = principal.getMember_idx();
         Map<String, Object> result = new HashMap<>();
         
         if (member_idx == null) {
@@ -292,6 +379,12 @@ public class ChatRestController {
             return ResponseEntity.status(401).body(result);
         }
         
+        if (!chatWriteRateLimiter.tryAcquire(member_idx)) {
+            result.put("success", false);
+            result.put("message", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+            return ResponseEntity.status(429).body(result);
+        }
+        
         String reportContent = requestBody.get("reportContent");
         if (reportContent == null || reportContent.trim().isEmpty()) {
             result.put("success", false);
@@ -323,9 +416,9 @@ public class ChatRestController {
     @GetMapping("/message/{message_idx}/parent")
     public ResponseEntity<Map<String, Object>> getParentMessage(
             @PathVariable int message_idx,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        Integer member_idx = (Integer) session.getAttribute("member_idx");
+        Integer member_idx = principal.getMember_idx();
         Map<String, Object> result = new HashMap<>();
         
         if (member_idx == null) {
@@ -358,18 +451,24 @@ public class ChatRestController {
     @PostMapping("/matching")
     public ResponseEntity<Map<String, Object>> createMatching(
             @RequestBody Map<String, Object> request, 
-            HttpSession session) {
+            AuthPrincipal principal) {
         
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer trainer_idx = (Integer) session.getAttribute("member_idx");
+            Integer trainer_idx = principal.getMember_idx();
             if (trainer_idx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
                 return ResponseEntity.status(401).body(result);
             }
             
+            if (!chatWriteRateLimiter.tryAcquire(trainer_idx)) {
+                result.put("success", false);
+                result.put("message", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+                return ResponseEntity.status(429).body(result);
+            }
+            
             Integer user_idx = Integer.valueOf(request.get("user_idx").toString());
             Integer matching_total = Integer.valueOf(request.get("matching_total").toString());
             
@@ -414,18 +513,24 @@ public class ChatRestController {
     @PutMapping("/accept/{matching_idx}")
     public ResponseEntity<Map<String, Object>> acceptMatching(
             @PathVariable int matching_idx, 
-            HttpSession session) {
+            AuthPrincipal principal) {
         
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer user_idx = (Integer) session.getAttribute("member_idx");
+            Integer user_idx = principal.getMember_idx();
             if (user_idx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
                 return ResponseEntity.status(401).body(result);
             }
             
+            if (!chatWriteRateLimiter.tryAcquire(user_idx)) {
+                result.put("success", false);
+                result.put("message", "요청이 너무 많습니다. 잠시 후 다시 시도해주세요.");
+                return ResponseEntity.status(429).body(result);
+            }
+            
             // 매칭 정보 확인 및 권한 검증
             MatchingVO targetMatching = matchingService.getMatching(matching_idx);
             if (targetMatching == null || targetMatching.getUser_idx() != user_idx) {
@@ -464,11 +569,11 @@ public class ChatRestController {
     
     //현재 회원의 모든 진행중인 매칭 확인 API
     @GetMapping("/check-current-user-active-matching")
-    public ResponseEntity<Map<String, Object>> checkCurrentUserActiveMatching(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> checkCurrentUserActiveMatching(AuthPrincipal principal) {
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer member_idx = (Integer) session.getAttribute("member_idx");
+            Integer member_idx = principal.getMember_idx();
             if (member_idx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
@@ -493,20 +598,20 @@ public class ChatRestController {
     @GetMapping("/check-target-user-active-matching/{user_idx}")
     public ResponseEntity<Map<String, Object>> checkTargetUserActiveMatching(
             @PathVariable("user_idx") int user_idx,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer currentMemberIdx = (Integer) session.getAttribute("member_idx");
+            Integer currentMemberIdx = principal.getMember_idx();
             if (currentMemberIdx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
                 return ResponseEntity.status(401).body(result);
             }
             
-            // 세션에서 member_type 가져오기
-            Object memberTypeObj = session.getAttribute("member_type");
+            // 인증 정보에서 member_type 가져오기
+            Object memberTypeObj = principal.getMember_type();
             String memberType = memberTypeObj != null ? memberTypeObj.toString() : null;
             
             // member_type이 null이거나 빈 문자열인 경우 DB에서 조회
@@ -515,8 +620,6 @@ public class ChatRestController {
                     MemberVO currentMember = memberService.getMemberByIdx(currentMemberIdx);
                     if (currentMember != null && currentMember.getMember_type() != null) {
                         memberType = currentMember.getMember_type();
-                        // 세션에 저장해서 다음에 사용
-                        session.setAttribute("member_type", memberType);
                     } else {
                         memberType = null;
                     }
@@ -554,12 +657,12 @@ public class ChatRestController {
     @GetMapping("/matching/{matching_idx}/status")
     public ResponseEntity<Map<String, Object>> getMatchingStatus(
             @PathVariable int matching_idx,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer member_idx = (Integer) session.getAttribute("member_idx");
+            Integer member_idx = principal.getMember_idx();
             if (member_idx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
@@ -597,12 +700,12 @@ public class ChatRestController {
     @GetMapping("/matching/price/{matching_total}")
     public ResponseEntity<Map<String, Object>> calculateMatchingPrice(
             @PathVariable int matching_total,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
         Map<String, Object> result = new HashMap<>();
         
         try {
-            Integer member_idx = (Integer) session.getAttribute("member_idx");
+            Integer member_idx = principal.getMember_idx();
             if (member_idx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
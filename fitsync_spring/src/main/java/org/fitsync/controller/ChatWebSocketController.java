@@ -1,13 +1,21 @@
 package org.fitsync.controller;
 
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.ConcurrentHashMap;
 
+import javax.annotation.PostConstruct;
+
+import org.fitsync.domain.MatchingPayload;
 import org.fitsync.domain.MessageVO;
 import org.fitsync.domain.ReportVO;
+import org.fitsync.service.ChatMessageWriteBehind;
 import org.fitsync.service.ChatService;
 import org.fitsync.service.ReportServiceImple;
+import org.fitsync.util.ChatMetrics;
+import org.fitsync.util.DedupeCache;
+import org.fitsync.util.RateLimiter;
+import org.fitsync.websocket.ChatPresenceRegistry;
+import org.fitsync.websocket.ChatRoomDispatcher;
+import org.fitsync.websocket.ReadReceiptCoalescer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.messaging.handler.annotation.MessageMapping;
 import org.springframework.messaging.handler.annotation.Payload;
@@ -18,6 +26,15 @@ import org.springframework.stereotype.Controller;
 @Controller
 public class ChatWebSocketController {
 
+    // 처리 구간 이름 (관리자 지표 조회 시 키)
+    private static final String METRIC_SEND = "ws./chat.send";
+    private static final String METRIC_SEND_QUEUE = "ws./chat.send.queue_wait";
+    private static final String METRIC_READ = "ws./chat.read";
+    private static final String METRIC_DELETE = "ws./chat.delete";
+    private static final String METRIC_MATCHING_STATUS = "ws./matching.status";
+    private static final String METRIC_TYPING = "ws./chat.typing";
+    private static final String METRIC_BROADCAST = "broadcast.room";
+
     @Autowired
     private ChatService chatService;
     
@@ -27,12 +44,91 @@ public class ChatWebSocketController {
     @Autowired
     private SimpMessagingTemplate messagingTemplate;
     
-    // 중복 메시지 처리 방지를 위한 Set (메모리 기반)
-    private final Set<String> processedMessages = ConcurrentHashMap.newKeySet();
+    @Autowired
+    private ChatRoomDispatcher chatRoomDispatcher;
+    
+    @Autowired
+    private ReadReceiptCoalescer readReceiptCoalescer;
+    
+    // 중복 메시지 처리 방지 캐시 (unique_id 기준, TTL + 최대 개수 제한)
+    @Autowired
+    private DedupeCache chatMessageDedupe;
+    
+    @Autowired
+    private ChatMetrics chatMetrics;
+    
+    @Autowired
+    private ChatPresenceRegistry chatPresenceRegistry;
+    
+    // 회원별 전송 제한 (토큰 버킷)
+    @Autowired
+    private RateLimiter chatSendRateLimiter;
+    
+    @Autowired
+    private ChatMessageWriteBehind messageWriteBehind;
     
-    //실시간 메시지 전송 처리
+    @PostConstruct
+    public void init() {
+        messageWriteBehind.addLostListener(this::notifyMessageLost);
+    }
+    
+    //지연 저장에 끝내 실패한 메시지 알림 (이미 브로드캐스트된 메시지를 양쪽 화면에서 제거하고 보낸 사용자에게 실패 안내)
+    private void notifyMessageLost(MessageVO vo) {
+        messagingTemplate.convertAndSend("/topic/room/" + vo.getRoom_idx() + "/delete", Map.of(
+            "type", "message_deleted",
+            "message_idx", vo.getMessage_idx(),
+            "room_idx", vo.getRoom_idx(),
+            "deleted_by", vo.getSender_idx(),
+            "reason", "persist_failed",
+            "timestamp", System.currentTimeMillis()
+        ));
+        messagingTemplate.convertAndSendToUser(String.valueOf(vo.getSender_idx()), "/queue/notification", Map.of(
+            "type", "message_failed",
+            "room_idx", vo.getRoom_idx(),
+            "message_idx", vo.getMessage_idx(),
+            "message", "메시지 저장에 실패했습니다. 다시 보내주세요.",
+            "timestamp", System.currentTimeMillis()
+        ));
+    }
+    
+    //실시간 메시지 전송 처리 (채팅방 단위로 순서를 보장하며 채팅방 간에는 병렬 처리)
     @MessageMapping("/chat.send")
-    public synchronized void sendMessage(@Payload Map<String, Object> message, SimpMessageHeaderAccessor headerAccessor) {
+    public void sendMessage(@Payload Map<String, Object> message, SimpMessageHeaderAccessor headerAccessor) {
+        long receivedNanos = chatMetrics.start();
+        Integer room_idx = extractIntegerFromMessage(message, "room_idx");
+        if (room_idx == null) {
+            chatMetrics.fail(METRIC_SEND, "invalid_payload");
+            return;
+        }
+        if (!allowSend(headerAccessor, message, "sender_idx", METRIC_SEND, room_idx)) {
+            return;
+        }
+        
+        boolean accepted = chatRoomDispatcher.dispatch(room_idx, () -> processMessage(message, receivedNanos));
+        
+        // 채팅방 대기열이 가득 찬 경우 보낸 사용자에게만 재시도 안내
+        if (!accepted) {
+            chatMetrics.fail(METRIC_SEND, "dispatcher_full");
+            Integer sender_idx = extractIntegerFromMessage(message, "sender_idx");
+            if (sender_idx != null) {
+                try {
+                    Map<String, Object> busyNotification = Map.of(
+                        "type", "server_busy",
+                        "room_idx", room_idx,
+                        "unique_id", String.valueOf(message.get("unique_id")),
+                        "timestamp", System.currentTimeMillis()
+                    );
+                    messagingTemplate.convertAndSendToUser(sender_idx.toString(), "/queue/notification", busyNotification);
+                } catch (Exception e) {
+                    // 재시도 안내 전송 실패
+                }
+            }
+        }
+    }
+    
+    //채팅방 디스패처 스레드에서 실행되는 실제 메시지 처리
+    private void processMessage(Map<String, Object> message, long receivedNanos) {
+        chatMetrics.record(METRIC_SEND_QUEUE, receivedNanos);
         try {
             // 기본 메시지 데이터 추출 및 검증
             Integer sender_idx = extractIntegerFromMessage(message, "sender_idx");
@@ -46,6 +142,7 @@ public class ChatWebSocketController {
             // 필수 값 검증
             if (sender_idx == null || receiver_idx == null || room_idx == null || 
                 message_content == null || message_content.trim().isEmpty()) {
+                chatMetrics.fail(METRIC_SEND, "invalid_payload");
                 return;
             }
             
@@ -73,32 +170,19 @@ public class ChatWebSocketController {
                             blockNotification
                         );
                         
+                        chatMetrics.fail(METRIC_SEND, "blocked_sender");
                         return; // 메시지 처리 중단
                     }
                 }
             } catch (Exception e) {
                 // 차단 상태 확인 실패 시에도 메시지 처리 계속 진행
+                chatMetrics.fail(METRIC_SEND, "block_check_error");
             }
             
-            // 매칭 요청 메시지인 경우 매칭 데이터 추출 및 검증
-            Map<String, Object> matching_data = null;
-            if ("matching_request".equals(message_type)) {
-                matching_data = (Map<String, Object>) message.get("matching_data");
-                
-                // 매칭 데이터 유효성 검증
-                if (matching_data != null && !matching_data.isEmpty()) {
-                    // 필수 필드 확인
-                    Object matchingIdx = matching_data.get("matching_idx");
-                    Object trainerIdx = matching_data.get("trainer_idx");
-                    Object userIdx = matching_data.get("user_idx");
-                    Object matchingTotal = matching_data.get("matching_total");
-                    
-                    if (matchingIdx == null || trainerIdx == null || userIdx == null || matchingTotal == null) {
-                        matching_data = null; // 필수 필드 누락 시 매칭 데이터 무효화
-                    }
-                } else {
-                    matching_data = null;
-                }
+            // 매칭 요청 메시지인 경우 매칭 데이터 추출 및 검증 (필수 필드 누락 시 null)
+            MatchingPayload matching_payload = null;
+            if ("matching_request".equals(message_type) && message.get("matching_data") instanceof Map) {
+                matching_payload = MatchingPayload.from((Map<String, Object>) message.get("matching_data"));
             }
             
             // 메시지 타입 기본값 설정
@@ -108,17 +192,10 @@ public class ChatWebSocketController {
             
             // 중복 메시지 검사 및 처리
             if (unique_id != null && !unique_id.trim().isEmpty()) {
-                if (processedMessages.contains(unique_id)) {
+                if (!chatMessageDedupe.markIfAbsent(unique_id)) {
+                    chatMetrics.fail(METRIC_SEND, "duplicate");
                     return; // 이미 처리된 메시지면 중단
                 }
-                
-                processedMessages.add(unique_id);
-                
-                // 메모리 관리: 1000개 초과 시 초기화
-                if (processedMessages.size() > 1000) {
-                    processedMessages.clear();
-                    processedMessages.add(unique_id);
-                }
             }
             
             // MessageVO 객체 생성 및 설정
@@ -131,9 +208,9 @@ public class ChatWebSocketController {
             vo.setParent_idx(parent_idx);
             vo.setAttach_idx(null); // 첨부파일은 별도 처리
             
-            // 매칭 데이터 설정 (Map 형태로 저장)
-            if (matching_data != null && !matching_data.isEmpty()) {
-                vo.setMatching_data_map(matching_data);
+            // 매칭 데이터 설정 (DB 저장과 브로드캐스트에 쓸 JSON 문자열은 여기서 한 번만 생성)
+            if (matching_payload != null) {
+                vo.setMatching_payload(matching_payload);
             }
             
             // 메시지 DB 저장
@@ -141,7 +218,9 @@ public class ChatWebSocketController {
             try {
                 savedMessage = chatService.registerMessage(vo);
                 if (savedMessage == null) {
-                    // 저장 실패 시 원본 객체 사용
+                    // 저장 실패 시 원본 객체 사용 (클라이언트 재전송이 중복으로 버려지지 않도록 unique_id 해제)
+                    chatMetrics.fail(METRIC_SEND, "db_save_failed");
+                    releaseUniqueId(unique_id);
                     savedMessage = vo;
                     if (savedMessage.getMessage_idx() == 0) {
                         savedMessage.setMessage_idx(-1); // 실패 표시
@@ -149,6 +228,8 @@ public class ChatWebSocketController {
                 }
             } catch (Exception e) {
                 // 예외 발생 시 원본 객체 사용
+                chatMetrics.fail(METRIC_SEND, "db_" + e.getClass().getSimpleName());
+                releaseUniqueId(unique_id);
                 savedMessage = vo;
                 savedMessage.setMessage_idx(-1);
             }
@@ -162,34 +243,55 @@ public class ChatWebSocketController {
             // 일반 메시지 브로드캐스트
             if (savedMessage != null) {
                 try {
-                    savedMessage.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
-                    
-                    // 매칭 데이터도 브로드캐스트에 포함 (Map 형태로)
-                    if (savedMessage.hasMatchingData()) {
-                        Map<String, Object> matchingDataMap = savedMessage.getMatchingDataAsMap();
-                        savedMessage.setMatching_data_map(matchingDataMap);
+                    if (savedMessage.getMessage_senddate() == null) {
+                        savedMessage.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
                     }
                     
                     // 채팅방 구독자들에게 실시간 브로드캐스트
-                    messagingTemplate.convertAndSend("/topic/room/" + room_idx, savedMessage);
+                    broadcastToRoom(room_idx, savedMessage);
                     
                 } catch (Exception e) {
-                    // 브로드캐스트 실패는 로그만 남기고 계속 진행
+                    // 브로드캐스트 실패는 집계만 하고 계속 진행
                 }
             }
             
         } catch (Exception e) {
             // 전체 메시지 처리 실패 시에도 예외를 던지지 않음
+            chatMetrics.fail(METRIC_SEND, e);
+        } finally {
+            chatMetrics.record(METRIC_SEND, receivedNanos);
+        }
+    }
+    
+    //저장에 실패한 메시지의 중복 검사 키 해제 (재전송 허용)
+    private void releaseUniqueId(String unique_id) {
+        if (unique_id != null && !unique_id.trim().isEmpty()) {
+            chatMessageDedupe.remove(unique_id);
+        }
+    }
+    
+    //채팅방 브로드캐스트 (전송 시간과 실패 집계)
+    private void broadcastToRoom(Integer room_idx, MessageVO savedMessage) {
+        long startNanos = chatMetrics.start();
+        try {
+            messagingTemplate.convertAndSend("/topic/room/" + room_idx, savedMessage);
+        } catch (RuntimeException e) {
+            chatMetrics.fail(METRIC_BROADCAST, e);
+            throw e;
+        } finally {
+            chatMetrics.record(METRIC_BROADCAST, startNanos);
         }
     }
     
     //이미지 메시지 특별 처리 메서드
     private void handleImageMessageBroadcast(MessageVO savedMessage, Integer room_idx) {
         try {
-            savedMessage.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
+            if (savedMessage.getMessage_senddate() == null) {
+                savedMessage.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
+            }
             
             // attach_idx가 없어도 즉시 브로드캐스트 (첨부파일 정보는 별도 업데이트)
-            messagingTemplate.convertAndSend("/topic/room/" + room_idx, savedMessage);
+            broadcastToRoom(room_idx, savedMessage);
             
         } catch (Exception e) {
             // 이미지 메시지 브로드캐스트 실패 로그
@@ -199,6 +301,7 @@ public class ChatWebSocketController {
     //매칭 상태 변경 브로드캐스트
     @MessageMapping("/matching.status")
     public void broadcastMatchingStatus(@Payload Map<String, Object> statusData) {
+        long startNanos = chatMetrics.start();
         try {
             Integer trainer_idx = extractIntegerFromMessage(statusData, "trainer_idx");
             Integer user_idx = extractIntegerFromMessage(statusData, "user_idx");
@@ -206,6 +309,7 @@ public class ChatWebSocketController {
             Integer matching_idx = extractIntegerFromMessage(statusData, "matching_idx");
             
             if (trainer_idx == null || user_idx == null || status_type == null) {
+                chatMetrics.fail(METRIC_MATCHING_STATUS, "invalid_payload");
                 return;
             }
             
@@ -227,60 +331,72 @@ public class ChatWebSocketController {
             
         } catch (Exception e) {
             // 매칭 상태 브로드캐스트 실패
+            chatMetrics.fail(METRIC_MATCHING_STATUS, e);
+        } finally {
+            chatMetrics.record(METRIC_MATCHING_STATUS, startNanos);
         }
     }
     
-    //메시지 읽음 처리
+    //메시지 읽음 처리 (message_idx 까지 모두 읽음 - 워터마크 방식)
     @MessageMapping("/chat.read")
     public void markAsRead(@Payload Map<String, Object> readData) {
+        long startNanos = chatMetrics.start();
         try {
             Integer receiver_idx = extractIntegerFromMessage(readData, "receiver_idx");
-            Integer message_idx = extractIntegerFromMessage(readData, "message_idx");
+            Integer room_seq = extractIntegerFromMessage(readData, "room_seq");
             Integer room_idx = extractIntegerFromMessage(readData, "room_idx");
             
-            if (receiver_idx == null || message_idx == null || room_idx == null) {
+            if (receiver_idx == null || room_seq == null || room_idx == null) {
+                chatMetrics.fail(METRIC_READ, "invalid_payload");
                 return;
             }
             
-            // DB에서 읽음 상태 업데이트
-            int result = 0;
-            try {
-                result = chatService.readMark(message_idx, receiver_idx);
-            } catch (Exception e) {
+            // 같은 채팅방의 연속된 읽음 요청은 병합되어 범위 UPDATE 1회, 읽음 알림 1회로 처리
+            readReceiptCoalescer.submit(room_idx, receiver_idx, room_seq);
+            
+        } catch (Exception e) {
+            // 읽음 처리 전체 실패
+            chatMetrics.fail(METRIC_READ, e);
+        } finally {
+            chatMetrics.record(METRIC_READ, startNanos);
+        }
+    }
+    
+    //입력 중 상태 전송 (DB 저장 없이 회원/채팅방별 간격 제한으로 병합해 /topic/room/{room_idx}/presence 로 전달)
+    @MessageMapping("/chat.typing")
+    public void handleTyping(@Payload Map<String, Object> typingData, SimpMessageHeaderAccessor headerAccessor) {
+        long startNanos = chatMetrics.start();
+        try {
+            Integer room_idx = extractIntegerFromMessage(typingData, "room_idx");
+            if (room_idx == null) {
+                chatMetrics.fail(METRIC_TYPING, "invalid_payload");
                 return;
             }
             
-            // 읽음 처리 성공 시 상대방에게 읽음 확인 알림 전송
-            if (result > 0) {
-                try {
-                    String readTopic = "/topic/room/" + room_idx + "/read";
-                    Map<String, Object> readNotification = Map.of(
-                        "message_idx", message_idx, 
-                        "receiver_idx", receiver_idx,
-                        "read_time", System.currentTimeMillis()
-                    );
-                    
-                    // 채팅방 읽음 전용 채널로 브로드캐스트
-                    messagingTemplate.convertAndSend(readTopic, readNotification);
-                } catch (Exception e) {
-                    // 읽음 확인 브로드캐스트 실패
-                }
-            }
+            boolean typing = Boolean.parseBoolean(extractStringFromMessage(typingData, "typing"));
+            chatPresenceRegistry.typing(headerAccessor.getSessionId(), room_idx, typing);
             
         } catch (Exception e) {
-            // 읽음 처리 전체 실패
+            chatMetrics.fail(METRIC_TYPING, e);
+        } finally {
+            chatMetrics.record(METRIC_TYPING, startNanos);
         }
     }
     
     //메시지 삭제 알림 처리
     @MessageMapping("/chat.delete")
     public void handleMessageDelete(@Payload Map<String, Object> deleteData, SimpMessageHeaderAccessor headerAccessor) {
+        long startNanos = chatMetrics.start();
         try {
             Integer messageIdx = extractIntegerFromMessage(deleteData, "message_idx");
             Integer roomIdx = extractIntegerFromMessage(deleteData, "room_idx");
             Integer deletedBy = extractIntegerFromMessage(deleteData, "deleted_by");
             
             if (messageIdx == null || roomIdx == null || deletedBy == null) {
+                chatMetrics.fail(METRIC_DELETE, "invalid_payload");
+                return;
+            }
+            if (!allowSend(headerAccessor, deleteData, "deleted_by", METRIC_DELETE, roomIdx)) {
                 return;
             }
             
@@ -299,11 +415,41 @@ public class ChatWebSocketController {
                 
             } catch (Exception e) {
                 // 삭제 알림 브로드캐스트 실패
+                chatMetrics.fail(METRIC_DELETE, "broadcast_" + e.getClass().getSimpleName());
             }
             
         } catch (Exception e) {
             // 메시지 삭제 알림 처리 전체 실패
+            chatMetrics.fail(METRIC_DELETE, e);
+        } finally {
+            chatMetrics.record(METRIC_DELETE, startNanos);
+        }
+    }
+    
+    //회원별 전송 제한 확인 (초과 시 보낸 사용자에게만 rate_limited 알림)
+    // 회원은 WebSocket 세션의 member_idx(핸드셰이크 시 인증 정보에서 복사), 없으면 메시지의 보낸 사람 값으로 식별
+    private boolean allowSend(SimpMessageHeaderAccessor headerAccessor, Map<String, Object> message, String senderKey, String metric, Integer room_idx) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        Object sessionMember = attributes != null ? attributes.get("member_idx") : null;
+        Integer member_idx = sessionMember instanceof Integer ? (Integer) sessionMember : extractIntegerFromMessage(message, senderKey);
+        if (member_idx == null || chatSendRateLimiter.tryAcquire(member_idx)) {
+            return true;
+        }
+        
+        chatMetrics.fail(metric, "rate_limited");
+        try {
+            Map<String, Object> limitNotification = Map.of(
+                "type", "rate_limited",
+                "room_idx", room_idx,
+                "unique_id", String.valueOf(message.get("unique_id")),
+                "message", "메시지를 너무 빠르게 보내고 있습니다. 잠시 후 다시 시도해주세요.",
+                "timestamp", System.currentTimeMillis()
+            );
+            messagingTemplate.convertAndSendToUser(member_idx.toString(), "/queue/notification", limitNotification);
+        } catch (Exception e) {
+            // 제한 알림 전송 실패
         }
+        return false;
     }
     
     //메시지에서 안전하게 Integer 값을 추출하는 유틸리티 메서드
@@ -5,9 +5,9 @@ import java.util.List;
 import java.util.Map;
 
 import javax.servlet.http.HttpServletRequest;
-import javax.servlet.http.HttpSession;
 import javax.servlet.http.Cookie;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.BodyVO;
 import org.fitsync.domain.ChatAttachVO;
 import org.fitsync.domain.MemberVO;
@@ -53,7 +53,7 @@ public class MemberController {
 	private JwtUtil jwtUtil;
 	
 	@PostMapping("/register")
-	public ResponseEntity<Map<String, Object>> register(@RequestBody Map<String, String> body, HttpSession session) {
+	public ResponseEntity<Map<String, Object>> register(@RequestBody Map<String, String> body, AuthPrincipal principal) {
 	    MemberVO vo = service.getFindUser(body.get("member_email"));
 	    Map<String, Object> result = new HashMap<>();
 	    if (vo == null) {
@@ -134,8 +134,8 @@ public class MemberController {
 	
 	// 특정 유저의 기본정보와 가장 최신의 신체 정보 전달
 	@GetMapping(value = "/info/all")
-    public ResponseEntity<Map<String, Object>> getMemberInfoWithBody(HttpSession session) {
-		Object memberIdx = session.getAttribute("member_idx");
+    public ResponseEntity<Map<String, Object>> getMemberInfoWithBody(AuthPrincipal principal) {
+		Object memberIdx = principal.getMember_idx();
 		
 		MemberVO member = service.getMemberForAIRecommendation((int) memberIdx);
 		log.info("Member Info: " + member);
@@ -158,9 +158,9 @@ public class MemberController {
     @PostMapping("/update-profile-image")
     public ResponseEntity<?> updateProfileImage(
             @RequestParam("file") MultipartFile file,
-            HttpSession session) {
+            AuthPrincipal principal) {
 
-        Object sessionIdx = session.getAttribute("member_idx");
+        Object sessionIdx = principal.getMember_idx();
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
@@ -178,8 +178,8 @@ public class MemberController {
     
     // 프로필 신고
     @PostMapping("/report/profile")
-    public ResponseEntity<?> reportUser(@RequestBody Map<String, Object> data, HttpSession session) {
-        Object sessionIdx = session.getAttribute("member_idx");
+    public ResponseEntity<?> reportUser(@RequestBody Map<String, Object> data, AuthPrincipal principal) {
+        Object sessionIdx = principal.getMember_idx();
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
@@ -213,8 +213,8 @@ public class MemberController {
     
     // UserProfileModal 사용자 프로필 신고
     @PostMapping("/report/user-profile")
-    public ResponseEntity<?> reportUserProfile(@RequestBody Map<String, Object> data, HttpSession session) {
-        Object sessionIdx = session.getAttribute("member_idx");
+    public ResponseEntity<?> reportUserProfile(@RequestBody Map<String, Object> data, AuthPrincipal principal) {
+        Object sessionIdx = principal.getMember_idx();
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
@@ -253,10 +253,10 @@ public class MemberController {
     
     // 리뷰 신고
     @PostMapping("/report/review")
-    public ResponseEntity<?> reportReview(@RequestBody Map<String, Object> data, HttpSession session) {
+    public ResponseEntity<?> reportReview(@RequestBody Map<String, Object> data, AuthPrincipal principal) {
         System.out.println("신고 요청 데이터: " + data);
 
-        Object sessionIdx = session.getAttribute("member_idx");
+        Object sessionIdx = principal.getMember_idx();
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
         }
@@ -312,12 +312,12 @@ public class MemberController {
 
     // 회원 프로필 정보 조회(채팅창)
     @GetMapping("/user/profile/{memberIdx}")
-    public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable int memberIdx, HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getUserProfile(@PathVariable int memberIdx, AuthPrincipal principal) {
         Map<String, Object> result = new HashMap<>();
         
         try {
         	// 세션 확인
-            Object sessionIdx = session.getAttribute("member_idx");
+            Object sessionIdx = principal.getMember_idx();
             if (sessionIdx == null) {
                 result.put("success", false);
                 result.put("message", "로그인이 필요합니다.");
@@ -5,20 +5,28 @@ import org.fitsync.domain.ReportVO;
 import org.fitsync.service.MemberServiceImple;
 import org.fitsync.service.ReportServiceImple;
 import org.fitsync.util.JwtUtil;
+import org.fitsync.util.OAuthHttpClient;
+import org.fitsync.util.VerifiedToken;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.web.bind.annotation.*;
-import org.springframework.web.client.RestTemplate;
+import org.springframework.web.context.request.async.DeferredResult;
+
+import com.fasterxml.jackson.databind.JsonNode;
 
-import javax.servlet.http.HttpSession;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.CompletableFuture;
 
 @RestController
 @RequestMapping("/auth")
 public class NaverAuthController {
 
+    // 로그인 요청 state 를 담는 쿠키 (세션 없이 콜백에서 검증)
+    private static final String STATE_COOKIE = "naver_oauth_state";
+    private static final int STATE_MAX_AGE_SECONDS = 10 * 60;
+
     @Value("${naver.client.id}")
     private String clientId;
 
@@ -28,17 +36,34 @@ public class NaverAuthController {
     @Value("${naver.redirect.uri}")
     private String redirectUri;
 
+    /**
+     * 네이버 인증/API 서버 주소 (로컬 스텁 서버로 바꿔 확인할 수 있음)
+     */
+    @Value("${oauth.naver.auth.url:https://nid.naver.com}")
+    private String naverAuthUrl;
+
+    @Value("${oauth.naver.api.url:https://openapi.naver.com}")
+    private String naverApiUrl;
+
+    /**
+     * 로그인 응답 대기 상한 (공급자가 느려도 이 시간 안에 실패 응답)
+     */
+    @Value("${oauth.login.timeout.ms:5000}")
+    private long loginTimeoutMs;
+
     @Autowired
     private MemberServiceImple service;
     @Autowired
     private ReportServiceImple reportService;
     @Autowired
     private JwtUtil jwtUtil;
+    @Autowired
+    private OAuthHttpClient oauthHttpClient;
 
+    // state 는 HttpOnly 쿠키로 내려 보내고 콜백에서 비교 (HttpSession 을 만들지 않음)
     @GetMapping("/naver/url")
-    public Map<String, Object> getNaverLoginUrl(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getNaverLoginUrl() {
         String state = java.util.UUID.randomUUID().toString();
-        session.setAttribute("naver_oauth_state", state);
         String loginUrl = "https://nid.naver.com/oauth2.0/authorize"
                 + "?response_type=code"
                 + "&client_id=" + clientId
@@ -47,144 +72,142 @@ public class NaverAuthController {
         Map<String, Object> result = new HashMap<>();
         result.put("loginUrl", loginUrl);
         result.put("provider", "naver");
-        return result;
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, stateCookie(state, STATE_MAX_AGE_SECONDS))
+                .body(result);
+    }
+
+    private static String stateCookie(String value, int maxAgeSeconds) {
+        return STATE_COOKIE + "=" + value + "; HttpOnly; Path=/; Max-Age=" + maxAgeSeconds + "; SameSite=Lax";
     }
 
     // 네이버 콜백 (GET /auth/naver/callback)
+    // 공급자 응답은 공용 클라이언트가 비동기로 받고, 서블릿 스레드는 DeferredResult 를 돌려주고 바로 반환
     @GetMapping("/naver/callback")
-    public ResponseEntity<Map<String, Object>> naverCallback(
+    public DeferredResult<ResponseEntity<Map<String, Object>>> naverCallback(
             @RequestParam String code,
             @RequestParam String state,
-            HttpSession session
+            @CookieValue(value = STATE_COOKIE, required = false) String cookieState
     ) {
-        Map<String, Object> result = new HashMap<>();
-        try {
-            // state 검증
-            String sessionState = (String) session.getAttribute("naver_oauth_state");
-            if (sessionState == null || !sessionState.equals(state)) {
-                result.put("success", false);
-                result.put("message", "잘못된 접근(state 불일치)");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(result);
-            }
-            session.removeAttribute("naver_oauth_state");
-
-            // 토큰 요청
-            String tokenUrl = "https://nid.naver.com/oauth2.0/token"
-                    + "?grant_type=authorization_code"
-                    + "&client_id=" + clientId
-                    + "&client_secret=" + clientSecret
-                    + "&code=" + code
-                    + "&state=" + state;
-
-            RestTemplate restTemplate = new RestTemplate();
-            ResponseEntity<Map> tokenResponse = restTemplate.getForEntity(tokenUrl, Map.class);
-
-            if (tokenResponse.getStatusCode() != HttpStatus.OK
-                    || !tokenResponse.getBody().containsKey("access_token")) {
-                result.put("success", false);
-                result.put("message", "토큰 발급 실패");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
-            }
-
-            String accessToken = (String) tokenResponse.getBody().get("access_token");
-
-            // 사용자 정보 요청
-            HttpHeaders headers = new HttpHeaders();
-            headers.add("Authorization", "Bearer " + accessToken);
-            HttpEntity<?> entity = new HttpEntity<>(headers);
-
-            ResponseEntity<Map> profileResponse = restTemplate.exchange(
-                    "https://openapi.naver.com/v1/nid/me",
-                    HttpMethod.GET, entity, Map.class);
-
-            if (profileResponse.getStatusCode() != HttpStatus.OK) {
-                result.put("success", false);
-                result.put("message", "사용자 정보 조회 실패");
-                return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(result);
-            }
-
-            Map responseBody = profileResponse.getBody();
-            Map userInfo = (Map) responseBody.get("response");
-
-            // 사용자 정보로 JWT 발급 및 응답
-            MemberVO vo = service.getFindUser((String) userInfo.get("email"));
-            Map<String, Object> user = new HashMap<>();
-            if (vo != null) {
-            	// 제재 정보 확인
-            	ReportVO rvo = reportService.getBlockData(vo.getMember_idx());
-            	
-                // JWT 생성 (member_idx만 저장)
-            	 String jwt = jwtUtil.generateToken(
-                     vo.getMember_idx(),
-                     rvo.getReport_time(),
-                     rvo.getBlock_count(),
-                     vo.getMember_email()
-                 );
-                
-                session.setAttribute("member_idx", vo.getMember_idx());
-
-                String cookieValue = "accessToken=" + jwt + "; HttpOnly; Path=/; Max-Age=" + (7 * 24 * 60 * 60) + "; SameSite=Lax";
-
-                user.put("member_email", vo.getMember_email());
-                user.put("member_name", vo.getMember_name());
-                user.put("member_image", vo.getMember_image());
-                user.put("member_type", vo.getMember_type());
-                user.put("member_idx", vo.getMember_idx());
-                user.put("provider", "naver");
-                user.put("isLogin", true);
-
-                result.put("success", true);
-                result.put("user", user);
-
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.SET_COOKIE, cookieValue)
-                        .body(result);
-            } else {
-                // 신규 회원도 JWT 발급
-                String jwt = jwtUtil.generateToken(-1, null, 0, ""); // 신규 회원은 임시값(-1) 또는 email 등으로 처리
-                String cookieValue = "accessToken=" + jwt + "; HttpOnly; Path=/; Max-Age=" + (7 * 24 * 60 * 60) + "; SameSite=Lax";
-
-                user.put("member_name", userInfo.get("name"));
-                user.put("member_email", userInfo.get("email"));
-                user.put("member_image", userInfo.get("profile_image"));
-                user.put("provider", "naver");
-                user.put("isLogin", false);
-
-                result.put("success", true);
-                result.put("user", user);
-
-                return ResponseEntity.ok()
-                        .header(HttpHeaders.SET_COOKIE, cookieValue)
-                        .body(result);
-            }
-        } catch (Exception e) {
-            result.put("success", false);
-            result.put("message", "네이버 로그인 처리 중 오류: " + e.getMessage());
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(result);
+        DeferredResult<ResponseEntity<Map<String, Object>>> deferred =
+                new DeferredResult<>(loginTimeoutMs, errorResponse(HttpStatus.GATEWAY_TIMEOUT, "네이버 로그인 응답 시간 초과"));
+
+        // state 검증 (로그인 URL 발급 시 내려 보낸 쿠키와 비교)
+        if (cookieState == null || !cookieState.equals(state)) {
+            deferred.setResult(errorResponse(HttpStatus.FORBIDDEN, "잘못된 접근(state 불일치)"));
+            return deferred;
         }
+
+        // 토큰 요청
+        String tokenUrl = naverAuthUrl + "/oauth2.0/token"
+                + "?grant_type=authorization_code"
+                + "&client_id=" + clientId
+                + "&client_secret=" + clientSecret
+                + "&code=" + code
+                + "&state=" + state;
+
+        oauthHttpClient.getJson("naver", tokenUrl, null)
+            .thenCompose(tokenResponse -> {
+                if (!tokenResponse.hasNonNull("access_token")) {
+                    return CompletableFuture.completedFuture(errorResponse(HttpStatus.UNAUTHORIZED, "토큰 발급 실패"));
+                }
+                // 사용자 정보 요청 (회원 조회/토큰 발급은 HTTP 응답 처리 스레드가 아닌 로그인 처리 실행기에서)
+                return oauthHttpClient.getJson("naver", naverApiUrl + "/v1/nid/me", tokenResponse.get("access_token").asText())
+                    .thenApplyAsync(profileResponse -> loginResponse(profileResponse.path("response")), oauthHttpClient.getLoginExecutor());
+            })
+            .whenComplete((response, error) -> {
+                if (error != null) {
+                    Throwable e = OAuthHttpClient.unwrap(error);
+                    deferred.setResult(errorResponse(HttpStatus.INTERNAL_SERVER_ERROR, "네이버 로그인 처리 중 오류: " + e.getMessage()));
+                } else {
+                    // 사용한 state 쿠키 제거
+                    deferred.setResult(ResponseEntity.status(response.getStatusCode())
+                            .headers(response.getHeaders())
+                            .header(HttpHeaders.SET_COOKIE, stateCookie("", 0))
+                            .body(response.getBody()));
+                }
+            });
+        return deferred;
     }
 
-    // 네이버 로그인 상태 확인 (GET /auth/naver/status)
-    @GetMapping("/naver/status")
-    public ResponseEntity<Map<String, Object>> naverStatus(HttpSession session) {
+    // 네이버 사용자 정보로 로그인 응답 생성 (세션은 만들지 않음)
+    private ResponseEntity<Map<String, Object>> loginResponse(JsonNode userInfo) {
         Map<String, Object> result = new HashMap<>();
-        Object memberIdx = session.getAttribute("member_idx");
-        if (memberIdx != null) {
-            result.put("isLoggedIn", true);
-            // 필요시 user 정보도 추가
+
+        // 사용자 정보로 JWT 발급 및 응답
+        MemberVO vo = service.getFindUser(userInfo.path("email").asText(null));
+        Map<String, Object> user = new HashMap<>();
+        if (vo != null) {
+        	// 제재 정보 확인
+        	ReportVO rvo = reportService.getBlockData(vo.getMember_idx());
+        	
+            // JWT 생성 (member_idx만 저장)
+        	 String jwt = jwtUtil.generateToken(
+                 vo.getMember_idx(),
+                 rvo.getReport_time(),
+                 rvo.getBlock_count(),
+                 vo.getMember_email()
+             );
+
+            String cookieValue = "accessToken=" + jwt + "; HttpOnly; Path=/; Max-Age=" + (7 * 24 * 60 * 60) + "; SameSite=Lax";
+
+            user.put("member_email", vo.getMember_email());
+            user.put("member_name", vo.getMember_name());
+            user.put("member_image", vo.getMember_image());
+            user.put("member_type", vo.getMember_type());
+            user.put("member_idx", vo.getMember_idx());
+            user.put("provider", "naver");
+            user.put("isLogin", true);
+
+            result.put("success", true);
+            result.put("user", user);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, cookieValue)
+                    .body(result);
         } else {
-            result.put("isLoggedIn", false);
+            // 신규 회원도 JWT 발급
+            String jwt = jwtUtil.generateToken(-1, null, 0, ""); // 신규 회원은 임시값(-1) 또는 email 등으로 처리
+            String cookieValue = "accessToken=" + jwt + "; HttpOnly; Path=/; Max-Age=" + (7 * 24 * 60 * 60) + "; SameSite=Lax";
+
+            user.put("member_name", userInfo.path("name").asText(null));
+            user.put("member_email", userInfo.path("email").asText(null));
+            user.put("member_image", userInfo.path("profile_image").asText(null));
+            user.put("provider", "naver");
+            user.put("isLogin", false);
+
+            result.put("success", true);
+            result.put("user", user);
+
+            return ResponseEntity.ok()
+                    .header(HttpHeaders.SET_COOKIE, cookieValue)
+                    .body(result);
         }
+    }
 
+    private ResponseEntity<Map<String, Object>> errorResponse(HttpStatus status, String message) {
+        Map<String, Object> result = new HashMap<>();
+        result.put("success", false);
+        result.put("message", message);
+        return ResponseEntity.status(status).body(result);
+    }
+
+    // 네이버 로그인 상태 확인 (GET /auth/naver/status) - 세션 대신 accessToken 쿠키의 JWT 로 판정 (가입 회원 토큰만)
+    @GetMapping("/naver/status")
+    public ResponseEntity<Map<String, Object>> naverStatus(@CookieValue(value = "accessToken", required = false) String token) {
+        Map<String, Object> result = new HashMap<>();
+        VerifiedToken verified = token != null ? jwtUtil.verify(token) : null;
+        result.put("isLoggedIn", verified != null && verified.getUserIdx() > 0);
         return ResponseEntity.ok(result);
     }
 
-    // 네이버 로그아웃 (POST /auth/naver/logout)
+    // 네이버 로그아웃 (POST /auth/naver/logout) - accessToken 쿠키 만료
     @PostMapping("/naver/logout")
-    public ResponseEntity<Map<String, Object>> naverLogout(HttpSession session) {
-        session.removeAttribute("member_idx");
+    public ResponseEntity<Map<String, Object>> naverLogout() {
         Map<String, Object> result = new HashMap<>();
         result.put("success", true);
-        return ResponseEntity.ok(result);
+        return ResponseEntity.ok()
+                .header(HttpHeaders.SET_COOKIE, "accessToken=; HttpOnly; Path=/; Max-Age=0; SameSite=Lax")
+                .body(result);
     }
-}
\ No newline at end of file
+}
@@ -4,8 +4,8 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.servlet.http.HttpSession;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.PaymentMethodVO;
 import org.fitsync.domain.PaymentOrderVO;
 import org.fitsync.domain.PaymentOrderWithMethodVO;
@@ -75,9 +75,8 @@ public class PaymentController {
         return ResponseEntity.status(status).body(response);
     }
     
-    private Integer getMemberIdxFromSession(HttpSession session) {
-        Object memberIdx = session.getAttribute("member_idx");
-        return memberIdx != null ? (Integer) memberIdx : null;
+    private Integer getMemberIdx(AuthPrincipal principal) {
+        return principal.getMember_idx();
     }
 
     /**
@@ -86,9 +85,9 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: PaymentMethodVO, timestamp: number}
      */
     @PostMapping(value = "/bill/issue", consumes = MediaType.APPLICATION_JSON_VALUE)
-    public ResponseEntity<Map<String, Object>> issueBillingKey(@RequestBody Map<String, String> body, HttpSession session) throws IOException {
+    public ResponseEntity<Map<String, Object>> issueBillingKey(@RequestBody Map<String, String> body, AuthPrincipal principal) throws IOException {
         
-        Integer memberIdx = getMemberIdxFromSession(session);
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -129,8 +128,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data: PaymentMethodVO[], timestamp: number}
      */
     @GetMapping("/bill/list")
-    public ResponseEntity<Map<String, Object>> getPaymentMethods(HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> getPaymentMethods(AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -151,8 +150,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: Object, timestamp: number}
      */
     @PostMapping("/bill/info")
-    public ResponseEntity<Map<String, Object>> getBillingKeyInfo(@RequestBody Map<String, String> body, HttpSession session) throws IOException {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> getBillingKeyInfo(@RequestBody Map<String, String> body, AuthPrincipal principal) throws IOException {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -184,8 +183,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: PaymentResult, timestamp: number}
      */
     @PostMapping(value = "/bill/pay")
-    public ResponseEntity<Map<String, Object>> payBillingKey(@RequestBody Map<String, String> body, HttpSession session) throws IOException {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> payBillingKey(@RequestBody Map<String, String> body, AuthPrincipal principal) throws IOException {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -235,8 +234,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: ScheduleResult, timestamp: number}
      */
     @PostMapping("/bill/schedule")
-    public ResponseEntity<Map<String, Object>> scheduleBillingKey(@RequestBody Map<String, Object> body, HttpSession session) throws IOException {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> scheduleBillingKey(@RequestBody Map<String, Object> body, AuthPrincipal principal) throws IOException {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -278,8 +277,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: Object, timestamp: number}
      */
     @DeleteMapping("/bill/schedule")
-    public ResponseEntity<Map<String, Object>> cancelBillingKey(@RequestBody Map<String, Object> requestData, HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> cancelBillingKey(@RequestBody Map<String, Object> requestData, AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -306,9 +305,9 @@ public class PaymentController {
     @PatchMapping("/bill/rename")
     public ResponseEntity<Map<String, Object>> renameBillingKey(
             @RequestBody Map<String, Object> requestData,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        Integer memberIdx = getMemberIdxFromSession(session);
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -355,9 +354,9 @@ public class PaymentController {
     @DeleteMapping("/bill/delete")
     public ResponseEntity<Map<String, Object>> deletePaymentMethod(
             @RequestBody Map<String, Object> requestData,
-            HttpSession session) {
+            AuthPrincipal principal) {
         
-        Integer memberIdx = getMemberIdxFromSession(session);
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -394,8 +393,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: DuplicateCheckResult, timestamp: number}
      */
     @PostMapping("/bill/check")
-    public ResponseEntity<Map<String, Object>> checkDuplicatePaymentMethod(@RequestBody Map<String, String> body, HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> checkDuplicatePaymentMethod(@RequestBody Map<String, String> body, AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -426,8 +425,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: PaymentMethodVO, timestamp: number}
      */
     @PostMapping("/bill/save")
-    public ResponseEntity<Map<String, Object>> saveBillingKeyWithDuplicateHandling(@RequestBody Map<String, Object> body, HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> saveBillingKeyWithDuplicateHandling(@RequestBody Map<String, Object> body, AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "로그인이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -475,8 +474,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data: {history: PaymentOrderWithMethodVO[], totalCount: number}, timestamp: number}
      */
     @GetMapping("/history")
-    public ResponseEntity<Map<String, Object>> getPaymentHistory(HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> getPaymentHistory(AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "사용자 인증이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -501,8 +500,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data: {history: PaymentOrderWithMethodVO[], totalCount: number}, timestamp: number}
      */
     @GetMapping("/history/v2")
-    public ResponseEntity<Map<String, Object>> getPaymentHistory2(HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> getPaymentHistory2(AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "사용자 인증이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -527,8 +526,8 @@ public class PaymentController {
      * @return ResponseEntity<Map<String, Object>> - {success: boolean, message: string, data?: PaymentOrderWithMethodVO, timestamp: number}
      */
     @GetMapping("/bill/schedule")
-    public ResponseEntity<Map<String, Object>> getScheduledPaymentOrder(HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> getScheduledPaymentOrder(AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "사용자 인증이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -551,16 +550,16 @@ public class PaymentController {
 
     /**
      * 해당 유저가 구독자인지 여부를 확인하는 API
-     * @param session HTTP 세션
+     * @param principal 인증된 회원 정보
      * @return 구독 상태 정보
      */
     @GetMapping("/subscription/{member_idx}")
-    public ResponseEntity<Map<String, Object>> getSubscriptionStatus(HttpSession session, @PathVariable int member_idx) {
+    public ResponseEntity<Map<String, Object>> getSubscriptionStatus(AuthPrincipal principal, @PathVariable int member_idx) {
         log.info("=== 구독자 상태 확인 API 시작 ===");
         
         try {
             // 1. 세션에서 사용자 정보 조회
-            Integer memberIdx = (Integer) session.getAttribute("member_idx");
+            Integer memberIdx = principal.getMember_idx();
             
             if (memberIdx == null) {
                 log.warn("❌ 세션에 memberIdx 정보가 없음");
@@ -603,12 +602,12 @@ public class PaymentController {
 
     // 최근 결제 내역 1개 불러오기 (paid or ready)
     @GetMapping("/history/recent")
-    public ResponseEntity<Map<String, Object>> getRecentOrder(HttpSession session) {
+    public ResponseEntity<Map<String, Object>> getRecentOrder(AuthPrincipal principal) {
         log.info("=== 구독자 상태 확인 API 시작 ===");
         
         try {
             // 1. 세션에서 사용자 정보 조회
-            Integer memberIdx = (Integer) session.getAttribute("member_idx");
+            Integer memberIdx = principal.getMember_idx();
             
             if (memberIdx == null) {
                 log.warn("❌ 세션에 memberIdx 정보가 없음");
@@ -632,8 +631,8 @@ public class PaymentController {
 
     // 자동결제건 결제수단 재등록 
     @PatchMapping("/bill/schedule")
-    public ResponseEntity<Map<String, Object>> updateSchedule(@RequestBody Map<String, Object> body, HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> updateSchedule(@RequestBody Map<String, Object> body, AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "사용자 인증이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
@@ -687,8 +686,8 @@ public class PaymentController {
 
     // 구독 재연장 (구독 연장을 취소 후 다시할때)
     @PostMapping("/bill/reschedule")
-    public ResponseEntity<Map<String, Object>> reschedule(@RequestBody Map<String, Object> body, HttpSession session) {
-        Integer memberIdx = getMemberIdxFromSession(session);
+    public ResponseEntity<Map<String, Object>> reschedule(@RequestBody Map<String, Object> body, AuthPrincipal principal) {
+        Integer memberIdx = getMemberIdx(principal);
         if (memberIdx == null) {
             return createErrorResponse(HttpStatus.UNAUTHORIZED, "사용자 인증이 필요합니다.", "AUTHENTICATION_REQUIRED");
         }
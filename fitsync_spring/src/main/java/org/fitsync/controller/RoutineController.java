@@ -4,9 +4,9 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.servlet.http.HttpSession;
 
 import org.apache.ibatis.annotations.Param;
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.PtVO;
 import org.fitsync.domain.RoutineListVO;
 import org.fitsync.domain.RoutineMemberDTO;
@@ -54,11 +54,11 @@ public class RoutineController {
 	}
 	// 내 루틴 리스트 조회용 
 	@GetMapping("/getList")
-	public ResponseEntity<?> getRoutineList(HttpSession session){
+	public ResponseEntity<?> getRoutineList(AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<>();
 		List<RoutineListVO> list = null;
 		
-		Object memberIdxObj = session.getAttribute("member_idx");
+		Object memberIdxObj = principal.getMember_idx();
 		
 		if (memberIdxObj == null) {
 			result.put("success", false);
@@ -122,9 +122,9 @@ public class RoutineController {
 	
 	// 루틴 운동 VIEW
 	@GetMapping("/{routine_list_idx}")
-	public ResponseEntity<?> getRoutineDetail(@PathVariable int routine_list_idx, HttpSession session){
+	public ResponseEntity<?> getRoutineDetail(@PathVariable int routine_list_idx, AuthPrincipal principal){
 		Map<String, Object> result = new HashMap<>();
-		Object sessionIdx = session.getAttribute("member_idx");
+		Object sessionIdx = principal.getMember_idx();
 		
 		if (sessionIdx == null) {
 			result.put("success", false);
@@ -155,14 +155,14 @@ public class RoutineController {
 	@PostMapping("/add")
 	public ResponseEntity<?> insertRoutine(
 	        @RequestBody Map<String, Object> body,
-	        HttpSession session) {
+	        AuthPrincipal principal) {
 
 	    Map<String, Object> result = new HashMap<>();
 	    
 	    Object writerIdx = body.get("writer_idx");
 	    System.out.println(writerIdx);
 	    
-	    Object sessionIdx = session.getAttribute("member_idx");
+	    Object sessionIdx = principal.getMember_idx();
 	    System.out.println("writer_idx = " + sessionIdx);
 	    if (sessionIdx == null) {
 	        result.put("success", false);
@@ -205,8 +205,8 @@ public class RoutineController {
 
 	// 루틴 삭제
 	@DeleteMapping("/delete/{routine_list_idx}")
-	public ResponseEntity<?> deleteRoutine(@PathVariable int routine_list_idx, HttpSession session) {
-		Object sessionIdx = session.getAttribute("member_idx");
+	public ResponseEntity<?> deleteRoutine(@PathVariable int routine_list_idx, AuthPrincipal principal) {
+		Object sessionIdx = principal.getMember_idx();
 		Map<String, Object> result = new HashMap<>();
 		
 		if (sessionIdx == null) {
@@ -230,9 +230,9 @@ public class RoutineController {
 	}
 	
 	@PutMapping("/update/{routine_list_idx}")
-	public ResponseEntity<?> updateRoutine(@PathVariable int routine_list_idx, @RequestBody Map<String, Object> body, HttpSession session) {
+	public ResponseEntity<?> updateRoutine(@PathVariable int routine_list_idx, @RequestBody Map<String, Object> body, AuthPrincipal principal) {
 		Map<String, Object> result = new HashMap<>();
-		Object memberIdxObj = session.getAttribute("member_idx");
+		Object memberIdxObj = principal.getMember_idx();
 		
 		if (memberIdxObj == null) {
 			result.put("success", false);
@@ -254,10 +254,10 @@ public class RoutineController {
 	
 	// 루틴 기록
 	@PostMapping("/record")
-	public ResponseEntity<?> insertRecord(@RequestBody Map<String, Object> body, HttpSession session) {
+	public ResponseEntity<?> insertRecord(@RequestBody Map<String, Object> body, AuthPrincipal principal) {
 	    Map<String, Object> result = new HashMap<>();
 
-	    Object memberIdxObj = session.getAttribute("member_idx");
+	    Object memberIdxObj = principal.getMember_idx();
 	    if (memberIdxObj == null) {
 	        result.put("success", false);
 	        result.put("msg", "인증 정보가 없습니다. 다시 로그인해주세요.");
@@ -292,9 +292,9 @@ public class RoutineController {
 	
 	// 루틴 정렬
 	@PutMapping("/sort")
-	public ResponseEntity<?> sortUpdate(@RequestBody List<Integer> body, HttpSession session) {
+	public ResponseEntity<?> sortUpdate(@RequestBody List<Integer> body, AuthPrincipal principal) {
 		Map<String, Object> result = new HashMap<>();
-		Object memberIdxObj = session.getAttribute("member_idx");
+		Object memberIdxObj = principal.getMember_idx();
 		
 		if (memberIdxObj == null) {
 			result.put("success", false);
@@ -6,8 +6,8 @@ import java.util.List;
 import java.util.Map;
 import java.util.stream.Collectors;
 
-import javax.servlet.http.HttpSession;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.AwardsVO;
 import org.fitsync.domain.ChatAttachVO;
 import org.fitsync.domain.GymVO;
@@ -108,11 +108,11 @@ public class TrainerController {
     public ResponseEntity<Map<String, Object>> updateTrainer(
         @PathVariable int trainerIdx,
         @RequestBody MemberVO member,
-        HttpSession session) {
+        AuthPrincipal principal) {
 
         Map<String, Object> result = new HashMap<>();
 
-        Object sessionIdx = session.getAttribute("member_idx");
+        Object sessionIdx = principal.getMember_idx();
 
         if (sessionIdx == null) {
             result.put("success", false);
@@ -155,11 +155,11 @@ public class TrainerController {
     public ResponseEntity<Map<String, Object>> saveLessons(
             @PathVariable int memberIdx,
             @RequestBody List<LessonVO> lessons,
-            HttpSession session) {
+            AuthPrincipal principal) {
     	
         Map<String, Object> result = new HashMap<>();
 
-        Object sessionIdx = session.getAttribute("member_idx");
+        Object sessionIdx = principal.getMember_idx();
         if (sessionIdx == null) {
             result.put("success", false);
             result.put("msg", "인증 정보 없음");
@@ -196,9 +196,9 @@ public class TrainerController {
     @GetMapping("/{trainerIdx}/schedule")
     public ResponseEntity<?> getSchedulesByTrainer(
             @PathVariable int trainerIdx,
-            HttpSession session
+            AuthPrincipal principal
     ) {
-        Object sessionIdx = session.getAttribute("member_idx");
+        Object sessionIdx = principal.getMember_idx();
         System.out.println("sessionIdx : " + sessionIdx);
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
@@ -1,5 +1,6 @@
 package org.fitsync.controller;
 
+import org.fitsync.domain.AuthPrincipal;
 import org.fitsync.domain.BodyVO;
 import org.fitsync.domain.MatchingVO;
 import org.fitsync.domain.MemberVO;
@@ -27,7 +28,6 @@ import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
-import javax.servlet.http.HttpSession;
 
 @Log4j
 @RestController
@@ -208,8 +208,8 @@ public class UserController {
     
     // 유저 정보 불러오기
     @GetMapping("/profile")
-    public ResponseEntity<?> getUserProfile(HttpSession session) {
-        Object sessionIdx = session.getAttribute("member_idx");
+    public ResponseEntity<?> getUserProfile(AuthPrincipal principal) {
+        Object sessionIdx = principal.getMember_idx();
 
         if (sessionIdx == null) {
             return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body("로그인이 필요합니다.");
@@ -307,9 +307,9 @@ public class UserController {
     }
     
     @PostMapping("/info")
-    public ResponseEntity<?> updateInfo(@RequestBody MemberVO vo, HttpSession session) {
+    public ResponseEntity<?> updateInfo(@RequestBody MemberVO vo, AuthPrincipal principal) {
     	Map<String, Object> result = new HashMap<String, Object>();
-    	vo.setMember_idx((int) session.getAttribute("member_idx"));
+    	vo.setMember_idx((int) principal.getMember_idx());
     	if(memberService.updateInfo(vo)) {
     		result.put("success", true);
     	}else {
@@ -0,0 +1,26 @@
+package org.fitsync.domain;
+
+import java.sql.Date;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+// 요청 단위 인증 정보 (AuthTokenFilter 가 JWT 검증 후 요청 속성에 저장, 컨트롤러는 메서드 인자로 받음)
+// HttpSession 을 만들지 않으므로 서버 노드 간 세션 공유나 고정 라우팅 없이 동작한다
+@Getter
+@AllArgsConstructor
+public class AuthPrincipal {
+	// 요청 속성 이름
+	public static final String ATTRIBUTE = AuthPrincipal.class.getName();
+	// 인증 정보가 없는 요청 (공개 경로) - 모든 값이 null
+	public static final AuthPrincipal ANONYMOUS = new AuthPrincipal(null, null, null, null);
+	
+	private final Integer member_idx;
+	private final String member_type;
+	private final Date block_date;
+	private final Integer block_count;
+	
+	public boolean isAuthenticated() {
+		return member_idx != null;
+	}
+}
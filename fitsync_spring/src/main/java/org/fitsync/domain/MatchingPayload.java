@@ -0,0 +1,54 @@
+package org.fitsync.domain;
+
+import java.util.Map;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 매칭 요청 메시지(matching_request)에 담기는 매칭 정보
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MatchingPayload {
+	
+	private Integer matching_idx, trainer_idx, user_idx, matching_total, matching_remain, matching_complete;
+	
+	// STOMP 메시지의 matching_data Map 변환 (필수 필드 누락 시 null)
+	public static MatchingPayload from(Map<String, Object> map) {
+		if (map == null || map.isEmpty()) {
+			return null;
+		}
+		
+		MatchingPayload payload = new MatchingPayload(
+			toInteger(map.get("matching_idx")),
+			toInteger(map.get("trainer_idx")),
+			toInteger(map.get("user_idx")),
+			toInteger(map.get("matching_total")),
+			toInteger(map.get("matching_remain")),
+			toInteger(map.get("matching_complete"))
+		);
+		
+		if (payload.matching_idx == null || payload.trainer_idx == null || payload.user_idx == null || payload.matching_total == null) {
+			return null;
+		}
+		return payload;
+	}
+	
+	private static Integer toInteger(Object value) {
+		if (value instanceof Number) {
+			return ((Number) value).intValue();
+		}
+		if (value instanceof String) {
+			try {
+				return Integer.parseInt(((String) value).trim());
+			} catch (NumberFormatException e) {
+				return null;
+			}
+		}
+		return null;
+	}
+}
@@ -0,0 +1,14 @@
+package org.fitsync.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// 인증 처리에 필요한 회원 최소 정보 (요청마다 MEMBER 전체 행을 조회하지 않도록 캐시해 사용)
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class MemberPrincipal {
+	private int member_idx;
+	private String member_type, member_status, member_email;
+}
@@ -4,11 +4,13 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.sql.Timestamp;
-import java.util.Map;
 
-import com.fasterxml.jackson.core.JsonProcessingException;
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.fasterxml.jackson.core.type.TypeReference;
+import org.fitsync.util.MatchingPayloadCodec;
+import org.springframework.beans.BeanUtils;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import com.fasterxml.jackson.annotation.JsonRawValue;
 
 @Data
 @AllArgsConstructor
@@ -16,14 +18,15 @@ import com.fasterxml.jackson.core.type.TypeReference;
 public class MessageVO {
 	private int message_idx, room_idx, sender_idx, receiver_idx;
 	private Integer attach_idx, parent_idx;
+	// 채팅방별 메시지 순번 (1부터 빈틈없이 증가, 클라이언트 누락 감지용 / 순번 도입 전 메시지는 null)
+	private Integer room_seq;
 	private String message_content, message_type, message_delete;
 	private Timestamp message_senddate, message_readdate, message_editdate;
-	// DB 저장용 JSON 문자열
+	// DB 저장용 JSON 문자열 (매칭 정보를 한 번만 직렬화해 DB 저장과 WebSocket 전송에 함께 사용)
 	private String matching_data;
-	// WebSocket 전송용 Map
-	private Map<String, Object> matching_data_map;
-	// Jackson ObjectMapper (JSON 변환용)
-	private static final ObjectMapper objectMapper = new ObjectMapper();
+	// 매칭 정보 (DB에서 조회한 메시지는 처음 필요할 때 matching_data 를 변환해 보관)
+	@JsonIgnore
+	private MatchingPayload matching_payload;
 	
 	public MessageVO(int room_idx, int sender_idx, int receiver_idx, String message_content) {
         this();
@@ -35,79 +38,68 @@ public class MessageVO {
         this.parent_idx = null;
     }
 	
-	// 매칭 데이터 Map을 JSON 문자열로 변환하여 DB 저장
-	public void setMatchingDataFromMap(Map<String, Object> matchingDataMap) {
-		this.matching_data_map = matchingDataMap;
-		
-		if (matchingDataMap != null && !matchingDataMap.isEmpty()) {
-			try {
-				this.matching_data = objectMapper.writeValueAsString(matchingDataMap);
-			} catch (JsonProcessingException e) {
-				this.matching_data = null;
-			}
-		} else {
-			this.matching_data = null;
-		}
+	// 최근 메시지 버퍼 보관용 복사본
+	public MessageVO copy() {
+		MessageVO copy = new MessageVO();
+		BeanUtils.copyProperties(this, copy, "matching_payload");
+		// 변환해 둔 매칭 정보는 다시 직렬화하지 않고 그대로 공유
+		copy.matching_payload = this.matching_payload;
+		return copy;
 	}
 	
-	// DB에서 조회한 JSON 문자열을 Map으로 변환
-	public Map<String, Object> getMatchingDataAsMap() {
-		if (matching_data_map != null) {
-			return matching_data_map;
-		}
-		
-		if (matching_data != null && !matching_data.trim().isEmpty()) {
-			try {
-				this.matching_data_map = objectMapper.readValue(
-					matching_data, 
-					new TypeReference<Map<String, Object>>() {}
-				);
-				return this.matching_data_map;
-			} catch (JsonProcessingException e) {
-				return null;
-			}
+	// DB 조회 시 JSON 문자열 설정 (이전에 변환해 둔 매칭 정보는 버림)
+	public void setMatching_data(String matching_data) {
+		this.matching_data = matching_data;
+		this.matching_payload = null;
+	}
+	
+	// 매칭 정보 설정 (DB 저장용 JSON 문자열을 이때 한 번만 생성)
+	public void setMatching_payload(MatchingPayload matching_payload) {
+		this.matching_payload = matching_payload;
+		this.matching_data = MatchingPayloadCodec.encode(matching_payload);
+	}
+	
+	// DB에서 조회한 JSON 문자열은 처음 필요할 때 한 번만 변환
+	public MatchingPayload getMatching_payload() {
+		if (matching_payload == null && matching_data != null) {
+			matching_payload = MatchingPayloadCodec.decode(matching_data);
 		}
-		
-		return null;
+		return matching_payload;
 	}
 	
-	// 매칭 데이터 존재 여부 확인
-	public boolean hasMatchingData() {
-		return (matching_data != null && !matching_data.trim().isEmpty()) || 
-			   (matching_data_map != null && !matching_data_map.isEmpty());
+	// WebSocket/REST 응답용 매칭 정보 - 저장된 JSON 문자열을 다시 변환하지 않고 그대로 기록
+	// (원본을 그대로 쓰므로 정상적으로 변환되는 JSON 일 때만 기록하고, 손상된 값은 null)
+	@JsonProperty("matching_data_map")
+	@JsonRawValue
+	public String getMatchingDataJson() {
+		return hasMatchingData() ? matching_data : null;
 	}
 	
-	// 특정 매칭 데이터 필드 추출
-	public Object getMatchingField(String fieldName) {
-		Map<String, Object> matchingMap = getMatchingDataAsMap();
-		return matchingMap != null ? matchingMap.get(fieldName) : null;
+	// 매칭 데이터 존재 여부 확인 (저장된 JSON 문자열이 매칭 정보로 변환되는 경우만)
+	@JsonIgnore
+	public boolean hasMatchingData() {
+		return matching_data != null && getMatching_payload() != null;
 	}
 	
 	// 매칭 IDX 추출 (자주 사용되는 필드)
+	@JsonIgnore
 	public Integer getMatchingIdx() {
-		Object value = getMatchingField("matching_idx");
-		if (value instanceof Number) {
-			return ((Number) value).intValue();
-		}
-		return null;
+		MatchingPayload payload = getMatching_payload();
+		return payload != null ? payload.getMatching_idx() : null;
 	}
 	
 	// 매칭 총 횟수 추출
+	@JsonIgnore
 	public Integer getMatchingTotal() {
-		Object value = getMatchingField("matching_total");
-		if (value instanceof Number) {
-			return ((Number) value).intValue();
-		}
-		return null;
+		MatchingPayload payload = getMatching_payload();
+		return payload != null ? payload.getMatching_total() : null;
 	}
 	
 	// 매칭 완료 상태 추출
+	@JsonIgnore
 	public Integer getMatchingComplete() {
-		Object value = getMatchingField("matching_complete");
-		if (value instanceof Number) {
-			return ((Number) value).intValue();
-		}
-		return null;
+		MatchingPayload payload = getMatching_payload();
+		return payload != null ? payload.getMatching_complete() : null;
 	}
 	
 	public ChatAttachVO attach;
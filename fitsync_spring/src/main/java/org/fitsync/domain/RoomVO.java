@@ -5,6 +5,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.sql.Timestamp;
 
+import org.springframework.beans.BeanUtils;
+
 @Data
 @AllArgsConstructor
 @NoArgsConstructor
@@ -21,6 +23,14 @@ public class RoomVO {
 	private String trainer_gender, user_gender;
 	private String trainer_birth, user_birth;
 	
+	// 마지막 메시지 미리보기 정보
+	private String last_message_content, last_message_type;
+	private Timestamp last_message_senddate;
+	private int last_sender_idx;
+	
+	// 조회한 회원 기준 읽지 않은 메시지 수
+	private int unread_count;
+	
 	public RoomVO(int trainer_idx, int user_idx, String room_name) {
 		this.trainer_idx = trainer_idx;
         this.user_idx = user_idx;
@@ -28,4 +38,11 @@ public class RoomVO {
         this.room_status = "active";
         this.room_regdate = new Timestamp(System.currentTimeMillis());
 	}
+	
+	// 채팅방 목록 캐시 갱신용 복사본
+	public RoomVO copy() {
+		RoomVO copy = new RoomVO();
+		BeanUtils.copyProperties(this, copy);
+		return copy;
+	}
 }
\ No newline at end of file
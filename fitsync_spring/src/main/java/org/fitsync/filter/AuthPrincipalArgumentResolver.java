@@ -0,0 +1,30 @@
+package org.fitsync.filter;
+
+import javax.servlet.http.HttpServletRequest;
+
+import org.fitsync.domain.AuthPrincipal;
+import org.springframework.core.MethodParameter;
+import org.springframework.web.bind.support.WebDataBinderFactory;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.method.support.HandlerMethodArgumentResolver;
+import org.springframework.web.method.support.ModelAndViewContainer;
+
+/**
+ * 컨트롤러 메서드의 AuthPrincipal 인자에 AuthTokenFilter 가 요청 속성으로 저장한 인증 정보를 주입
+ * 인증 정보가 없는 요청(공개 경로)에는 값이 모두 null 인 AuthPrincipal.ANONYMOUS 를 넘긴다.
+ */
+public class AuthPrincipalArgumentResolver implements HandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return AuthPrincipal.class.equals(parameter.getParameterType());
+    }
+
+    @Override
+    public Object resolveArgument(MethodParameter parameter, ModelAndViewContainer mavContainer,
+            NativeWebRequest webRequest, WebDataBinderFactory binderFactory) {
+        HttpServletRequest request = webRequest.getNativeRequest(HttpServletRequest.class);
+        Object principal = request != null ? request.getAttribute(AuthPrincipal.ATTRIBUTE) : null;
+        return principal instanceof AuthPrincipal ? principal : AuthPrincipal.ANONYMOUS;
+    }
+}
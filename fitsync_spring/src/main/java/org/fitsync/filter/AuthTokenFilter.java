@@ -1,8 +1,10 @@
 package org.fitsync.filter;
 
 import org.fitsync.util.JwtUtil;
+import org.fitsync.util.VerifiedToken;
 import org.fitsync.service.MemberService;
-import org.fitsync.domain.MemberVO;
+import org.fitsync.domain.AuthPrincipal;
+import org.fitsync.domain.MemberPrincipal;
 import org.fitsync.domain.ReportVO;
 import org.fitsync.service.ReportService;
 
@@ -21,10 +23,12 @@ public class AuthTokenFilter implements Filter {
     private JwtUtil jwtUtil;
     private MemberService memberService;
     private ReportService reportService; // ReportService 추가
+    private RoutePolicy routePolicy;
 
     public void setJwtUtil(JwtUtil jwtUtil) { this.jwtUtil = jwtUtil; }
     public void setMemberService(MemberService memberService) { this.memberService = memberService; }
     public void setReportService(ReportService reportService) { this.reportService = reportService; } // ReportService 세터 메서드 추가
+    public void setRoutePolicy(RoutePolicy routePolicy) { this.routePolicy = routePolicy; }
 
     @Override
     public void init(FilterConfig filterConfig) throws ServletException {}
@@ -38,8 +42,9 @@ public class AuthTokenFilter implements Filter {
         
         String requestURI = httpRequest.getRequestURI();
         
-        // 인증이 필요하지 않은 경로들
-        if (isPublicPath(requestURI)) {
+        // 경로별 접근 정책 (root-context.xml 의 routePolicy, 기동 시 컴파일된 트라이로 한 번에 판정)
+        RoutePolicy.Access access = routePolicy.match(requestURI);
+        if (access == RoutePolicy.Access.PUBLIC) {
             chain.doFilter(request, response);
             return;
         }
@@ -55,10 +60,14 @@ public class AuthTokenFilter implements Filter {
             }
         }
 
-        if (token != null && jwtUtil != null && jwtUtil.validate(token)) {
-            String tokenEmail = jwtUtil.getEmail(token);
+        // 서명 검증과 클레임 파싱은 한 번만 (같은 토큰은 만료 시각까지 캐시된 결과 사용)
+        VerifiedToken verifiedToken = token != null && jwtUtil != null ? jwtUtil.verify(token) : null;
 
-            MemberVO member = memberService.getFindUser(tokenEmail);
+        if (verifiedToken != null) {
+            String tokenEmail = verifiedToken.getEmail();
+
+            // 회원 전체 행 대신 인증 정보만 (캐시, 회원 정보 변경 시 무효화)
+            MemberPrincipal member = memberService.getPrincipal(tokenEmail);
 
             if (member == null) {
                 httpResponse.setStatus(HttpServletResponse.SC_UNAUTHORIZED);
@@ -67,9 +76,17 @@ public class AuthTokenFilter implements Filter {
                 return;
             }
 
+            // 역할이 필요한 경로는 컨트롤러에 들어가기 전에 차단
+            if (!routePolicy.permits(access, member.getMember_type())) {
+                httpResponse.setStatus(HttpServletResponse.SC_FORBIDDEN);
+                httpResponse.setContentType("application/json;charset=UTF-8");
+                httpResponse.getWriter().write("{\"success\":false,\"msg\":\"접근 권한이 없습니다.\"}");
+                return;
+            }
+
             // 제재 정보 비교 (block_date, block_count)
-            java.util.Date tokenBlockDate = jwtUtil.getBlockDate(token);
-            Integer tokenBlockCount = jwtUtil.getBlockCount(token);
+            java.util.Date tokenBlockDate = verifiedToken.getBlockDate();
+            Integer tokenBlockCount = verifiedToken.getBlockCount();
 
             ReportVO report = reportService.getBlockData(member.getMember_idx());
             java.sql.Date dbBlockDate = report != null ? report.getReport_time() : null;
@@ -78,11 +95,13 @@ public class AuthTokenFilter implements Filter {
             boolean needRefresh = (dbBlockDate != null && !dbBlockDate.equals(tokenBlockDate))
                 || (dbBlockCount != null && !dbBlockCount.equals(tokenBlockCount));
 
-            // 세션에 정보 저장
-            httpRequest.getSession().setAttribute("member_idx", member.getMember_idx());
-            httpRequest.getSession().setAttribute("member_type", member.getMember_type());
-            httpRequest.getSession().setAttribute("block_date", dbBlockDate); // 제재일 세션에 갱신
-            httpRequest.getSession().setAttribute("block_count", dbBlockCount); // 카운트도 세션에 갱신
+            // 요청 단위 인증 정보 저장 (HttpSession 을 만들지 않음, 컨트롤러는 AuthPrincipal 인자로 받음)
+            httpRequest.setAttribute(AuthPrincipal.ATTRIBUTE, new AuthPrincipal(
+                member.getMember_idx(),
+                member.getMember_type(),
+                dbBlockDate,
+                dbBlockCount
+            ));
 
             // 제재 정보가 다르면 토큰 갱신
             if (needRefresh) {
@@ -110,61 +129,6 @@ public class AuthTokenFilter implements Filter {
         httpResponse.getWriter().write("{\"success\":false,\"msg\":\"인증 실패\"}");
     }
     
-    /**
-     * 인증이 필요하지 않은 공개 경로인지 확인
-     */
-    private boolean isPublicPath(String requestURI) {
-        // 정확한 경로 매칭을 위해 루트 경로를 먼저 체크
-        if ("/".equals(requestURI)) {
-            return true; // 메인 페이지만 허용
-        }
-        
-        // 인증이 필요하지 않은 경로들 (로그인, 회원가입, 정적 리소스만)
-        String[] publicPaths = {
-            "/auth",           // 인증 관련 API (로그인, 회원가입)
-            "/login",          // 로그인 페이지
-            "/register",       // 회원가입 페이지
-            "/member/register", // 회원가입 API 추가
-            "/member/trainers", // 트레이너 목록 조회 (공개)
-            "/static",         // 정적 리소스
-            "/css",           // CSS 파일
-            "/js",            // JavaScript 파일
-            "/images",        // 이미지 파일
-            "/favicon.ico",   // 파비콘
-            "/robots.txt",    // robots.txt
-            "/manifest.json", // PWA manifest
-            "/public",        // public 폴더
-            "/resources",     // 리소스 폴더
-            "/assets",         // 에셋 폴더
-            "/trainer/profile",
-            "/trainer/lesson",
-            "/trainer/awards",
-            "/trainer/gym",
-            "/trainer/reviews",
-            "/trainer/images"
-        };
-        
-        for (String path : publicPaths) {
-            if (requestURI.startsWith(path)) {
-                return true;
-            }
-        }
-        
-        // 확장자로 판단 (정적 파일들)
-        String[] publicExtensions = {
-            ".css", ".js", ".png", ".jpg", ".jpeg", ".gif", ".ico", 
-            ".svg", ".woff", ".woff2", ".ttf", ".eot", ".map"
-        };
-        
-        for (String ext : publicExtensions) {
-            if (requestURI.endsWith(ext)) {
-                return true;
-            }
-        }
-        
-        return false;
-    }
-
     @Override
     public void destroy() {}
 }
\ No newline at end of file
@@ -0,0 +1,192 @@
+package org.fitsync.filter;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * 경로별 접근 정책 (root-context.xml 에 선언, 기동 시 문자 트라이로 컴파일)
+ * 규칙 형식
+ * - "/auth"     : 접두사 일치 (요청 경로가 이 문자열로 시작)
+ * - "/trainer/*" : '*' 는 경로 한 구간('/' 를 제외한 문자열)과 일치 (구간 뒤에 규칙을 이어 쓸 수 있음)
+ * - "=/"        : '=' 로 시작하면 전체 경로가 정확히 같을 때만 일치
+ * 여러 규칙이 일치하면 가장 길게 일치한 규칙을 쓰고, 일치하는 규칙이 없으면 기본 접근 수준을 쓴다.
+ * 공개 확장자(.css, .js 등)로 끝나는 경로는 규칙과 관계없이 공개한다.
+ * 경로 판정은 문자 단위로 트라이를 따라가며 객체를 만들지 않는다.
+ */
+public class RoutePolicy {
+
+    public enum Access {
+        PUBLIC, AUTHENTICATED, TRAINER, ADMIN
+    }
+
+    // 일치 결과는 (일치한 길이 << 3 | 정확 일치 여부 << 2 | 접근 수준) 으로 표현 (>> 2 값이 클수록 더 길게 일치한 규칙)
+    private static final int NO_MATCH = -1;
+    private static final int EXACT_BIT = 4;
+    private static final int ACCESS_MASK = 3;
+    private static final Access[] ACCESS = Access.values();
+
+    private final Map<String, Access> rules;
+    private final List<String> publicExtensions;
+    private final Access defaultAccess;
+
+    private final Node root = new Node();
+    private final Node extensionRoot = new Node();
+
+    public RoutePolicy(Map<String, String> rules, List<String> publicExtensions, String defaultAccess) {
+        this.rules = new TreeMap<>();
+        for (Map.Entry<String, String> rule : rules.entrySet()) {
+            this.rules.put(rule.getKey(), Access.valueOf(rule.getValue().trim().toUpperCase()));
+        }
+        this.publicExtensions = new ArrayList<>(publicExtensions);
+        this.defaultAccess = Access.valueOf(defaultAccess.trim().toUpperCase());
+
+        for (Map.Entry<String, Access> rule : this.rules.entrySet()) {
+            String pattern = rule.getKey();
+            boolean exact = pattern.startsWith("=");
+            Node node = root;
+            for (int i = exact ? 1 : 0; i < pattern.length(); i++) {
+                node = node.addChild(pattern.charAt(i));
+            }
+            if (exact) {
+                node.exactAccess = rule.getValue();
+            } else {
+                node.prefixAccess = rule.getValue();
+            }
+        }
+        // 확장자는 뒤에서부터 비교하도록 거꾸로 등록
+        for (String extension : this.publicExtensions) {
+            Node node = extensionRoot;
+            for (int i = extension.length() - 1; i >= 0; i--) {
+                node = node.addChild(extension.charAt(i));
+            }
+            node.exactAccess = Access.PUBLIC;
+        }
+        root.freeze();
+        extensionRoot.freeze();
+    }
+
+    /**
+     * 요청 경로의 접근 수준
+     */
+    public Access match(String path) {
+        if (hasPublicExtension(path)) {
+            return Access.PUBLIC;
+        }
+        int found = match(root, path, 0, NO_MATCH);
+        return found != NO_MATCH ? ACCESS[found & ACCESS_MASK] : defaultAccess;
+    }
+
+    private static int score(int length, boolean exact, Access access) {
+        return length << 3 | (exact ? EXACT_BIT : 0) | access.ordinal();
+    }
+
+    // 트라이를 따라가며 가장 길게 일치한 규칙 (글자 가지와 '*' 가지를 모두 보고 더 길게 일치한 쪽, 같으면 글자 가지)
+    private int match(Node node, String path, int index, int best) {
+        if (node.prefixAccess != null) {
+            best = score(index, false, node.prefixAccess);
+        }
+        if (index == path.length()) {
+            return node.exactAccess != null ? score(index, true, node.exactAccess) : best;
+        }
+
+        int found = best;
+        Node next = node.child(path.charAt(index));
+        if (next != null) {
+            found = match(next, path, index + 1, best);
+        }
+        Node wildcard = node.child('*');
+        if (wildcard != null && path.charAt(index) != '/') {
+            int end = index;
+            while (end < path.length() && path.charAt(end) != '/') {
+                end++;
+            }
+            int viaWildcard = match(wildcard, path, end, best);
+            if (viaWildcard >> 2 > found >> 2) {
+                found = viaWildcard;
+            }
+        }
+        return found;
+    }
+
+    private boolean hasPublicExtension(String path) {
+        Node node = extensionRoot;
+        for (int i = path.length() - 1; i >= 0; i--) {
+            node = node.child(path.charAt(i));
+            if (node == null) {
+                return false;
+            }
+            if (node.exactAccess != null) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 접근 수준을 회원 유형이 만족하는지 (PUBLIC, AUTHENTICATED 는 인증만 되면 허용)
+     */
+    public boolean permits(Access access, String member_type) {
+        switch (access) {
+            case TRAINER:
+                return "trainer".equals(member_type);
+            case ADMIN:
+                return "admin".equals(member_type);
+            default:
+                return true;
+        }
+    }
+
+    /**
+     * 적용 중인 정책 표 (관리자 조회용)
+     */
+    public Map<String, Object> getTable() {
+        Map<String, Object> table = new LinkedHashMap<>();
+        Map<String, String> ruleTable = new LinkedHashMap<>();
+        for (Map.Entry<String, Access> rule : rules.entrySet()) {
+            ruleTable.put(rule.getKey(), rule.getValue().name());
+        }
+        table.put("rules", ruleTable);
+        table.put("public_extensions", publicExtensions);
+        table.put("default", defaultAccess.name());
+        return table;
+    }
+
+    private static final class Node {
+        private char[] keys = new char[0];
+        private Node[] children = new Node[0];
+        // 빌드 중에만 사용
+        private Map<Character, Node> building = new HashMap<>();
+        private Access prefixAccess;
+        private Access exactAccess;
+
+        private Node addChild(char c) {
+            return building.computeIfAbsent(c, key -> new Node());
+        }
+
+        private void freeze() {
+            keys = new char[building.size()];
+            children = new Node[building.size()];
+            int i = 0;
+            for (Map.Entry<Character, Node> entry : new TreeMap<>(building).entrySet()) {
+                keys[i] = entry.getKey();
+                children[i] = entry.getValue();
+                entry.getValue().freeze();
+                i++;
+            }
+            building = null;
+        }
+
+        private Node child(char c) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == c) {
+                    return children[i];
+                }
+            }
+            return null;
+        }
+    }
+}
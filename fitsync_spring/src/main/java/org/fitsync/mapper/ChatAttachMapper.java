@@ -9,6 +9,10 @@ public interface ChatAttachMapper {
 	
 	// 첨부파일 저장
     public int insertAttach(ChatAttachVO vo);
+    // 비동기 업로드용 첨부파일 번호 할당
+    public int getAttachSeq();
+    // 첨부파일 저장 (미리 할당된 번호 사용)
+    public int insertAttachWithIdx(ChatAttachVO vo);
     // 첨부파일 상세 조회
     public ChatAttachVO getAttach(@Param("attach_idx") int attach_idx);
     // 첨부파일 삭제
@@ -5,6 +5,7 @@ import java.util.List;
 import org.apache.ibatis.annotations.Param;
 import org.fitsync.domain.AwardsVO;
 import org.fitsync.domain.ChatAttachVO;
+import org.fitsync.domain.MemberPrincipal;
 import org.fitsync.domain.MemberVO;
 import org.fitsync.domain.ReviewVO;
 import org.fitsync.domain.SearchCriteria;
@@ -12,6 +13,10 @@ import org.fitsync.domain.SearchCriteria;
 public interface MemberMapper {
 	// 유저 존재여부
 	public MemberVO getFindUser(String member_email);
+	// 인증용 회원 정보 조회 (이메일)
+	public MemberPrincipal getPrincipalByEmail(String member_email);
+	// 인증용 회원 정보 조회 (member_idx)
+	public MemberPrincipal getPrincipalByIdx(@Param("member_idx") int member_idx);
 	// 유저 추가
 	public int insertMemberInfo(MemberVO vo);
 	// 트레이너 추가
@@ -1,6 +1,7 @@
 package org.fitsync.mapper;
 
 import java.util.List;
+import java.util.Map;
 
 import org.apache.ibatis.annotations.Param;
 import org.fitsync.domain.ChatAttachVO;
@@ -8,20 +9,38 @@ import org.fitsync.domain.MessageVO;
 
 public interface MessageMapper {
 	
-	// 메시지 저장
-    public int insertMessage(MessageVO vo);
+	// 메시지 시퀀스 블록 할당
+    public List<Integer> getMessageSeqBlock(@Param("count") int count);
+    // 메시지 저장 (번호 선할당)
+    public int insertMessageWithIdx(MessageVO vo);
     // 메시지 상세 조회
     public MessageVO getMessage(@Param("message_idx") int message_idx);
     // 채팅방 메시지 목록 조회
     public List<MessageVO> getMessageList(@Param("room_idx") int room_idx);
     // 메시지 페이징 조회
     public List<MessageVO> getMessageListPaging(@Param("room_idx") int room_idx, @Param("offset") int offset, @Param("limit") int limit);
+    // 메시지 커서 조회 (이전 메시지)
+    public List<MessageVO> getMessageListBefore(@Param("room_idx") int room_idx, @Param("before_room_seq") int before_room_seq, @Param("limit") int limit);
+    // 메시지 커서 조회 (이후 메시지)
+    public List<MessageVO> getMessageListAfter(@Param("room_idx") int room_idx, @Param("after_room_seq") int after_room_seq, @Param("limit") int limit);
+    // 채팅방 순번 구간 메시지 조회 (누락 구간 재조회)
+    public List<MessageVO> getMessageListBySeq(@Param("room_idx") int room_idx, @Param("from_seq") int from_seq, @Param("to_seq") int to_seq);
+    // 재접속 동기화: 변경 이력의 새 메시지 번호 목록으로 메시지 조회
+    public List<MessageVO> getMessagesForSync(@Param("list") List<Integer> message_idxs);
     // 메시지 검색
     public List<MessageVO> searchMessage(@Param("room_idx") int room_idx, @Param("keyword") String keyword);
-    // 메시지 읽음 처리
-    public int readMark(@Param("message_idx") int message_idx, @Param("receiver_idx") int receiver_idx);
+    // 검색 색인 생성용 채팅방 메시지 본문 조회
+    public List<MessageVO> getMessageContentsForIndex(@Param("room_idx") int room_idx);
+    // 검색 후보 메시지 조회
+    public List<MessageVO> getMessagesByIdxList(@Param("room_idx") int room_idx, @Param("list") List<Integer> message_idxs);
+    // 메시지 읽음 처리 (워터마크 이하 일괄)
+    public int readMarkUpTo(@Param("room_idx") int room_idx, @Param("receiver_idx") int receiver_idx, @Param("room_seq") int room_seq);
     // 읽지 않은 메시지 수 조회
     public int unreadCount(@Param("room_idx") int room_idx, @Param("receiver_idx") int receiver_idx);
+    // 수신자의 채팅방별 읽지 않은 메시지 수 조회
+    public List<Map<String, Object>> unreadCountByReceiver(@Param("receiver_idx") int receiver_idx);
+    // 여러 채팅방의 수신자별 읽지 않은 메시지 수 조회
+    public List<Map<String, Object>> unreadCountByRooms(@Param("list") List<Integer> room_idxs);
     // 메시지의 첨부파일 조회
     public ChatAttachVO getMessageAttachment(@Param("message_idx") int message_idx);
     // 메시지 첨부파일 업데이트
@@ -12,6 +12,8 @@ public interface RoomMapper {
     public int insertRoom(RoomVO vo);
     // 채팅방 마지막 메시지 업데이트
     public int updateLastMessage(@Param("room_idx") int room_idx, @Param("message_idx") int message_idx);
+    // 채팅방 메시지 순번 발급 (params: room_idx → room_seq 에 새 순번)
+    public void nextRoomSeq(Map<String, Object> params);
     // 채팅방 조회 (트레이너 + 회원)
     public RoomVO getMembers(@Param("trainer_idx") int trainer_idx, @Param("user_idx") int user_idx);
     // 채팅방 상세 조회
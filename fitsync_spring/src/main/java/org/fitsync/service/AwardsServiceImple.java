@@ -7,7 +7,6 @@ import org.fitsync.domain.AwardsVO;
 import org.fitsync.domain.MessageVO;
 import org.fitsync.domain.RoomVO;
 import org.fitsync.mapper.AwardsMapper;
-import org.fitsync.mapper.MessageMapper;
 import org.fitsync.mapper.RoomMapper;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -22,8 +21,9 @@ public class AwardsServiceImple implements AwardsService {
 	private AwardsMapper mapper;
 	@Autowired
 	private RoomMapper roomMapper;
+	// 반려 안내 메시지는 채팅 서비스로 등록 (안 읽은 수/채팅방 요약/검색 색인/최근 메시지 버퍼 갱신)
 	@Autowired
-	private MessageMapper messageMapper;
+	private ChatService chatService;
 
 	@Override
 	public int insertAward(AwardsVO vo) {
@@ -69,12 +69,7 @@ public class AwardsServiceImple implements AwardsService {
 						"반려된 요청 : "+ vo.getAwards_name() + "\n" +
 						"반려 사유 : " + vo.getAwards_reason());
 					mvo.setMessage_type("text");
-					Timestamp timestamp = new Timestamp(System.currentTimeMillis());
-					mvo.setMessage_senddate(timestamp);
-					mvo.setMessage_delete("N");
-					if(messageMapper.insertMessage(mvo) > 0) {
-						roomMapper.updateLastMessage(rvo.getRoom_idx(), mvo.getMessage_idx());
-					}
+					chatService.registerMessage(mvo);
 				}
 			}
 		}
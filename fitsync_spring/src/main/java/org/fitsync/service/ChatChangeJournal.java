@@ -0,0 +1,262 @@
+package org.fitsync.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import javax.annotation.PostConstruct;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 채팅 변경 이력 (재접속 동기화용, 메모리 전용)
+ * 새 메시지/읽음/삭제 변경에 순번(seq)을 붙여 고정 크기 링 버퍼에 기록해 두고 커서 이후 변경만 돌려준다.
+ * 새 메시지는 DB 커밋이 끝난 뒤에 기록한다. message_idx 는 미리 할당한 블록에서 나오고 커밋 순서도 번호 순서와 다르므로
+ * message_idx 커서로는 늦게 커밋된 메시지를 건너뛸 수 있지만, 커밋 후 기록한 순번은 커서 이전에 끼어들 수 없다.
+ * 서버 재시작(epoch 변경)이나 버퍼 초과로 커서 이후 이력이 남아 있지 않으면 reset 을 알려 전체 재조회하게 한다.
+ * 이력은 이 노드에서 처리한 변경만 담으므로 단일 노드 전용이다. 노드 간 중계(chat.relay.enabled)를 쓰면
+ * 다른 노드의 변경이 빠진 이력을 돌려주지 않도록 기록하지 않고 항상 reset 을 돌려준다.
+ * 한 번의 조회는 최대 scanMax 건까지만 훑고, 더 남았으면 has_more 와 훑은 위치까지의 커서를 돌려준다.
+ */
+@Component
+public class ChatChangeJournal {
+
+    public static final String TYPE_MESSAGE = "message";
+    public static final String TYPE_READ = "read";
+    public static final String TYPE_DELETE = "delete";
+
+    /**
+     * 보관할 최대 변경 건수 (새 메시지 포함, 초과 시 오래된 변경부터 덮어씀)
+     */
+    @Value("${chat.sync.journal.capacity:200000}")
+    private int capacity;
+
+    /**
+     * 한 번의 조회에서 훑는 최대 변경 건수 (다른 회원 변경이 많아도 조회 시간이 늘지 않도록)
+     */
+    @Value("${chat.sync.journal.scan.max:20000}")
+    private int scanMax;
+
+    /**
+     * 노드 간 중계 사용 여부 (사용 시 이력 미사용, 항상 reset)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // 서버 기동마다 달라지는 이력 식별자 (이전 기동의 커서 구분)
+    private final String epoch = UUID.randomUUID().toString().substring(0, 8);
+
+    private AtomicReferenceArray<Change> ring;
+    // 마지막으로 기록된 변경 순번 (0 = 기록 없음, 슬롯 기록 후 증가시켜 조회 스레드에 공개)
+    private volatile long headSeq;
+
+    // 처리 현황 카운터
+    private final AtomicLong readCount = new AtomicLong();
+    private final AtomicLong resetCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!relayEnabled) {
+            ring = new AtomicReferenceArray<>(capacity);
+        }
+    }
+
+    /**
+     * 새 메시지 기록 (DB 커밋 후 호출)
+     */
+    public void onMessage(int room_idx, int sender_idx, int receiver_idx, int message_idx) {
+        append(TYPE_MESSAGE, room_idx, sender_idx, receiver_idx, message_idx);
+    }
+
+    /**
+     * 읽음 워터마크 변경 기록 (receiver_idx 가 room_idx 의 채팅방 순번 room_seq 까지 읽음)
+     */
+    public void onRead(int room_idx, int receiver_idx, int room_seq) {
+        append(TYPE_READ, room_idx, receiver_idx, 0, room_seq);
+    }
+
+    /**
+     * 메시지 삭제 기록
+     */
+    public void onDelete(int room_idx, int sender_idx, int message_idx) {
+        append(TYPE_DELETE, room_idx, sender_idx, 0, message_idx);
+    }
+
+    private synchronized void append(String type, int room_idx, int member_idx, int other_idx, int message_idx) {
+        if (ring == null) {
+            return;
+        }
+        long seq = headSeq + 1;
+        ring.set((int) (seq % capacity), new Change(seq, type, room_idx, member_idx, other_idx, message_idx, System.currentTimeMillis()));
+        headSeq = seq;
+    }
+
+    public String getEpoch() {
+        return epoch;
+    }
+
+    public long getHeadSeq() {
+        return headSeq;
+    }
+
+    /**
+     * since_seq 이후 변경 중 회원에게 해당하는 변경 조회 (최대 limit 건)
+     * 새 메시지는 회원이 발신자/수신자인 것만, 읽음/삭제는 rooms 에 속한 것만 돌려준다.
+     * 읽음 변경은 채팅방/수신자별 가장 큰 워터마크 하나로 합친다.
+     * 조회는 잠금 없이 링 버퍼를 읽고, 읽는 도중 덮어쓴 슬롯을 만나면 이력 부족으로 처리한다.
+     * @return 커서 이후 이력이 남아 있지 않거나 노드 간 중계 사용 중이면 null (전체 재조회 필요)
+     */
+    public Changes since(String since_epoch, long since_seq, int member_idx, Set<Integer> rooms, int limit) {
+        readCount.incrementAndGet();
+
+        List<Change> matched = new ArrayList<>();
+        long nextSeq;
+
+        long head = headSeq;
+        long oldestSeq = Math.max(1, head - capacity + 1);
+        if (ring == null || !epoch.equals(since_epoch) || since_seq > head || since_seq + 1 < oldestSeq) {
+            resetCount.incrementAndGet();
+            return null;
+        }
+
+        nextSeq = since_seq;
+        long scanEnd = Math.min(head, since_seq + Math.max(1, scanMax));
+        for (long seq = since_seq + 1; seq <= scanEnd; seq++) {
+            Change change = ring.get((int) (seq % capacity));
+            if (change.seq != seq) {
+                // 조회 중 새 변경이 덮어씀
+                resetCount.incrementAndGet();
+                return null;
+            }
+            nextSeq = seq;
+            boolean mine = TYPE_MESSAGE.equals(change.type)
+                    ? change.member_idx == member_idx || change.other_idx == member_idx
+                    : rooms.contains(change.room_idx);
+            if (mine) {
+                matched.add(change);
+                if (matched.size() >= limit) {
+                    break;
+                }
+            }
+        }
+        // limit 건을 채웠거나 scanMax 건까지만 훑고 멈춘 경우 (다음 조회는 nextSeq 부터)
+        boolean hasMore = nextSeq < head;
+
+        // 새 메시지: 커밋 순서대로 번호만 / 읽음: (room_idx, receiver_idx) 별 최대 워터마크 / 삭제: 건별
+        List<Integer> messageIdxs = new ArrayList<>();
+        Map<Long, Map<String, Object>> reads = new LinkedHashMap<>();
+        List<Map<String, Object>> deletes = new ArrayList<>();
+        for (Change change : matched) {
+            if (TYPE_MESSAGE.equals(change.type)) {
+                messageIdxs.add(change.message_idx);
+            } else if (TYPE_READ.equals(change.type)) {
+                long key = ((long) change.room_idx << 32) | (change.member_idx & 0xFFFFFFFFL);
+                Map<String, Object> read = reads.get(key);
+                if (read == null || (int) read.get("room_seq") < change.message_idx) {
+                    read = new HashMap<>();
+                    read.put("room_idx", change.room_idx);
+                    read.put("receiver_idx", change.member_idx);
+                    read.put("room_seq", change.message_idx);
+                    read.put("timestamp", change.time);
+                    reads.put(key, read);
+                }
+            } else {
+                Map<String, Object> delete = new HashMap<>();
+                delete.put("room_idx", change.room_idx);
+                delete.put("deleted_by", change.member_idx);
+                delete.put("message_idx", change.message_idx);
+                delete.put("timestamp", change.time);
+                deletes.add(delete);
+            }
+        }
+
+        return new Changes(messageIdxs, new ArrayList<>(reads.values()), deletes, nextSeq, hasMore);
+    }
+
+    /**
+     * 변경 이력 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        long head = headSeq;
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("epoch", epoch);
+        stats.put("enabled", ring != null);
+        stats.put("capacity", capacity);
+        stats.put("scan_max", scanMax);
+        stats.put("head_seq", head);
+        stats.put("retained", Math.min(head, capacity));
+        stats.put("reads", readCount.get());
+        stats.put("resets", resetCount.get());
+        return stats;
+    }
+
+    /**
+     * 커서 이후 변경 조회 결과
+     */
+    public static final class Changes {
+        private final List<Integer> messageIdxs;
+        private final List<Map<String, Object>> reads;
+        private final List<Map<String, Object>> deletes;
+        private final long nextSeq;
+        private final boolean hasMore;
+
+        private Changes(List<Integer> messageIdxs, List<Map<String, Object>> reads, List<Map<String, Object>> deletes, long nextSeq, boolean hasMore) {
+            this.messageIdxs = messageIdxs;
+            this.reads = reads;
+            this.deletes = deletes;
+            this.nextSeq = nextSeq;
+            this.hasMore = hasMore;
+        }
+
+        // 커서 이후 커밋된 새 메시지 번호 (커밋 순서)
+        public List<Integer> getMessageIdxs() {
+            return messageIdxs;
+        }
+
+        public List<Map<String, Object>> getReads() {
+            return reads;
+        }
+
+        public List<Map<String, Object>> getDeletes() {
+            return deletes;
+        }
+
+        public long getNextSeq() {
+            return nextSeq;
+        }
+
+        public boolean isHasMore() {
+            return hasMore;
+        }
+    }
+
+    private static final class Change {
+        private final long seq;
+        private final String type;
+        private final int room_idx;
+        // 읽음: 수신자, 삭제: 삭제한 회원, 새 메시지: 발신자
+        private final int member_idx;
+        // 새 메시지: 수신자
+        private final int other_idx;
+        // 읽음: 워터마크 채팅방 순번, 그 외: 메시지 번호
+        private final int message_idx;
+        private final long time;
+
+        private Change(long seq, String type, int room_idx, int member_idx, int other_idx, int message_idx, long time) {
+            this.seq = seq;
+            this.type = type;
+            this.room_idx = room_idx;
+            this.member_idx = member_idx;
+            this.other_idx = other_idx;
+            this.message_idx = message_idx;
+            this.time = time;
+        }
+    }
+}
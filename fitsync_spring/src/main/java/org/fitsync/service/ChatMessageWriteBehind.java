@@ -0,0 +1,412 @@
+package org.fitsync.service;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.apache.ibatis.session.ExecutorType;
+import org.apache.ibatis.session.SqlSessionFactory;
+import org.fitsync.domain.MessageVO;
+import org.fitsync.mapper.MessageMapper;
+import org.fitsync.mapper.RoomMapper;
+import org.fitsync.util.ChatMetrics;
+import org.mybatis.spring.SqlSessionTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅 메시지 지연 저장(write-behind) 파이프라인
+ * 메시지 번호를 시퀀스 블록으로 미리 할당해 두고 즉시 응답/브로드캐스트한 뒤,
+ * 쌓인 메시지를 JDBC 배치로 한 번에 INSERT 하고 채팅방별 마지막 메시지는 한 번만 갱신한다.
+ * 대기열 초과, 배치 실패, 종료 중에는 동기 저장으로 전환된다.
+ * 배치가 실패하면 retry 시간 동안 동기 저장을 쓰고, 그 뒤 다시 대기열을 받아 다음 배치가 성공하면 정상 상태로 돌아온다.
+ * 건별 재저장까지 실패한 메시지는 이미 응답/브로드캐스트된 상태이므로 등록된 처리기(캐시 되돌리기, 발신자 알림)에 넘긴다.
+ * 배치 저장은 별도 커넥션(REQUIRES_NEW)을 쓰므로 flushPending()은 트랜잭션 밖에서 불러야 한다.
+ * 트랜잭션 안에서 부르면 커넥션을 쥔 채 잠금을 기다리다 커넥션 풀이 고갈될 수 있어, 기다리지 않고 배치 스레드만 깨운다.
+ */
+@Component
+@Log4j
+public class ChatMessageWriteBehind {
+
+    @Autowired
+    private SqlSessionFactory sqlSessionFactory;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private RoomMapper roomMapper;
+
+    @Autowired
+    private ChatMetrics chatMetrics;
+
+    /**
+     * 지연 저장 사용 여부 (false 이면 항상 동기 저장)
+     */
+    @Value("${chat.persist.write-behind.enabled:true}")
+    private boolean enabled;
+
+    /**
+     * 저장 대기열 최대 길이 (초과 시 동기 저장)
+     */
+    @Value("${chat.persist.queue.capacity:10000}")
+    private int queueCapacity;
+
+    /**
+     * 첫 메시지 도착 후 배치를 모으는 최대 시간 (밀리초)
+     */
+    @Value("${chat.persist.flush.interval.ms:50}")
+    private long flushIntervalMs;
+
+    /**
+     * 한 번에 INSERT 하는 최대 메시지 수
+     */
+    @Value("${chat.persist.flush.size:200}")
+    private int flushSize;
+
+    /**
+     * 한 번에 미리 할당하는 메시지 시퀀스 개수
+     */
+    @Value("${chat.persist.id.block.size:100}")
+    private int idBlockSize;
+
+    /**
+     * 배치 저장 실패 후 동기 저장만 쓰는 시간 (밀리초, 지나면 다시 대기열 사용)
+     */
+    @Value("${chat.persist.degraded.retry.ms:5000}")
+    private long degradedRetryMs;
+
+    private BlockingQueue<MessageVO> queue;
+    private SqlSessionTemplate batchSession;
+    private TransactionTemplate transactionTemplate;
+    private Thread flushThread;
+    private volatile boolean running;
+    // 배치 저장 실패 시각 (0 = 정상), 실패 후 degradedRetryMs 동안은 동기 저장
+    private volatile long degradedSince;
+    private volatile long degradedUntil;
+
+    // 저장(커밋)된 메시지 처리기
+    private final List<Consumer<MessageVO>> persistListeners = new CopyOnWriteArrayList<>();
+    // 저장에 끝내 실패한 메시지 처리기
+    private final List<Consumer<MessageVO>> lostListeners = new CopyOnWriteArrayList<>();
+
+    // 미리 할당된 메시지 번호
+    private final Deque<Integer> idBlock = new ArrayDeque<>();
+    // 배치 저장과 즉시 저장 요청이 겹치지 않도록 하는 잠금
+    private final Object flushLock = new Object();
+    // 대기열 + 모으는 중인 메시지 수 (아직 DB에 저장되지 않은 메시지)
+    private final AtomicInteger unflushedCount = new AtomicInteger();
+
+    // 처리 현황 카운터
+    private final AtomicLong enqueuedCount = new AtomicLong();
+    private final AtomicLong flushedCount = new AtomicLong();
+    private final AtomicLong flushBatchCount = new AtomicLong();
+    private final AtomicLong failedBatchCount = new AtomicLong();
+    private final AtomicLong syncFallbackCount = new AtomicLong();
+    private final AtomicLong lostCount = new AtomicLong();
+    private final AtomicLong recoveryCount = new AtomicLong();
+    private final AtomicLong flushInTransactionCount = new AtomicLong();
+    private volatile long lastFlushMs;
+
+    @PostConstruct
+    public void init() {
+        queue = new LinkedBlockingQueue<>(queueCapacity);
+        batchSession = new SqlSessionTemplate(sqlSessionFactory, ExecutorType.BATCH);
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        // 호출 측 트랜잭션(SIMPLE 실행기)과 섞이지 않도록 배치 저장은 항상 별도 트랜잭션으로 커밋
+        transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+
+        if (!enabled) {
+            log.info("채팅 메시지 지연 저장 비활성화 - 동기 저장 사용");
+            return;
+        }
+
+        running = true;
+        flushThread = new Thread(this::flushLoop, "chat-message-write-behind");
+        flushThread.setDaemon(true);
+        flushThread.start();
+
+        log.info("채팅 메시지 지연 저장 시작 - 대기열: " + queueCapacity + ", 배치 크기: " + flushSize + ", 간격: " + flushIntervalMs + "ms");
+    }
+
+    /**
+     * 지연 저장을 받을 수 있는 상태인지 확인
+     */
+    public boolean isAvailable() {
+        return running && System.currentTimeMillis() >= degradedUntil;
+    }
+
+    /**
+     * 저장된 메시지 처리기 등록 (커밋 후 저장 순서대로, 배치 저장 스레드 또는 flushPending 호출 스레드에서 호출됨)
+     */
+    public void addPersistListener(Consumer<MessageVO> listener) {
+        persistListeners.add(listener);
+    }
+
+    /**
+     * 저장에 끝내 실패한 메시지 처리기 등록 (배치 저장 스레드에서 호출됨)
+     */
+    public void addLostListener(Consumer<MessageVO> listener) {
+        lostListeners.add(listener);
+    }
+
+    /**
+     * 미리 할당해 둔 메시지 번호 하나를 꺼낸다 (비어 있으면 시퀀스 블록 재할당)
+     */
+    public synchronized int nextMessageIdx() {
+        if (idBlock.isEmpty()) {
+            idBlock.addAll(messageMapper.getMessageSeqBlock(idBlockSize));
+        }
+        return idBlock.poll();
+    }
+
+    /**
+     * 저장 대기열에 메시지 등록
+     * @return 대기열이 가득 찼거나 사용 불가 상태이면 false (호출 측에서 동기 저장)
+     */
+    public boolean offer(MessageVO vo) {
+        if (!isAvailable()) {
+            syncFallbackCount.incrementAndGet();
+            return false;
+        }
+
+        unflushedCount.incrementAndGet();
+        if (!queue.offer(vo)) {
+            unflushedCount.decrementAndGet();
+            syncFallbackCount.incrementAndGet();
+            return false;
+        }
+        enqueuedCount.incrementAndGet();
+
+        // 대기열이 비어 있다가 채워졌거나 배치 크기에 도달하면 배치 스레드를 깨운다
+        int size = queue.size();
+        if (size == 1 || size >= flushSize) {
+            LockSupport.unpark(flushThread);
+        }
+        return true;
+    }
+
+    /**
+     * 대기 중인 메시지를 즉시 저장
+     * 기존 메시지를 조회/수정하는 작업 전에 호출해 아직 저장되지 않은 메시지가 누락되지 않도록 한다.
+     * 트랜잭션 밖에서 호출해야 한다 (트랜잭션 안이면 저장하지 않고 배치 스레드만 깨운 뒤 false).
+     * @return 호출 시점까지 등록된 메시지가 모두 저장되었으면 true
+     */
+    public boolean flushPending() {
+        if (unflushedCount.get() == 0) {
+            return true;
+        }
+
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            // 호출 측 커넥션을 쥔 채 배치 저장(별도 커넥션)을 기다리지 않음
+            flushInTransactionCount.incrementAndGet();
+            LockSupport.unpark(flushThread);
+            return false;
+        }
+
+        synchronized (flushLock) {
+            drainAndFlush();
+        }
+        return true;
+    }
+
+    // 배치 저장 스레드: 첫 메시지 도착 후 flushIntervalMs 가 지나거나 flushSize 개가 모이면 저장
+    // 대기열에서 꺼내는 작업은 항상 flushLock 안에서만 하므로 flushPending()이 놓치는 메시지가 없다.
+    private void flushLoop() {
+        long intervalNanos = TimeUnit.MILLISECONDS.toNanos(flushIntervalMs);
+
+        while (running || !queue.isEmpty()) {
+            try {
+                if (queue.isEmpty()) {
+                    LockSupport.parkNanos(this, intervalNanos);
+                    continue;
+                }
+
+                long deadline = System.nanoTime() + intervalNanos;
+                long remaining;
+                while (queue.size() < flushSize && (remaining = deadline - System.nanoTime()) > 0) {
+                    LockSupport.parkNanos(this, remaining);
+                }
+
+                synchronized (flushLock) {
+                    drainAndFlush();
+                }
+
+            } catch (Exception e) {
+                log.error("채팅 메시지 배치 저장 루프 오류", e);
+            }
+        }
+    }
+
+    // 대기열이 빌 때까지 flushSize 단위로 저장 (flushLock 보유 상태에서 호출)
+    private void drainAndFlush() {
+        List<MessageVO> batch = new ArrayList<>(flushSize);
+        while (queue.drainTo(batch, flushSize) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    // 메시지 INSERT 배치 + 채팅방별 마지막 메시지 1회 갱신
+    private void flush(List<MessageVO> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+        long startNanos = chatMetrics.start();
+
+        // 채팅방별 마지막 메시지 (대기열 순서 = 채팅방 내 전송 순서)
+        Map<Integer, Integer> lastMessageByRoom = new LinkedHashMap<>();
+        for (MessageVO vo : batch) {
+            lastMessageByRoom.put(vo.getRoom_idx(), vo.getMessage_idx());
+        }
+
+        try {
+            writeBatch(batch, lastMessageByRoom);
+
+            flushedCount.addAndGet(batch.size());
+            flushBatchCount.incrementAndGet();
+            for (MessageVO vo : batch) {
+                notify(persistListeners, vo);
+            }
+            if (degradedSince != 0) {
+                recoveryCount.incrementAndGet();
+                log.info("채팅 메시지 배치 저장 복구 - 장애 시간: " + (System.currentTimeMillis() - degradedSince) + "ms");
+                degradedSince = 0;
+            }
+
+        } catch (Exception e) {
+            // 배치 실패 시 일정 시간 동기 저장으로 전환하고 메시지를 한 건씩 다시 저장
+            long now = System.currentTimeMillis();
+            if (degradedSince == 0) {
+                degradedSince = now;
+            }
+            degradedUntil = now + degradedRetryMs;
+            failedBatchCount.incrementAndGet();
+            chatMetrics.fail("db.batch_flush", e);
+            log.error("채팅 메시지 배치 저장 실패 - 건별 저장으로 재시도 (" + batch.size() + "건)", e);
+            flushOneByOne(batch);
+        }
+
+        unflushedCount.addAndGet(-batch.size());
+        lastFlushMs = System.currentTimeMillis() - startTime;
+        chatMetrics.record("db.batch_flush", startNanos);
+    }
+
+    // 배치 INSERT + 채팅방별 마지막 메시지 갱신을 한 트랜잭션으로 커밋 (테스트에서 DB 없이 배치 경로를 검증할 수 있도록 분리)
+    void writeBatch(List<MessageVO> batch, Map<Integer, Integer> lastMessageByRoom) {
+        transactionTemplate.execute(status -> {
+            MessageMapper batchMessageMapper = batchSession.getMapper(MessageMapper.class);
+            RoomMapper batchRoomMapper = batchSession.getMapper(RoomMapper.class);
+
+            for (MessageVO vo : batch) {
+                batchMessageMapper.insertMessageWithIdx(vo);
+            }
+            for (Map.Entry<Integer, Integer> entry : lastMessageByRoom.entrySet()) {
+                batchRoomMapper.updateLastMessage(entry.getKey(), entry.getValue());
+            }
+            return null;
+        });
+    }
+
+    // 배치 실패 시 건별 저장 (한 건의 오류가 배치 전체를 잃지 않도록)
+    // flushPending() 을 부른 쪽의 트랜잭션에 섞이지 않도록 건마다 별도 트랜잭션으로 커밋
+    private void flushOneByOne(List<MessageVO> batch) {
+        for (MessageVO vo : batch) {
+            try {
+                transactionTemplate.execute(status -> {
+                    messageMapper.insertMessageWithIdx(vo);
+                    roomMapper.updateLastMessage(vo.getRoom_idx(), vo.getMessage_idx());
+                    return null;
+                });
+                flushedCount.incrementAndGet();
+                notify(persistListeners, vo);
+            } catch (Exception e) {
+                lostCount.incrementAndGet();
+                log.error("채팅 메시지 저장 실패 - message_idx: " + vo.getMessage_idx() + ", room_idx: " + vo.getRoom_idx(), e);
+                // 이미 응답/브로드캐스트된 메시지가 저장되지 못했음을 알림
+                notify(lostListeners, vo);
+            }
+        }
+    }
+
+    private void notify(List<Consumer<MessageVO>> listeners, MessageVO vo) {
+        for (Consumer<MessageVO> listener : listeners) {
+            try {
+                listener.accept(vo);
+            } catch (Exception e) {
+                log.error("저장 결과 처리 오류 - message_idx: " + vo.getMessage_idx(), e);
+            }
+        }
+    }
+
+    /**
+     * 지연 저장 처리 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", enabled);
+        stats.put("available", isAvailable());
+        stats.put("degraded", degradedSince != 0);
+        stats.put("degraded_since", degradedSince);
+        stats.put("degraded_retry_ms", degradedRetryMs);
+        stats.put("recoveries", recoveryCount.get());
+        stats.put("queue_depth", queue.size());
+        stats.put("unflushed", unflushedCount.get());
+        stats.put("queue_capacity", queueCapacity);
+        stats.put("enqueued", enqueuedCount.get());
+        stats.put("flushed", flushedCount.get());
+        stats.put("flush_batches", flushBatchCount.get());
+        stats.put("failed_batches", failedBatchCount.get());
+        stats.put("sync_fallbacks", syncFallbackCount.get());
+        stats.put("lost", lostCount.get());
+        stats.put("flush_in_transaction", flushInTransactionCount.get());
+        stats.put("last_flush_ms", lastFlushMs);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!running) {
+            return;
+        }
+
+        // 신규 등록을 막고 배치 스레드 종료 후 남은 메시지를 모두 저장
+        running = false;
+        LockSupport.unpark(flushThread);
+        try {
+            flushThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        flushPending();
+
+        log.info("채팅 메시지 지연 저장 종료 - 저장: " + flushedCount.get() + "건, 실패: " + lostCount.get() + "건");
+    }
+}
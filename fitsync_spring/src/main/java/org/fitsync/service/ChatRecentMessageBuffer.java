@@ -0,0 +1,396 @@
+package org.fitsync.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.fitsync.domain.MessageVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 활성 채팅방의 최근 메시지 링 버퍼
+ * 채팅방마다 삭제되지 않은 최신 메시지를 최대 bufferSize 개까지 보관해, 채팅방 입장 시 DB 대신 메모리에서 응답한다.
+ * 버퍼는 항상 "가장 최근 메시지부터 연속된 구간"만 보관하며, 채팅방 전체 메시지가 다 들어 있으면 complete 로 표시한다.
+ * 메시지 저장 시 뒤에 추가하고, 삭제/읽음/첨부파일 연결 시 버퍼 안의 메시지도 함께 갱신한다.
+ * 커서와 읽음 워터마크는 채팅방 순번(room_seq) 기준이며, 같은 채팅방 메시지는 채팅방 행 잠금으로 순번 순서대로 추가된다.
+ * 버퍼 안의 메시지는 버퍼 잠금 안에서만 읽고 고치며, 조회 결과로는 항상 복사본을 돌려준다.
+ * 처음 조회(DB) 결과로 채워지며, 조회 중 변경이 생긴 채팅방은 버퍼를 만들지 않고 다음 조회에서 다시 시도한다.
+ * 버퍼는 이 노드에서 처리한 변경만 반영하므로, 노드 간 중계(chat.relay.enabled)를 쓰면 버퍼를 만들지 않고 항상 DB 에서 조회한다.
+ */
+@Component
+public class ChatRecentMessageBuffer {
+
+    // 메시지 1건의 기본 메모리 사용량 추정치 (객체 헤더, 필드, Timestamp 등)
+    private static final int MESSAGE_BASE_BYTES = 160;
+
+    /**
+     * 채팅방별 최대 보관 메시지 수
+     */
+    @Value("${chat.recent.buffer.size:200}")
+    private int bufferSize;
+
+    /**
+     * 버퍼를 유지하는 최대 채팅방 수 (초과 시 가장 오래 사용되지 않은 채팅방부터 제거)
+     */
+    @Value("${chat.recent.max.rooms:1000}")
+    private int maxRooms;
+
+    /**
+     * 노드 간 중계 사용 여부 (사용 시 버퍼 미사용)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // room_idx → 채팅방 버퍼 (접근 순서)
+    private final LinkedHashMap<Integer, RoomBuffer> rooms = new LinkedHashMap<>(16, 0.75f, true);
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong fillCount = new AtomicLong();
+    private final AtomicLong abortedFillCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    /**
+     * 채팅방 전체 메시지 (버퍼가 채팅방 전체를 담고 있을 때만, 아니면 null)
+     */
+    public List<MessageVO> all(int room_idx) {
+        RoomBuffer buffer = ready(room_idx);
+        if (buffer != null) {
+            synchronized (buffer) {
+                if (buffer.complete) {
+                    hitCount.incrementAndGet();
+                    return copyOf(buffer.messages);
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 최신순 offset 건을 건너뛴 size 건 (오름차순, 버퍼 범위를 벗어나면 null)
+     */
+    public List<MessageVO> page(int room_idx, int offset, int size) {
+        RoomBuffer buffer = ready(room_idx);
+        if (buffer != null) {
+            synchronized (buffer) {
+                int count = buffer.messages.size();
+                if (offset + size <= count || buffer.complete) {
+                    List<MessageVO> list = new ArrayList<>(buffer.messages);
+                    int to = Math.max(0, count - offset);
+                    int from = Math.max(0, to - size);
+                    hitCount.incrementAndGet();
+                    return copyOf(list.subList(from, to));
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 채팅방 순번 before_room_seq 이전 메시지 size 건 (오름차순, 버퍼 범위를 벗어나면 null)
+     */
+    public List<MessageVO> before(int room_idx, int before_room_seq, int size) {
+        RoomBuffer buffer = ready(room_idx);
+        if (buffer != null) {
+            synchronized (buffer) {
+                List<MessageVO> matched = new ArrayList<>();
+                for (MessageVO message : buffer.messages) {
+                    if (seqOf(message) < before_room_seq) {
+                        matched.add(message);
+                    }
+                }
+                if (matched.size() >= size || buffer.complete) {
+                    hitCount.incrementAndGet();
+                    return copyOf(matched.subList(Math.max(0, matched.size() - size), matched.size()));
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * 채팅방 순번 after_room_seq 이후 메시지 size 건 (오름차순, 기준 메시지가 버퍼 범위 밖이면 null)
+     */
+    public List<MessageVO> after(int room_idx, int after_room_seq, int size) {
+        RoomBuffer buffer = ready(room_idx);
+        if (buffer != null) {
+            synchronized (buffer) {
+                MessageVO oldest = buffer.messages.peekFirst();
+                if (buffer.complete || (oldest != null && seqOf(oldest) <= after_room_seq)) {
+                    List<MessageVO> matched = new ArrayList<>();
+                    for (MessageVO message : buffer.messages) {
+                        if (seqOf(message) > after_room_seq && matched.size() < size) {
+                            matched.add(message);
+                        }
+                    }
+                    hitCount.incrementAndGet();
+                    return copyOf(matched);
+                }
+            }
+        }
+        missCount.incrementAndGet();
+        return null;
+    }
+
+    /**
+     * DB 조회 전에 호출 (조회 중 들어온 메시지/변경을 기록할 자리를 먼저 만든다, 버퍼 미사용이면 null)
+     */
+    public synchronized RoomBuffer beginFill(int room_idx) {
+        if (relayEnabled) {
+            return null;
+        }
+        RoomBuffer buffer = rooms.get(room_idx);
+        if (buffer == null) {
+            buffer = new RoomBuffer();
+            rooms.put(room_idx, buffer);
+            evictIfNeeded();
+        }
+        return buffer;
+    }
+
+    /**
+     * DB 조회 결과(오름차순, 최신 메시지부터 연속된 구간)로 버퍼 채우기
+     * @param complete 조회 결과가 채팅방의 모든 메시지인지 여부
+     */
+    public void fill(RoomBuffer buffer, List<MessageVO> messages, boolean complete) {
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            if (!buffer.loading) {
+                return;
+            }
+            if (buffer.dirty) {
+                // 조회 중 삭제/읽음 등 변경이 있었으면 버퍼를 만들지 않음 (다음 조회에서 다시 채움)
+                buffer.dirty = false;
+                buffer.pending.clear();
+                abortedFillCount.incrementAndGet();
+                return;
+            }
+
+            // 최신 bufferSize 건만 보관
+            for (int i = Math.max(0, messages.size() - bufferSize); i < messages.size(); i++) {
+                buffer.messages.addLast(messages.get(i).copy());
+            }
+            complete = complete && messages.size() <= bufferSize;
+            // 조회 중 저장된 메시지 중 조회 결과에 없는 것만 추가
+            for (MessageVO message : buffer.pending) {
+                if (!buffer.contains(message.getMessage_idx())) {
+                    buffer.messages.addLast(message);
+                }
+            }
+            buffer.pending.clear();
+            buffer.complete = complete;
+            buffer.trim(bufferSize);
+            buffer.loading = false;
+            fillCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 새 메시지 저장 시 버퍼 끝에 추가
+     */
+    public void onMessage(MessageVO vo) {
+        RoomBuffer buffer = get(vo.getRoom_idx());
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.loading) {
+                buffer.pending.add(vo.copy());
+                if (buffer.pending.size() > bufferSize) {
+                    // 조회가 끝나지 않은 채 계속 쌓이면 이번 조회 결과는 버림
+                    buffer.dirty = true;
+                    buffer.pending.clear();
+                }
+            } else if (!buffer.contains(vo.getMessage_idx())) {
+                buffer.messages.addLast(vo.copy());
+                buffer.trim(bufferSize);
+            }
+        }
+    }
+
+    /**
+     * 메시지 삭제 시 버퍼에서 제거
+     */
+    public void onDelete(int room_idx, int message_idx) {
+        RoomBuffer buffer = get(room_idx);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.loading) {
+                buffer.dirty = true;
+                return;
+            }
+            buffer.messages.removeIf(message -> message.getMessage_idx() == message_idx);
+        }
+    }
+
+    /**
+     * 워터마크(채팅방 순번) 읽음 처리 시 수신자의 안 읽은 메시지에 읽은 시간 기록
+     */
+    public void onReadUpTo(int room_idx, int receiver_idx, int room_seq) {
+        RoomBuffer buffer = get(room_idx);
+        if (buffer == null) {
+            return;
+        }
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        synchronized (buffer) {
+            if (buffer.loading) {
+                buffer.dirty = true;
+                return;
+            }
+            for (MessageVO message : buffer.messages) {
+                if (message.getReceiver_idx() == receiver_idx && seqOf(message) <= room_seq && message.getMessage_readdate() == null) {
+                    message.setMessage_readdate(now);
+                }
+            }
+        }
+    }
+
+    /**
+     * 메시지 단건 변경 (첨부파일 연결)
+     */
+    public void onUpdate(int room_idx, int message_idx, Consumer<MessageVO> update) {
+        RoomBuffer buffer = get(room_idx);
+        if (buffer == null) {
+            return;
+        }
+        synchronized (buffer) {
+            if (buffer.loading) {
+                buffer.dirty = true;
+                return;
+            }
+            for (MessageVO message : buffer.messages) {
+                if (message.getMessage_idx() == message_idx) {
+                    update.accept(message);
+                    return;
+                }
+            }
+        }
+    }
+
+    // 조회 결과용 복사본 (버퍼 안의 메시지는 잠금 밖으로 내보내지 않음, 버퍼 잠금 안에서 호출)
+    private static List<MessageVO> copyOf(Iterable<MessageVO> messages) {
+        List<MessageVO> copies = new ArrayList<>();
+        for (MessageVO message : messages) {
+            copies.add(message.copy());
+        }
+        return copies;
+    }
+
+    // 채팅방 순번 (순번 컬럼 추가 전 메시지는 0)
+    private static int seqOf(MessageVO message) {
+        return message.getRoom_seq() != null ? message.getRoom_seq() : 0;
+    }
+
+    // 채워진 버퍼 조회 (채우는 중이면 null)
+    private RoomBuffer ready(int room_idx) {
+        RoomBuffer buffer = get(room_idx);
+        if (buffer == null) {
+            return null;
+        }
+        synchronized (buffer) {
+            return buffer.loading ? null : buffer;
+        }
+    }
+
+    private synchronized RoomBuffer get(int room_idx) {
+        return rooms.get(room_idx);
+    }
+
+    // 상한을 넘으면 가장 오래 사용되지 않은 채팅방부터 제거 (synchronized 안에서 호출)
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Integer, RoomBuffer>> iterator = rooms.entrySet().iterator();
+        while (rooms.size() > maxRooms && iterator.hasNext()) {
+            iterator.next();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * 버퍼 현황 조회 (관리자 모니터링용, 메모리 사용량은 본문 길이 기준 추정치)
+     */
+    public Map<String, Object> getStats() {
+        List<RoomBuffer> buffers;
+        synchronized (this) {
+            buffers = new ArrayList<>(rooms.values());
+        }
+
+        long messageCount = 0;
+        long estimatedBytes = 0;
+        for (RoomBuffer buffer : buffers) {
+            synchronized (buffer) {
+                for (MessageVO message : buffer.messages) {
+                    messageCount++;
+                    estimatedBytes += MESSAGE_BASE_BYTES + length(message.getMessage_content()) * 2L + length(message.getMatching_data()) * 2L;
+                }
+            }
+        }
+
+        long hits = hitCount.get();
+        long total = hits + missCount.get();
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", !relayEnabled);
+        stats.put("rooms", buffers.size());
+        stats.put("max_rooms", maxRooms);
+        stats.put("buffer_size", bufferSize);
+        stats.put("messages", messageCount);
+        stats.put("estimated_bytes", estimatedBytes);
+        stats.put("hits", hits);
+        stats.put("misses", missCount.get());
+        stats.put("hit_rate", total > 0 ? (double) hits / total : 0);
+        stats.put("fills", fillCount.get());
+        stats.put("aborted_fills", abortedFillCount.get());
+        stats.put("evictions", evictionCount.get());
+        return stats;
+    }
+
+    private static int length(String text) {
+        return text != null ? text.length() : 0;
+    }
+
+    /**
+     * 채팅방 하나의 최근 메시지 (오름차순, 앞쪽이 가장 오래된 메시지)
+     */
+    public static final class RoomBuffer {
+        private final ArrayDeque<MessageVO> messages = new ArrayDeque<>();
+        // DB 조회 중 저장된 메시지
+        private final List<MessageVO> pending = new ArrayList<>();
+        private boolean loading = true;
+        private boolean dirty;
+        private boolean complete;
+
+        private boolean contains(int message_idx) {
+            for (MessageVO message : messages) {
+                if (message.getMessage_idx() == message_idx) {
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        // 최대 개수를 넘으면 오래된 메시지부터 제거 (채팅방 전체를 담고 있지 않게 됨)
+        private void trim(int maxSize) {
+            while (messages.size() > maxSize) {
+                messages.pollFirst();
+                complete = false;
+            }
+        }
+    }
+}
@@ -0,0 +1,427 @@
+package org.fitsync.service;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.fitsync.domain.MessageVO;
+import org.fitsync.mapper.MessageMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅방 내 메시지 검색용 2-gram(글자 두 개 단위) 역색인
+ * 한국어는 띄어쓰기 단위 검색이 맞지 않으므로 대문자로 정규화한 본문을 두 글자씩 잘라 message_idx 목록을 만든다.
+ * 검색어의 모든 2-gram 목록을 교집합해 후보 message_idx 를 구하고, 후보만 DB에서 조회한다.
+ * 채팅방 색인은 처음 검색할 때 만들고(지연 생성), 메시지 저장/삭제 시 갱신하며,
+ * 전체 항목 수 상한을 넘으면 가장 오래 검색되지 않은 채팅방부터 제거한다.
+ * 색인 생성(DB 조회)은 전역 잠금 밖에서 채팅방별로 한 번만 진행하고, 같은 채팅방의 다른 검색은 그 결과를 기다린다.
+ * 생성 중에 저장/삭제된 메시지는 만들고 있는 색인에 바로 반영한다.
+ * 색인은 이 노드에서 저장/삭제한 메시지만 반영하므로, 노드 간 중계(chat.relay.enabled)를 쓰면 색인을 만들지 않고 항상 DB 검색한다.
+ */
+@Component
+@Log4j
+public class ChatSearchIndex {
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    /**
+     * 색인을 유지하는 최대 채팅방 수
+     */
+    @Value("${chat.search.index.max.rooms:200}")
+    private int maxRooms;
+
+    /**
+     * 전체 색인 항목(2-gram, message_idx 쌍) 최대 개수
+     */
+    @Value("${chat.search.index.max.postings:5000000}")
+    private long maxPostings;
+
+    /**
+     * 채팅방 하나의 최대 색인 항목 수 (초과하는 채팅방은 색인하지 않고 DB 검색)
+     */
+    @Value("${chat.search.index.max.room.postings:500000}")
+    private int maxRoomPostings;
+
+    /**
+     * 노드 간 중계 사용 여부 (사용 시 색인 미사용)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // room_idx → 채팅방 색인 (접근 순서, 앞쪽이 가장 오래 사용되지 않은 채팅방)
+    private final LinkedHashMap<Integer, RoomIndex> rooms = new LinkedHashMap<>(16, 0.75f, true);
+    // 색인하기에 너무 큰 채팅방 (재생성 전까지 DB 검색)
+    private final Set<Integer> oversizedRooms = new HashSet<>();
+    private long totalPostings;
+    // room_idx → 생성 중인 색인 (등록/제거는 synchronized 안에서)
+    private final ConcurrentHashMap<Integer, Build> building = new ConcurrentHashMap<>();
+
+    // 처리 현황 카운터
+    private final AtomicLong searchCount = new AtomicLong();
+    private final AtomicLong fallbackCount = new AtomicLong();
+    private final AtomicLong buildCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong candidateCount = new AtomicLong();
+    private final AtomicLong hitCount = new AtomicLong();
+
+    /**
+     * 검색어에 해당할 수 있는 후보 message_idx 목록 (최신순)
+     * @return 색인으로 처리할 수 없으면 null (검색어가 두 글자 미만, 색인 불가 채팅방, 노드 간 중계 사용 중이면 호출 측에서 DB 검색)
+     */
+    public List<Integer> candidates(int room_idx, String keyword) {
+        searchCount.incrementAndGet();
+
+        String normalized = normalize(keyword);
+        if (relayEnabled || normalized.length() < 2) {
+            fallbackCount.incrementAndGet();
+            return null;
+        }
+
+        RoomIndex index = getOrBuild(room_idx);
+        if (index == null) {
+            fallbackCount.incrementAndGet();
+            return null;
+        }
+
+        List<Integer> result = index.search(normalized);
+        candidateCount.addAndGet(result.size());
+        return result;
+    }
+
+    /**
+     * 후보 메시지 중 실제로 검색어를 포함하는 메시지만 남긴다 (2-gram 교집합은 순서를 보장하지 않음)
+     */
+    public List<MessageVO> verify(List<MessageVO> messages, String keyword) {
+        String normalized = normalize(keyword);
+        List<MessageVO> result = new ArrayList<>(messages.size());
+        for (MessageVO message : messages) {
+            if (message.getMessage_content() != null && normalize(message.getMessage_content()).contains(normalized)) {
+                result.add(message);
+            }
+        }
+        hitCount.addAndGet(result.size());
+        return result;
+    }
+
+    /**
+     * 새 메시지 저장 시 색인에 추가 (색인이 만들어졌거나 만들고 있는 채팅방만)
+     */
+    public void onMessage(MessageVO vo) {
+        RoomIndex index = find(vo.getRoom_idx());
+        if (index == null) {
+            return;
+        }
+
+        int added = index.add(vo.getMessage_idx(), vo.getMessage_content());
+        synchronized (this) {
+            totalPostings += added;
+            if (rooms.get(vo.getRoom_idx()) == index && index.size() > maxRoomPostings) {
+                // 채팅방이 너무 커지면 색인을 버리고 DB 검색으로 전환
+                removeRoom(vo.getRoom_idx());
+                oversizedRooms.add(vo.getRoom_idx());
+            }
+            evictIfNeeded();
+        }
+    }
+
+    /**
+     * 메시지 삭제 시 색인에서 제외
+     */
+    public void onDelete(int room_idx, int message_idx) {
+        RoomIndex index = find(room_idx);
+        if (index != null) {
+            index.delete(message_idx);
+        }
+    }
+
+    // 채팅방의 공개된 색인, 없으면 생성 중인 색인
+    private synchronized RoomIndex find(int room_idx) {
+        RoomIndex index = rooms.get(room_idx);
+        if (index == null) {
+            Build build = building.get(room_idx);
+            index = build != null ? build.index : null;
+        }
+        return index;
+    }
+
+    /**
+     * 색인 재생성 (room_idx 가 null 이면 전체 제거 후 다음 검색 시 다시 생성)
+     */
+    public Map<String, Object> rebuild(Integer room_idx) {
+        Map<String, Object> result = new HashMap<>();
+
+        synchronized (this) {
+            if (room_idx == null) {
+                int cleared = rooms.size();
+                rooms.clear();
+                oversizedRooms.clear();
+                totalPostings = 0;
+                result.put("cleared_rooms", cleared);
+                return result;
+            }
+            removeRoom(room_idx);
+            oversizedRooms.remove(room_idx);
+        }
+
+        RoomIndex index = getOrBuild(room_idx);
+        result.put("room_idx", room_idx);
+        result.put("indexed", index != null);
+        result.put("postings", index != null ? index.size() : 0);
+        return result;
+    }
+
+    // 채팅방 색인 조회 (없으면 DB에서 채팅방 메시지를 읽어 생성, 다른 스레드가 생성 중이면 완료를 기다림)
+    private RoomIndex getOrBuild(int room_idx) {
+        Build build;
+        Build running;
+        synchronized (this) {
+            if (oversizedRooms.contains(room_idx)) {
+                return null;
+            }
+            RoomIndex index = rooms.get(room_idx);
+            if (index != null) {
+                return index;
+            }
+            build = new Build();
+            running = building.putIfAbsent(room_idx, build);
+        }
+        if (running != null) {
+            // 생성 실패 시 null (호출 측에서 DB 검색)
+            return running.done.join();
+        }
+
+        RoomIndex index = null;
+        try {
+            index = build(room_idx, build.index);
+            return index;
+        } catch (RuntimeException e) {
+            log.warn("채팅방 검색 색인 생성 실패 - room_idx: " + room_idx + ", " + e.getMessage());
+            synchronized (this) {
+                building.remove(room_idx, build);
+            }
+            return null;
+        } finally {
+            build.done.complete(index);
+        }
+    }
+
+    // 채팅방 색인 생성 (DB 조회는 잠금 밖, 공개와 생성 중 표시 해제는 한 번에)
+    private RoomIndex build(int room_idx, RoomIndex index) {
+        long startTime = System.currentTimeMillis();
+
+        boolean oversized = false;
+        for (MessageVO message : messageMapper.getMessageContentsForIndex(room_idx)) {
+            index.add(message.getMessage_idx(), message.getMessage_content());
+            if (index.size() > maxRoomPostings) {
+                oversized = true;
+                break;
+            }
+        }
+
+        synchronized (this) {
+            building.remove(room_idx);
+            if (oversized || index.size() > maxRoomPostings) {
+                oversizedRooms.add(room_idx);
+                log.info("채팅방 검색 색인 생략 (항목 수 초과) - room_idx: " + room_idx);
+                return null;
+            }
+            rooms.put(room_idx, index);
+            totalPostings += index.publish();
+            buildCount.incrementAndGet();
+            evictIfNeeded();
+        }
+
+        log.info("채팅방 검색 색인 생성 - room_idx: " + room_idx + ", 항목: " + index.size() + ", " + (System.currentTimeMillis() - startTime) + "ms");
+        return index;
+    }
+
+    // 상한을 넘으면 가장 오래 사용되지 않은 채팅방 색인부터 제거 (synchronized 안에서 호출)
+    private void evictIfNeeded() {
+        Iterator<Map.Entry<Integer, RoomIndex>> iterator = rooms.entrySet().iterator();
+        while ((rooms.size() > maxRooms || totalPostings > maxPostings) && rooms.size() > 1 && iterator.hasNext()) {
+            Map.Entry<Integer, RoomIndex> eldest = iterator.next();
+            totalPostings -= eldest.getValue().size();
+            iterator.remove();
+            evictionCount.incrementAndGet();
+        }
+    }
+
+    // 채팅방 색인 제거 (synchronized 안에서 호출)
+    private void removeRoom(int room_idx) {
+        RoomIndex removed = rooms.remove(room_idx);
+        if (removed != null) {
+            totalPostings -= removed.size();
+        }
+    }
+
+    // 대소문자 구분 없는 검색을 위해 대문자로 정규화 (기존 UPPER(...) LIKE 와 동일한 기준)
+    private static String normalize(String text) {
+        return text == null ? "" : text.toUpperCase(Locale.ROOT);
+    }
+
+    /**
+     * 색인 현황 조회 (관리자 모니터링용)
+     */
+    public synchronized Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", !relayEnabled);
+        stats.put("rooms", rooms.size());
+        stats.put("oversized_rooms", oversizedRooms.size());
+        stats.put("postings", totalPostings);
+        stats.put("max_rooms", maxRooms);
+        stats.put("max_postings", maxPostings);
+        stats.put("searches", searchCount.get());
+        stats.put("fallbacks", fallbackCount.get());
+        stats.put("builds", buildCount.get());
+        stats.put("evictions", evictionCount.get());
+        stats.put("candidates", candidateCount.get());
+        stats.put("hits", hitCount.get());
+        return stats;
+    }
+
+    /**
+     * 생성 중인 채팅방 색인과 완료 결과 (같은 채팅방을 기다리는 검색이 결과를 받음, 생략/실패 시 null)
+     */
+    private static final class Build {
+        private final RoomIndex index = new RoomIndex();
+        private final CompletableFuture<RoomIndex> done = new CompletableFuture<>();
+    }
+
+    /**
+     * 채팅방 하나의 2-gram → message_idx 오름차순 목록
+     * 삭제된 메시지는 목록에서 바로 빼지 않고 삭제 집합으로 걸러낸다.
+     */
+    private static final class RoomIndex {
+        private final Map<Integer, IntList> postings = new HashMap<>();
+        private final Set<Integer> deleted = new HashSet<>();
+        private int size;
+        // 공개 전(생성 중) 추가된 항목은 공개할 때 한 번에 전체 항목 수에 더함
+        private boolean published;
+
+        // 메시지 본문의 2-gram 을 색인에 추가하고 전체 항목 수에 더할 개수 반환 (공개 전이면 0)
+        synchronized int add(int message_idx, String content) {
+            String text = normalize(content);
+            int added = 0;
+            Set<Integer> seen = new HashSet<>();
+            for (int i = 0; i + 1 < text.length(); i++) {
+                int gram = bigram(text, i);
+                if (seen.add(gram) && postings.computeIfAbsent(gram, key -> new IntList()).addSorted(message_idx)) {
+                    added++;
+                }
+            }
+            size += added;
+            return published ? added : 0;
+        }
+
+        // 공개 표시 후 지금까지의 항목 수 반환
+        synchronized int publish() {
+            published = true;
+            return size;
+        }
+
+        synchronized void delete(int message_idx) {
+            deleted.add(message_idx);
+        }
+
+        synchronized int size() {
+            return size;
+        }
+
+        // 검색어 2-gram 목록의 교집합 (짧은 목록부터 교집합, 최신순 반환)
+        synchronized List<Integer> search(String keyword) {
+            Set<Integer> grams = new HashSet<>();
+            for (int i = 0; i + 1 < keyword.length(); i++) {
+                grams.add(bigram(keyword, i));
+            }
+
+            List<IntList> lists = new ArrayList<>(grams.size());
+            for (Integer gram : grams) {
+                IntList list = postings.get(gram);
+                if (list == null) {
+                    return new ArrayList<>();
+                }
+                lists.add(list);
+            }
+            lists.sort((a, b) -> Integer.compare(a.size, b.size));
+
+            int[] current = Arrays.copyOf(lists.get(0).values, lists.get(0).size);
+            int currentSize = current.length;
+            for (int l = 1; l < lists.size() && currentSize > 0; l++) {
+                currentSize = intersect(current, currentSize, lists.get(l));
+            }
+
+            List<Integer> result = new ArrayList<>(currentSize);
+            for (int i = currentSize - 1; i >= 0; i--) {
+                if (!deleted.contains(current[i])) {
+                    result.add(current[i]);
+                }
+            }
+            return result;
+        }
+
+        // current 의 앞쪽 currentSize 개와 other 의 교집합을 current 앞쪽에 덮어쓰고 개수 반환
+        private static int intersect(int[] current, int currentSize, IntList other) {
+            int i = 0, j = 0, k = 0;
+            while (i < currentSize && j < other.size) {
+                if (current[i] < other.values[j]) {
+                    i++;
+                } else if (current[i] > other.values[j]) {
+                    j++;
+                } else {
+                    current[k++] = current[i];
+                    i++;
+                    j++;
+                }
+            }
+            return k;
+        }
+
+        private static int bigram(String text, int i) {
+            return (text.charAt(i) << 16) | text.charAt(i + 1);
+        }
+    }
+
+    /**
+     * 오름차순 int 목록 (Integer 박싱 없이 메모리 절약)
+     */
+    private static final class IntList {
+        private int[] values = new int[4];
+        private int size;
+
+        // 대부분 증가하는 번호로 들어오므로 뒤에 붙이고, 드물게 순서가 어긋나면 제자리에 끼워 넣는다
+        // 추가했으면 true, 이미 있으면 false (생성 중 DB 조회 결과와 새 메시지가 겹칠 수 있음)
+        boolean addSorted(int value) {
+            if (size == values.length) {
+                values = Arrays.copyOf(values, size * 2);
+            }
+            if (size == 0 || values[size - 1] < value) {
+                values[size++] = value;
+                return true;
+            }
+            int pos = Arrays.binarySearch(values, 0, size, value);
+            if (pos >= 0) {
+                return false;
+            }
+            pos = -pos - 1;
+            System.arraycopy(values, pos, values, pos + 1, size - pos);
+            values[pos] = value;
+            size++;
+            return true;
+        }
+    }
+}
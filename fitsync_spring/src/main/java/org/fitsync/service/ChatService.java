@@ -21,16 +21,21 @@ public interface ChatService {
     public MessageVO getMessage(int message_idx);
     public List<MessageVO> readMessageList(int room_idx);
     public List<MessageVO> readMessageListPaging(int room_idx, int page, int size);
+    public List<MessageVO> readMessageListBefore(int room_idx, int before_room_seq, int size);
+    public List<MessageVO> readMessageListAfter(int room_idx, int after_room_seq, int size);
+    public List<MessageVO> readMessageListBySeq(int room_idx, int from_seq, int to_seq);
     public List<MessageVO> searchMessage(int room_idx, String keyword);
-    public int readMark(int message_idx, int receiver_idx);
+    public int readMarkUpTo(int room_idx, int receiver_idx, int room_seq);
     public int unreadCount(int room_idx, int receiver_idx);
+    // 재접속 동기화 (모든 채팅방의 변경 이력 커서 이후 새 메시지/읽음/삭제 변경)
+    public Map<String, Object> syncSince(int member_idx, String epoch, Long change_since, int limit);
     
     // 파일 업로드
     public ChatAttachVO uploadFile(MultipartFile file) throws Exception;
     public boolean deleteFile(int attach_idx);
     public ChatAttachVO readFile(int message_idx);
     // 메시지와 첨부파일 연결
-    public int linkAttachmentToMessage(int message_idx, int attach_idx);
+    public int linkAttachmentToMessage(int room_idx, int message_idx, int attach_idx);
     // 메시지 삭제 (논리적 삭제)
     public boolean deleteMessage(int message_idx, int sender_idx);
     // 답장용 원본 메시지 조회
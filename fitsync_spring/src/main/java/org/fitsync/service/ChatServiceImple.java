@@ -1,9 +1,14 @@
 package org.fitsync.service;
 
+import java.util.ArrayList;
 import java.util.Date;
 import java.util.HashMap;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.PostConstruct;
 
 import org.fitsync.domain.ChatAttachVO;
 import org.fitsync.domain.MessageVO;
@@ -11,18 +16,31 @@ import org.fitsync.domain.RoomVO;
 import org.fitsync.mapper.ChatAttachMapper;
 import org.fitsync.mapper.MessageMapper;
 import org.fitsync.mapper.RoomMapper;
+import org.fitsync.util.ChatMetrics;
+import org.fitsync.util.RoomSequencer;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import lombok.extern.log4j.Log4j;
 
+// 대기 중인 메시지를 먼저 저장(flushPending)하는 메서드는 트랜잭션 밖(NOT_SUPPORTED)에서 실행한다.
+// 배치 저장은 별도 커넥션을 쓰므로, 커넥션을 쥔 요청 스레드들이 저장 잠금을 기다리면 커넥션 풀이 고갈된다.
 @Log4j
 @Service
 @Transactional
 public class ChatServiceImple implements ChatService {
 	
+	// 검색 후보 조회 시 IN 목록 최대 개수 (Oracle IN 절 1000개 제한)
+	private static final int SEARCH_FETCH_CHUNK = 1000;
+	
+	// 재접속 동기화 한 번에 돌려주는 최대 메시지/변경 수
+	private static final int SYNC_MAX_LIMIT = 500;
+	
 	@Autowired
     private RoomMapper roomMapper;
     
@@ -34,6 +52,65 @@ public class ChatServiceImple implements ChatService {
     
     @Autowired
     private CloudinaryService cloudinaryService;
+    
+    @Autowired
+    private ChatMessageWriteBehind messageWriteBehind;
+    
+    @Autowired
+    private ChatUnreadCounter unreadCounter;
+    
+    @Autowired
+    private RoomSummaryCache roomSummaryCache;
+    
+    @Autowired
+    private ChatSearchIndex searchIndex;
+    
+    @Autowired
+    private ChatRecentMessageBuffer recentBuffer;
+    
+    @Autowired
+    private ChatMetrics chatMetrics;
+    
+    @Autowired
+    private ChatChangeJournal changeJournal;
+    
+    @Autowired
+    private RoomSequencer roomSequencer;
+    
+    @PostConstruct
+    public void init() {
+    	messageWriteBehind.addPersistListener(this::onMessageCommitted);
+    	messageWriteBehind.addLostListener(this::onMessageLost);
+    }
+    
+    // 커밋된 메시지를 재접속 동기화 이력에 기록 (커밋 순서대로 기록해야 동기화 커서가 늦게 커밋된 메시지를 건너뛰지 않음)
+    private void onMessageCommitted(MessageVO vo) {
+    	changeJournal.onMessage(vo.getRoom_idx(), vo.getSender_idx(), vo.getReceiver_idx(), vo.getMessage_idx());
+    }
+    
+    // 동기 저장한 메시지는 현재 트랜잭션 커밋 후 이력에 기록
+    private void recordAfterCommit(MessageVO vo) {
+    	if (TransactionSynchronizationManager.isSynchronizationActive()) {
+    		TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+    			@Override
+    			public void afterCommit() {
+    				onMessageCommitted(vo);
+    			}
+    		});
+    	} else {
+    		onMessageCommitted(vo);
+    	}
+    }
+    
+    // 지연 저장에 끝내 실패한 메시지를 메모리 상태에서 되돌림 (등록 시 반영한 캐시/카운터)
+    private void onMessageLost(MessageVO vo) {
+    	unreadCounter.decrement(vo.getRoom_idx(), vo.getReceiver_idx(), 1);
+    	roomSummaryCache.invalidate(vo.getSender_idx(), vo.getReceiver_idx());
+    	searchIndex.onDelete(vo.getRoom_idx(), vo.getMessage_idx());
+    	recentBuffer.onDelete(vo.getRoom_idx(), vo.getMessage_idx());
+    	// 재접속 동기화 중인 클라이언트도 삭제로 처리하도록 이력에 기록
+    	changeJournal.onDelete(vo.getRoom_idx(), vo.getSender_idx(), vo.getMessage_idx());
+    }
 
     // 채팅방 생성 또는 기존 채팅방 조회
 	@Override
@@ -61,89 +138,298 @@ public class ChatServiceImple implements ChatService {
 
     // 메시지 필터링이 적용된 채팅방 목록 조회
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<RoomVO> readRoomList(int member_idx) {
-		Map<String, Object> params = new HashMap<>();
-		params.put("member_idx", member_idx);
+		List<RoomVO> summaries = readRoomSummaries(member_idx);
+		
+		// 읽지 않은 메시지 수는 메모리 카운터에서 채움 (채팅방별 쿼리 없음)
+		List<Integer> room_idxs = new ArrayList<>();
+		for (RoomVO room : summaries) {
+			room_idxs.add(room.getRoom_idx());
+		}
+		Map<Integer, Integer> unreadCounts = unreadCounter.getAll(member_idx, room_idxs);
+		
+		List<RoomVO> rooms = new ArrayList<>(summaries.size());
+		for (RoomVO summary : summaries) {
+			RoomVO room = summary.copy();
+			room.setUnread_count(unreadCounts.getOrDefault(room.getRoom_idx(), 0));
+			rooms.add(room);
+		}
 		
-		return roomMapper.getRoomListWithMessageFilter(params);
+		return rooms;
+	}
+	
+	// 채팅방 요약(상대방 프로필 + 마지막 메시지)은 캐시에서, 없으면 DB 1회 조회 (캐시 원본이므로 수정 금지)
+	private List<RoomVO> readRoomSummaries(int member_idx) {
+		return roomSummaryCache.get(member_idx, () -> {
+			Map<String, Object> params = new HashMap<>();
+			params.put("member_idx", member_idx);
+			
+			messageWriteBehind.flushPending();
+			long startNanos = chatMetrics.start();
+			List<RoomVO> loaded = roomMapper.getRoomListWithMessageFilter(params);
+			chatMetrics.record("db.room_list", startNanos);
+			return loaded;
+		});
 	}
 	
 	/*-------------------------------------------------------------------*/
 
+	// 채팅방 행의 마지막 순번을 올려 새 순번 발급 (현재 트랜잭션이 끝날 때까지 채팅방 행 잠금 유지)
+	private int allocateRoomSeq(int room_idx) {
+		Map<String, Object> params = new HashMap<>();
+		params.put("room_idx", room_idx);
+		
+		long startNanos = chatMetrics.start();
+		roomMapper.nextRoomSeq(params);
+		chatMetrics.record("db.room_seq", startNanos);
+		
+		Object seq = params.get("room_seq");
+		if (seq == null) {
+			throw new IllegalStateException("채팅방이 없습니다: " + room_idx);
+		}
+		return ((Number) seq).intValue();
+	}
+	
     // 새로운 채팅 메시지 등록
 	@Override
 	public MessageVO registerMessage(MessageVO vo) {
 		try {
-			// 매칭 데이터가 Map 형태로 있다면 JSON 문자열로 변환하여 DB 저장 준비
-			if (vo.getMatching_data_map() != null && !vo.getMatching_data_map().isEmpty()) {
-				vo.setMatchingDataFromMap(vo.getMatching_data_map());
-			}
+			// 채팅방 순번과 전송시간은 서버에서 할당해 그대로 저장/브로드캐스트 (저장 후 재조회 없음)
+			vo.setRoom_seq(roomSequencer.next(vo.getRoom_idx(), this::allocateRoomSeq));
+			vo.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
+			vo.setMessage_delete("N");
 			
-			// 메시지 DB 저장
-			int result = messageMapper.insertMessage(vo);
+			// 메시지 번호는 항상 같은 블록에서 할당 (저장 경로와 관계없이 번호가 할당 순서를 따르도록)
+			vo.setMessage_idx(messageWriteBehind.nextMessageIdx());
 			
-			if (result > 0) {
-				// 채팅방의 마지막 메시지 정보 업데이트
+			// 배치 저장 대기열에 등록, 사용 불가/대기열 초과 시 동기 저장
+			if (!messageWriteBehind.offer(vo)) {
+				long startNanos = chatMetrics.start();
+				messageMapper.insertMessageWithIdx(vo);
 				roomMapper.updateLastMessage(vo.getRoom_idx(), vo.getMessage_idx());
-				
-				// 저장된 메시지 재조회 (자동 생성된 ID와 매칭 데이터 포함)
-				if (vo.getMessage_idx() > 0) {
-					MessageVO savedMessage = messageMapper.getMessage(vo.getMessage_idx());
-					if (savedMessage != null) {
-						return savedMessage;
-					}
-				}
-				
-				// 재조회 실패 시 원본 VO에 타임스탬프 설정 후 반환
-				vo.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
-				return vo;
+				chatMetrics.record("db.insert_message", startNanos);
+				recordAfterCommit(vo);
 			}
-			
+			unreadCounter.increment(vo.getRoom_idx(), vo.getReceiver_idx());
+			roomSummaryCache.onMessage(vo);
+			searchIndex.onMessage(vo);
+			recentBuffer.onMessage(vo);
+			return vo;
 		} catch (Exception e) {
 			// 예외 발생 시에도 메시지 객체 반환 (WebSocket에서 처리할 수 있도록)
-			vo.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
+			chatMetrics.fail("db.insert_message", e);
+			if (vo.getMessage_senddate() == null) {
+				vo.setMessage_senddate(new java.sql.Timestamp(System.currentTimeMillis()));
+			}
 			return vo;
 		}
-		
-		return null;
 	}
 	
     // 특정 메시지 정보 조회
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public MessageVO getMessage(int message_idx) {
+		messageWriteBehind.flushPending();
 		return messageMapper.getMessage(message_idx);
 	}
 
     // 특정 채팅방의 모든 메시지 조회
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<MessageVO> readMessageList(int room_idx) {
-		return messageMapper.getMessageList(room_idx);
+		// 최근 메시지 버퍼가 채팅방 전체를 담고 있으면 메모리에서 응답
+		List<MessageVO> cached = recentBuffer.all(room_idx);
+		if (cached != null) {
+			return cached;
+		}
+		
+		ChatRecentMessageBuffer.RoomBuffer buffer = recentBuffer.beginFill(room_idx);
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		List<MessageVO> messages = messageMapper.getMessageList(room_idx);
+		chatMetrics.record("db.message_list", startNanos);
+		recentBuffer.fill(buffer, messages, true);
+		return messages;
 	}
 
     // 페이징 처리된 메시지 목록 조회
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<MessageVO> readMessageListPaging(int room_idx, int page, int size) {
 		// 페이지 번호를 데이터베이스 OFFSET으로 변환
 		int offset = page * size;
-		return messageMapper.getMessageListPaging(room_idx, offset, size);
+		
+		List<MessageVO> cached = recentBuffer.page(room_idx, offset, size);
+		if (cached != null) {
+			return cached;
+		}
+		
+		// 첫 페이지 조회 결과로 최근 메시지 버퍼 채우기
+		ChatRecentMessageBuffer.RoomBuffer buffer = offset == 0 ? recentBuffer.beginFill(room_idx) : null;
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		List<MessageVO> messages = messageMapper.getMessageListPaging(room_idx, offset, size);
+		chatMetrics.record("db.message_list", startNanos);
+		if (buffer != null) {
+			recentBuffer.fill(buffer, messages, messages.size() < size);
+		}
+		return messages;
 	}
 
+    // 커서 기반 이전 메시지 조회 (커서는 채팅방 순번, before_room_seq 가 0 이하이면 최신 메시지부터)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<MessageVO> readMessageListBefore(int room_idx, int before_room_seq, int size) {
+		int cursor = before_room_seq > 0 ? before_room_seq : Integer.MAX_VALUE;
+		
+		List<MessageVO> cached = recentBuffer.before(room_idx, cursor, size);
+		if (cached != null) {
+			return cached;
+		}
+		
+		// 최신 메시지 조회 결과로 최근 메시지 버퍼 채우기
+		ChatRecentMessageBuffer.RoomBuffer buffer = cursor == Integer.MAX_VALUE ? recentBuffer.beginFill(room_idx) : null;
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		List<MessageVO> messages = messageMapper.getMessageListBefore(room_idx, cursor, size);
+		chatMetrics.record("db.message_list", startNanos);
+		if (buffer != null) {
+			recentBuffer.fill(buffer, messages, messages.size() < size);
+		}
+		return messages;
+	}
+	
+    // 커서 기반 이후 메시지 조회 (커서는 채팅방 순번)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<MessageVO> readMessageListAfter(int room_idx, int after_room_seq, int size) {
+		List<MessageVO> cached = recentBuffer.after(room_idx, after_room_seq, size);
+		if (cached != null) {
+			return cached;
+		}
+		
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		List<MessageVO> messages = messageMapper.getMessageListAfter(room_idx, after_room_seq, size);
+		chatMetrics.record("db.message_list", startNanos);
+		return messages;
+	}
+
+    // 채팅방 순번 구간 메시지 조회 (클라이언트가 누락을 감지한 구간만)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public List<MessageVO> readMessageListBySeq(int room_idx, int from_seq, int to_seq) {
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		List<MessageVO> messages = messageMapper.getMessageListBySeq(room_idx, from_seq, to_seq);
+		chatMetrics.record("db.message_list", startNanos);
+		return messages;
+	}
+	
     // 채팅방 내 메시지 키워드 검색
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public List<MessageVO> searchMessage(int room_idx, String keyword) {
-		return messageMapper.searchMessage(room_idx, keyword);
+		messageWriteBehind.flushPending();
+		
+		// 2-gram 색인으로 후보를 구하고 후보 메시지만 조회 (색인 불가 시 기존 LIKE 검색)
+		List<Integer> candidates = searchIndex.candidates(room_idx, keyword);
+		if (candidates == null) {
+			return messageMapper.searchMessage(room_idx, keyword);
+		}
+		
+		List<MessageVO> messages = new ArrayList<>();
+		for (int from = 0; from < candidates.size(); from += SEARCH_FETCH_CHUNK) {
+			List<Integer> chunk = candidates.subList(from, Math.min(from + SEARCH_FETCH_CHUNK, candidates.size()));
+			messages.addAll(messageMapper.getMessagesByIdxList(room_idx, chunk));
+		}
+		if (candidates.size() > SEARCH_FETCH_CHUNK) {
+			messages.sort((a, b) -> b.getMessage_senddate().compareTo(a.getMessage_senddate()));
+		}
+		return searchIndex.verify(messages, keyword);
 	}
 
-    // 메시지 읽음 상태 업데이트
+    // 워터마크(채팅방 순번) 이하의 안 읽은 메시지 일괄 읽음 처리
 	@Override
-	public int readMark(int message_idx, int receiver_idx) {
-		return messageMapper.readMark(message_idx, receiver_idx);
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public int readMarkUpTo(int room_idx, int receiver_idx, int room_seq) {
+		messageWriteBehind.flushPending();
+		long startNanos = chatMetrics.start();
+		int result = messageMapper.readMarkUpTo(room_idx, receiver_idx, room_seq);
+		chatMetrics.record("db.read_mark_up_to", startNanos);
+		if (result > 0) {
+			unreadCounter.decrement(room_idx, receiver_idx, result);
+			recentBuffer.onReadUpTo(room_idx, receiver_idx, room_seq);
+			changeJournal.onRead(room_idx, receiver_idx, room_seq);
+		}
+		return result;
 	}
 
     // 특정 채팅방의 읽지 않은 메시지 개수 조회
 	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
 	public int unreadCount(int room_idx, int receiver_idx) {
-		return messageMapper.unreadCount(room_idx, receiver_idx);
+		return unreadCounter.get(room_idx, receiver_idx);
+	}
+	
+    // 재접속 동기화 - 회원의 모든 채팅방에서 커서 이후 커밋된 새 메시지와 읽음/삭제 변경 조회 (변경 이력 순번 커서 하나로 조회)
+	// change_since 가 없으면 현재 위치를 커서로만 돌려준다 (동기화 시작점)
+	@Override
+	@Transactional(propagation = Propagation.NOT_SUPPORTED)
+	public Map<String, Object> syncSince(int member_idx, String epoch, Long change_since, int limit) {
+		int pageSize = Math.max(1, Math.min(limit, SYNC_MAX_LIMIT));
+		Map<String, Object> result = new HashMap<>();
+		Map<String, Object> cursor = new HashMap<>();
+		
+		// 대기 중인 메시지를 먼저 저장해 이력에 반영
+		messageWriteBehind.flushPending();
+		long headSeq = changeJournal.getHeadSeq();
+		
+		ChatChangeJournal.Changes changes = null;
+		if (change_since != null) {
+			// 읽음/삭제 대상 채팅방 (채팅방 요약 캐시 사용)
+			Set<Integer> rooms = new HashSet<>();
+			for (RoomVO room : readRoomSummaries(member_idx)) {
+				rooms.add(room.getRoom_idx());
+			}
+			changes = changeJournal.since(epoch, change_since, member_idx, rooms, pageSize);
+		}
+		
+		List<MessageVO> messages = new ArrayList<>();
+		if (changes == null) {
+			// 최초 호출이거나 커서 이후 이력이 없으면(이력 부족, 노드 간 중계 사용) 현재 위치부터 시작 (reset 이면 클라이언트는 전체 재조회)
+			result.put("reads", new ArrayList<>());
+			result.put("deletes", new ArrayList<>());
+			result.put("reset", change_since != null);
+			cursor.put("change_since", headSeq);
+		} else {
+			// 커밋된 새 메시지 본문 조회 (삭제된 메시지 제외, 커밋 순서 유지)
+			if (!changes.getMessageIdxs().isEmpty()) {
+				long startNanos = chatMetrics.start();
+				Map<Integer, MessageVO> byIdx = new HashMap<>();
+				for (MessageVO message : messageMapper.getMessagesForSync(changes.getMessageIdxs())) {
+					byIdx.put(message.getMessage_idx(), message);
+				}
+				chatMetrics.record("db.sync_messages", startNanos);
+				for (Integer message_idx : changes.getMessageIdxs()) {
+					MessageVO message = byIdx.get(message_idx);
+					if (message != null) {
+						messages.add(message);
+					}
+				}
+			}
+			result.put("reads", changes.getReads());
+			result.put("deletes", changes.getDeletes());
+			result.put("reset", false);
+			cursor.put("change_since", changes.getNextSeq());
+		}
+		cursor.put("epoch", changeJournal.getEpoch());
+		
+		result.put("messages", messages);
+		result.put("has_more", changes != null && changes.isHasMore());
+		result.put("cursor", cursor);
+		return result;
 	}
 
 	/*-------------------------------------------------------------------*/
@@ -162,20 +448,31 @@ public class ChatServiceImple implements ChatService {
 
     // 특정 메시지의 첨부파일 정보 조회
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public ChatAttachVO readFile(int message_idx) {
+        messageWriteBehind.flushPending();
         return messageMapper.getMessageAttachment(message_idx);
     }
     
     //메시지와 첨부파일 연결
     @Override
-    public int linkAttachmentToMessage(int message_idx, int attach_idx) {
-        return messageMapper.updateMessageAttachment(message_idx, attach_idx);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int linkAttachmentToMessage(int room_idx, int message_idx, int attach_idx) {
+        messageWriteBehind.flushPending();
+        int result = messageMapper.updateMessageAttachment(message_idx, attach_idx);
+        if (result > 0) {
+            recentBuffer.onUpdate(room_idx, message_idx, message -> message.setAttach_idx(attach_idx));
+        }
+        return result;
     }
     
     // 메시지 삭제 (논리적 삭제)
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public boolean deleteMessage(int message_idx, int sender_idx) {
         try {
+            messageWriteBehind.flushPending();
+            
             // 1. 삭제 가능 여부 체크 - 메시지 존재 여부와 발신자 권한 확인
             MessageVO message = messageMapper.getMessageForDeleteCheck(message_idx, sender_idx);
             
@@ -191,6 +488,19 @@ public class ChatServiceImple implements ChatService {
             // 3. 논리적 삭제 실행
             int result = messageMapper.deleteMessage(message_idx, sender_idx);
             
+            // 마지막 메시지가 바뀔 수 있으므로 양쪽 채팅방 목록 캐시 제거
+            if (result > 0) {
+                roomSummaryCache.invalidate(message.getSender_idx(), message.getReceiver_idx());
+                searchIndex.onDelete(message.getRoom_idx(), message_idx);
+                recentBuffer.onDelete(message.getRoom_idx(), message_idx);
+                changeJournal.onDelete(message.getRoom_idx(), sender_idx, message_idx);
+            }
+            
+            // 읽지 않은 메시지를 삭제한 경우 수신자 카운터 감소
+            if (result > 0 && message.getMessage_readdate() == null) {
+                unreadCounter.decrement(message.getRoom_idx(), message.getReceiver_idx(), 1);
+            }
+            
             return result > 0;
             
         } catch (Exception e) {
@@ -216,13 +526,17 @@ public class ChatServiceImple implements ChatService {
     
     // 답장용 원본 메시지 조회
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public MessageVO getParentMessage(int parent_idx) {
+        messageWriteBehind.flushPending();
         return messageMapper.getParentMessage(parent_idx);
     }
     
     // 특정 메시지에 대한 답장 메시지들 조회
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<MessageVO> getReplyMessages(int parent_idx) {
+        messageWriteBehind.flushPending();
         return messageMapper.getReplyMessages(parent_idx);
     }
 }
\ No newline at end of file
@@ -0,0 +1,468 @@
+package org.fitsync.service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntSupplier;
+
+import org.fitsync.mapper.MessageMapper;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅방/수신자별 안 읽은 메시지 수 메모리 카운터
+ * 처음 조회할 때 DB에서 읽어 오고(지연 적재), 이후에는 메시지 저장/읽음/삭제 시 증감만 한다.
+ * 적재 중에는 자리 표시 카운터를 먼저 등록해 두고, DB 조회 도중 증감이 있었으면 다시 조회한다.
+ * 주기적으로 DB와 대조해 누적 오차를 바로잡고, 오래 조회되지 않은 카운터와 상한 초과분은 제거한다.
+ * 증감은 이 노드에서 처리한 변경만 반영하므로, 노드 간 중계(chat.relay.enabled)를 쓰면 카운터를 두지 않고 항상 DB 에서 조회한다.
+ */
+@Component
+@Log4j
+public class ChatUnreadCounter {
+
+    // 적재 중 증감이 겹쳤을 때 다시 조회하는 최대 횟수
+    private static final int SEED_ATTEMPTS = 3;
+
+    // 대조 결과
+    private static final int RECONCILE_SAME = 0;
+    private static final int RECONCILE_CORRECTED = 1;
+    private static final int RECONCILE_SKIPPED = -1;
+
+    @Autowired
+    private MessageMapper messageMapper;
+
+    @Autowired
+    private ChatMessageWriteBehind messageWriteBehind;
+
+    /**
+     * DB 대조 시 한 번에 조회하는 채팅방 수
+     */
+    @Value("${chat.unread.reconcile.batch.size:500}")
+    private int reconcileBatchSize;
+
+    /**
+     * 최대 카운터 수 (초과 시 가장 오래 조회되지 않은 카운터부터 제거)
+     */
+    @Value("${chat.unread.max.entries:100000}")
+    private int maxEntries;
+
+    /**
+     * 마지막 조회 후 이 시간이 지난 카운터는 DB 대조 전에 제거 (다음 조회 때 다시 적재)
+     */
+    @Value("${chat.unread.idle.ms:1800000}")
+    private long idleMs;
+
+    /**
+     * 노드 간 중계 사용 여부 (사용 시 카운터 미사용)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // (room_idx, receiver_idx) → 안 읽은 메시지 수
+    private final ConcurrentHashMap<Long, Counter> counters = new ConcurrentHashMap<>();
+    // 상한 초과 제거는 한 스레드만 수행
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong seedCount = new AtomicLong();
+    private final AtomicLong seedRetryCount = new AtomicLong();
+    private final AtomicLong seedConflictCount = new AtomicLong();
+    private final AtomicLong correctedCount = new AtomicLong();
+    private final AtomicLong reconcileSkippedCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+    private volatile long lastReconcileMs;
+
+    private static long key(int room_idx, int receiver_idx) {
+        return ((long) room_idx << 32) | (receiver_idx & 0xFFFFFFFFL);
+    }
+
+    private static int roomOf(long key) {
+        return (int) (key >> 32);
+    }
+
+    /**
+     * 안 읽은 메시지 수 조회 (카운터가 없으면 DB에서 적재)
+     */
+    public int get(int room_idx, int receiver_idx) {
+        if (relayEnabled) {
+            messageWriteBehind.flushPending();
+            return messageMapper.unreadCount(room_idx, receiver_idx);
+        }
+
+        long key = key(room_idx, receiver_idx);
+        Counter counter = counters.get(key);
+        if (counter == null) {
+            Counter placeholder = new Counter();
+            counter = counters.putIfAbsent(key, placeholder);
+            if (counter == null) {
+                seedCount.incrementAndGet();
+                evictIfNeeded();
+                return seed(key, placeholder, () -> messageMapper.unreadCount(room_idx, receiver_idx));
+            }
+        }
+
+        Integer value = counter.read();
+        if (value != null) {
+            hitCount.incrementAndGet();
+            return value;
+        }
+
+        // 다른 스레드가 적재 중이면 DB 값을 그대로 반환
+        messageWriteBehind.flushPending();
+        return messageMapper.unreadCount(room_idx, receiver_idx);
+    }
+
+    /**
+     * 수신자의 여러 채팅방 안 읽은 메시지 수 조회
+     * 카운터가 없는 채팅방은 수신자 기준 집계 쿼리 1회로 한꺼번에 적재한다.
+     */
+    public Map<Integer, Integer> getAll(int receiver_idx, List<Integer> room_idxs) {
+        if (relayEnabled) {
+            messageWriteBehind.flushPending();
+            Map<Integer, Integer> dbCounts = unreadCountByReceiver(receiver_idx);
+            Map<Integer, Integer> result = new HashMap<>();
+            for (Integer room_idx : room_idxs) {
+                result.put(room_idx, dbCounts.getOrDefault(room_idx, 0));
+            }
+            return result;
+        }
+
+        Map<Integer, Integer> result = new HashMap<>();
+        Map<Integer, Counter> seeding = new HashMap<>();
+        boolean missing = false;
+
+        for (Integer room_idx : room_idxs) {
+            long key = key(room_idx, receiver_idx);
+            Counter counter = counters.get(key);
+            if (counter == null) {
+                Counter placeholder = new Counter();
+                counter = counters.putIfAbsent(key, placeholder);
+                if (counter == null) {
+                    seeding.put(room_idx, placeholder);
+                    missing = true;
+                    continue;
+                }
+            }
+            Integer value = counter.read();
+            if (value != null) {
+                result.put(room_idx, value);
+            } else {
+                missing = true;
+            }
+        }
+
+        if (!missing) {
+            hitCount.addAndGet(room_idxs.size());
+            return result;
+        }
+
+        seedCount.incrementAndGet();
+        if (!seeding.isEmpty()) {
+            evictIfNeeded();
+        }
+
+        for (int attempt = 1; ; attempt++) {
+            // 조회 전 변경 번호 (조회 도중 증감이 있었는지 확인용)
+            Map<Integer, Integer> versions = new HashMap<>();
+            for (Map.Entry<Integer, Counter> entry : seeding.entrySet()) {
+                versions.put(entry.getKey(), entry.getValue().version());
+            }
+
+            Map<Integer, Integer> dbCounts;
+            boolean flushed;
+            try {
+                flushed = messageWriteBehind.flushPending();
+                dbCounts = unreadCountByReceiver(receiver_idx);
+            } catch (RuntimeException e) {
+                for (Map.Entry<Integer, Counter> entry : seeding.entrySet()) {
+                    counters.remove(key(entry.getKey(), receiver_idx), entry.getValue());
+                }
+                throw e;
+            }
+            if (!flushed) {
+                // 저장 대기 중인 메시지가 빠진 집계일 수 있으므로 카운터로 등록하지 않음
+                for (Map.Entry<Integer, Counter> entry : seeding.entrySet()) {
+                    counters.remove(key(entry.getKey(), receiver_idx), entry.getValue());
+                }
+                seeding.clear();
+            }
+
+            for (Integer room_idx : room_idxs) {
+                if (!result.containsKey(room_idx) && !seeding.containsKey(room_idx)) {
+                    // 다른 스레드가 적재 중인 채팅방
+                    result.put(room_idx, dbCounts.getOrDefault(room_idx, 0));
+                }
+            }
+
+            List<Integer> conflicted = new ArrayList<>();
+            for (Map.Entry<Integer, Counter> entry : seeding.entrySet()) {
+                int count = dbCounts.getOrDefault(entry.getKey(), 0);
+                result.put(entry.getKey(), count);
+                if (!entry.getValue().seed(versions.get(entry.getKey()), count)) {
+                    conflicted.add(entry.getKey());
+                }
+            }
+            if (conflicted.isEmpty()) {
+                return result;
+            }
+            if (attempt >= SEED_ATTEMPTS) {
+                // 계속 겹치면 카운터를 등록하지 않고 다음 조회 때 다시 적재
+                for (Integer room_idx : conflicted) {
+                    counters.remove(key(room_idx, receiver_idx), seeding.get(room_idx));
+                    seedConflictCount.incrementAndGet();
+                }
+                return result;
+            }
+            seedRetryCount.incrementAndGet();
+            seeding.keySet().retainAll(conflicted);
+        }
+    }
+
+    // 자리 표시 카운터를 DB 값으로 채움 (조회 도중 증감이 있었으면 다시 조회)
+    private int seed(long key, Counter placeholder, IntSupplier query) {
+        for (int attempt = 1; ; attempt++) {
+            int version = placeholder.version();
+            int count;
+            boolean flushed;
+            try {
+                flushed = messageWriteBehind.flushPending();
+                count = query.getAsInt();
+            } catch (RuntimeException e) {
+                counters.remove(key, placeholder);
+                throw e;
+            }
+            if (!flushed) {
+                // 저장 대기 중인 메시지가 빠진 값일 수 있으므로 카운터로 등록하지 않음
+                counters.remove(key, placeholder);
+                return count;
+            }
+            if (placeholder.seed(version, count)) {
+                return count;
+            }
+            if (attempt >= SEED_ATTEMPTS) {
+                counters.remove(key, placeholder);
+                seedConflictCount.incrementAndGet();
+                return count;
+            }
+            seedRetryCount.incrementAndGet();
+        }
+    }
+
+    private Map<Integer, Integer> unreadCountByReceiver(int receiver_idx) {
+        Map<Integer, Integer> dbCounts = new HashMap<>();
+        for (Map<String, Object> row : messageMapper.unreadCountByReceiver(receiver_idx)) {
+            dbCounts.put(((Number) row.get("ROOM_IDX")).intValue(), ((Number) row.get("UNREAD_COUNT")).intValue());
+        }
+        return dbCounts;
+    }
+
+    /**
+     * 새 메시지 저장 시 증가 (카운터가 적재된 경우에만)
+     */
+    public void increment(int room_idx, int receiver_idx) {
+        Counter counter = counters.get(key(room_idx, receiver_idx));
+        if (counter != null) {
+            counter.add(1);
+        }
+    }
+
+    /**
+     * 읽음 처리/삭제 시 감소 (0 미만으로 내려가지 않음)
+     */
+    public void decrement(int room_idx, int receiver_idx, int amount) {
+        Counter counter = counters.get(key(room_idx, receiver_idx));
+        if (counter != null) {
+            counter.add(-amount);
+        }
+    }
+
+    /**
+     * 오래 조회되지 않은 카운터를 제거한 뒤, 남은 카운터를 DB 집계와 대조해 보정 (채팅방 reconcileBatchSize 개 단위 집계 쿼리)
+     * 조회 전에 읽어 둔 변경 번호가 그대로인 카운터만 DB 값으로 바꾸고, 조회 도중 증감된 카운터는 다음 대조로 미룬다.
+     */
+    @Scheduled(fixedDelayString = "${chat.unread.reconcile.interval.ms:300000}")
+    public void reconcile() {
+        expireIdle();
+        if (counters.isEmpty()) {
+            return;
+        }
+
+        long startTime = System.currentTimeMillis();
+
+        // 채팅방별 카운터 묶음 (한 번만 순회)
+        Map<Integer, List<Map.Entry<Long, Counter>>> byRoom = new HashMap<>();
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            byRoom.computeIfAbsent(roomOf(entry.getKey()), room -> new ArrayList<>()).add(entry);
+        }
+        List<Integer> rooms = new ArrayList<>(byRoom.keySet());
+
+        try {
+            for (int from = 0; from < rooms.size(); from += reconcileBatchSize) {
+                List<Integer> chunk = rooms.subList(from, Math.min(from + reconcileBatchSize, rooms.size()));
+
+                // 버전을 먼저 기록한 뒤 대기 중인 메시지를 저장 (기록 전에 반영된 증가분은 모두 DB에 있고, 이후 증가분은 버전이 바뀌어 건너뜀)
+                Map<Counter, Integer> versions = new HashMap<>();
+                for (Integer room_idx : chunk) {
+                    for (Map.Entry<Long, Counter> entry : byRoom.get(room_idx)) {
+                        versions.put(entry.getValue(), entry.getValue().version());
+                    }
+                }
+                if (!messageWriteBehind.flushPending()) {
+                    reconcileSkippedCount.addAndGet(versions.size());
+                    continue;
+                }
+
+                Map<Long, Integer> dbCounts = new HashMap<>();
+                for (Map<String, Object> row : messageMapper.unreadCountByRooms(chunk)) {
+                    int room_idx = ((Number) row.get("ROOM_IDX")).intValue();
+                    int receiver_idx = ((Number) row.get("RECEIVER_IDX")).intValue();
+                    dbCounts.put(key(room_idx, receiver_idx), ((Number) row.get("UNREAD_COUNT")).intValue());
+                }
+
+                for (Integer room_idx : chunk) {
+                    for (Map.Entry<Long, Counter> entry : byRoom.get(room_idx)) {
+                        Counter counter = entry.getValue();
+                        int outcome = counter.reconcile(versions.get(counter), dbCounts.getOrDefault(entry.getKey(), 0));
+                        if (outcome == RECONCILE_CORRECTED) {
+                            correctedCount.incrementAndGet();
+                        } else if (outcome == RECONCILE_SKIPPED) {
+                            reconcileSkippedCount.incrementAndGet();
+                        }
+                    }
+                }
+            }
+        } catch (Exception e) {
+            log.error("안 읽은 메시지 수 DB 대조 실패", e);
+        }
+
+        lastReconcileMs = System.currentTimeMillis() - startTime;
+    }
+
+    // 마지막 조회 후 idleMs 가 지난 카운터 제거 (적재 중인 카운터 제외)
+    private void expireIdle() {
+        long threshold = System.currentTimeMillis() - idleMs;
+        for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+            Counter counter = entry.getValue();
+            if (counter.isSeeded() && counter.lastAccess < threshold && counters.remove(entry.getKey(), counter)) {
+                expirationCount.incrementAndGet();
+            }
+        }
+    }
+
+    // 상한을 넘으면 가장 오래 조회되지 않은 카운터부터 상한의 90% 까지 제거 (매번 정렬하지 않도록 여유를 둠)
+    private void evictIfNeeded() {
+        if (counters.size() <= maxEntries || !evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            List<Map.Entry<Long, Counter>> entries = new ArrayList<>();
+            for (Map.Entry<Long, Counter> entry : counters.entrySet()) {
+                if (entry.getValue().isSeeded()) {
+                    entries.add(entry);
+                }
+            }
+            entries.sort((a, b) -> Long.compare(a.getValue().lastAccess, b.getValue().lastAccess));
+
+            int target = maxEntries - maxEntries / 10;
+            for (Map.Entry<Long, Counter> entry : entries) {
+                if (counters.size() <= target) {
+                    break;
+                }
+                if (counters.remove(entry.getKey(), entry.getValue())) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 카운터 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", !relayEnabled);
+        stats.put("size", counters.size());
+        stats.put("max_entries", maxEntries);
+        stats.put("idle_ms", idleMs);
+        stats.put("hits", hitCount.get());
+        stats.put("seeds", seedCount.get());
+        stats.put("seed_retries", seedRetryCount.get());
+        stats.put("seed_conflicts", seedConflictCount.get());
+        stats.put("corrected", correctedCount.get());
+        stats.put("reconcile_skipped", reconcileSkippedCount.get());
+        stats.put("evictions", evictionCount.get());
+        stats.put("expirations", expirationCount.get());
+        stats.put("last_reconcile_ms", lastReconcileMs);
+        return stats;
+    }
+
+    /**
+     * 채팅방/수신자 하나의 카운터 (DB 값으로 채워지기 전에는 자리 표시로 증감 여부만 기록)
+     */
+    private static final class Counter {
+        private int value;
+        // 증감할 때마다 올라가는 변경 번호 (DB 조회 도중 증감 여부 확인용)
+        private int version;
+        private boolean seeded;
+        private volatile long lastAccess = System.currentTimeMillis();
+
+        synchronized int version() {
+            return version;
+        }
+
+        synchronized boolean isSeeded() {
+            return seeded;
+        }
+
+        // 적재가 끝났으면 값, 적재 중이면 null
+        synchronized Integer read() {
+            if (!seeded) {
+                return null;
+            }
+            lastAccess = System.currentTimeMillis();
+            return value;
+        }
+
+        synchronized void add(int delta) {
+            version++;
+            if (seeded) {
+                value = Math.max(0, value + delta);
+            }
+        }
+
+        // 조회 전 변경 번호 그대로이면 DB 값으로 채움
+        synchronized boolean seed(int expectedVersion, int count) {
+            if (version != expectedVersion) {
+                return false;
+            }
+            value = count;
+            seeded = true;
+            lastAccess = System.currentTimeMillis();
+            return true;
+        }
+
+        // 조회 전 변경 번호 그대로이면 DB 값으로 보정
+        synchronized int reconcile(int expectedVersion, int count) {
+            if (!seeded || version != expectedVersion) {
+                return RECONCILE_SKIPPED;
+            }
+            if (value == count) {
+                return RECONCILE_SAME;
+            }
+            value = count;
+            return RECONCILE_CORRECTED;
+        }
+    }
+}
@@ -1,76 +1,97 @@
 package org.fitsync.service;
 
-import com.cloudinary.Cloudinary;
-import com.cloudinary.utils.ObjectUtils;
-
 import lombok.extern.log4j.Log4j;
 
 import org.fitsync.domain.ChatAttachVO;
 import org.fitsync.mapper.ChatAttachMapper;
+import org.fitsync.util.MediaStorage;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.multipart.MultipartFile;
 
 import java.io.IOException;
-import java.util.HashMap;
-import java.util.List;
-import java.util.Map;
-import java.util.UUID;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
 
 @Log4j
 @Service
 @Transactional
 public class CloudinaryService {
 
-    private final Cloudinary cloudinary;
+    private final MediaStorage mediaStorage;
 
     @Autowired
 	private ChatAttachMapper mapper;
     
-    // Cloudinary 설정을 주입받아 서비스 초기화
+    // 첨부파일 저장소(Cloudinary 또는 로컬)를 주입받아 서비스 초기화
     @Autowired
-    public CloudinaryService(Cloudinary cloudinary) {
-        this.cloudinary = cloudinary;
+    public CloudinaryService(MediaStorage mediaStorage) {
+        this.mediaStorage = mediaStorage;
     }
     
     // 파일을 Cloudinary에 업로드하고 DB에 파일 정보 저장
+    // 업로드 파일은 임시 파일로 스트리밍한 뒤 올리므로 파일 전체를 메모리에 올리지 않는다
     public ChatAttachVO uploadFile(MultipartFile file) throws Exception {
+        Path temp = spool(file);
         try {
-            // Cloudinary 업로드 파라미터 설정
-            Map<String, Object> uploadParams = new HashMap<>();
-            uploadParams.put("resource_type", "auto"); // 파일 타입 자동 감지
-            uploadParams.put("folder", "fitsync"); // 업로드 폴더 지정
-            uploadParams.put("public_id", "chat_" + System.currentTimeMillis()); // 고유 ID 생성
-            uploadParams.put("overwrite", false); // 덮어쓰기 방지
-            uploadParams.put("quality", "auto:good"); // 품질 자동 최적화
-            
-            // Cloudinary에 파일 업로드 실행
-            Map uploadResult = cloudinary.uploader().upload(file.getBytes(), uploadParams);
-            
-            // 업로드 결과를 바탕으로 첨부파일 정보 객체 생성
-            ChatAttachVO vo = new ChatAttachVO();
-            vo.setOriginal_filename(file.getOriginalFilename());
-            vo.setCloudinary_url((String) uploadResult.get("secure_url")); // HTTPS URL
-            vo.setCloudinary_public_id((String) uploadResult.get("public_id"));
-            vo.setFile_size_bytes(file.getSize());
-            vo.setMime_type(file.getContentType());
-            
-            // 파일 확장자 추출 및 설정
-            String filename = file.getOriginalFilename();
-            if (filename != null && filename.contains(".")) {
-                String extension = filename.substring(filename.lastIndexOf("."));
-                vo.setFile_extension(extension);
+            return uploadSpooledFile(temp, file.getOriginalFilename(), file.getContentType(), file.getSize(), null);
+        } finally {
+            Files.deleteIfExists(temp);
+        }
+    }
+    
+    // 업로드 파일을 임시 파일로 스트리밍 저장 (호출 측에서 사용 후 삭제)
+    public Path spool(MultipartFile file) throws IOException {
+        Path temp = Files.createTempFile("fitsync-upload-", ".tmp");
+        try (InputStream in = file.getInputStream()) {
+            Files.copy(in, temp, StandardCopyOption.REPLACE_EXISTING);
+        } catch (IOException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+        return temp;
+    }
+    
+    // 비동기 업로드용 첨부파일 번호 미리 할당
+    public int reserveAttachIdx() {
+        return mapper.getAttachSeq();
+    }
+    
+    // 임시 파일을 저장소에 올리고 DB에 파일 정보 저장 (attach_idx 가 있으면 미리 할당된 번호 사용)
+    public ChatAttachVO uploadSpooledFile(Path file, String originalFilename, String contentType, long size, Integer attach_idx) throws IOException {
+        MediaStorage.StoredMedia stored = mediaStorage.store(file, originalFilename, contentType);
+        
+        // 업로드 결과를 바탕으로 첨부파일 정보 객체 생성
+        ChatAttachVO vo = new ChatAttachVO();
+        vo.setOriginal_filename(originalFilename);
+        vo.setCloudinary_url(stored.getUrl());
+        vo.setCloudinary_public_id(stored.getPublicId());
+        vo.setFile_size_bytes(size);
+        vo.setMime_type(contentType);
+        
+        // 파일 확장자 추출 및 설정
+        if (originalFilename != null && originalFilename.contains(".")) {
+            String extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+            vo.setFile_extension(extension);
+        }
+        
+        // 첨부파일 정보를 DB에 저장 (실패하면 올려 둔 파일은 저장소에서 지움)
+        try {
+            if (attach_idx != null) {
+                vo.setAttach_idx(attach_idx);
+                mapper.insertAttachWithIdx(vo);
+            } else {
+                mapper.insertAttach(vo);
             }
-            
-            // 첨부파일 정보를 DB에 저장
-            mapper.insertAttach(vo);
-            
-            return vo;
-            
-        } catch (Exception e) {
+        } catch (RuntimeException e) {
+            mediaStorage.delete(stored.getPublicId());
             throw e;
         }
+        
+        return vo;
     }
     
     // Cloudinary와 DB에서 파일 삭제
@@ -83,8 +104,8 @@ public class CloudinaryService {
                 return false;
             }
             
-            // Cloudinary에서 파일 삭제
-            boolean cloudinaryDeleted = deleteCloudinaryFile(attachment.getCloudinary_public_id());
+            // 저장소에서 파일 삭제
+            boolean cloudinaryDeleted = mediaStorage.delete(attachment.getCloudinary_public_id());
             
             // DB에서 첨부파일 정보 삭제
             int deletedRows = mapper.deleteAttach(attach_idx);
@@ -96,22 +117,4 @@ public class CloudinaryService {
             return false;
         }
     }
-    
-    // Cloudinary에서 파일 삭제 (내부 메서드)
-    private boolean deleteCloudinaryFile(String publicId) {
-        try {
-            // Cloudinary 삭제 옵션 설정
-            Map<String, Object> deleteOptions = new HashMap<>();
-            deleteOptions.put("invalidate", true); // CDN 캐시 무효화
-            
-            // Cloudinary API를 통한 파일 삭제 실행
-            Map<String, Object> deleteResult = cloudinary.uploader().destroy(publicId, deleteOptions);
-            
-            // 삭제 결과 확인 (result가 "ok"이면 성공)
-            return deleteResult.containsKey("result") && "ok".equals(deleteResult.get("result"));
-            
-        } catch (Exception e) {
-            return false;
-        }
-    }
-}
\ No newline at end of file
+}
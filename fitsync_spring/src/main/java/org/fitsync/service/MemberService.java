@@ -4,6 +4,7 @@ import java.util.List;
 import java.util.Map;
 
 import org.fitsync.domain.AwardsVO;
+import org.fitsync.domain.MemberPrincipal;
 import org.fitsync.domain.MemberVO;
 import org.fitsync.domain.ReviewVO;
 import org.springframework.web.multipart.MultipartFile;
@@ -12,6 +13,9 @@ import org.fitsync.domain.SearchCriteria;
 public interface MemberService {
 	// 유저 존재여부
 	public MemberVO getFindUser(String member_email);
+	// 인증용 회원 정보 조회 (캐시)
+	public MemberPrincipal getPrincipal(String member_email);
+	public MemberPrincipal getPrincipal(int member_idx);
 	// 유저 추가 입력
 	public boolean insertUser(Map<String, String> body);
 	// 유저 정보 업데이트
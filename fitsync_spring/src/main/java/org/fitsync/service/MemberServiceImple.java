@@ -9,15 +9,19 @@ import java.util.Map;
 import org.fitsync.domain.AwardsVO;
 import org.fitsync.domain.BodyVO;
 import org.fitsync.domain.ChatAttachVO;
+import org.fitsync.domain.MemberPrincipal;
 import org.fitsync.domain.MemberVO;
 import org.fitsync.domain.ReviewVO;
 import org.fitsync.domain.SearchCriteria;
 import org.fitsync.mapper.BodyMapper;
 import org.fitsync.mapper.ChatAttachMapper;
 import org.fitsync.mapper.MemberMapper;
+import org.fitsync.util.MemberPrincipalCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import org.springframework.web.multipart.MultipartFile;
 
 import com.cloudinary.Cloudinary;
@@ -39,6 +43,8 @@ public class MemberServiceImple implements MemberService {
 	private Cloudinary cloudinary;
 	@Autowired
 	private ChatAttachMapper chatAttachMapper;
+	@Autowired
+	private MemberPrincipalCache principalCache;
 	
 	// 유저 존재여부
 	@Override
@@ -47,6 +53,17 @@ public class MemberServiceImple implements MemberService {
 		return vo;
 	}
 	
+	// 인증용 회원 정보 (캐시에 없을 때만 필요한 컬럼만 조회)
+	@Override
+	public MemberPrincipal getPrincipal(String member_email) {
+		return principalCache.get(member_email, mapper::getPrincipalByEmail);
+	}
+	
+	@Override
+	public MemberPrincipal getPrincipal(int member_idx) {
+		return principalCache.get(member_idx, mapper::getPrincipalByIdx);
+	}
+	
 	// 유저 추가정보 입력
 	@Override
 	@Transactional
@@ -61,6 +78,7 @@ public class MemberServiceImple implements MemberService {
 		mvo.setMember_activity_area(body.get("member_activity_area"));
 		mvo.setMember_time(body.get("member_time_start")+"~"+body.get("member_time_end"));
 		mvo.setMember_purpose(body.get("member_purpose"));
+		invalidatePrincipal(mvo.getMember_email());
 
 		if(body.get("member_type").equals("user")) {
 			SimpleDateFormat sdf = new SimpleDateFormat("yyyyMMdd");
@@ -96,7 +114,9 @@ public class MemberServiceImple implements MemberService {
 	
 	@Override
 	public boolean updateInfo(MemberVO vo) {
-		return mapper.updateInfo(vo) > 0;
+		int result = mapper.updateInfo(vo);
+		invalidatePrincipal(vo.getMember_idx());
+		return result > 0;
 	}
 	
 	// 트레이너 프로필 조회
@@ -120,6 +140,7 @@ public class MemberServiceImple implements MemberService {
     public void updateTrainerProfile(MemberVO member) {
         try {
             mapper.updateTrainerProfile(member);
+            invalidatePrincipal(member.getMember_idx());
             System.out.println(">>> 업데이트 성공");
         } catch (Exception e) {
             e.printStackTrace();
@@ -157,6 +178,7 @@ public class MemberServiceImple implements MemberService {
 
 	    // 3. member 테이블 프로필 이미지 URL 업데이트
 	    mapper.updateMemberProfileImage(memberIdx, newAttach.getCloudinary_url());
+	    invalidatePrincipal(memberIdx);
 
 	    // 4. 기존 이미지 삭제 처리 (있을 경우)
 	    if (oldAttach != null && oldAttach.getCloudinary_public_id() != null) {
@@ -174,6 +196,28 @@ public class MemberServiceImple implements MemberService {
 	@Override
 	public void updateProfileVisibility(int memberIdx, boolean memberHidden) {
 	    mapper.updateProfileVisibility(memberIdx, memberHidden ? 1 : 0);
+	    invalidatePrincipal(memberIdx);
 	}
 	
-}
\ No newline at end of file
+	// 회원 인증 정보 캐시 제거 (트랜잭션 중이면 커밋 후 제거해 커밋 전 값이 다시 캐시되지 않도록 함)
+	private void invalidatePrincipal(int member_idx) {
+		afterCommit(() -> principalCache.invalidate(member_idx));
+	}
+	
+	private void invalidatePrincipal(String member_email) {
+		afterCommit(() -> principalCache.invalidate(member_email));
+	}
+	
+	private void afterCommit(Runnable task) {
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					task.run();
+				}
+			});
+		} else {
+			task.run();
+		}
+	}
+}
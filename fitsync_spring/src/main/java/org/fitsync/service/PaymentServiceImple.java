@@ -3,6 +3,7 @@ package org.fitsync.service;
 import java.net.http.HttpResponse;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 import org.fitsync.domain.ApiLogVO;
 import org.fitsync.domain.PaymentMethodVO;
@@ -42,6 +43,12 @@ public class PaymentServiceImple implements PaymentService {
 	@Value("${payment.subscribe.cost}")
     private int subscribeCost;
 	
+	/**
+	 * 결제 기록 조회 시 동시에 진행하는 PortOne 조회 수 (앞 주문 응답을 쓰는 대로 다음 주문 조회 시작)
+	 */
+	@Value("${portone.lookup.concurrency:8}")
+	private int lookupConcurrency;
+	
 	/**
 	 * DB 연결 및 매퍼 상태 테스트
 	 */
@@ -1178,18 +1185,32 @@ public class PaymentServiceImple implements PaymentService {
 //			System.out.println("DB 조회 완료 - 건수: " + paymentHistory.size());
 			log.info("결제 기록 조회 완료 (API) - memberIdx: " + memberIdx + ", 건수: " + paymentHistory.size());
 			
+			// 주문별 PortOne 조회를 lookupConcurrency 개까지 먼저 보내 두고 (공용 HTTP/2 연결에서 동시 진행),
+			// 아래 반복문에서 응답을 하나 쓸 때마다 다음 주문 조회를 시작 (동시 요청 수 상한 유지)
+			List<PaymentOrderWithMethodVO> lookupOrders = new ArrayList<>();
+			for (PaymentOrderWithMethodVO order : paymentHistory) {
+				if (!isScheduleLookup(order) || order.getSchedule_id() != null) {
+					lookupOrders.add(order);
+				}
+			}
+			int window = Math.max(1, lookupConcurrency);
+			Map<PaymentOrderWithMethodVO, CompletableFuture<HttpResponse<String>>> lookups = new IdentityHashMap<>();
+			int started = startLookups(lookupOrders, lookups, 0, window);
+			int consumed = 0;
+			
 			// 각 결제에 대해 PortOne API로 결제 수단 정보 조회
 			for (PaymentOrderWithMethodVO order : paymentHistory) {
+				if (lookups.containsKey(order)) {
+					consumed++;
+					started = startLookups(lookupOrders, lookups, started, consumed - 1 + window);
+				}
+				
 //				System.out.println("처리 중인 결제 - PaymentId: " + order.getPayment_id() + 
 //						", OrderType: " + order.getOrder_type() + ", Status: " + order.getOrder_status());
 
-				// 결제 유형에 따라 다른 API 호출
-				String orderType = order.getOrder_type();
-				String orderStatus = order.getOrder_status();
-
+				// 결제 유형에 따라 다른 API 응답 사용
 				try {
-					if ("SCHEDULE".equals(orderType) && 
-						("READY".equals(orderStatus) || "CANCELLED".equals(orderStatus))) {
+					if (isScheduleLookup(order)) {
 						
 						// 예약 결제의 경우: schedule_id로 빌링키 조회 후 결제수단 정보 조회
 						String scheduleId = order.getSchedule_id();
@@ -1197,7 +1218,7 @@ public class PaymentServiceImple implements PaymentService {
 //							System.out.println("예약 결제 처리 중 - ScheduleId: " + scheduleId);
 							
 							// PortOne API에서 예약 정보 조회
-							HttpResponse<String> scheduleResponse = portOneApiClient.getPaymentSchedule(scheduleId);
+							HttpResponse<String> scheduleResponse = lookups.get(order).join();
 							
 //							System.out.println("예약 정보 API 응답 상태: " + scheduleResponse.statusCode());
 							
@@ -1257,7 +1278,7 @@ public class PaymentServiceImple implements PaymentService {
 						// 일반 결제의 경우: payment_id로 결제 정보 조회
 //						System.out.println("일반 결제 처리 중 - PaymentId: " + order.getPayment_id());
 						
-						HttpResponse<String> response = portOneApiClient.getPaymentInfo(order.getPayment_id());
+						HttpResponse<String> response = lookups.get(order).join();
 //						System.out.println("일반 결제 API 응답 상태: " + response.statusCode());
 						
 						if (portOneApiClient.isSuccessResponse(response)) {
@@ -1336,6 +1357,38 @@ public class PaymentServiceImple implements PaymentService {
 		}
 	}
 
+	/**
+	 * 예약 정보로 결제 수단을 조회할 주문인지 (대기/취소된 예약 결제)
+	 * @param order 결제 주문 VO
+	 */
+	/**
+	 * 주문 목록의 from 번째부터 to 번째 전까지 PortOne 조회 시작
+	 * 요청 생성(주문 번호로 URI 구성 등)에 실패한 주문은 실패한 조회로 등록해 해당 주문만 기본값 처리되게 한다.
+	 * @return 조회를 시작한 주문 수
+	 */
+	private int startLookups(List<PaymentOrderWithMethodVO> orders,
+			Map<PaymentOrderWithMethodVO, CompletableFuture<HttpResponse<String>>> lookups, int from, int to) {
+		int end = Math.min(to, orders.size());
+		for (int i = from; i < end; i++) {
+			PaymentOrderWithMethodVO order = orders.get(i);
+			try {
+				lookups.put(order, isScheduleLookup(order)
+					? portOneApiClient.getPaymentScheduleAsync(order.getSchedule_id())
+					: portOneApiClient.getPaymentInfoAsync(order.getPayment_id()));
+			} catch (RuntimeException e) {
+				CompletableFuture<HttpResponse<String>> failed = new CompletableFuture<>();
+				failed.completeExceptionally(e);
+				lookups.put(order, failed);
+			}
+		}
+		return Math.max(from, end);
+	}
+
+	private boolean isScheduleLookup(PaymentOrderWithMethodVO order) {
+		return "SCHEDULE".equals(order.getOrder_type())
+			&& ("READY".equals(order.getOrder_status()) || "CANCELLED".equals(order.getOrder_status()));
+	}
+
 	/**
 	 * API 정보 조회 실패 시 기본값 설정
 	 * @param order 결제 주문 VO
@@ -5,24 +5,80 @@ import java.net.URI;
 import java.net.http.HttpClient;
 import java.net.http.HttpRequest;
 import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
 
 import org.fitsync.config.PortOneConfig;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 @Service
 public class PortOneApiClient {
     
     private static final Logger log = LoggerFactory.getLogger(PortOneApiClient.class);
-    private static final String PORTONE_BASE_URL = "https://api.portone.io";
     
     private final PortOneConfig portOneConfig;
+    private final String baseUrl;
+    private final Duration requestTimeout;
     
+    // 모든 호출이 함께 쓰는 HttpClient (HTTP/2 연결 재사용, 호출마다 클라이언트/선택자 스레드/TLS 핸드셰이크를 새로 만들지 않음)
+    private final HttpClient httpClient;
+    
+    /**
+     * @param baseUrl PortOne API 주소 (로컬 모의 서버로 바꿔 확인할 수 있음)
+     * @param connectTimeoutMs 연결 시간 상한
+     * @param requestTimeoutMs 요청 1건의 응답 시간 상한
+     */
     @Autowired
-    public PortOneApiClient(PortOneConfig portOneConfig) {
+    public PortOneApiClient(PortOneConfig portOneConfig,
+                            @Value("${portone.api.base.url:https://api.portone.io}") String baseUrl,
+                            @Value("${portone.http.connect.timeout.ms:5000}") long connectTimeoutMs,
+                            @Value("${portone.http.request.timeout.ms:30000}") long requestTimeoutMs) {
         this.portOneConfig = portOneConfig;
+        this.baseUrl = baseUrl;
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+    
+    // 공통 헤더/시간 상한을 적용한 요청 생성
+    private HttpRequest request(String path, String method, HttpRequest.BodyPublisher body) {
+        return HttpRequest.newBuilder()
+                .uri(URI.create(baseUrl + path))
+                .timeout(requestTimeout)
+                .header("Content-Type", "application/json")
+                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
+                .method(method, body)
+                .build();
+    }
+    
+    // 동기 호출 (기존 메서드용)
+    private HttpResponse<String> send(String name, HttpRequest request) throws IOException, InterruptedException {
+        HttpResponse<String> response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        logResponse(name, response);
+        return response;
+    }
+    
+    // 비동기 호출 (응답은 HttpClient 스레드에서 완료, 결제 기록 조회의 주문별 선조회에서만 사용)
+    private CompletableFuture<HttpResponse<String>> sendAsync(String name, HttpRequest request) {
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        log.error("PortOne " + name + " API 호출 실패", error);
+                    } else {
+                        logResponse(name, response);
+                    }
+                });
+    }
+    
+    private void logResponse(String name, HttpResponse<String> response) {
+        log.info("PortOne " + name + " API Response Status: " + response.statusCode());
+        log.info("PortOne " + name + " API Response Body: " + response.body());
     }
     
     /**
@@ -33,19 +89,11 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> getBillingKeyInfo(String billingKey) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/billing-keys/" + billingKey))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("GET", HttpRequest.BodyPublishers.noBody())
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne getBillingKeyInfo API Response Status: " + response.statusCode());
-        log.info("PortOne getBillingKeyInfo API Response Body: " + response.body());
-        
-        return response;
+        return send("getBillingKeyInfo", getBillingKeyInfoRequest(billingKey));
+    }
+    
+    private HttpRequest getBillingKeyInfoRequest(String billingKey) {
+        return request("/billing-keys/" + billingKey, "GET", HttpRequest.BodyPublishers.noBody());
     }
     
     /**
@@ -61,24 +109,16 @@ public class PortOneApiClient {
      */
     public HttpResponse<String> payWithBillingKey(String paymentId, String billingKey, String channelKey, 
                                                  String orderName, int amount) throws IOException, InterruptedException {
+        return send("payWithBillingKey", payWithBillingKeyRequest(paymentId, billingKey, channelKey, orderName, amount));
+    }
+    
+    private HttpRequest payWithBillingKeyRequest(String paymentId, String billingKey, String channelKey, 
+                                                 String orderName, int amount) {
         String requestBody = String.format(
             "{\"storeId\":\"%s\",\"billingKey\":\"%s\",\"channelKey\":\"%s\",\"orderName\":\"%s\",\"amount\":{\"total\":%d},\"currency\":\"KRW\"}",
             portOneConfig.getStoreId(), billingKey, channelKey, orderName, amount
         );
-        
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payments/" + paymentId + "/billing-key"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("POST", HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne payWithBillingKey API Status Code: " + response.statusCode());
-        log.info("PortOne payWithBillingKey API Response Body: " + response.body());
-        
-        return response;
+        return request("/payments/" + paymentId + "/billing-key", "POST", HttpRequest.BodyPublishers.ofString(requestBody));
     }
     
     /**
@@ -89,19 +129,15 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> getPaymentInfo(String paymentId) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payments/" + paymentId))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("GET", HttpRequest.BodyPublishers.noBody())
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne getPaymentInfo API Response Status: " + response.statusCode());
-        log.info("PortOne getPaymentInfo API Response Body: " + response.body());
-        
-        return response;
+        return send("getPaymentInfo", getPaymentInfoRequest(paymentId));
+    }
+    
+    public CompletableFuture<HttpResponse<String>> getPaymentInfoAsync(String paymentId) {
+        return sendAsync("getPaymentInfo", getPaymentInfoRequest(paymentId));
+    }
+    
+    private HttpRequest getPaymentInfoRequest(String paymentId) {
+        return request("/payments/" + paymentId, "GET", HttpRequest.BodyPublishers.noBody());
     }
     
     /**
@@ -113,24 +149,15 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> saveBillingKey(String billingKey, String channelKey) throws IOException, InterruptedException {
+        return send("saveBillingKey", saveBillingKeyRequest(billingKey, channelKey));
+    }
+    
+    private HttpRequest saveBillingKeyRequest(String billingKey, String channelKey) {
         String requestBody = String.format(
             "{\"storeId\":\"%s\",\"channelKey\":\"%s\",\"billingKey\":\"%s\"}",
             portOneConfig.getStoreId(), channelKey, billingKey
         );
-        
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/billing-keys"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("POST", HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne saveBillingKey API Response Status: " + response.statusCode());
-        log.info("PortOne saveBillingKey API Response Body: " + response.body());
-        
-        return response;
+        return request("/billing-keys", "POST", HttpRequest.BodyPublishers.ofString(requestBody));
     }
     
     /**
@@ -156,6 +183,12 @@ public class PortOneApiClient {
      */
     public HttpResponse<String> createPaymentSchedule(String paymentId, String billingKey, String channelKey, 
             String orderName, int amount, String scheduleDateTime) throws IOException, InterruptedException {
+        return send("createPaymentSchedule",
+                createPaymentScheduleRequest(paymentId, billingKey, channelKey, orderName, amount, scheduleDateTime));
+    }
+    
+    private HttpRequest createPaymentScheduleRequest(String paymentId, String billingKey, String channelKey, 
+            String orderName, int amount, String scheduleDateTime) {
         String requestBody = String.format(
             "{\"payment\":{\"storeId\":\"%s\",\"billingKey\":\"%s\",\"channelKey\":\"%s\",\"orderName\":\"%s\",\"amount\":{\"total\":%d},\"currency\":\"KRW\"},\"timeToPay\":\"%s\"}",
             portOneConfig.getStoreId(), billingKey, channelKey, orderName, amount, scheduleDateTime
@@ -163,19 +196,7 @@ public class PortOneApiClient {
         
         log.info("PortOne 결제 스케줄 생성 요청 Body: " + requestBody);
         
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payments/" + paymentId + "/schedule"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("POST", HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne createPaymentSchedule API Status Code: " + response.statusCode());
-        log.info("PortOne createPaymentSchedule API Response Body: " + response.body());
-        
-        return response;
+        return request("/payments/" + paymentId + "/schedule", "POST", HttpRequest.BodyPublishers.ofString(requestBody));
     }
     
     /**
@@ -186,21 +207,12 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> cancelPaymentSchedule(String scheduleId) throws IOException, InterruptedException {
+        return send("cancelPaymentSchedule", cancelPaymentScheduleRequest(scheduleId));
+    }
+    
+    private HttpRequest cancelPaymentScheduleRequest(String scheduleId) {
         String requestBody = String.format("{\"scheduleIds\":[\"%s\"]}", scheduleId);
-        
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payment-schedules"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("DELETE", HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne cancelPaymentSchedule API Status Code: " + response.statusCode());
-        log.info("PortOne cancelPaymentSchedule API Response Body: " + response.body());
-        
-        return response;
+        return request("/payment-schedules", "DELETE", HttpRequest.BodyPublishers.ofString(requestBody));
     }
     
     /**
@@ -211,21 +223,12 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> cancelScheduleByBillingKey(String billingKey) throws IOException, InterruptedException {
+        return send("cancelScheduleByBillingKey", cancelScheduleByBillingKeyRequest(billingKey));
+    }
+    
+    private HttpRequest cancelScheduleByBillingKeyRequest(String billingKey) {
         String requestBody = String.format("{\"billingKey\":\"%s\"}", billingKey);
-        
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payment-schedules"))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("DELETE", HttpRequest.BodyPublishers.ofString(requestBody))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne cancelScheduleByBillingKey API Status Code: " + response.statusCode());
-        log.info("PortOne cancelScheduleByBillingKey API Response Body: " + response.body());
-        
-        return response;
+        return request("/payment-schedules", "DELETE", HttpRequest.BodyPublishers.ofString(requestBody));
     }
     
     /**
@@ -236,19 +239,16 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> getPaymentSchedule(String scheduleId) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/payment-schedules/" + scheduleId + "?storeId=" + portOneConfig.getStoreId()))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("GET", HttpRequest.BodyPublishers.noBody())
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne getPaymentSchedule API Status Code: " + response.statusCode());
-        log.info("PortOne getPaymentSchedule API Response Body: " + response.body());
-        
-        return response;
+        return send("getPaymentSchedule", getPaymentScheduleRequest(scheduleId));
+    }
+    
+    public CompletableFuture<HttpResponse<String>> getPaymentScheduleAsync(String scheduleId) {
+        return sendAsync("getPaymentSchedule", getPaymentScheduleRequest(scheduleId));
+    }
+    
+    private HttpRequest getPaymentScheduleRequest(String scheduleId) {
+        return request("/payment-schedules/" + scheduleId + "?storeId=" + portOneConfig.getStoreId(),
+                "GET", HttpRequest.BodyPublishers.noBody());
     }
     
     /**
@@ -259,19 +259,12 @@ public class PortOneApiClient {
      * @throws InterruptedException
      */
     public HttpResponse<String> deleteBillingKey(String billingKey) throws IOException, InterruptedException {
-        HttpRequest request = HttpRequest.newBuilder()
-                .uri(URI.create(PORTONE_BASE_URL + "/billing-keys/" + billingKey + "?storeId=" + portOneConfig.getStoreId()))
-                .header("Content-Type", "application/json")
-                .header("Authorization", "PortOne " + portOneConfig.getApiSecretKey())
-                .method("DELETE", HttpRequest.BodyPublishers.ofString("{}"))
-                .build();
-        
-        HttpResponse<String> response = HttpClient.newHttpClient().send(request, HttpResponse.BodyHandlers.ofString());
-        
-        log.info("PortOne deleteBillingKey API Status Code: " + response.statusCode());
-        log.info("PortOne deleteBillingKey API Response Body: " + response.body());
-        
-        return response;
+        return send("deleteBillingKey", deleteBillingKeyRequest(billingKey));
+    }
+    
+    private HttpRequest deleteBillingKeyRequest(String billingKey) {
+        return request("/billing-keys/" + billingKey + "?storeId=" + portOneConfig.getStoreId(),
+                "DELETE", HttpRequest.BodyPublishers.ofString("{}"));
     }
     
     /**
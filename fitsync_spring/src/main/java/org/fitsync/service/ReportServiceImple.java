@@ -15,9 +15,12 @@ import org.fitsync.mapper.MemberMapper;
 import org.fitsync.mapper.MessageMapper;
 import org.fitsync.mapper.ReportMapper;
 import org.fitsync.mapper.ReviewMapper;
+import org.fitsync.util.SanctionCache;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import lombok.extern.log4j.Log4j;
 
@@ -38,6 +41,8 @@ public class ReportServiceImple implements ReportService {
 	private ChatAttachMapper attachMapper;
 	@Autowired
 	private MatchingMapper matchMapper;
+	@Autowired
+	private SanctionCache sanctionCache;
 	
 	@Override
 	public List<ReportVO> getReport() {
@@ -114,7 +119,9 @@ public class ReportServiceImple implements ReportService {
 		Map<String, Object> map = new HashMap<String, Object>();
 		map.put("vo", vo);
 		map.put("block_set", block_set);
-		return mapper.updateReport(map) > 0;
+		boolean result = mapper.updateReport(map) > 0;
+		invalidateSanction(member_idx);
+		return result;
 	}
 	
 	@Override
@@ -126,27 +133,47 @@ public class ReportServiceImple implements ReportService {
 		map.put("vo", vo);
 		map.put("block_set", block_set);
 		if(mapper.updateReport(map) > 0) {
+			invalidateSanction(member_idx);
 			return reviewMapper.reviewHidden(report_data_idx) > 0;
 		}else {		
 			return false;
 		}
 	}
 	
-	// 제재정보
+	// 제재정보 (캐시 우선, 차단 중이면 차단 해제 시간에 만료)
 	@Override
 	public ReportVO getBlockData(int member_idx) {
-		return mapper.getBlockData(member_idx);
+		return sanctionCache.get(member_idx, mapper::getBlockData);
+	}
+	
+	// 제재 대상 회원의 캐시 제거 (트랜잭션 중이면 커밋 후 제거해 이전 값이 다시 캐시되지 않도록 함)
+	private void invalidateSanction(int member_idx) {
+		if (member_idx <= 0) {
+			return;
+		}
+		if (TransactionSynchronizationManager.isSynchronizationActive()) {
+			TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+				@Override
+				public void afterCommit() {
+					sanctionCache.invalidate(member_idx);
+				}
+			});
+		} else {
+			sanctionCache.invalidate(member_idx);
+		}
 	}
 	
 	// 프로필 신고
 	@Override
 	public void insertReport(ReportVO report) {
 		mapper.insertProfileReport(report);
+		invalidateSanction(report.getReport_sanction());
 	}
 	
 	// UserProfileModal 사용자 프로필 신고
 	@Override
 	public void insertUserProfileReport(ReportVO report) {
 		mapper.insertUserProfileReport(report);
+		invalidateSanction(report.getReport_sanction());
 	}
 }
\ No newline at end of file
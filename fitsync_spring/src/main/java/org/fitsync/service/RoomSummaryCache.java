@@ -0,0 +1,217 @@
+package org.fitsync.service;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import org.fitsync.domain.MessageVO;
+import org.fitsync.domain.RoomVO;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+/**
+ * 회원별 채팅방 목록 요약(상대방 프로필 + 마지막 메시지) 캐시
+ * 한 번 DB에서 적재한 뒤에는 메시지 저장 시 해당 채팅방 항목만 갱신하고 맨 앞으로 옮긴다.
+ * 목록에 없는 채팅방의 메시지, 메시지 삭제, 만료 시에는 다시 적재한다.
+ * 캐시에 들어간 RoomVO 는 수정하지 않고 항상 복사본으로 교체한다.
+ * 적재(DB 조회)는 맵 잠금 밖에서 하고, 적재 중에는 자리표시 항목을 두어 같은 회원의 다른 조회는 그 결과를 기다린다.
+ * 적재 중 메시지 저장/캐시 제거가 있으면 적재 결과는 캐시하지 않고 이번 조회에만 쓴다.
+ * 갱신은 이 노드에서 저장/삭제한 메시지만 반영하므로, 노드 간 중계(chat.relay.enabled)를 쓰면 캐시하지 않고 매번 적재한다.
+ */
+@Component
+public class RoomSummaryCache {
+
+    /**
+     * 채팅방 목록 캐시 유지 시간 (밀리초, 프로필 변경 반영 주기)
+     */
+    @Value("${chat.room.summary.ttl.ms:300000}")
+    private long ttlMs;
+
+    /**
+     * 캐시에 보관하는 최대 회원 수 (초과 시 전체 비움)
+     */
+    @Value("${chat.room.summary.max.members:10000}")
+    private int maxMembers;
+
+    /**
+     * 노드 간 중계 사용 여부 (사용 시 캐시 미사용)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean relayEnabled;
+
+    // member_idx → 채팅방 목록 요약
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong loadCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong invalidateCount = new AtomicLong();
+
+    /**
+     * 회원의 채팅방 목록 요약 조회 (없거나 만료되었으면 loader 로 적재)
+     */
+    public List<RoomVO> get(int member_idx, Supplier<List<RoomVO>> loader) {
+        if (relayEnabled) {
+            loadCount.incrementAndGet();
+            return loader.get();
+        }
+
+        Entry entry = entries.get(member_idx);
+        if (entry != null && entry.isFresh()) {
+            hitCount.incrementAndGet();
+            return entry.rooms;
+        }
+        if (entry != null && entry.loading != null) {
+            return await(entry);
+        }
+
+        if (entries.size() >= maxMembers) {
+            entries.clear();
+        }
+
+        // 적재 자리표시 등록 (이미 다른 스레드가 적재 중이거나 적재를 마쳤으면 그 결과 사용)
+        Entry marker = new Entry(new CompletableFuture<>());
+        Entry current = entries.compute(member_idx, (key, existing) ->
+            existing != null && (existing.loading != null || existing.isFresh()) ? existing : marker);
+        if (current != marker) {
+            return current.loading != null ? await(current) : current.rooms;
+        }
+
+        List<RoomVO> rooms;
+        try {
+            loadCount.incrementAndGet();
+            rooms = Collections.unmodifiableList(new ArrayList<>(loader.get()));
+        } catch (RuntimeException e) {
+            entries.remove(member_idx, marker);
+            marker.loading.completeExceptionally(e);
+            throw e;
+        }
+
+        // 적재 중 변경이 없었을 때만 캐시에 넣음 (변경이 있었으면 자리표시만 제거)
+        Entry loaded = new Entry(rooms, System.currentTimeMillis() + ttlMs);
+        entries.computeIfPresent(member_idx, (key, existing) ->
+            existing != marker ? existing : marker.stale ? null : loaded);
+        marker.loading.complete(rooms);
+        return rooms;
+    }
+
+    // 다른 스레드의 적재 결과 대기 (적재 실패 시 같은 예외)
+    private static List<RoomVO> await(Entry entry) {
+        try {
+            return entry.loading.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) {
+                throw (RuntimeException) e.getCause();
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 새 메시지 저장 시 발신자/수신자의 채팅방 요약 갱신
+     */
+    public void onMessage(MessageVO vo) {
+        apply(vo.getSender_idx(), vo);
+        apply(vo.getReceiver_idx(), vo);
+    }
+
+    /**
+     * 회원들의 채팅방 목록 캐시 제거 (메시지 삭제 등 부분 갱신이 어려운 경우)
+     */
+    public void invalidate(int... member_idxs) {
+        for (int member_idx : member_idxs) {
+            if (entries.remove(member_idx) != null) {
+                invalidateCount.incrementAndGet();
+            }
+        }
+    }
+
+    // 캐시된 목록에서 해당 채팅방의 마지막 메시지를 바꾸고 맨 앞으로 이동 (목록에 없으면 캐시 제거)
+    private void apply(int member_idx, MessageVO vo) {
+        entries.computeIfPresent(member_idx, (key, entry) -> {
+            if (entry.loading != null) {
+                // 적재 중이면 적재 결과를 캐시하지 않도록 표시
+                entry.stale = true;
+                return entry;
+            }
+            List<RoomVO> rooms = new ArrayList<>(entry.rooms.size());
+            RoomVO updated = null;
+
+            for (RoomVO room : entry.rooms) {
+                if (room.getRoom_idx() == vo.getRoom_idx()) {
+                    updated = room.copy();
+                } else {
+                    rooms.add(room);
+                }
+            }
+
+            if (updated == null) {
+                invalidateCount.incrementAndGet();
+                return null;
+            }
+
+            Timestamp senddate = vo.getMessage_senddate() != null ? vo.getMessage_senddate() : new Timestamp(System.currentTimeMillis());
+            updated.setLast_message(vo.getMessage_idx());
+            updated.setLast_message_content(vo.getMessage_content());
+            updated.setLast_message_type(vo.getMessage_type());
+            updated.setLast_message_senddate(senddate);
+            updated.setLast_sender_idx(vo.getSender_idx());
+            updated.setRoom_msgdate(senddate);
+            rooms.add(0, updated);
+
+            updateCount.incrementAndGet();
+            return new Entry(Collections.unmodifiableList(rooms), entry.expiresAt);
+        });
+    }
+
+    /**
+     * 캐시 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", !relayEnabled);
+        stats.put("members", entries.size());
+        stats.put("ttl_ms", ttlMs);
+        stats.put("hits", hitCount.get());
+        stats.put("loads", loadCount.get());
+        stats.put("updates", updateCount.get());
+        stats.put("invalidations", invalidateCount.get());
+        return stats;
+    }
+
+    /**
+     * 회원 한 명의 채팅방 목록 요약, 또는 적재 중 자리표시 (loading 이 null 이 아님)
+     */
+    private static final class Entry {
+        private final List<RoomVO> rooms;
+        private final long expiresAt;
+        private final CompletableFuture<List<RoomVO>> loading;
+        // 적재 중 변경 발생 여부 (맵 잠금 안에서만 기록/확인)
+        private boolean stale;
+
+        private Entry(List<RoomVO> rooms, long expiresAt) {
+            this.rooms = rooms;
+            this.expiresAt = expiresAt;
+            this.loading = null;
+        }
+
+        private Entry(CompletableFuture<List<RoomVO>> loading) {
+            this.rooms = null;
+            this.expiresAt = 0;
+            this.loading = loading;
+        }
+
+        private boolean isFresh() {
+            return loading == null && expiresAt > System.currentTimeMillis();
+        }
+    }
+}
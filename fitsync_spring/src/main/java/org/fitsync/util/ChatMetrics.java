@@ -0,0 +1,93 @@
+package org.fitsync.util;
+
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 채팅 처리 구간별 처리량/지연 시간/실패 사유 집계
+ * 구간 이름(예: ws./chat.send, db.insert_message, broadcast.room)마다 지연 히스토그램과
+ * 실패/누락 사유별 카운터를 둔다. 기록은 ConcurrentHashMap 조회 + 원자적 증가로 잠금 없이 처리된다.
+ */
+public class ChatMetrics {
+
+    private final ConcurrentHashMap<String, Stage> stages = new ConcurrentHashMap<>();
+    private volatile long sinceMs = System.currentTimeMillis();
+
+    /**
+     * 측정 시작 시각 (record 에 그대로 전달)
+     */
+    public long start() {
+        return System.nanoTime();
+    }
+
+    /**
+     * 구간 처리 시간 기록
+     */
+    public void record(String name, long startNanos) {
+        stage(name).latency.record(System.nanoTime() - startNanos);
+    }
+
+    /**
+     * 구간 실패/누락 사유 기록 (예외 등으로 처리되지 못한 건)
+     */
+    public void fail(String name, String reason) {
+        stage(name).failures.computeIfAbsent(reason, key -> new LongAdder()).increment();
+    }
+
+    /**
+     * 구간 실패 기록 (예외 타입을 사유로 사용)
+     */
+    public void fail(String name, Throwable cause) {
+        fail(name, cause.getClass().getSimpleName());
+    }
+
+    private Stage stage(String name) {
+        Stage stage = stages.get(name);
+        return stage != null ? stage : stages.computeIfAbsent(name, key -> new Stage());
+    }
+
+    /**
+     * 구간별 집계 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        long elapsedMs = Math.max(1, System.currentTimeMillis() - sinceMs);
+        Map<String, Object> stats = new TreeMap<>();
+        for (Map.Entry<String, Stage> entry : stages.entrySet()) {
+            Stage stage = entry.getValue();
+            Map<String, Object> stageStats = stage.latency.snapshot();
+            long count = (long) stageStats.get("count");
+            stageStats.put("per_sec", Math.round(count * 1000_000.0 / elapsedMs) / 1000.0);
+
+            Map<String, Long> failures = new TreeMap<>();
+            long failed = 0;
+            for (Map.Entry<String, LongAdder> failure : stage.failures.entrySet()) {
+                long n = failure.getValue().sum();
+                failures.put(failure.getKey(), n);
+                failed += n;
+            }
+            stageStats.put("failed", failed);
+            stageStats.put("failures", failures);
+            stats.put(entry.getKey(), stageStats);
+        }
+        stats.put("since", new java.sql.Timestamp(sinceMs).toString());
+        return stats;
+    }
+
+    /**
+     * 집계 초기화 (재측정 시작)
+     */
+    public void reset() {
+        for (Stage stage : stages.values()) {
+            stage.latency.reset();
+            stage.failures.clear();
+        }
+        sinceMs = System.currentTimeMillis();
+    }
+
+    private static final class Stage {
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final ConcurrentHashMap<String, LongAdder> failures = new ConcurrentHashMap<>();
+    }
+}
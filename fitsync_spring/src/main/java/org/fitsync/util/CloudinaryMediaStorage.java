@@ -0,0 +1,54 @@
+package org.fitsync.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+
+import com.cloudinary.Cloudinary;
+
+/**
+ * Cloudinary 저장소
+ * 임시 파일을 File 로 넘겨 SDK 가 디스크에서 바로 읽어 올리도록 한다 (메모리에 전체 파일을 올리지 않음).
+ */
+public class CloudinaryMediaStorage implements MediaStorage {
+
+    private final Cloudinary cloudinary;
+
+    public CloudinaryMediaStorage(Cloudinary cloudinary) {
+        this.cloudinary = cloudinary;
+    }
+
+    @Override
+    @SuppressWarnings("rawtypes")
+    public StoredMedia store(Path file, String originalFilename, String contentType) throws IOException {
+        // Cloudinary 업로드 파라미터 설정
+        Map<String, Object> uploadParams = new HashMap<>();
+        uploadParams.put("resource_type", "auto"); // 파일 타입 자동 감지
+        uploadParams.put("folder", "fitsync"); // 업로드 폴더 지정
+        uploadParams.put("public_id", "chat_" + UUID.randomUUID().toString().replace("-", "")); // 고유 ID 생성 (같은 밀리초 업로드도 겹치지 않음)
+        uploadParams.put("overwrite", false); // 덮어쓰기 방지
+        uploadParams.put("quality", "auto:good"); // 품질 자동 최적화
+
+        Map uploadResult = cloudinary.uploader().upload(file.toFile(), uploadParams);
+        return new StoredMedia((String) uploadResult.get("secure_url"), (String) uploadResult.get("public_id"));
+    }
+
+    @Override
+    public boolean delete(String publicId) {
+        try {
+            // Cloudinary 삭제 옵션 설정
+            Map<String, Object> deleteOptions = new HashMap<>();
+            deleteOptions.put("invalidate", true); // CDN 캐시 무효화
+
+            Map<?, ?> deleteResult = cloudinary.uploader().destroy(publicId, deleteOptions);
+
+            // 삭제 결과 확인 (result가 "ok"이면 성공)
+            return deleteResult.containsKey("result") && "ok".equals(deleteResult.get("result"));
+
+        } catch (Exception e) {
+            return false;
+        }
+    }
+}
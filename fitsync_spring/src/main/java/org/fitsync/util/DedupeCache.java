@@ -0,0 +1,147 @@
+package org.fitsync.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 중복 요청 방지용 캐시 (멱등 처리용)
+ * 키마다 만료 시간(TTL)을 두고, 최대 개수를 넘으면 가장 오래 전에 사용된 키부터 제거한다(LRU).
+ * 중복으로 다시 조회된 키는 만료 시간을 새로 잡고 사용 순서의 맨 뒤로 옮긴다.
+ * 조회/등록은 ConcurrentHashMap 기반으로 잠금 없이 O(1)로 처리된다.
+ */
+public class DedupeCache {
+
+    private final String name;
+    private final long ttlMs;
+    private final int maxSize;
+
+    // 키 → 등록 정보 (조회용)
+    private final ConcurrentHashMap<String, Entry> entries = new ConcurrentHashMap<>();
+    // 사용 순서 (만료/초과 제거용, 앞쪽이 가장 오래 전에 사용된 키)
+    // 다시 사용되어 맵의 등록 정보가 바뀐 키의 이전 항목은 앞쪽에 닿을 때 버린다.
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    // 맵에 등록된 키 수
+    private final AtomicInteger size = new AtomicInteger();
+    // 제거는 한 스레드만 수행 (앞쪽 항목 확인과 꺼내기 사이에 다른 스레드가 끼어들지 않도록)
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+    private final AtomicLong expirationCount = new AtomicLong();
+
+    public DedupeCache(String name, long ttlMs, int maxSize) {
+        this.name = name;
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 처음 보는 키이면 등록하고 true, 만료 전에 이미 등록된 키이면 false (중복)
+     */
+    public boolean markIfAbsent(String key) {
+        long now = System.currentTimeMillis();
+        Entry fresh = new Entry(key, now + ttlMs);
+        Entry existing = entries.putIfAbsent(key, fresh);
+
+        if (existing != null) {
+            if (existing.expiresAt > now) {
+                // 만료 전 중복 - 만료 시간을 새로 잡고 사용 순서 맨 뒤로 옮김 (다른 스레드가 먼저 옮겼으면 그대로 둠)
+                if (entries.replace(key, existing, fresh)) {
+                    order.offer(fresh);
+                }
+                hitCount.incrementAndGet();
+                evict(now);
+                return false;
+            }
+            if (!entries.replace(key, existing, fresh)) {
+                // 만료된 키를 다른 스레드가 먼저 다시 등록했으면 중복
+                hitCount.incrementAndGet();
+                return false;
+            }
+            expirationCount.incrementAndGet();
+        } else {
+            size.incrementAndGet();
+        }
+
+        missCount.incrementAndGet();
+        order.offer(fresh);
+        evict(now);
+        return true;
+    }
+
+    /**
+     * 만료되지 않은 키가 등록되어 있는지 확인
+     */
+    public boolean contains(String key) {
+        Entry entry = entries.get(key);
+        return entry != null && entry.expiresAt > System.currentTimeMillis();
+    }
+
+    /**
+     * 키 등록 해제 (메시지 저장에 실패해 같은 키의 재전송을 허용해야 할 때)
+     */
+    public void remove(String key) {
+        if (entries.remove(key) != null) {
+            size.decrementAndGet();
+        }
+    }
+
+    // 만료되었거나 최대 개수를 넘은 오래된 키 제거 (앞쪽의 이전 사용 항목도 함께 정리)
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Entry head;
+            while ((head = order.peek()) != null
+                    && (size.get() > maxSize || head.expiresAt <= now || entries.get(head.key) != head)) {
+                order.poll();
+
+                // 이미 다시 사용/해제된 키면 맵에서는 지우지 않음
+                if (entries.remove(head.key, head)) {
+                    size.decrementAndGet();
+                    if (head.expiresAt <= now) {
+                        expirationCount.incrementAndGet();
+                    } else {
+                        evictionCount.incrementAndGet();
+                    }
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 캐시 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("name", name);
+        stats.put("size", entries.size());
+        stats.put("max_size", maxSize);
+        stats.put("ttl_ms", ttlMs);
+        stats.put("hits", hitCount.get());
+        stats.put("misses", missCount.get());
+        stats.put("evictions", evictionCount.get());
+        stats.put("expirations", expirationCount.get());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final String key;
+        private final long expiresAt;
+
+        private Entry(String key, long expiresAt) {
+            this.key = key;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
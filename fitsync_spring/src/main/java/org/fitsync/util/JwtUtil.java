@@ -6,21 +6,47 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
 import javax.annotation.PostConstruct;
+import java.nio.charset.StandardCharsets;
 import java.security.Key;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
 import java.util.Date;
+import java.util.concurrent.ConcurrentHashMap;
 
 @Component
 public class JwtUtil {
     @Value("${jwt.secret:YourSecretKeyMustBeAtLeast32CharactersLong!}")
     private String secret;
 
+    // 검증된 토큰 캐시 최대 개수 (초과 시 만료 항목 정리 후에도 가득 차면 비움)
+    @Value("${jwt.cache.max.size:10000}")
+    private int cacheMaxSize;
+
     private long expirationMs = 8 * 60 * 60 * 1000L; // 8시간
 
     private Key key;
 
+    // 서명 키가 고정이므로 파서는 한 번만 만들어 재사용 (불변, 스레드 안전)
+    private JwtParser parser;
+
+    // 토큰 SHA-256 다이제스트 → 검증 결과 (토큰 만료 시각까지 보관)
+    private final ConcurrentHashMap<String, VerifiedToken> verifiedTokens = new ConcurrentHashMap<>();
+
+    private static final ThreadLocal<MessageDigest> SHA256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    });
+
     @PostConstruct
     public void init() {
         this.key = Keys.hmacShaKeyFor(secret.getBytes());
+        this.parser = Jwts.parserBuilder()
+                .setSigningKey(key)
+                .build();
     }
 
     // 이메일도 claim에 추가 (원하면)
@@ -59,26 +85,70 @@ public class JwtUtil {
     
     public Integer getBlockCount(String token) {
     	Claims claims = parseClaims(token);
-    	return claims.get("block_Count", Integer.class);
+    	return claims.get("block_count", Integer.class);
     }
 
     public boolean validate(String token) {
+        return verify(token) != null;
+    }
+
+    /**
+     * 토큰 검증 후 클레임 반환 (유효하지 않거나 만료되었으면 null)
+     * 같은 토큰은 만료 시각까지 캐시된 결과를 돌려주므로 서명 검증/파싱은 토큰당 한 번만 한다.
+     */
+    public VerifiedToken verify(String token) {
+        if (token == null || token.isEmpty()) {
+            return null;
+        }
+        long now = System.currentTimeMillis();
+        String digest = digest(token);
+
+        VerifiedToken cached = verifiedTokens.get(digest);
+        if (cached != null) {
+            if (!cached.isExpired(now)) {
+                return cached;
+            }
+            verifiedTokens.remove(digest, cached);
+            return null;
+        }
+
+        VerifiedToken verified;
         try {
             Claims claims = parseClaims(token);
             Date expiration = claims.getExpiration();
-            Date now = new Date();
-            return !expiration.before(now);
-        } catch (ExpiredJwtException e) {
-            return false;
+            if (expiration == null || expiration.getTime() <= now) {
+                return null;
+            }
+            verified = new VerifiedToken(
+                    Long.parseLong(claims.getSubject()),
+                    claims.get("email", String.class),
+                    claims.get("block_date", Date.class),
+                    claims.get("block_count", Integer.class),
+                    expiration.getTime());
         } catch (JwtException | IllegalArgumentException e) {
-            return false;
+            // 만료(ExpiredJwtException), 서명 불일치, 형식 오류
+            return null;
         }
+
+        if (verifiedTokens.size() >= cacheMaxSize) {
+            verifiedTokens.values().removeIf(entry -> entry.isExpired(now));
+            if (verifiedTokens.size() >= cacheMaxSize) {
+                verifiedTokens.clear();
+            }
+        }
+        verifiedTokens.put(digest, verified);
+        return verified;
+    }
+
+    // 캐시 키 (토큰 원문 대신 SHA-256 다이제스트 보관)
+    private String digest(String token) {
+        MessageDigest md = SHA256.get();
+        md.reset();
+        return Base64.getEncoder().encodeToString(md.digest(token.getBytes(StandardCharsets.US_ASCII)));
     }
 
     private Claims parseClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
+        return parser
                 .parseClaimsJws(token)
                 .getBody();
     }
@@ -0,0 +1,46 @@
+package org.fitsync.util;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.util.UUID;
+
+/**
+ * 로컬 파일 시스템 저장소 (개발/오프라인 확인용 Cloudinary 대체)
+ * 지정한 디렉터리에 파일을 복사하고 baseUrl + 파일명을 공개 URL 로 돌려준다.
+ */
+public class LocalMediaStorage implements MediaStorage {
+
+    private final Path directory;
+    private final String baseUrl;
+
+    public LocalMediaStorage(String directory, String baseUrl) throws IOException {
+        this.directory = Files.createDirectories(Paths.get(directory).toAbsolutePath().normalize());
+        this.baseUrl = baseUrl.endsWith("/") ? baseUrl : baseUrl + "/";
+    }
+
+    @Override
+    public StoredMedia store(Path file, String originalFilename, String contentType) throws IOException {
+        String extension = "";
+        if (originalFilename != null && originalFilename.contains(".")) {
+            extension = originalFilename.substring(originalFilename.lastIndexOf("."));
+        }
+        String publicId = "chat_" + UUID.randomUUID().toString().replace("-", "") + extension;
+
+        Files.copy(file, directory.resolve(publicId), StandardCopyOption.REPLACE_EXISTING);
+        return new StoredMedia(baseUrl + publicId, publicId);
+    }
+
+    @Override
+    public boolean delete(String publicId) {
+        try {
+            // 저장 디렉터리 밖의 경로는 지우지 않음
+            Path target = directory.resolve(publicId).normalize();
+            return target.startsWith(directory) && Files.deleteIfExists(target);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+}
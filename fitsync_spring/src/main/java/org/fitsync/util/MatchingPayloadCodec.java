@@ -0,0 +1,62 @@
+package org.fitsync.util;
+
+import java.io.IOException;
+
+import org.fitsync.domain.MatchingPayload;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+
+/**
+ * 매칭 데이터 JSON 변환기 (DB matching_data CLOB ↔ MatchingPayload)
+ * MatchingPayload 전용 reader/writer 를 한 번만 만들어 두고 재사용하므로
+ * 메시지마다 타입 정보 조회나 중간 Map 생성 없이 바로 변환된다.
+ * JSON 뒤에 다른 문자가 붙은 값은 변환하지 않는다 (원본 문자열을 응답에 그대로 싣는 MessageVO 보호).
+ */
+public final class MatchingPayloadCodec {
+
+    private static final ObjectReader READER;
+    private static final ObjectWriter WRITER;
+
+    static {
+        ObjectMapper mapper = new ObjectMapper()
+                .configure(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES, false)
+                .configure(DeserializationFeature.FAIL_ON_TRAILING_TOKENS, true);
+        READER = mapper.readerFor(MatchingPayload.class);
+        WRITER = mapper.writerFor(MatchingPayload.class);
+    }
+
+    private MatchingPayloadCodec() {
+    }
+
+    /**
+     * MatchingPayload → JSON 문자열 (변환 실패 시 null)
+     */
+    public static String encode(MatchingPayload payload) {
+        if (payload == null) {
+            return null;
+        }
+        try {
+            return WRITER.writeValueAsString(payload);
+        } catch (JsonProcessingException e) {
+            return null;
+        }
+    }
+
+    /**
+     * JSON 문자열 → MatchingPayload (비어 있거나 형식이 잘못되면 null)
+     */
+    public static MatchingPayload decode(String json) {
+        if (json == null || json.trim().isEmpty()) {
+            return null;
+        }
+        try {
+            return READER.readValue(json);
+        } catch (IOException e) {
+            return null;
+        }
+    }
+}
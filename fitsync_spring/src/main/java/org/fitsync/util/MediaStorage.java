@@ -0,0 +1,38 @@
+package org.fitsync.util;
+
+import java.io.IOException;
+import java.nio.file.Path;
+
+/**
+ * 첨부파일 저장소 (CDN)
+ * 기본은 Cloudinary, 외부 연결 없이 확인할 때는 로컬 파일 시스템 구현으로 바꿀 수 있다 (chat.upload.storage).
+ */
+public interface MediaStorage {
+
+    // 임시 파일을 저장소에 올리고 공개 URL 과 저장소 식별자 반환
+    public StoredMedia store(Path file, String originalFilename, String contentType) throws IOException;
+
+    // 저장소에서 파일 삭제
+    public boolean delete(String publicId);
+
+    /**
+     * 저장 결과 (공개 URL, 삭제 시 사용할 저장소 식별자)
+     */
+    public static final class StoredMedia {
+        private final String url;
+        private final String publicId;
+
+        public StoredMedia(String url, String publicId) {
+            this.url = url;
+            this.publicId = publicId;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public String getPublicId() {
+            return publicId;
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package org.fitsync.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+import org.fitsync.domain.MemberPrincipal;
+
+/**
+ * 회원 인증 정보(member_idx, 유형, 상태, 이메일) 캐시 - 이메일과 member_idx 두 키로 조회
+ * 인증 필터가 요청마다 회원을 DB에서 조회하지 않도록 ttlMs 동안 보관하고,
+ * 회원 정보가 바뀌면 MemberServiceImple 에서 해당 회원 항목을 제거한다.
+ * 없는 회원(null)은 보관하지 않는다 (가입 직후 바로 조회되도록).
+ */
+public class MemberPrincipalCache {
+
+    private final long ttlMs;
+    private final int maxSize;
+
+    // member_email → 인증 정보 / member_idx → 인증 정보 (같은 Entry 공유)
+    private final ConcurrentHashMap<String, Entry> byEmail = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<Integer, Entry> byIdx = new ConcurrentHashMap<>();
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidateCount = new AtomicLong();
+
+    public MemberPrincipalCache(long ttlMs, int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 이메일로 인증 정보 조회 (없거나 만료되었으면 loader 로 조회 후 저장)
+     */
+    public MemberPrincipal get(String member_email, Function<String, MemberPrincipal> loader) {
+        Entry entry = byEmail.get(member_email);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hitCount.incrementAndGet();
+            return entry.principal;
+        }
+        missCount.incrementAndGet();
+        return store(loader.apply(member_email));
+    }
+
+    /**
+     * member_idx 로 인증 정보 조회 (없거나 만료되었으면 loader 로 조회 후 저장)
+     */
+    public MemberPrincipal get(int member_idx, IntFunction<MemberPrincipal> loader) {
+        Entry entry = byIdx.get(member_idx);
+        if (entry != null && entry.expiresAt > System.currentTimeMillis()) {
+            hitCount.incrementAndGet();
+            return entry.principal;
+        }
+        missCount.incrementAndGet();
+        return store(loader.apply(member_idx));
+    }
+
+    private MemberPrincipal store(MemberPrincipal principal) {
+        if (principal == null) {
+            return null;
+        }
+        if (byIdx.size() >= maxSize) {
+            byIdx.clear();
+            byEmail.clear();
+        }
+        Entry entry = new Entry(principal, System.currentTimeMillis() + ttlMs);
+        byIdx.put(principal.getMember_idx(), entry);
+        if (principal.getMember_email() != null) {
+            byEmail.put(principal.getMember_email(), entry);
+        }
+        return principal;
+    }
+
+    /**
+     * 회원의 인증 정보 제거 (회원 정보 변경 시)
+     */
+    public void invalidate(int member_idx) {
+        Entry entry = byIdx.remove(member_idx);
+        if (entry != null && entry.principal.getMember_email() != null) {
+            byEmail.remove(entry.principal.getMember_email(), entry);
+        } else if (entry == null) {
+            // member_idx 항목이 없으면 이메일 쪽에 남은 항목 정리
+            byEmail.values().removeIf(e -> e.principal.getMember_idx() == member_idx);
+        }
+        invalidateCount.incrementAndGet();
+    }
+
+    /**
+     * 이메일로 인증 정보 제거 (가입 등 member_idx 를 모르는 변경 시)
+     */
+    public void invalidate(String member_email) {
+        Entry entry = byEmail.remove(member_email);
+        if (entry != null) {
+            byIdx.remove(entry.principal.getMember_idx(), entry);
+        }
+        invalidateCount.incrementAndGet();
+    }
+
+    /**
+     * 캐시 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", byIdx.size());
+        stats.put("max_size", maxSize);
+        stats.put("ttl_ms", ttlMs);
+        stats.put("hits", hitCount.get());
+        stats.put("misses", missCount.get());
+        stats.put("invalidations", invalidateCount.get());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final MemberPrincipal principal;
+        private final long expiresAt;
+
+        private Entry(MemberPrincipal principal, long expiresAt) {
+            this.principal = principal;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
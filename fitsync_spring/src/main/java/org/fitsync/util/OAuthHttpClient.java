@@ -0,0 +1,217 @@
+package org.fitsync.util;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+/**
+ * 소셜 로그인(카카오/네이버/구글) 공급자 호출용 공용 HTTP 클라이언트
+ * 하나의 HttpClient 로 연결을 재사용하고, 연결/응답 시간 상한을 두며, 공급자별 동시 요청 수를 제한한다.
+ * 요청은 비동기(sendAsync)로 보내고 응답 JSON 을 CompletableFuture 로 돌려주므로 서블릿 스레드가 공급자 응답을 기다리지 않는다.
+ * 동시 요청 한도를 넘으면 기다리지 않고 RejectedExecutionException 으로 바로 실패한다.
+ * 응답 처리 스레드는 HTTP 응답만 다루고, 회원 조회 등 DB 작업이 있는 후속 처리는 getLoginExecutor() 로 넘긴다.
+ */
+public class OAuthHttpClient {
+
+    private final HttpClient httpClient;
+    private final ExecutorService executor;
+    private final ThreadPoolExecutor loginExecutor;
+    private final Duration requestTimeout;
+    private final int maxConcurrency;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // 공급자 이름 → 동시 요청 제한 및 처리 현황
+    private final ConcurrentHashMap<String, Provider> providers = new ConcurrentHashMap<>();
+
+    /**
+     * @param connectTimeoutMs 연결 시간 상한
+     * @param requestTimeoutMs 요청 1건의 응답 시간 상한
+     * @param maxConcurrency 공급자별 최대 동시 요청 수
+     * @param threads 응답 처리 스레드 수
+     * @param loginThreads 로그인 후속 처리(DB 조회, 토큰 발급) 스레드 수
+     * @param loginQueueCapacity 로그인 후속 처리 대기열 크기 (초과 시 RejectedExecutionException 으로 실패)
+     */
+    public OAuthHttpClient(long connectTimeoutMs, long requestTimeoutMs, int maxConcurrency, int threads,
+            int loginThreads, int loginQueueCapacity) {
+        AtomicInteger threadCount = new AtomicInteger();
+        this.executor = Executors.newFixedThreadPool(threads, runnable -> {
+            Thread thread = new Thread(runnable, "oauth-http-" + threadCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        AtomicInteger loginThreadCount = new AtomicInteger();
+        this.loginExecutor = new ThreadPoolExecutor(
+            loginThreads, loginThreads, 0L, TimeUnit.MILLISECONDS,
+            new LinkedBlockingQueue<>(loginQueueCapacity),
+            runnable -> {
+                Thread thread = new Thread(runnable, "oauth-login-" + loginThreadCount.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            },
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        this.httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+            .executor(executor)
+            .build();
+        this.requestTimeout = Duration.ofMillis(requestTimeoutMs);
+        this.maxConcurrency = maxConcurrency;
+    }
+
+    /**
+     * GET 요청 (bearerToken 이 있으면 Authorization 헤더 추가)
+     */
+    public CompletableFuture<JsonNode> getJson(String provider, String uri, String bearerToken) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(uri)).timeout(requestTimeout).GET();
+        if (bearerToken != null) {
+            builder.header("Authorization", "Bearer " + bearerToken);
+        }
+        return send(provider, builder.build());
+    }
+
+    /**
+     * 본문 없는 POST 요청 (파라미터는 쿼리 문자열로 전달)
+     */
+    public CompletableFuture<JsonNode> postJson(String provider, String uri) {
+        HttpRequest request = HttpRequest.newBuilder(URI.create(uri))
+            .timeout(requestTimeout)
+            .POST(HttpRequest.BodyPublishers.noBody())
+            .build();
+        return send(provider, request);
+    }
+
+    private CompletableFuture<JsonNode> send(String provider, HttpRequest request) {
+        Provider state = providers.computeIfAbsent(provider, name -> new Provider(maxConcurrency));
+        if (!state.permits.tryAcquire()) {
+            state.rejected.incrementAndGet();
+            CompletableFuture<JsonNode> rejected = new CompletableFuture<>();
+            rejected.completeExceptionally(new RejectedExecutionException(provider + " 동시 요청 한도 초과"));
+            return rejected;
+        }
+
+        long startNanos = System.nanoTime();
+        state.requests.incrementAndGet();
+        return httpClient.sendAsync(request, HttpResponse.BodyHandlers.ofString())
+            .whenComplete((response, error) -> {
+                state.permits.release();
+                state.maxMs.accumulateAndGet(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos), Math::max);
+                if (error != null) {
+                    state.failures.incrementAndGet();
+                    if (unwrap(error) instanceof HttpTimeoutException) {
+                        state.timeouts.incrementAndGet();
+                    }
+                } else if (response.statusCode() / 100 != 2) {
+                    state.failures.incrementAndGet();
+                }
+            })
+            .thenApply(response -> {
+                if (response.statusCode() / 100 != 2) {
+                    throw new CompletionException(new StatusException(provider, response.statusCode()));
+                }
+                try {
+                    return objectMapper.readTree(response.body());
+                } catch (IOException e) {
+                    throw new CompletionException(e);
+                }
+            });
+    }
+
+    /**
+     * CompletableFuture 실패 원인 (CompletionException 포장 제거)
+     */
+    public static Throwable unwrap(Throwable error) {
+        while (error instanceof CompletionException && error.getCause() != null) {
+            error = error.getCause();
+        }
+        return error;
+    }
+
+    /**
+     * 로그인 후속 처리용 실행기 (thenApplyAsync 로 지정, HTTP 응답 처리 스레드에서 DB 작업을 하지 않도록)
+     */
+    public Executor getLoginExecutor() {
+        return loginExecutor;
+    }
+
+    public void shutdown() {
+        executor.shutdown();
+        loginExecutor.shutdown();
+    }
+
+    /**
+     * 공급자 호출 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("request_timeout_ms", requestTimeout.toMillis());
+        stats.put("max_concurrency", maxConcurrency);
+        stats.put("login_active", loginExecutor.getActiveCount());
+        stats.put("login_queued", loginExecutor.getQueue().size());
+        for (Map.Entry<String, Provider> entry : providers.entrySet()) {
+            Provider state = entry.getValue();
+            Map<String, Object> provider = new HashMap<>();
+            provider.put("in_flight", maxConcurrency - state.permits.availablePermits());
+            provider.put("requests", state.requests.get());
+            provider.put("failures", state.failures.get());
+            provider.put("timeouts", state.timeouts.get());
+            provider.put("rejected", state.rejected.get());
+            provider.put("max_ms", state.maxMs.get());
+            stats.put(entry.getKey(), provider);
+        }
+        return stats;
+    }
+
+    /**
+     * 공급자가 2xx 가 아닌 상태 코드로 응답한 경우
+     */
+    public static class StatusException extends IOException {
+
+        private static final long serialVersionUID = 1L;
+
+        private final int statusCode;
+
+        public StatusException(String provider, int statusCode) {
+            super(provider + " 응답 상태 " + statusCode);
+            this.statusCode = statusCode;
+        }
+
+        public int getStatusCode() {
+            return statusCode;
+        }
+    }
+
+    private static final class Provider {
+        private final Semaphore permits;
+        private final AtomicLong requests = new AtomicLong();
+        private final AtomicLong failures = new AtomicLong();
+        private final AtomicLong timeouts = new AtomicLong();
+        private final AtomicLong rejected = new AtomicLong();
+        private final AtomicLong maxMs = new AtomicLong();
+
+        private Provider(int maxConcurrency) {
+            this.permits = new Semaphore(maxConcurrency);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package org.fitsync.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 회원별 토큰 버킷 요청 제한 (잠금 없음, 허용 경로에서 객체 생성 없음)
+ * 회원마다 최대 burst 개의 토큰을 두고 분당 perMinute 개씩 채우며, 요청마다 토큰 1개를 쓴다.
+ * 회원 번호는 고정 크기 개방 주소 테이블(AtomicLongArray)에 CAS 로 자리를 잡고,
+ * 버킷 상태(마지막 충전 시각 + 남은 토큰)는 long 하나에 묶어 CAS 한 번으로 갱신한다.
+ * 테이블이 가득 차 자리를 못 잡은 회원은 제한하지 않고 통과시킨다(untracked 로 집계).
+ */
+public class RateLimiter {
+
+    // 토큰 1개 = 60000 단위 → 1ms 마다 perMinute 단위 충전 (정수 연산만 사용)
+    private static final long UNITS_PER_TOKEN = 60_000L;
+    private static final int TOKEN_BITS = 24;
+    private static final long TOKEN_MASK = (1L << TOKEN_BITS) - 1;
+    private static final long MAX_BURST = TOKEN_MASK / UNITS_PER_TOKEN;
+    // 자리 탐색 최대 횟수
+    private static final int MAX_PROBE = 16;
+    // 키 칸 사용 표시 (회원 번호 0 과 빈 칸 구분)
+    private static final long KEY_USED = 1L << 32;
+
+    private final String name;
+    private final long burstUnits;
+    private final long perMinute;
+    private final int mask;
+    // 시각 기준점 (상태에는 기준점 이후 경과 ms 를 저장)
+    private final long baseMs = System.currentTimeMillis();
+
+    private final AtomicLongArray keys;
+    // (경과 ms << TOKEN_BITS) | 남은 토큰 단위 (0 = 아직 사용 안 함)
+    private final AtomicLongArray states;
+
+    // 처리 현황 카운터
+    private final AtomicLong allowedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong untrackedCount = new AtomicLong();
+
+    /**
+     * @param name 지표 표시용 이름
+     * @param burst 연속으로 허용하는 최대 요청 수 (최대 279)
+     * @param perMinute 분당 충전되는 요청 수
+     * @param capacity 추적할 최대 회원 수 (2의 거듭제곱으로 올림)
+     */
+    public RateLimiter(String name, int burst, int perMinute, int capacity) {
+        if (burst < 1 || burst > MAX_BURST) {
+            throw new IllegalArgumentException("burst 는 1 ~ " + MAX_BURST + " 사이여야 합니다: " + burst);
+        }
+        if (perMinute < 1) {
+            throw new IllegalArgumentException("perMinute 는 1 이상이어야 합니다: " + perMinute);
+        }
+        this.name = name;
+        this.burstUnits = burst * UNITS_PER_TOKEN;
+        this.perMinute = perMinute;
+        int size = Integer.highestOneBit(Math.max(16, capacity - 1)) << 1;
+        this.mask = size - 1;
+        this.keys = new AtomicLongArray(size);
+        this.states = new AtomicLongArray(size);
+    }
+
+    /**
+     * 요청 1건 허용 여부 (허용 시 토큰 1개 사용)
+     */
+    public boolean tryAcquire(int member_idx) {
+        int slot = slotOf(member_idx);
+        if (slot < 0) {
+            untrackedCount.incrementAndGet();
+            return true;
+        }
+
+        long now = System.currentTimeMillis() - baseMs;
+        while (true) {
+            long state = states.get(slot);
+            long tokens;
+            long last = 1;
+            if (state == 0) {
+                tokens = burstUnits;
+            } else {
+                last = state >>> TOKEN_BITS;
+                tokens = Math.min(burstUnits, (state & TOKEN_MASK) + Math.max(0, now - last) * perMinute);
+            }
+
+            if (tokens < UNITS_PER_TOKEN) {
+                rejectedCount.incrementAndGet();
+                return false;
+            }
+            // 다른 스레드가 더 늦은 시각을 기록했으면 그대로 유지 (상태 0 과 구분되도록 최소 1)
+            long next = (Math.max(last, now) << TOKEN_BITS) | (tokens - UNITS_PER_TOKEN);
+            if (states.compareAndSet(slot, state, next)) {
+                allowedCount.incrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    // 회원 번호의 테이블 위치 (없으면 빈 칸을 CAS 로 차지, 찾지 못하면 -1)
+    private int slotOf(int member_idx) {
+        long key = KEY_USED | (member_idx & 0xFFFFFFFFL);
+        int h = member_idx * 0x9E3779B9;
+        int slot = (h ^ (h >>> 16)) & mask;
+        for (int probe = 0; probe < MAX_PROBE; probe++) {
+            long current = keys.get(slot);
+            if (current == key) {
+                return slot;
+            }
+            if (current == 0 && (keys.compareAndSet(slot, 0, key) || keys.get(slot) == key)) {
+                return slot;
+            }
+            slot = (slot + 1) & mask;
+        }
+        return -1;
+    }
+
+    /**
+     * 요청 제한 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        int tracked = 0;
+        for (int i = 0; i < keys.length(); i++) {
+            if (keys.get(i) != 0) {
+                tracked++;
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("name", name);
+        stats.put("burst", burstUnits / UNITS_PER_TOKEN);
+        stats.put("per_minute", perMinute);
+        stats.put("capacity", keys.length());
+        stats.put("tracked", tracked);
+        stats.put("allowed", allowedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        stats.put("untracked", untrackedCount.get());
+        return stats;
+    }
+}
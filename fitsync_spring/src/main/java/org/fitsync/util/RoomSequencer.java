@@ -0,0 +1,47 @@
+package org.fitsync.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * 채팅방별 메시지 순번(room_seq) 발급
+ * 순번은 채팅방 행의 마지막 순번(room.room_last_seq)을 1 올려 받아오는 allocator 로 DB 에서 발급한다.
+ * 채팅방 행 잠금으로 발급하므로 여러 노드가 같은 채팅방 메시지를 저장해도 순번이 겹치지 않고,
+ * 잠금은 발급한 트랜잭션이 끝날 때까지 유지되므로 같은 채팅방 메시지는 순번 순서대로 등록된다.
+ * 서버는 채팅방별 상태를 들고 있지 않는다 (발급 건수/실패 건수만 집계).
+ * 순번은 저장 전에 발급하므로 저장에 실패한 메시지의 순번은 비어 있게 된다 (빈틈 없음을 보장하지 않음).
+ * 클라이언트는 받은 순번이 마지막 순번 + 1 이 아니면 빠진 구간을 다시 조회하고, 재시도 후에도 없는 순번은 건너뛴다.
+ * 컬럼/인덱스는 db/migration/V1__chat_room_seq.sql 로 추가한다.
+ */
+public class RoomSequencer {
+
+    // 처리 현황 카운터
+    private final AtomicLong issuedCount = new AtomicLong();
+    private final AtomicLong failCount = new AtomicLong();
+
+    /**
+     * 다음 순번 발급 (allocator 는 room_idx 를 받아 새 순번을 돌려준다)
+     */
+    public int next(int room_idx, IntUnaryOperator allocator) {
+        try {
+            int seq = allocator.applyAsInt(room_idx);
+            issuedCount.incrementAndGet();
+            return seq;
+        } catch (RuntimeException e) {
+            failCount.incrementAndGet();
+            throw e;
+        }
+    }
+
+    /**
+     * 순번 발급 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("issued", issuedCount.get());
+        stats.put("failed", failCount.get());
+        return stats;
+    }
+}
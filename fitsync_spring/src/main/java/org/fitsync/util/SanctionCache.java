@@ -0,0 +1,138 @@
+package org.fitsync.util;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.IntFunction;
+
+import org.fitsync.domain.ReportVO;
+
+/**
+ * 회원별 제재 정보(차단 해제 시간, 제재 횟수) 캐시
+ * 차단 중인 회원은 차단 해제 시간에 만료되어 다시 조회되고, 차단되지 않은 회원은 ttlMs 동안 DB 조회 없이 처리된다.
+ * 제재가 적용되면 ReportServiceImple 에서 해당 회원 항목을 제거한다.
+ * 조회 도중 제거(무효화)가 있었으면 조회 결과를 저장하지 않아, 무효화 이전에 읽은 제재 정보가 다시 캐시되지 않는다.
+ * 최대 개수를 넘으면 가장 오래 전에 저장된 항목부터 하나씩 제거한다.
+ */
+public class SanctionCache {
+
+    private final long ttlMs;
+    private final int maxSize;
+
+    // member_idx → 제재 정보
+    private final ConcurrentHashMap<Integer, Entry> entries = new ConcurrentHashMap<>();
+    // 저장 순서 (만료/초과 제거용, 앞쪽이 가장 오래 전에 저장된 항목)
+    private final ConcurrentLinkedQueue<Entry> order = new ConcurrentLinkedQueue<>();
+    // 무효화할 때마다 올라가는 번호 (조회 도중 무효화 여부 확인용)
+    private final AtomicLong generation = new AtomicLong();
+    // 제거는 한 스레드만 수행
+    private final AtomicBoolean evicting = new AtomicBoolean();
+
+    // 처리 현황 카운터
+    private final AtomicLong hitCount = new AtomicLong();
+    private final AtomicLong missCount = new AtomicLong();
+    private final AtomicLong invalidateCount = new AtomicLong();
+    private final AtomicLong staleLoadCount = new AtomicLong();
+    private final AtomicLong evictionCount = new AtomicLong();
+
+    public SanctionCache(long ttlMs, int maxSize) {
+        this.ttlMs = ttlMs;
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * 제재 정보 조회 (없거나 만료되었으면 loader 로 조회 후 저장)
+     */
+    public ReportVO get(int member_idx, IntFunction<ReportVO> loader) {
+        long now = System.currentTimeMillis();
+        Entry entry = entries.get(member_idx);
+        if (entry != null && entry.expiresAt > now) {
+            hitCount.incrementAndGet();
+            return entry.report;
+        }
+
+        missCount.incrementAndGet();
+        long loadedGeneration = generation.get();
+        ReportVO report = loader.apply(member_idx);
+
+        // 차단 중이면 차단 해제 시간까지만 보관 (해제 시점 이후 첫 조회에서 다시 확인)
+        long expiresAt = now + ttlMs;
+        if (report != null && report.getReport_time() != null && report.getReport_time().getTime() > now) {
+            expiresAt = Math.min(expiresAt, report.getReport_time().getTime());
+        }
+
+        // 조회 도중 무효화가 있었으면 저장하지 않음 (무효화와 같은 키에서 순서가 정해지도록 compute 안에서 확인)
+        Entry fresh = new Entry(member_idx, report, expiresAt);
+        Entry stored = entries.compute(member_idx, (key, current) -> generation.get() == loadedGeneration ? fresh : current);
+        if (stored == fresh) {
+            order.offer(fresh);
+            evict(now);
+        } else {
+            staleLoadCount.incrementAndGet();
+        }
+        return report;
+    }
+
+    /**
+     * 회원의 제재 정보 제거 (제재 적용/신고 등록 시)
+     */
+    public void invalidate(int member_idx) {
+        entries.compute(member_idx, (key, current) -> {
+            generation.incrementAndGet();
+            if (current != null) {
+                invalidateCount.incrementAndGet();
+            }
+            return null;
+        });
+    }
+
+    // 최대 개수를 넘은 만큼 오래된 항목을 하나씩 제거 (앞쪽의 만료/교체된 항목도 함께 정리)
+    private void evict(long now) {
+        if (!evicting.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            Entry head;
+            while ((head = order.peek()) != null
+                    && (entries.size() > maxSize || head.expiresAt <= now || entries.get(head.member_idx) != head)) {
+                order.poll();
+                if (entries.remove(head.member_idx, head) && head.expiresAt > now) {
+                    evictionCount.incrementAndGet();
+                }
+            }
+        } finally {
+            evicting.set(false);
+        }
+    }
+
+    /**
+     * 캐시 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("size", entries.size());
+        stats.put("max_size", maxSize);
+        stats.put("ttl_ms", ttlMs);
+        stats.put("hits", hitCount.get());
+        stats.put("misses", missCount.get());
+        stats.put("invalidations", invalidateCount.get());
+        stats.put("stale_loads", staleLoadCount.get());
+        stats.put("evictions", evictionCount.get());
+        return stats;
+    }
+
+    private static final class Entry {
+        private final int member_idx;
+        private final ReportVO report;
+        private final long expiresAt;
+
+        private Entry(int member_idx, ReportVO report, long expiresAt) {
+            this.member_idx = member_idx;
+            this.report = report;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
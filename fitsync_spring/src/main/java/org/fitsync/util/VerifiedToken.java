@@ -0,0 +1,48 @@
+package org.fitsync.util;
+
+import java.util.Date;
+
+/**
+ * 서명 검증을 마친 JWT 의 클레임 (토큰당 한 번만 파싱해 필터에서 필요한 값을 모두 담음)
+ */
+public final class VerifiedToken {
+
+    private final long userIdx;
+    private final String email;
+    private final Date blockDate;
+    private final Integer blockCount;
+    private final long expiresAt;
+
+    VerifiedToken(long userIdx, String email, Date blockDate, Integer blockCount, long expiresAt) {
+        this.userIdx = userIdx;
+        this.email = email;
+        this.blockDate = blockDate;
+        this.blockCount = blockCount;
+        this.expiresAt = expiresAt;
+    }
+
+    public long getUserIdx() {
+        return userIdx;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Date getBlockDate() {
+        return blockDate;
+    }
+
+    public Integer getBlockCount() {
+        return blockCount;
+    }
+
+    // 만료 시각 (epoch ms)
+    public long getExpiresAt() {
+        return expiresAt;
+    }
+
+    public boolean isExpired(long now) {
+        return expiresAt <= now;
+    }
+}
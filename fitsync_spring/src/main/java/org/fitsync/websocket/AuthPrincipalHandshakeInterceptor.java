@@ -0,0 +1,35 @@
+package org.fitsync.websocket;
+
+import java.util.Map;
+
+import org.fitsync.domain.AuthPrincipal;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.server.HandshakeInterceptor;
+
+/**
+ * WebSocket 핸드셰이크 요청의 인증 정보(AuthTokenFilter 가 저장한 요청 속성)를 WebSocket 세션 속성으로 복사
+ * 접속 상태 관리, 전송 제한에서 세션 속성 member_idx 로 회원을 식별한다 (HttpSession 미사용).
+ */
+public class AuthPrincipalHandshakeInterceptor implements HandshakeInterceptor {
+
+    @Override
+    public boolean beforeHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Map<String, Object> attributes) {
+        if (request instanceof ServletServerHttpRequest) {
+            Object principal = ((ServletServerHttpRequest) request).getServletRequest().getAttribute(AuthPrincipal.ATTRIBUTE);
+            if (principal instanceof AuthPrincipal && ((AuthPrincipal) principal).isAuthenticated()) {
+                attributes.put("member_idx", ((AuthPrincipal) principal).getMember_idx());
+                attributes.put("member_type", ((AuthPrincipal) principal).getMember_type());
+            }
+        }
+        return true;
+    }
+
+    @Override
+    public void afterHandshake(ServerHttpRequest request, ServerHttpResponse response,
+            WebSocketHandler wsHandler, Exception exception) {
+    }
+}
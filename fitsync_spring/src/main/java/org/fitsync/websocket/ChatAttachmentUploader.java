@@ -0,0 +1,227 @@
+package org.fitsync.websocket;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.fitsync.domain.ChatAttachVO;
+import org.fitsync.domain.MessageVO;
+import org.fitsync.service.ChatService;
+import org.fitsync.service.CloudinaryService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.multipart.MultipartFile;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅 첨부파일 비동기 업로드
+ * 요청 스레드에서는 업로드 파일을 임시 파일로 스트리밍하고 첨부파일 번호만 할당해 바로 응답한다.
+ * CDN 업로드, DB 저장, 메시지 연결은 크기가 제한된 전용 스레드 풀에서 처리하고,
+ * 완료되면 /topic/room/{room_idx}/attachment 로 attachment_uploaded (실패 시 attachment_failed) 를 보낸다.
+ * 업로드 후 메시지 연결에 실패하면 저장소 파일과 첨부파일 행을 지워 연결되지 않은 파일이 남지 않게 한다.
+ */
+@Component
+@Log4j
+public class ChatAttachmentUploader {
+
+    @Autowired
+    private CloudinaryService cloudinaryService;
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * 동시에 업로드하는 최대 파일 수
+     */
+    @Value("${chat.upload.threads:4}")
+    private int threads;
+
+    /**
+     * 업로드 대기열 최대 길이 (초과 시 업로드 거절)
+     */
+    @Value("${chat.upload.queue.capacity:100}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor executor;
+
+    // 처리 현황 카운터
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong discardedCount = new AtomicLong();
+    private final AtomicLong uploadedBytes = new AtomicLong();
+    private volatile long lastUploadMs;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadSeq = new AtomicInteger();
+        executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, "chat-upload-" + threadSeq.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy());
+    }
+
+    /**
+     * 업로드 등록 (임시 파일 저장 후 대기열에 등록)
+     * @return 미리 할당된 첨부파일 번호 (업로드 완료 후 이 번호로 저장/연결됨)
+     * @throws RejectedExecutionException 업로드 대기열이 가득 찬 경우
+     */
+    public int submit(int message_idx, MultipartFile file) throws IOException {
+        Path temp = cloudinaryService.spool(file);
+        String originalFilename = file.getOriginalFilename();
+        String contentType = file.getContentType();
+        long size = file.getSize();
+
+        try {
+            int attach_idx = cloudinaryService.reserveAttachIdx();
+            executor.execute(() -> upload(message_idx, attach_idx, temp, originalFilename, contentType, size));
+            submittedCount.incrementAndGet();
+            return attach_idx;
+        } catch (RuntimeException e) {
+            if (e instanceof RejectedExecutionException) {
+                rejectedCount.incrementAndGet();
+            }
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+    }
+
+    // CDN 업로드 → 첨부파일 저장 → 메시지 연결 → 채팅방에 완료 알림
+    private void upload(int message_idx, int attach_idx, Path temp, String originalFilename, String contentType, long size) {
+        long startTime = System.currentTimeMillis();
+        MessageVO messageInfo = null;
+        ChatAttachVO attachment = null;
+
+        try {
+            attachment = cloudinaryService.uploadSpooledFile(temp, originalFilename, contentType, size, attach_idx);
+
+            // 메시지 정보를 조회하여 채팅방 정보 획득 (연결 시 채팅방 버퍼 갱신에도 사용)
+            messageInfo = chatService.getMessage(message_idx);
+            if (chatService.linkAttachmentToMessage(messageInfo != null ? messageInfo.getRoom_idx() : 0, message_idx, attach_idx) == 0) {
+                throw new IllegalStateException("첨부파일을 연결할 메시지가 없음");
+            }
+
+            completedCount.incrementAndGet();
+            uploadedBytes.addAndGet(size);
+            lastUploadMs = System.currentTimeMillis() - startTime;
+
+            if (messageInfo != null && messageInfo.getRoom_idx() > 0) {
+                Map<String, Object> uploadNotification = Map.of(
+                    "type", "attachment_uploaded",
+                    "message_idx", message_idx,
+                    "room_idx", messageInfo.getRoom_idx(),
+                    "cloudinary_url", attachment.getCloudinary_url(),
+                    "original_filename", attachment.getOriginal_filename() != null ? attachment.getOriginal_filename() : "",
+                    "attach_idx", attach_idx,
+                    "file_size_bytes", attachment.getFile_size_bytes(),
+                    "mime_type", attachment.getMime_type() != null ? attachment.getMime_type() : "image/jpeg",
+                    "timestamp", System.currentTimeMillis()
+                );
+
+                // 채팅방 첨부파일 전용 채널로 브로드캐스트
+                messagingTemplate.convertAndSend("/topic/room/" + messageInfo.getRoom_idx() + "/attachment", uploadNotification);
+            }
+
+        } catch (Exception e) {
+            failedCount.incrementAndGet();
+            log.error("채팅 첨부파일 업로드 실패 - message_idx: " + message_idx + ", attach_idx: " + attach_idx, e);
+            if (attachment != null) {
+                discard(attach_idx);
+            }
+            notifyFailure(message_idx, attach_idx, messageInfo);
+
+        } finally {
+            try {
+                Files.deleteIfExists(temp);
+            } catch (IOException e) {
+                log.warn("업로드 임시 파일 삭제 실패 - " + temp);
+            }
+        }
+    }
+
+    // 메시지에 연결하지 못한 첨부파일 정리 (저장소 파일 + 첨부파일 행)
+    private void discard(int attach_idx) {
+        try {
+            if (cloudinaryService.deleteFile(attach_idx)) {
+                discardedCount.incrementAndGet();
+            } else {
+                log.warn("연결 실패 첨부파일 정리 실패 - attach_idx: " + attach_idx);
+            }
+        } catch (Exception e) {
+            log.warn("연결 실패 첨부파일 정리 실패 - attach_idx: " + attach_idx, e);
+        }
+    }
+
+    // 업로드 실패 알림 (클라이언트가 이미지 로딩 상태를 해제할 수 있도록)
+    private void notifyFailure(int message_idx, int attach_idx, MessageVO messageInfo) {
+        try {
+            if (messageInfo == null) {
+                messageInfo = chatService.getMessage(message_idx);
+            }
+            if (messageInfo != null && messageInfo.getRoom_idx() > 0) {
+                Map<String, Object> failNotification = Map.of(
+                    "type", "attachment_failed",
+                    "message_idx", message_idx,
+                    "room_idx", messageInfo.getRoom_idx(),
+                    "attach_idx", attach_idx,
+                    "timestamp", System.currentTimeMillis()
+                );
+                messagingTemplate.convertAndSend("/topic/room/" + messageInfo.getRoom_idx() + "/attachment", failNotification);
+            }
+        } catch (Exception e) {
+            // 알림 실패는 무시
+        }
+    }
+
+    /**
+     * 업로드 처리 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("threads", threads);
+        stats.put("active", executor.getActiveCount());
+        stats.put("queue_depth", executor.getQueue().size());
+        stats.put("queue_capacity", queueCapacity);
+        stats.put("submitted", submittedCount.get());
+        stats.put("completed", completedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        stats.put("discarded", discardedCount.get());
+        stats.put("uploaded_bytes", uploadedBytes.get());
+        stats.put("last_upload_ms", lastUploadMs);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        // 진행 중인 업로드는 잠시 기다려 마무리
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,229 @@
+package org.fitsync.websocket;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.StringUtils;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 여러 서버 노드 간 STOMP 메시지 중계
+ * 브로커 채널 인터셉터로 등록되어, 이 노드에서 발행된 /topic, /queue, /user 메시지를 다른 노드로 보내고
+ * 다른 노드에서 받은 메시지는 이 노드의 브로커 채널에 다시 넣어 로컬 구독자에게 전달한다.
+ * /user 목적지는 세션 해석 전 원래 목적지로 중계하므로 사용자가 어느 노드에 접속해 있어도 받는다.
+ * 중계 순서는 채팅방(또는 회원) 번호 해시로 고른 레인 단위로 보장된다.
+ */
+@Component
+@Log4j
+public class ChatBrokerRelay implements ChannelInterceptor {
+
+    // 다른 노드에서 중계된 메시지 표시 (다시 중계하지 않음)
+    public static final String RELAY_ORIGIN_HEADER = "relayOrigin";
+
+    // 브로커 채널 생성 시 이 인터셉터가 필요하므로 지연 주입
+    @Autowired
+    @Lazy
+    @Qualifier("brokerChannel")
+    private MessageChannel brokerChannel;
+
+    /**
+     * 노드 간 중계 사용 여부 (단일 서버이면 false)
+     */
+    @Value("${chat.relay.enabled:false}")
+    private boolean enabled;
+
+    /**
+     * 이 노드 식별자 (비어 있으면 임의 생성)
+     */
+    @Value("${chat.relay.node.id:}")
+    private String nodeId;
+
+    /**
+     * 다른 노드로부터 중계를 받는 포트
+     */
+    @Value("${chat.relay.port:7171}")
+    private int port;
+
+    /**
+     * 중계 수신 포트를 열 주소 (기본은 루프백, 다른 서버의 노드와 중계하려면 내부망 주소 지정)
+     */
+    @Value("${chat.relay.bind.address:127.0.0.1}")
+    private String bindAddress;
+
+    /**
+     * 노드 간 공유 비밀키 (모든 노드가 같은 값, 비어 있으면 중계를 시작하지 않음)
+     */
+    @Value("${chat.relay.secret:}")
+    private String secret;
+
+    /**
+     * 피어 노드 목록 (host:port 콤마 구분, 예: 127.0.0.1:7172,127.0.0.1:7173)
+     */
+    @Value("${chat.relay.peers:}")
+    private String peers;
+
+    /**
+     * 피어별 연결(레인) 수 (채팅방 해시로 레인 선택)
+     */
+    @Value("${chat.relay.lanes:4}")
+    private int lanes;
+
+    /**
+     * 레인별 전송 대기열 최대 길이 (초과 시 버림)
+     */
+    @Value("${chat.relay.queue.capacity:10000}")
+    private int queueCapacity;
+
+    private RelayTransport transport;
+
+    // 처리 현황 카운터
+    private final AtomicLong publishedCount = new AtomicLong();
+    private final AtomicLong skippedCount = new AtomicLong();
+    private final AtomicLong deliveredCount = new AtomicLong();
+    private final AtomicLong latencyTotalMs = new AtomicLong();
+    private final AtomicLong latencyMaxMs = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        if (!enabled) {
+            return;
+        }
+        if (!StringUtils.hasText(nodeId)) {
+            nodeId = UUID.randomUUID().toString().substring(0, 8);
+        }
+
+        List<InetSocketAddress> peerAddresses = new ArrayList<>();
+        for (String peer : StringUtils.commaDelimitedListToStringArray(peers)) {
+            String[] hostPort = peer.trim().split(":");
+            peerAddresses.add(new InetSocketAddress(hostPort[0], Integer.parseInt(hostPort[1])));
+        }
+
+        try {
+            transport = new TcpRelayTransport(InetAddress.getByName(bindAddress), port, secret, peerAddresses, lanes, queueCapacity);
+            transport.start(this::deliver);
+        } catch (Exception e) {
+            // 중계를 시작하지 못해도 단일 노드로는 동작하도록 비활성화
+            log.error("채팅 중계 시작 실패 - 단일 노드로 동작", e);
+            if (transport != null) {
+                transport.stop();
+            }
+            transport = null;
+        }
+    }
+
+    /**
+     * 브로커 채널로 들어오는 메시지 중 다른 노드로 보낼 메시지를 중계 (로컬 전달은 그대로 진행)
+     */
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        if (transport == null) {
+            return message;
+        }
+
+        MessageHeaders headers = message.getHeaders();
+        if (SimpMessageHeaderAccessor.getMessageType(headers) != SimpMessageType.MESSAGE
+                || headers.containsKey(RELAY_ORIGIN_HEADER)
+                // /user 목적지를 세션별로 해석한 메시지는 원래 목적지로 이미 중계됨
+                || headers.containsKey(SimpMessageHeaderAccessor.ORIGINAL_DESTINATION)) {
+            return message;
+        }
+
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        if (destination == null || !(destination.startsWith("/topic/") || destination.startsWith("/queue/") || destination.startsWith("/user/"))) {
+            return message;
+        }
+        Object payload = message.getPayload();
+        if (!(payload instanceof byte[])) {
+            skippedCount.incrementAndGet();
+            return message;
+        }
+
+        Object contentType = headers.get(MessageHeaders.CONTENT_TYPE);
+        RelayFrame frame = new RelayFrame(nodeId, destination, contentType != null ? contentType.toString() : null,
+                System.currentTimeMillis(), byte[].class.cast(payload));
+        transport.publish(frame, routingKey(destination));
+        publishedCount.incrementAndGet();
+        return message;
+    }
+
+    // 다른 노드에서 받은 메시지를 이 노드 브로커에 전달
+    private void deliver(RelayFrame frame) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(frame.getDestination());
+        if (frame.getContentType() != null) {
+            accessor.setContentType(MimeTypeUtils.parseMimeType(frame.getContentType()));
+        }
+        accessor.setHeader(RELAY_ORIGIN_HEADER, frame.getOrigin());
+
+        brokerChannel.send(MessageBuilder.createMessage(frame.getPayload(), accessor.getMessageHeaders()));
+        deliveredCount.incrementAndGet();
+
+        long latency = Math.max(0, System.currentTimeMillis() - frame.getSentAt());
+        latencyTotalMs.addAndGet(latency);
+        latencyMaxMs.accumulateAndGet(latency, Math::max);
+    }
+
+    // 목적지의 채팅방/회원 번호로 레인 선택 (/topic/room/{room_idx}/..., /user/{member_idx}/...)
+    static int routingKey(String destination) {
+        String[] parts = destination.split("/");
+        // ["", "topic", "room", "{room_idx}", ...] 또는 ["", "user", "{member_idx}", ...]
+        String key = parts.length > 3 && "room".equals(parts[2]) ? parts[3] : parts.length > 2 && "user".equals(parts[1]) ? parts[2] : null;
+        if (key != null) {
+            try {
+                return Integer.parseInt(key);
+            } catch (NumberFormatException e) {
+                // 숫자가 아니면 목적지 해시 사용
+            }
+        }
+        return destination.hashCode();
+    }
+
+    /**
+     * 중계 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("enabled", transport != null);
+        stats.put("node_id", nodeId);
+        stats.put("published", publishedCount.get());
+        stats.put("skipped", skippedCount.get());
+        stats.put("delivered", deliveredCount.get());
+        long delivered = deliveredCount.get();
+        stats.put("latency_avg_ms", delivered > 0 ? (double) latencyTotalMs.get() / delivered : 0);
+        stats.put("latency_max_ms", latencyMaxMs.get());
+        if (transport != null) {
+            stats.put("transport", transport.getStats());
+        }
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (transport != null) {
+            transport.stop();
+        }
+    }
+}
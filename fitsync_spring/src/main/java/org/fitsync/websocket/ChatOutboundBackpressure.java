@@ -0,0 +1,220 @@
+package org.fitsync.websocket;
+
+import java.io.IOException;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+import org.springframework.web.socket.sockjs.transport.SockJsSession;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * STOMP 세션별 송신 역압(backpressure) 처리
+ * 세션별 송신 대기 버퍼 크기와 송신 시간 상한(servlet-context.xml 의 websocket:transport)을 넘으면
+ * 스프링이 세션을 끊고(SESSION_NOT_RELIABLE), 그 전에 송신이 밀리기 시작한 세션에는
+ * 정책(drop)에 따라 접속/입력 중 상태 알림(/presence)처럼 버려도 되는 프레임을 보내지 않아 버퍼가 쌓이는 것을 줄인다.
+ * - clientOutboundChannel 인터셉터: 밀린 세션으로 가는 버릴 수 있는 프레임 차단, 세션별 송신 대기 프레임 수 집계
+ * - WebSocketHandler 데코레이터: 세션의 실제 송신 시작 시각과 송신 완료 프레임 수를 기록해 밀림 여부 판단
+ * 밀림 판단 기준 (하나라도 해당하면 밀린 세션)
+ * - 한 프레임 송신이 slowThresholdMs 이상 끝나지 않음 (WebSocket, SockJS 스트리밍: 소켓/응답 쓰기가 막힘)
+ * - 채널에 넘겼지만 아직 송신하지 못한 프레임이 slowBacklogFrames 개 이상 (ConcurrentWebSocketSessionDecorator 버퍼에 쌓임,
+ *   버퍼/시간 상한을 넘기 전에 먼저 감지)
+ * - SockJS 폴링 세션이 slowThresholdMs 이상 다음 요청을 보내지 않음 (송신은 메모리 캐시에 쌓이고 바로 끝나므로 송신 시간으로는 감지 불가)
+ * 느린 구독자 1천 개 규모의 부하 시험은 아직 하지 않았다 (기준값은 부하 시험 후 조정).
+ */
+@Component
+@Log4j
+public class ChatOutboundBackpressure implements ChannelInterceptor, WebSocketHandlerDecoratorFactory {
+
+    public static final String POLICY_DROP = "drop";
+    public static final String POLICY_DISCONNECT = "disconnect";
+
+    private static final String PRESENCE_SUFFIX = "/presence";
+
+    /**
+     * 느린 세션 처리 정책
+     * drop: 송신이 밀린 세션에는 접속/입력 중 상태 프레임을 버리고, 상한 초과 시 연결 종료
+     * disconnect: 프레임을 버리지 않고 상한 초과 시 연결 종료
+     */
+    @Value("${chat.ws.slow.policy:drop}")
+    private String policy;
+
+    /**
+     * 한 프레임의 송신이 이 시간 이상 끝나지 않으면 밀린 세션으로 판단 (밀리초)
+     */
+    @Value("${chat.ws.slow.threshold.ms:500}")
+    private long slowThresholdMs;
+
+    /**
+     * 송신 대기 프레임이 이 수 이상 쌓이면 밀린 세션으로 판단
+     */
+    @Value("${chat.ws.slow.backlog.frames:32}")
+    private int slowBacklogFrames;
+
+    // session_id → 송신 상태
+    private final ConcurrentHashMap<String, SendState> sessions = new ConcurrentHashMap<>();
+
+    // 처리 현황 카운터
+    private final AtomicLong sentFrameCount = new AtomicLong();
+    private final AtomicLong sentBytes = new AtomicLong();
+    private final AtomicLong droppedFrameCount = new AtomicLong();
+    private final AtomicLong slowDisconnectCount = new AtomicLong();
+    private final AtomicLong sendMaxMs = new AtomicLong();
+
+    /*-------------------------------------------------------------------*/
+    // 송신 채널 인터셉터
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(message);
+        SendState state = sessions.get(accessor.getSessionId());
+        if (state == null) {
+            return message;
+        }
+        if (POLICY_DROP.equals(policy) && accessor.getMessageType() == SimpMessageType.MESSAGE
+                && isDroppable(accessor.getDestination()) && isSlow(state)) {
+            state.dropped.incrementAndGet();
+            droppedFrameCount.incrementAndGet();
+            return null;
+        }
+        // 세션으로 나갈 프레임 (송신 완료 시 TrackingSession 에서 차감)
+        state.backlog.incrementAndGet();
+        return message;
+    }
+
+    // 접속/입력 중 상태는 최신 상태만 의미가 있고, 재입장 시 /presence 조회로 다시 맞춰지므로 버려도 된다
+    private boolean isDroppable(String destination) {
+        return destination != null && destination.endsWith(PRESENCE_SUFFIX);
+    }
+
+    /*-------------------------------------------------------------------*/
+    // WebSocketHandler 데코레이터
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SendState state = new SendState(session instanceof SockJsSession ? (SockJsSession) session : null);
+                sessions.put(session.getId(), state);
+                super.afterConnectionEstablished(new TrackingSession(session, state));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    /**
+     * 실제 송신 구간을 기록하는 세션 (스프링의 ConcurrentWebSocketSessionDecorator 안쪽에서 한 번에 한 프레임씩 호출됨)
+     */
+    private class TrackingSession extends WebSocketSessionDecorator {
+
+        private final SendState state;
+
+        private TrackingSession(WebSocketSession delegate, SendState state) {
+            super(delegate);
+            this.state = state;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            long startNanos = System.nanoTime();
+            state.sendStartNanos = startNanos;
+            try {
+                super.sendMessage(message);
+            } finally {
+                state.sendStartNanos = 0;
+                // 채널을 거치지 않은 프레임(STOMP 오류 등)은 차감하지 않음
+                state.backlog.updateAndGet(count -> count > 0 ? count - 1 : 0);
+                long elapsedMs = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+                sendMaxMs.accumulateAndGet(elapsedMs, Math::max);
+                sentFrameCount.incrementAndGet();
+                sentBytes.addAndGet(message.getPayloadLength());
+            }
+        }
+
+        @Override
+        public void close(CloseStatus status) throws IOException {
+            // 송신 버퍼/시간 상한 초과로 스프링이 끊는 경우
+            if (CloseStatus.SESSION_NOT_RELIABLE.equals(status)) {
+                slowDisconnectCount.incrementAndGet();
+                log.warn("느린 WebSocket 세션 연결 종료: session_id=" + getId() + ", dropped=" + state.dropped.get());
+            }
+            super.close(status);
+        }
+    }
+
+    // 밀린 세션인지 판단 (클래스 설명의 세 기준)
+    private boolean isSlow(SendState state) {
+        long start = state.sendStartNanos;
+        if (start != 0 && System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(slowThresholdMs)) {
+            return true;
+        }
+        if (state.backlog.get() >= slowBacklogFrames) {
+            return true;
+        }
+        return state.sockJs != null && state.sockJs.getTimeSinceLastActive() >= slowThresholdMs;
+    }
+
+    private static final class SendState {
+        // SockJS 세션이면 원본 세션 (폴링 요청 간격 확인용, WebSocket 직접 연결이면 null)
+        private final SockJsSession sockJs;
+        // 진행 중인 송신 시작 시각 (0 = 송신 중 아님)
+        private volatile long sendStartNanos;
+        // 채널에 넘겼지만 아직 송신하지 못한 프레임 수
+        private final AtomicInteger backlog = new AtomicInteger();
+        private final AtomicLong dropped = new AtomicLong();
+
+        private SendState(SockJsSession sockJs) {
+            this.sockJs = sockJs;
+        }
+    }
+
+    /*-------------------------------------------------------------------*/
+
+    /**
+     * 송신 역압 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        int slowSessions = 0;
+        for (SendState state : sessions.values()) {
+            if (isSlow(state)) {
+                slowSessions++;
+            }
+        }
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("policy", policy);
+        stats.put("slow_threshold_ms", slowThresholdMs);
+        stats.put("slow_backlog_frames", slowBacklogFrames);
+        stats.put("sessions", sessions.size());
+        stats.put("slow_sessions", slowSessions);
+        stats.put("sent_frames", sentFrameCount.get());
+        stats.put("sent_bytes", sentBytes.get());
+        stats.put("send_max_ms", sendMaxMs.get());
+        stats.put("dropped_frames", droppedFrameCount.get());
+        stats.put("slow_disconnects", slowDisconnectCount.get());
+        return stats;
+    }
+}
@@ -0,0 +1,436 @@
+package org.fitsync.websocket;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.messaging.SessionConnectEvent;
+import org.springframework.web.socket.messaging.SessionDisconnectEvent;
+import org.springframework.web.socket.messaging.SessionSubscribeEvent;
+import org.springframework.web.socket.messaging.SessionUnsubscribeEvent;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅 접속/입력 중 상태 관리 (메모리 전용, DB 저장 없음)
+ * STOMP 세션 연결/구독/해제 이벤트로 회원별 접속 여부와 채팅방(/topic/room/{room_idx}) 참여 여부를 관리하고,
+ * 참여 상태가 바뀔 때와 입력 중 상태가 바뀔 때만 /topic/room/{room_idx}/presence 로 알린다.
+ * 입력 중 알림은 회원/채팅방별로 interval 안에 최대 1회만 보내고, 그 사이 변경은 마지막 상태만 모아 보낸다.
+ */
+@Component
+@Log4j
+public class ChatPresenceRegistry {
+
+    private static final String ROOM_TOPIC_PREFIX = "/topic/room/";
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * 입력 중 알림 최소 간격 (회원/채팅방별, 밀리초)
+     */
+    @Value("${chat.presence.typing.interval.ms:1000}")
+    private long typingIntervalMs;
+
+    /**
+     * 입력 중 상태 유지 시간 (이 시간 동안 갱신이 없으면 입력 종료로 알림, 밀리초)
+     */
+    @Value("${chat.presence.typing.ttl.ms:6000}")
+    private long typingTtlMs;
+
+    /**
+     * 세션 하나가 동시에 참여할 수 있는 최대 채팅방 수 (세션별 메모리 상한)
+     */
+    @Value("${chat.presence.max.rooms.per.session:16}")
+    private int maxRoomsPerSession;
+
+    // session_id → 세션 상태
+    private final ConcurrentHashMap<String, SessionPresence> sessions = new ConcurrentHashMap<>();
+    // member_idx → 접속 중인 세션 수
+    private final ConcurrentHashMap<Integer, Integer> onlineMembers = new ConcurrentHashMap<>();
+    // room_idx → (member_idx → 구독 수)
+    private final ConcurrentHashMap<Integer, Map<Integer, Integer>> roomMembers = new ConcurrentHashMap<>();
+    // (room_idx, member_idx) → 입력 중 상태
+    private final ConcurrentHashMap<Long, TypingState> typingStates = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService scheduler;
+
+    // 처리 현황 카운터
+    private final AtomicLong presenceFrameCount = new AtomicLong();
+    private final AtomicLong typingReceivedCount = new AtomicLong();
+    private final AtomicLong typingFrameCount = new AtomicLong();
+    private final AtomicLong typingCoalescedCount = new AtomicLong();
+    private final AtomicLong typingIgnoredCount = new AtomicLong();
+    private final AtomicLong rejectedSubscriptionCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "chat-presence");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long sweepMs = Math.max(50, typingIntervalMs / 4);
+        scheduler.scheduleWithFixedDelay(this::sweepTyping, sweepMs, sweepMs, TimeUnit.MILLISECONDS);
+    }
+
+    /*-------------------------------------------------------------------*/
+
+    // STOMP 연결 - 핸드셰이크 시 인증 정보에서 복사된 member_idx 로 회원 식별
+    @EventListener
+    public void onConnect(SessionConnectEvent event) {
+        Message<?> message = event.getMessage();
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        Map<String, Object> attributes = SimpMessageHeaderAccessor.getSessionAttributes(message.getHeaders());
+        Object member = attributes != null ? attributes.get("member_idx") : null;
+        if (sessionId == null || !(member instanceof Integer)) {
+            return;
+        }
+
+        int member_idx = (Integer) member;
+        if (sessions.putIfAbsent(sessionId, new SessionPresence(member_idx)) == null) {
+            onlineMembers.merge(member_idx, 1, Integer::sum);
+        }
+    }
+
+    // 채팅방 메시지 토픽 구독 = 채팅방 참여
+    @EventListener
+    public void onSubscribe(SessionSubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        Integer room_idx = roomOf(accessor.getDestination());
+        if (session == null || room_idx == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        synchronized (session) {
+            if (session.closed || session.subscriptions.containsKey(accessor.getSubscriptionId())) {
+                return;
+            }
+            if (session.subscriptions.size() >= maxRoomsPerSession) {
+                rejectedSubscriptionCount.incrementAndGet();
+                return;
+            }
+            session.subscriptions.put(accessor.getSubscriptionId(), room_idx);
+        }
+        join(room_idx, session.member_idx);
+    }
+
+    @EventListener
+    public void onUnsubscribe(SessionUnsubscribeEvent event) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.wrap(event.getMessage());
+        SessionPresence session = accessor.getSessionId() != null ? sessions.get(accessor.getSessionId()) : null;
+        if (session == null || accessor.getSubscriptionId() == null) {
+            return;
+        }
+
+        Integer room_idx;
+        synchronized (session) {
+            room_idx = session.subscriptions.remove(accessor.getSubscriptionId());
+        }
+        if (room_idx != null) {
+            leave(room_idx, session.member_idx);
+        }
+    }
+
+    // 연결 종료 - 참여 중인 채팅방 모두 나가기 (중복 이벤트는 무시)
+    @EventListener
+    public void onDisconnect(SessionDisconnectEvent event) {
+        SessionPresence session = sessions.remove(event.getSessionId());
+        if (session == null) {
+            return;
+        }
+
+        List<Integer> rooms;
+        synchronized (session) {
+            session.closed = true;
+            rooms = new ArrayList<>(session.subscriptions.values());
+            session.subscriptions.clear();
+        }
+        onlineMembers.computeIfPresent(session.member_idx, (key, count) -> count > 1 ? count - 1 : null);
+        for (Integer room_idx : rooms) {
+            leave(room_idx, session.member_idx);
+        }
+    }
+
+    /*-------------------------------------------------------------------*/
+
+    /**
+     * 입력 중 상태 수신 (채팅방에 참여 중인 세션만 처리, 알림은 간격 제한으로 병합)
+     */
+    public void typing(String sessionId, int room_idx, boolean typing) {
+        typingReceivedCount.incrementAndGet();
+        SessionPresence session = sessionId != null ? sessions.get(sessionId) : null;
+        if (session == null || !session.isIn(room_idx)) {
+            typingIgnoredCount.incrementAndGet();
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        boolean send;
+        TypingState state;
+        while (true) {
+            state = typingStates.computeIfAbsent(typingKey(room_idx, session.member_idx),
+                    key -> new TypingState(room_idx, session.member_idx));
+            synchronized (state) {
+                // 정리 작업이 방금 제거한 상태이면 새로 등록
+                if (state.removed) {
+                    continue;
+                }
+                state.desired = typing;
+                state.updatedAt = now;
+                send = state.desired != state.sent && now - state.sentAt >= typingIntervalMs;
+                if (send) {
+                    state.sent = typing;
+                    state.sentAt = now;
+                }
+                break;
+            }
+        }
+
+        if (send) {
+            sendTyping(state.room_idx, state.member_idx, typing);
+        } else {
+            typingCoalescedCount.incrementAndGet();
+        }
+    }
+
+    // 간격 제한으로 보류된 마지막 상태 전송 + 오래 갱신 없는 입력 중 상태 종료/제거
+    private void sweepTyping() {
+        try {
+            long now = System.currentTimeMillis();
+            for (Map.Entry<Long, TypingState> entry : typingStates.entrySet()) {
+                TypingState state = entry.getValue();
+                boolean send = false;
+                boolean typing;
+                synchronized (state) {
+                    if (now - state.updatedAt >= typingTtlMs) {
+                        if (!state.desired && !state.sent) {
+                            state.removed = true;
+                            typingStates.remove(entry.getKey(), state);
+                            continue;
+                        }
+                        state.desired = false;
+                    }
+                    typing = state.desired;
+                    if (state.desired != state.sent && now - state.sentAt >= typingIntervalMs) {
+                        state.sent = typing;
+                        state.sentAt = now;
+                        send = true;
+                    }
+                }
+                if (send) {
+                    sendTyping(state.room_idx, state.member_idx, typing);
+                }
+            }
+        } catch (Exception e) {
+            log.error("입력 중 상태 정리 실패", e);
+        }
+    }
+
+    /*-------------------------------------------------------------------*/
+
+    /**
+     * 채팅방 참여 회원 목록 (REST 조회용)
+     */
+    public List<Integer> getRoomMembers(int room_idx) {
+        List<Integer> members = new ArrayList<>();
+        roomMembers.computeIfPresent(room_idx, (key, counts) -> {
+            members.addAll(counts.keySet());
+            return counts;
+        });
+        return members;
+    }
+
+    /**
+     * 회원 접속 여부 (WebSocket 세션이 하나라도 있으면 true)
+     */
+    public boolean isOnline(int member_idx) {
+        return onlineMembers.containsKey(member_idx);
+    }
+
+    /**
+     * 채팅방 입력 중 회원 목록 (알림이 전송된 상태 기준)
+     */
+    public List<Integer> getTypingMembers(int room_idx) {
+        List<Integer> members = new ArrayList<>();
+        for (TypingState state : typingStates.values()) {
+            if (state.room_idx == room_idx && state.sent) {
+                members.add(state.member_idx);
+            }
+        }
+        return members;
+    }
+
+    /*-------------------------------------------------------------------*/
+
+    private void join(int room_idx, int member_idx) {
+        boolean[] first = new boolean[1];
+        roomMembers.compute(room_idx, (key, counts) -> {
+            Map<Integer, Integer> members = counts != null ? counts : new HashMap<>();
+            first[0] = members.merge(member_idx, 1, Integer::sum) == 1;
+            return members;
+        });
+        if (first[0]) {
+            sendPresence(room_idx, member_idx, true);
+        }
+    }
+
+    private void leave(int room_idx, int member_idx) {
+        boolean[] last = new boolean[1];
+        roomMembers.computeIfPresent(room_idx, (key, members) -> {
+            Integer count = members.get(member_idx);
+            if (count == null) {
+                return members;
+            }
+            if (count > 1) {
+                members.put(member_idx, count - 1);
+            } else {
+                members.remove(member_idx);
+                last[0] = true;
+            }
+            return members.isEmpty() ? null : members;
+        });
+
+        if (last[0]) {
+            // 채팅방을 나가면 입력 중 상태도 정리
+            TypingState state = typingStates.remove(typingKey(room_idx, member_idx));
+            if (state != null) {
+                boolean wasTyping;
+                synchronized (state) {
+                    state.removed = true;
+                    wasTyping = state.sent;
+                }
+                if (wasTyping) {
+                    sendTyping(room_idx, member_idx, false);
+                }
+            }
+            sendPresence(room_idx, member_idx, false);
+        }
+    }
+
+    private void sendPresence(int room_idx, int member_idx, boolean present) {
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("type", "presence");
+        frame.put("room_idx", room_idx);
+        frame.put("member_idx", member_idx);
+        frame.put("present", present);
+        frame.put("online", isOnline(member_idx));
+        frame.put("timestamp", System.currentTimeMillis());
+        try {
+            messagingTemplate.convertAndSend(ROOM_TOPIC_PREFIX + room_idx + "/presence", frame);
+            presenceFrameCount.incrementAndGet();
+        } catch (Exception e) {
+            // 접속 상태 알림 실패는 무시
+        }
+    }
+
+    private void sendTyping(int room_idx, int member_idx, boolean typing) {
+        Map<String, Object> frame = new HashMap<>();
+        frame.put("type", "typing");
+        frame.put("room_idx", room_idx);
+        frame.put("member_idx", member_idx);
+        frame.put("typing", typing);
+        frame.put("timestamp", System.currentTimeMillis());
+        try {
+            messagingTemplate.convertAndSend(ROOM_TOPIC_PREFIX + room_idx + "/presence", frame);
+            typingFrameCount.incrementAndGet();
+        } catch (Exception e) {
+            // 입력 중 알림 실패는 무시
+        }
+    }
+
+    // /topic/room/{room_idx} (하위 경로 제외) → room_idx
+    private static Integer roomOf(String destination) {
+        if (destination == null || !destination.startsWith(ROOM_TOPIC_PREFIX)) {
+            return null;
+        }
+        String rest = destination.substring(ROOM_TOPIC_PREFIX.length());
+        if (rest.isEmpty() || rest.indexOf('/') >= 0) {
+            return null;
+        }
+        try {
+            return Integer.valueOf(rest);
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static long typingKey(int room_idx, int member_idx) {
+        return ((long) room_idx << 32) | (member_idx & 0xffffffffL);
+    }
+
+    /**
+     * 접속 상태 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("sessions", sessions.size());
+        stats.put("online_members", onlineMembers.size());
+        stats.put("active_rooms", roomMembers.size());
+        stats.put("typing_states", typingStates.size());
+        stats.put("presence_frames", presenceFrameCount.get());
+        stats.put("typing_received", typingReceivedCount.get());
+        stats.put("typing_frames", typingFrameCount.get());
+        stats.put("typing_coalesced", typingCoalescedCount.get());
+        stats.put("typing_ignored", typingIgnoredCount.get());
+        stats.put("rejected_subscriptions", rejectedSubscriptionCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        scheduler.shutdownNow();
+    }
+
+    /**
+     * WebSocket 세션 하나의 상태 (구독 id → 채팅방, 최대 maxRoomsPerSession 개)
+     */
+    private static final class SessionPresence {
+        private final int member_idx;
+        private final Map<String, Integer> subscriptions = new HashMap<>();
+        private boolean closed;
+
+        private SessionPresence(int member_idx) {
+            this.member_idx = member_idx;
+        }
+
+        private synchronized boolean isIn(int room_idx) {
+            return subscriptions.containsValue(room_idx);
+        }
+    }
+
+    /**
+     * 회원/채팅방별 입력 중 상태 (desired: 마지막 수신 상태, sent: 마지막 전송 상태)
+     */
+    private static final class TypingState {
+        private final int room_idx;
+        private final int member_idx;
+        private boolean desired;
+        private boolean sent;
+        private long updatedAt;
+        private long sentAt;
+        private boolean removed;
+
+        private TypingState(int room_idx, int member_idx) {
+            this.room_idx = room_idx;
+            this.member_idx = member_idx;
+        }
+    }
+}
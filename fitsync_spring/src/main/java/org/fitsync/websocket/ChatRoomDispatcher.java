@@ -0,0 +1,142 @@
+package org.fitsync.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 채팅방 단위 순서 보장 디스패처
+ * room_idx 를 스트라이프 수로 나눈 나머지로 단일 스레드 실행기를 선택하므로
+ * 같은 채팅방의 메시지는 도착 순서대로 처리되고, 서로 다른 채팅방은 병렬로 처리된다.
+ */
+@Component
+@Log4j
+public class ChatRoomDispatcher {
+
+    /**
+     * 스트라이프(단일 스레드 실행기) 개수 (0 이하이면 CPU 코어 수)
+     */
+    @Value("${chat.dispatch.stripes:0}")
+    private int stripeCount;
+
+    /**
+     * 스트라이프별 대기열 최대 길이
+     */
+    @Value("${chat.dispatch.queue.capacity:1000}")
+    private int queueCapacity;
+
+    private ThreadPoolExecutor[] stripes;
+
+    // 처리 현황 카운터
+    private final AtomicLong submittedCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final AtomicLong completedCount = new AtomicLong();
+    private final AtomicLong failedCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int count = stripeCount > 0 ? stripeCount : Runtime.getRuntime().availableProcessors();
+        stripes = new ThreadPoolExecutor[count];
+
+        for (int i = 0; i < count; i++) {
+            final String threadName = "chat-room-dispatch-" + i;
+            ThreadPoolExecutor executor = new ThreadPoolExecutor(
+                1, 1, 0L, TimeUnit.MILLISECONDS,
+                new LinkedBlockingQueue<>(queueCapacity),
+                runnable -> {
+                    Thread thread = new Thread(runnable, threadName);
+                    thread.setDaemon(true);
+                    return thread;
+                },
+                new ThreadPoolExecutor.AbortPolicy()
+            );
+            stripes[i] = executor;
+        }
+
+        log.info("채팅방 디스패처 초기화 - 스트라이프: " + count + ", 대기열 크기: " + queueCapacity);
+    }
+
+    /**
+     * 채팅방에 해당하는 스트라이프에 작업 등록
+     * @return 대기열이 가득 차서 거부되면 false
+     */
+    public boolean dispatch(int room_idx, Runnable task) {
+        ThreadPoolExecutor executor = stripes[Math.floorMod(room_idx, stripes.length)];
+
+        try {
+            executor.execute(() -> {
+                try {
+                    task.run();
+                    completedCount.incrementAndGet();
+                } catch (Exception e) {
+                    failedCount.incrementAndGet();
+                    log.error("채팅방 작업 처리 실패 - room_idx: " + room_idx, e);
+                }
+            });
+            submittedCount.incrementAndGet();
+            return true;
+
+        } catch (RejectedExecutionException e) {
+            rejectedCount.incrementAndGet();
+            log.warn("채팅방 대기열 초과로 작업 거부 - room_idx: " + room_idx);
+            return false;
+        }
+    }
+
+    /**
+     * 대기열 길이 및 처리 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        int[] queueDepths = new int[stripes.length];
+        int totalDepth = 0;
+        int maxDepth = 0;
+
+        for (int i = 0; i < stripes.length; i++) {
+            int depth = stripes[i].getQueue().size();
+            queueDepths[i] = depth;
+            totalDepth += depth;
+            maxDepth = Math.max(maxDepth, depth);
+        }
+
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("stripes", stripes.length);
+        stats.put("queue_capacity", queueCapacity);
+        stats.put("queue_depths", queueDepths);
+        stats.put("queue_depth_total", totalDepth);
+        stats.put("queue_depth_max", maxDepth);
+        stats.put("submitted", submittedCount.get());
+        stats.put("completed", completedCount.get());
+        stats.put("failed", failedCount.get());
+        stats.put("rejected", rejectedCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ThreadPoolExecutor executor : stripes) {
+            executor.shutdown();
+        }
+
+        try {
+            for (ThreadPoolExecutor executor : stripes) {
+                if (!executor.awaitTermination(5, TimeUnit.SECONDS)) {
+                    executor.shutdownNow();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.fitsync.websocket;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+
+import org.fitsync.service.ChatService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Component;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * 읽음 워터마크 병합 처리기
+ * 클라이언트가 보낸 "채팅방 순번 room_seq 까지 읽음" 요청을 채팅방/수신자별로 짧은 시간 동안 모아
+ * 가장 큰 워터마크로 범위 UPDATE 1회, 읽음 알림 1회만 보낸다.
+ * DB 반영은 채팅방 번호로 나눈 스트라이프(단일 스레드 스케줄러 여러 개)에서 처리해
+ * 느린 UPDATE 가 다른 채팅방의 읽음 처리를 막지 않게 하고, 같은 채팅방은 항상 같은 스레드에서 순서대로 처리한다.
+ */
+@Component
+@Log4j
+public class ReadReceiptCoalescer {
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    /**
+     * 읽음 요청을 모으는 시간 (밀리초)
+     */
+    @Value("${chat.read.coalesce.window.ms:100}")
+    private long windowMs;
+
+    /**
+     * 읽음 반영 스레드(스트라이프) 수
+     */
+    @Value("${chat.read.flush.threads:4}")
+    private int flushThreads;
+
+    // room_idx → (receiver_idx → 읽음 워터마크 room_seq)
+    private final ConcurrentHashMap<Integer, ConcurrentHashMap<Integer, Integer>> pending = new ConcurrentHashMap<>();
+
+    private ScheduledExecutorService[] stripes;
+
+    // 처리 현황 카운터
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong updateCount = new AtomicLong();
+    private final AtomicLong frameCount = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int count = Math.max(1, flushThreads);
+        stripes = new ScheduledExecutorService[count];
+        for (int i = 0; i < count; i++) {
+            final String threadName = "chat-read-coalescer-" + i;
+            stripes[i] = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, threadName);
+                thread.setDaemon(true);
+                return thread;
+            });
+        }
+    }
+
+    /**
+     * 읽음 워터마크 등록 (같은 채팅방의 요청은 windowMs 동안 병합)
+     */
+    public void submit(int room_idx, int receiver_idx, int room_seq) {
+        receivedCount.incrementAndGet();
+
+        pending.compute(room_idx, (key, receivers) -> {
+            if (receivers == null) {
+                receivers = new ConcurrentHashMap<>();
+                stripes[Math.floorMod(room_idx, stripes.length)]
+                    .schedule(() -> flush(room_idx), windowMs, TimeUnit.MILLISECONDS);
+            }
+            receivers.merge(receiver_idx, room_seq, Math::max);
+            return receivers;
+        });
+    }
+
+    // 채팅방에 모인 워터마크를 DB에 반영하고 읽음 알림 전송
+    private void flush(int room_idx) {
+        Map<Integer, Integer> receivers = pending.remove(room_idx);
+        if (receivers == null) {
+            return;
+        }
+
+        for (Map.Entry<Integer, Integer> entry : receivers.entrySet()) {
+            int receiver_idx = entry.getKey();
+            int room_seq = entry.getValue();
+
+            try {
+                int result = chatService.readMarkUpTo(room_idx, receiver_idx, room_seq);
+                updateCount.incrementAndGet();
+
+                // 새로 읽음 처리된 메시지가 있을 때만 상대방에게 알림
+                if (result > 0) {
+                    Map<String, Object> readNotification = Map.of(
+                        "type", "read_watermark",
+                        "room_seq", room_seq,
+                        "receiver_idx", receiver_idx,
+                        "read_count", result,
+                        "read_time", System.currentTimeMillis()
+                    );
+                    messagingTemplate.convertAndSend("/topic/room/" + room_idx + "/read", readNotification);
+                    frameCount.incrementAndGet();
+                }
+            } catch (Exception e) {
+                log.error("읽음 처리 실패 - room_idx: " + room_idx + ", receiver_idx: " + receiver_idx, e);
+            }
+        }
+    }
+
+    /**
+     * 읽음 처리 현황 조회 (관리자 모니터링용)
+     */
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        stats.put("window_ms", windowMs);
+        stats.put("flush_threads", stripes.length);
+        stats.put("pending_rooms", pending.size());
+        stats.put("received", receivedCount.get());
+        stats.put("updates", updateCount.get());
+        stats.put("frames", frameCount.get());
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        for (ScheduledExecutorService stripe : stripes) {
+            stripe.shutdown();
+        }
+        // 남은 워터마크 반영
+        for (Integer room_idx : pending.keySet()) {
+            flush(room_idx);
+        }
+    }
+}
@@ -0,0 +1,74 @@
+package org.fitsync.websocket;
+
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+
+/**
+ * 노드 간 중계되는 STOMP 메시지 한 건
+ * 목적지와 직렬화된 본문(JSON 바이트)만 전달하고, 받은 노드가 자기 브로커에 다시 넣는다.
+ */
+public class RelayFrame {
+
+    // 본문 최대 크기 (피어가 보낸 길이를 그대로 믿고 버퍼를 잡지 않도록 상한)
+    public static final int MAX_PAYLOAD_BYTES = 1024 * 1024;
+
+    private final String origin;
+    private final String destination;
+    private final String contentType;
+    private final long sentAt;
+    private final byte[] payload;
+
+    public RelayFrame(String origin, String destination, String contentType, long sentAt, byte[] payload) {
+        this.origin = origin;
+        this.destination = destination;
+        this.contentType = contentType;
+        this.sentAt = sentAt;
+        this.payload = payload;
+    }
+
+    public String getOrigin() {
+        return origin;
+    }
+
+    public String getDestination() {
+        return destination;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public long getSentAt() {
+        return sentAt;
+    }
+
+    public byte[] getPayload() {
+        return payload;
+    }
+
+    // 스트림에 기록 (origin, destination, contentType, 전송 시각, 본문 길이 + 본문)
+    public void writeTo(DataOutputStream out) throws IOException {
+        out.writeUTF(origin);
+        out.writeUTF(destination);
+        out.writeUTF(contentType != null ? contentType : "");
+        out.writeLong(sentAt);
+        out.writeInt(payload.length);
+        out.write(payload);
+    }
+
+    public static RelayFrame readFrom(DataInputStream in) throws IOException {
+        String origin = in.readUTF();
+        String destination = in.readUTF();
+        String contentType = in.readUTF();
+        long sentAt = in.readLong();
+        int length = in.readInt();
+        if (length < 0 || length > MAX_PAYLOAD_BYTES) {
+            throw new StreamCorruptedException("중계 프레임 길이 오류: " + length);
+        }
+        byte[] payload = new byte[length];
+        in.readFully(payload);
+        return new RelayFrame(origin, destination, contentType.isEmpty() ? null : contentType, sentAt, payload);
+    }
+}
@@ -0,0 +1,23 @@
+package org.fitsync.websocket;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.function.Consumer;
+
+/**
+ * 노드 간 메시지 중계 전송 계층
+ * 구현체를 바꾸면 TCP 직접 연결 외의 방식(외부 메시지 브로커 등)으로도 중계할 수 있다.
+ */
+public interface RelayTransport {
+
+    // 수신 시작 (다른 노드에서 받은 프레임을 receiver 로 전달)
+    public void start(Consumer<RelayFrame> receiver) throws IOException;
+
+    // 모든 노드로 전송 (같은 routingKey 의 프레임은 보낸 순서대로 도착)
+    public void publish(RelayFrame frame, int routingKey);
+
+    // 전송 현황 (관리자 모니터링용)
+    public Map<String, Object> getStats();
+
+    public void stop();
+}
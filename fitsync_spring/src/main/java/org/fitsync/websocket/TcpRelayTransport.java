@@ -0,0 +1,338 @@
+package org.fitsync.websocket;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+
+import lombok.extern.log4j.Log4j;
+
+/**
+ * TCP 직접 연결 중계 전송 계층
+ * 각 노드는 relay 포트로 프레임을 받고, 피어 노드마다 lanes 개의 연결(레인)로 프레임을 보낸다.
+ * 레인은 routingKey(채팅방 번호 등) 해시로 고르므로 같은 채팅방 메시지는 한 연결에서 순서대로 전달된다.
+ * 127.0.0.1 의 다른 포트를 피어로 지정하면 한 대의 서버에서 여러 노드를 띄워 확인할 수 있다.
+ * 수신 포트는 지정한 주소(기본 127.0.0.1)에만 열고, 연결마다 공유 비밀키로 인증한 뒤에만 프레임을 받는다.
+ * 인증은 수신 측이 보낸 임의 값(nonce)에 대해 송신 측이 HMAC-SHA256 을 돌려주는 방식이라 비밀키 자체는 전송되지 않는다.
+ */
+@Log4j
+public class TcpRelayTransport implements RelayTransport {
+
+    private static final int CONNECT_TIMEOUT_MS = 1000;
+    private static final long RECONNECT_BACKOFF_MS = 1000;
+    private static final int HANDSHAKE_TIMEOUT_MS = 3000;
+    private static final int NONCE_BYTES = 16;
+    private static final String HMAC_ALGORITHM = "HmacSHA256";
+
+    private final InetAddress bindAddress;
+    private final int port;
+    private final byte[] secret;
+    private final List<InetSocketAddress> peers;
+    private final int lanes;
+    private final int queueCapacity;
+
+    private ServerSocket serverSocket;
+    private volatile boolean running;
+    private final List<Lane> peerLanes = new ArrayList<>();
+    private final List<Socket> inboundSockets = new ArrayList<>();
+
+    // 처리 현황 카운터
+    private final AtomicLong sentCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong receivedCount = new AtomicLong();
+    private final AtomicLong connectFailCount = new AtomicLong();
+    private final AtomicLong authFailCount = new AtomicLong();
+
+    private final SecureRandom random = new SecureRandom();
+
+    /**
+     * @param bindAddress 수신 포트를 열 주소
+     * @param secret 노드 간 공유 비밀키 (비어 있으면 생성 실패)
+     */
+    public TcpRelayTransport(InetAddress bindAddress, int port, String secret, List<InetSocketAddress> peers, int lanes, int queueCapacity) {
+        if (secret == null || secret.isEmpty()) {
+            throw new IllegalArgumentException("채팅 중계 비밀키(chat.relay.secret)가 설정되지 않았습니다.");
+        }
+        this.bindAddress = bindAddress;
+        this.port = port;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+        this.peers = peers;
+        this.lanes = lanes;
+        this.queueCapacity = queueCapacity;
+    }
+
+    @Override
+    public void start(Consumer<RelayFrame> receiver) throws IOException {
+        running = true;
+
+        serverSocket = new ServerSocket(port, 50, bindAddress);
+        Thread acceptThread = new Thread(() -> acceptLoop(receiver), "chat-relay-accept");
+        acceptThread.setDaemon(true);
+        acceptThread.start();
+
+        for (InetSocketAddress peer : peers) {
+            for (int i = 0; i < lanes; i++) {
+                Lane lane = new Lane(peer, i);
+                peerLanes.add(lane);
+                lane.thread.start();
+            }
+        }
+
+        log.info("채팅 중계 시작 - 주소: " + serverSocket.getLocalSocketAddress() + ", 피어: " + peers + ", 레인: " + lanes);
+    }
+
+    @Override
+    public void publish(RelayFrame frame, int routingKey) {
+        if (frame.getPayload().length > RelayFrame.MAX_PAYLOAD_BYTES) {
+            // 받는 쪽에서 거부할 크기는 보내지 않음
+            droppedCount.incrementAndGet();
+            return;
+        }
+        int laneIdx = Math.floorMod(routingKey, lanes);
+        for (int p = 0; p < peers.size(); p++) {
+            Lane lane = peerLanes.get(p * lanes + laneIdx);
+            if (!lane.queue.offer(frame)) {
+                droppedCount.incrementAndGet();
+            }
+        }
+    }
+
+    // 피어 연결 수락 후 연결마다 수신 스레드 시작
+    private void acceptLoop(Consumer<RelayFrame> receiver) {
+        while (running) {
+            try {
+                Socket socket = serverSocket.accept();
+                socket.setTcpNoDelay(true);
+                synchronized (inboundSockets) {
+                    inboundSockets.add(socket);
+                }
+                Thread readThread = new Thread(() -> readLoop(socket, receiver), "chat-relay-read-" + socket.getRemoteSocketAddress());
+                readThread.setDaemon(true);
+                readThread.start();
+            } catch (IOException e) {
+                if (running) {
+                    log.error("채팅 중계 연결 수락 실패", e);
+                }
+            }
+        }
+    }
+
+    private void readLoop(Socket socket, Consumer<RelayFrame> receiver) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(socket.getInputStream()))) {
+            if (!authenticate(socket, in)) {
+                authFailCount.incrementAndGet();
+                log.warn("채팅 중계 인증 실패 - " + socket.getRemoteSocketAddress());
+                socket.close();
+                return;
+            }
+            while (running) {
+                RelayFrame frame = RelayFrame.readFrom(in);
+                receivedCount.incrementAndGet();
+                try {
+                    receiver.accept(frame);
+                } catch (Exception e) {
+                    log.error("채팅 중계 프레임 처리 실패 - destination: " + frame.getDestination(), e);
+                }
+            }
+        } catch (EOFException e) {
+            // 피어 연결 종료
+        } catch (IOException e) {
+            if (running) {
+                log.warn("채팅 중계 수신 연결 끊김 - " + socket.getRemoteSocketAddress() + ": " + e.getMessage());
+            }
+        } finally {
+            synchronized (inboundSockets) {
+                inboundSockets.remove(socket);
+            }
+        }
+    }
+
+    // 수신 측 인증 - nonce 를 보내고 HMAC 응답 확인 (제한 시간 안에 응답이 없으면 실패)
+    private boolean authenticate(Socket socket, DataInputStream in) throws IOException {
+        byte[] nonce = new byte[NONCE_BYTES];
+        random.nextBytes(nonce);
+        DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+        out.write(nonce);
+        out.flush();
+
+        socket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+        byte[] response = new byte[hmac(nonce).length];
+        try {
+            in.readFully(response);
+        } catch (IOException e) {
+            return false;
+        }
+        socket.setSoTimeout(0);
+        return MessageDigest.isEqual(hmac(nonce), response);
+    }
+
+    private byte[] hmac(byte[] nonce) throws IOException {
+        try {
+            Mac mac = Mac.getInstance(HMAC_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, HMAC_ALGORITHM));
+            return mac.doFinal(nonce);
+        } catch (GeneralSecurityException e) {
+            throw new IOException("채팅 중계 인증 값 생성 실패", e);
+        }
+    }
+
+    @Override
+    public Map<String, Object> getStats() {
+        Map<String, Object> stats = new HashMap<>();
+        int queued = 0;
+        int connected = 0;
+        for (Lane lane : peerLanes) {
+            queued += lane.queue.size();
+            if (lane.socket != null) {
+                connected++;
+            }
+        }
+        synchronized (inboundSockets) {
+            stats.put("inbound_connections", inboundSockets.size());
+        }
+        stats.put("bind_address", bindAddress != null ? bindAddress.getHostAddress() : "*");
+        stats.put("port", serverSocket != null ? serverSocket.getLocalPort() : port);
+        stats.put("peers", peers.size());
+        stats.put("lanes", lanes);
+        stats.put("outbound_connections", connected);
+        stats.put("queued", queued);
+        stats.put("sent", sentCount.get());
+        stats.put("dropped", droppedCount.get());
+        stats.put("received", receivedCount.get());
+        stats.put("connect_failures", connectFailCount.get());
+        stats.put("auth_failures", authFailCount.get());
+        return stats;
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        try {
+            if (serverSocket != null) {
+                serverSocket.close();
+            }
+        } catch (IOException e) {
+            // 종료 중 오류 무시
+        }
+        for (Lane lane : peerLanes) {
+            lane.thread.interrupt();
+            lane.close();
+        }
+        synchronized (inboundSockets) {
+            for (Socket socket : inboundSockets) {
+                try {
+                    socket.close();
+                } catch (IOException e) {
+                    // 종료 중 오류 무시
+                }
+            }
+        }
+    }
+
+    /**
+     * 피어 하나로 가는 연결 하나 (전용 스레드가 대기열의 프레임을 순서대로 기록)
+     */
+    private final class Lane {
+        private final InetSocketAddress peer;
+        private final BlockingQueue<RelayFrame> queue = new LinkedBlockingQueue<>(queueCapacity);
+        private final Thread thread;
+        private volatile Socket socket;
+        private DataOutputStream out;
+
+        private Lane(InetSocketAddress peer, int index) {
+            this.peer = peer;
+            this.thread = new Thread(this::sendLoop, "chat-relay-" + peer.getPort() + "-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        private void sendLoop() {
+            while (running) {
+                RelayFrame frame;
+                try {
+                    frame = queue.poll(1, TimeUnit.SECONDS);
+                } catch (InterruptedException e) {
+                    return;
+                }
+                if (frame == null) {
+                    continue;
+                }
+
+                try {
+                    if (socket == null) {
+                        connect();
+                    }
+                    frame.writeTo(out);
+                    sentCount.incrementAndGet();
+                    // 대기 중인 프레임이 더 없을 때만 flush (연속 전송은 한 번에)
+                    if (queue.isEmpty()) {
+                        out.flush();
+                    }
+                } catch (IOException e) {
+                    // 연결이 안 되는 피어로 가는 프레임은 버리고 잠시 후 재연결 (실시간 알림이므로 재전송하지 않음)
+                    droppedCount.incrementAndGet();
+                    close();
+                    try {
+                        Thread.sleep(RECONNECT_BACKOFF_MS);
+                    } catch (InterruptedException ie) {
+                        return;
+                    }
+                }
+            }
+        }
+
+        private void connect() throws IOException {
+            Socket newSocket = new Socket();
+            try {
+                newSocket.connect(peer, CONNECT_TIMEOUT_MS);
+                newSocket.setTcpNoDelay(true);
+
+                // 수신 측이 보낸 nonce 에 HMAC 으로 응답
+                newSocket.setSoTimeout(HANDSHAKE_TIMEOUT_MS);
+                byte[] nonce = new byte[NONCE_BYTES];
+                new DataInputStream(newSocket.getInputStream()).readFully(nonce);
+                newSocket.setSoTimeout(0);
+                newSocket.getOutputStream().write(hmac(nonce));
+            } catch (IOException e) {
+                connectFailCount.incrementAndGet();
+                newSocket.close();
+                throw e;
+            }
+            out = new DataOutputStream(new BufferedOutputStream(newSocket.getOutputStream()));
+            socket = newSocket;
+        }
+
+        private void close() {
+            Socket current = socket;
+            socket = null;
+            if (current != null) {
+                try {
+                    current.close();
+                } catch (IOException e) {
+                    // 종료 중 오류 무시
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- 채팅방별 메시지 순번 (room_seq)
+-- message.room_seq : 채팅방 안에서 1씩 증가하는 메시지 순번 (누락 구간 조회 / 읽음 기준 / 이전·다음 페이지 커서)
+-- room.room_last_seq : 채팅방에 마지막으로 발급한 순번 (RoomMapper.nextRoomSeq 가 행 잠금으로 1씩 올려 발급)
+-- 적용 순서: 서버 배포 전에 한 번 실행 (Oracle)
+
+ALTER TABLE message ADD room_seq NUMBER;
+
+-- 기존 메시지 순번 채우기 (채팅방별 전송 시각 순, 같은 시각이면 메시지 번호 순)
+MERGE INTO message m
+USING (
+    SELECT message_idx,
+           ROW_NUMBER() OVER (PARTITION BY room_idx ORDER BY message_senddate, message_idx) AS seq
+    FROM message
+) s
+ON (m.message_idx = s.message_idx)
+WHEN MATCHED THEN UPDATE SET m.room_seq = s.seq;
+
+CREATE INDEX idx_message_room_seq ON message (room_idx, room_seq);
+
+ALTER TABLE room ADD room_last_seq NUMBER DEFAULT 0 NOT NULL;
+
+-- 채팅방 마지막 순번을 기존 메시지 최대 순번으로 맞춤
+UPDATE room r
+SET r.room_last_seq = (SELECT NVL(MAX(m.room_seq), 0) FROM message m WHERE m.room_idx = r.room_idx);
+
+COMMIT;
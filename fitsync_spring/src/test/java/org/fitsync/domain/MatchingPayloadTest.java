@@ -0,0 +1,73 @@
+package org.fitsync.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Test;
+
+public class MatchingPayloadTest {
+
+    private static Map<String, Object> required() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("matching_idx", 1);
+        map.put("trainer_idx", 2);
+        map.put("user_idx", 3);
+        map.put("matching_total", 10);
+        return map;
+    }
+
+    @Test
+    public void convertsNumbersAndNumericStrings() {
+        Map<String, Object> map = required();
+        map.put("trainer_idx", "2");
+        map.put("matching_remain", 7L);
+        map.put("matching_complete", " 0 ");
+
+        MatchingPayload payload = MatchingPayload.from(map);
+        assertNotNull(payload);
+        assertEquals(Integer.valueOf(1), payload.getMatching_idx());
+        assertEquals(Integer.valueOf(2), payload.getTrainer_idx());
+        assertEquals(Integer.valueOf(3), payload.getUser_idx());
+        assertEquals(Integer.valueOf(10), payload.getMatching_total());
+        assertEquals(Integer.valueOf(7), payload.getMatching_remain());
+        assertEquals(Integer.valueOf(0), payload.getMatching_complete());
+    }
+
+    @Test
+    public void optionalFieldsMayBeMissing() {
+        MatchingPayload payload = MatchingPayload.from(required());
+        assertNotNull(payload);
+        assertNull(payload.getMatching_remain());
+        assertNull(payload.getMatching_complete());
+    }
+
+    @Test
+    public void missingRequiredFieldIsNull() {
+        for (String key : new String[] {"matching_idx", "trainer_idx", "user_idx", "matching_total"}) {
+            Map<String, Object> map = required();
+            map.remove(key);
+            assertNull(key, MatchingPayload.from(map));
+        }
+    }
+
+    @Test
+    public void invalidValuesAreNull() {
+        Map<String, Object> map = required();
+        map.put("matching_idx", "abc");
+        assertNull(MatchingPayload.from(map));
+
+        map = required();
+        map.put("user_idx", Boolean.TRUE);
+        assertNull(MatchingPayload.from(map));
+    }
+
+    @Test
+    public void emptyOrNullMapIsNull() {
+        assertNull(MatchingPayload.from(null));
+        assertNull(MatchingPayload.from(new HashMap<>()));
+    }
+}
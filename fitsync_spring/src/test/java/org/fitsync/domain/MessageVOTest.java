@@ -0,0 +1,94 @@
+package org.fitsync.domain;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.junit.Assume;
+import org.junit.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+public class MessageVOTest {
+
+    private static MatchingPayload payload() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("matching_idx", 1);
+        map.put("trainer_idx", 2);
+        map.put("user_idx", 3);
+        map.put("matching_total", 10);
+        return MatchingPayload.from(map);
+    }
+
+    @Test
+    public void payloadIsEncodedOnceAndEmbeddedAsIs() throws Exception {
+        MessageVO vo = new MessageVO(1, 2, 3, "매칭 요청");
+        MatchingPayload payload = payload();
+        vo.setMatching_payload(payload);
+
+        // DB 저장용 문자열을 응답에도 그대로 사용 (다시 직렬화하지 않음)
+        String json = vo.getMatching_data();
+        assertSame(json, vo.getMatchingDataJson());
+        assertSame(payload, vo.getMatching_payload());
+
+        String frame = new ObjectMapper().writeValueAsString(vo);
+        assertTrue(frame, frame.contains("\"matching_data_map\":" + json));
+        assertFalse(frame, frame.contains("matchingIdx"));
+    }
+
+    @Test
+    public void dbRowDecodesOnceAndCopiesShareThePayload() {
+        MessageVO vo = new MessageVO();
+        vo.setMatching_data("{\"matching_idx\":5,\"trainer_idx\":2,\"user_idx\":3,\"matching_total\":10}");
+
+        MatchingPayload decoded = vo.getMatching_payload();
+        assertEquals(Integer.valueOf(5), vo.getMatchingIdx());
+        assertSame(decoded, vo.getMatching_payload());
+        assertSame(decoded, vo.copy().getMatching_payload());
+
+        // 문자열이 바뀌면 변환해 둔 값은 버림
+        vo.setMatching_data(null);
+        assertNull(vo.getMatching_payload());
+        assertNull(vo.getMatchingDataJson());
+    }
+
+    @Test
+    public void repeatedReadsOfDbRowDoNotAllocate() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        MessageVO vo = new MessageVO();
+        vo.setMatching_data("{\"matching_idx\":5,\"trainer_idx\":2,\"user_idx\":3,\"matching_total\":10}");
+
+        // 워밍업 (첫 조회에서 한 번만 변환, JIT)
+        int reads = 100_000;
+        long sum = 0;
+        for (int i = 0; i < reads; i++) {
+            sum += read(vo);
+        }
+
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = allocations.getThreadAllocatedBytes(threadId);
+        for (int i = 0; i < reads; i++) {
+            sum += read(vo);
+        }
+        long bytesPerRead = (allocations.getThreadAllocatedBytes(threadId) - bytesBefore) / reads;
+
+        // 이전 방식은 조회마다 JSON 을 다시 파싱해 LinkedHashMap 을 만들었음 (조회당 수백 바이트)
+        assertEquals(2L * reads * 5, sum);
+        assertTrue("allocated " + bytesPerRead + " bytes/read", bytesPerRead < 8);
+    }
+
+    // 브로드캐스트/알림 전에 매칭 정보를 확인하는 경로
+    private static int read(MessageVO vo) {
+        return vo.hasMatchingData() && vo.getMatchingDataJson() != null ? vo.getMatchingIdx() : 0;
+    }
+}
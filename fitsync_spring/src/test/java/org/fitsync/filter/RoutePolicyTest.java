@@ -0,0 +1,93 @@
+package org.fitsync.filter;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import org.fitsync.filter.RoutePolicy.Access;
+import org.junit.Before;
+import org.junit.Test;
+
+public class RoutePolicyTest {
+
+    private RoutePolicy policy;
+
+    @Before
+    public void setUp() {
+        // root-context.xml 의 정책과 같은 형태
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("=/", "PUBLIC");
+        rules.put("/auth", "PUBLIC");
+        rules.put("/member/register", "PUBLIC");
+        rules.put("/trainer/profile", "PUBLIC");
+        rules.put("/trainer/lesson", "PUBLIC");
+        rules.put("/trainer/*/schedule", "TRAINER");
+        rules.put("/trainer/schedule", "TRAINER");
+        rules.put("/admin/report", "ADMIN");
+        rules.put("/admin/chat", "ADMIN");
+        policy = new RoutePolicy(rules, Arrays.asList(".css", ".js", ".png"), "AUTHENTICATED");
+    }
+
+    @Test
+    public void exactRootOnly() {
+        assertEquals(Access.PUBLIC, policy.match("/"));
+        assertEquals(Access.AUTHENTICATED, policy.match("/member/info"));
+    }
+
+    @Test
+    public void prefixRules() {
+        assertEquals(Access.PUBLIC, policy.match("/auth/login"));
+        assertEquals(Access.PUBLIC, policy.match("/member/register"));
+        assertEquals(Access.PUBLIC, policy.match("/trainer/profile/12"));
+        assertEquals(Access.ADMIN, policy.match("/admin/chat/stats"));
+        assertEquals(Access.AUTHENTICATED, policy.match("/admin/notice"));
+    }
+
+    @Test
+    public void wildcardMatchesOneSegment() {
+        assertEquals(Access.TRAINER, policy.match("/trainer/12/schedule"));
+        assertEquals(Access.TRAINER, policy.match("/trainer/12/schedule/3"));
+        assertEquals(Access.TRAINER, policy.match("/trainer/schedule"));
+        assertEquals(Access.AUTHENTICATED, policy.match("/trainer/12/other"));
+        assertEquals(Access.AUTHENTICATED, policy.match("/trainer/1/2/schedule"));
+    }
+
+    @Test
+    public void longerWildcardMatchBeatsShorterLiteralPrefix() {
+        // "/trainer/profile" (PUBLIC) 보다 "/trainer/*" + "/schedule" (TRAINER) 이 더 길게 일치
+        assertEquals(Access.TRAINER, policy.match("/trainer/profile/schedule"));
+        assertEquals(Access.TRAINER, policy.match("/trainer/lesson/schedule"));
+        assertEquals(Access.PUBLIC, policy.match("/trainer/profile/reviews"));
+    }
+
+    @Test
+    public void literalWinsOnEqualLength() {
+        Map<String, String> rules = new LinkedHashMap<>();
+        rules.put("/a/*", "ADMIN");
+        rules.put("/a/b", "PUBLIC");
+        RoutePolicy tie = new RoutePolicy(rules, Arrays.asList(".css"), "AUTHENTICATED");
+        assertEquals(Access.PUBLIC, tie.match("/a/b"));
+        assertEquals(Access.ADMIN, tie.match("/a/c"));
+        assertEquals(Access.ADMIN, tie.match("/a/bc"));
+    }
+
+    @Test
+    public void publicExtensions() {
+        assertEquals(Access.PUBLIC, policy.match("/admin/report/app.js"));
+        assertEquals(Access.PUBLIC, policy.match("/images/logo.png"));
+        assertEquals(Access.AUTHENTICATED, policy.match("/member/json"));
+    }
+
+    @Test
+    public void permits() {
+        assertTrue(policy.permits(Access.AUTHENTICATED, "user"));
+        assertTrue(policy.permits(Access.TRAINER, "trainer"));
+        assertFalse(policy.permits(Access.TRAINER, "user"));
+        assertFalse(policy.permits(Access.ADMIN, "trainer"));
+        assertTrue(policy.permits(Access.ADMIN, "admin"));
+    }
+}
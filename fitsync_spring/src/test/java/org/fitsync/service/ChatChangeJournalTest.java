@@ -0,0 +1,126 @@
+package org.fitsync.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ChatChangeJournalTest {
+
+    private static final int ME = 10;
+    private static final int OTHER = 20;
+    private static final Set<Integer> MY_ROOMS = new HashSet<>(Arrays.asList(1, 2));
+
+    private ChatChangeJournal journal;
+
+    @Before
+    public void setUp() {
+        journal = new ChatChangeJournal();
+        ReflectionTestUtils.setField(journal, "capacity", 8);
+        ReflectionTestUtils.setField(journal, "scanMax", 100);
+        journal.init();
+    }
+
+    @Test
+    public void messagesReturnedInCommitOrderNotIdxOrder() {
+        long cursor = journal.getHeadSeq();
+        // 번호가 큰 메시지가 먼저 커밋되고, 작은 번호가 나중에 커밋됨
+        journal.onMessage(1, OTHER, ME, 105);
+        ChatChangeJournal.Changes first = journal.since(journal.getEpoch(), cursor, ME, MY_ROOMS, 10);
+        assertEquals(Arrays.asList(105), first.getMessageIdxs());
+
+        journal.onMessage(1, OTHER, ME, 101);
+        ChatChangeJournal.Changes second = journal.since(journal.getEpoch(), first.getNextSeq(), ME, MY_ROOMS, 10);
+        // message_idx 커서였다면 105 이후로 101 을 건너뛰었을 메시지
+        assertEquals(Arrays.asList(101), second.getMessageIdxs());
+    }
+
+    @Test
+    public void messagesFilteredByMember() {
+        journal.onMessage(1, ME, OTHER, 1);
+        journal.onMessage(1, OTHER, ME, 2);
+        journal.onMessage(3, 30, 40, 3);
+        ChatChangeJournal.Changes changes = journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 10);
+        assertEquals(Arrays.asList(1, 2), changes.getMessageIdxs());
+    }
+
+    @Test
+    public void readsMergedAndDeletesFilteredByRoom() {
+        journal.onRead(1, OTHER, 5);
+        journal.onRead(1, OTHER, 7);
+        journal.onDelete(2, OTHER, 6);
+        journal.onDelete(3, 30, 9);
+        ChatChangeJournal.Changes changes = journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 10);
+        assertEquals(1, changes.getReads().size());
+        assertEquals(7, changes.getReads().get(0).get("room_seq"));
+        assertEquals(1, changes.getDeletes().size());
+        assertEquals(6, changes.getDeletes().get(0).get("message_idx"));
+        assertEquals(4L, changes.getNextSeq());
+    }
+
+    @Test
+    public void pagesByLimit() {
+        for (int i = 1; i <= 5; i++) {
+            journal.onMessage(1, OTHER, ME, i);
+        }
+        ChatChangeJournal.Changes page = journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 3);
+        assertEquals(Arrays.asList(1, 2, 3), page.getMessageIdxs());
+        assertTrue(page.isHasMore());
+        page = journal.since(journal.getEpoch(), page.getNextSeq(), ME, MY_ROOMS, 3);
+        assertEquals(Arrays.asList(4, 5), page.getMessageIdxs());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    public void scanStopsAtScanMaxWithCursor() {
+        ReflectionTestUtils.setField(journal, "scanMax", 3);
+        for (int i = 1; i <= 4; i++) {
+            journal.onMessage(3, 30, 40, i);
+        }
+        journal.onMessage(1, OTHER, ME, 5);
+
+        // 다른 회원 변경만 훑고 멈춰도 커서는 훑은 위치까지 전진
+        ChatChangeJournal.Changes page = journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 10);
+        assertTrue(page.getMessageIdxs().isEmpty());
+        assertTrue(page.isHasMore());
+        assertEquals(3L, page.getNextSeq());
+        page = journal.since(journal.getEpoch(), page.getNextSeq(), ME, MY_ROOMS, 10);
+        assertEquals(Arrays.asList(5), page.getMessageIdxs());
+        assertFalse(page.isHasMore());
+    }
+
+    @Test
+    public void alwaysResetWhenRelayEnabled() {
+        journal = new ChatChangeJournal();
+        ReflectionTestUtils.setField(journal, "capacity", 8);
+        ReflectionTestUtils.setField(journal, "relayEnabled", true);
+        journal.init();
+        journal.onMessage(1, OTHER, ME, 1);
+        assertEquals(0L, journal.getHeadSeq());
+        assertNull(journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 10));
+    }
+
+    @Test
+    public void resetWhenCursorOverwrittenOrEpochChanged() {
+        for (int i = 1; i <= 10; i++) {
+            journal.onMessage(1, OTHER, ME, i);
+        }
+        assertNull(journal.since(journal.getEpoch(), 0, ME, MY_ROOMS, 10));
+        assertNull(journal.since("other", journal.getHeadSeq(), ME, MY_ROOMS, 10));
+        assertNull(journal.since(journal.getEpoch(), journal.getHeadSeq() + 1, ME, MY_ROOMS, 10));
+
+        ChatChangeJournal.Changes latest = journal.since(journal.getEpoch(), journal.getHeadSeq() - 2, ME, Collections.emptySet(), 10);
+        assertNotNull(latest);
+        assertEquals(Arrays.asList(9, 10), latest.getMessageIdxs());
+    }
+}
@@ -0,0 +1,133 @@
+package org.fitsync.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import org.fitsync.domain.MessageVO;
+import org.fitsync.util.ChatMetrics;
+import org.junit.Assume;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ChatMessageWriteBehindTest {
+
+    private static final int FLUSH_SIZE = 200;
+
+    private RecordingWriteBehind writeBehind;
+
+    // DB 대신 배치 크기와 채팅방 갱신 내용만 기록
+    private static class RecordingWriteBehind extends ChatMessageWriteBehind {
+        private final List<Integer> batchSizes = new ArrayList<>();
+        private final List<Map<Integer, Integer>> roomUpdates = new ArrayList<>();
+
+        @Override
+        void writeBatch(List<MessageVO> batch, Map<Integer, Integer> lastMessageByRoom) {
+            batchSizes.add(batch.size());
+            roomUpdates.add(new HashMap<>(lastMessageByRoom));
+        }
+    }
+
+    @Before
+    public void setUp() {
+        writeBehind = new RecordingWriteBehind();
+        ReflectionTestUtils.setField(writeBehind, "chatMetrics", new ChatMetrics());
+        ReflectionTestUtils.setField(writeBehind, "flushSize", FLUSH_SIZE);
+        ReflectionTestUtils.setField(writeBehind, "queue", new LinkedBlockingQueue<MessageVO>(200_000));
+        // 배치 스레드 없이 flushPending() 으로만 저장
+        ReflectionTestUtils.setField(writeBehind, "running", true);
+    }
+
+    private static List<MessageVO> messages(int count, int rooms) {
+        List<MessageVO> list = new ArrayList<>(count);
+        for (int i = 1; i <= count; i++) {
+            MessageVO vo = new MessageVO(i % rooms + 1, 10, 20, "message " + i);
+            vo.setMessage_idx(i);
+            list.add(vo);
+        }
+        return list;
+    }
+
+    private void offerAll(List<MessageVO> list) {
+        for (MessageVO vo : list) {
+            assertTrue(writeBehind.offer(vo));
+        }
+    }
+
+    @Test
+    public void batchesByFlushSizeAndUpdatesEachRoomOnce() {
+        List<Integer> persisted = new ArrayList<>();
+        writeBehind.addPersistListener(vo -> persisted.add(vo.getMessage_idx()));
+
+        offerAll(messages(1000, 10));
+        assertTrue(writeBehind.flushPending());
+
+        assertEquals(Collections.nCopies(5, FLUSH_SIZE), writeBehind.batchSizes);
+        for (Map<Integer, Integer> rooms : writeBehind.roomUpdates) {
+            assertEquals(10, rooms.size());
+        }
+        assertEquals(1000, persisted.size());
+        for (int i = 0; i < persisted.size(); i++) {
+            assertEquals(Integer.valueOf(i + 1), persisted.get(i));
+        }
+        Map<String, Object> stats = writeBehind.getStats();
+        assertEquals(1000L, stats.get("flushed"));
+        assertEquals(5L, stats.get("flush_batches"));
+        assertEquals(0, stats.get("unflushed"));
+    }
+
+    @Test
+    public void roomUpdateKeepsLastMessageInBatch() {
+        offerAll(messages(6, 2));
+        writeBehind.flushPending();
+
+        Map<Integer, Integer> rooms = writeBehind.roomUpdates.get(0);
+        assertEquals(Integer.valueOf(6), rooms.get(1));
+        assertEquals(Integer.valueOf(5), rooms.get(2));
+    }
+
+    @Test
+    public void nothingToFlushSkipsBatch() {
+        assertTrue(writeBehind.flushPending());
+        assertTrue(writeBehind.batchSizes.isEmpty());
+    }
+
+    @Test
+    public void batchPathThroughputAndAllocation() {
+        java.lang.management.ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threads instanceof com.sun.management.ThreadMXBean);
+        com.sun.management.ThreadMXBean allocations = (com.sun.management.ThreadMXBean) threads;
+        Assume.assumeTrue(allocations.isThreadAllocatedMemorySupported() && allocations.isThreadAllocatedMemoryEnabled());
+
+        // 워밍업 (JIT)
+        offerAll(messages(20_000, 50));
+        writeBehind.flushPending();
+        writeBehind.batchSizes.clear();
+        writeBehind.roomUpdates.clear();
+
+        int count = 100_000;
+        List<MessageVO> list = messages(count, 50);
+        long threadId = Thread.currentThread().getId();
+        long bytesBefore = allocations.getThreadAllocatedBytes(threadId);
+        long startNanos = System.nanoTime();
+
+        offerAll(list);
+        writeBehind.flushPending();
+
+        long elapsedMs = (System.nanoTime() - startNanos) / 1_000_000;
+        long bytesPerMessage = (allocations.getThreadAllocatedBytes(threadId) - bytesBefore) / count;
+
+        // 등록 + 배치 구성 비용만 측정 (DB 왕복 제외): 배치 수는 count / flushSize, 메시지당 할당은 대기열 노드와 박싱 정도
+        assertEquals(count / FLUSH_SIZE, writeBehind.batchSizes.size());
+        assertTrue("elapsed " + elapsedMs + "ms", elapsedMs < 2_000);
+        assertTrue("allocated " + bytesPerMessage + " bytes/message", bytesPerMessage < 512);
+    }
+}
@@ -0,0 +1,193 @@
+package org.fitsync.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.fitsync.domain.MessageVO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ChatRecentMessageBufferTest {
+
+    private static final int ROOM = 1;
+
+    private ChatRecentMessageBuffer buffer;
+
+    @Before
+    public void setUp() {
+        buffer = new ChatRecentMessageBuffer();
+        ReflectionTestUtils.setField(buffer, "bufferSize", 5);
+        ReflectionTestUtils.setField(buffer, "maxRooms", 2);
+    }
+
+    private static MessageVO message(int room_idx, int message_idx) {
+        return message(room_idx, message_idx, message_idx);
+    }
+
+    private static MessageVO message(int room_idx, int message_idx, int room_seq) {
+        MessageVO vo = new MessageVO(room_idx, 10, 20, "message " + message_idx);
+        vo.setMessage_idx(message_idx);
+        vo.setRoom_seq(room_seq);
+        return vo;
+    }
+
+    private static List<MessageVO> messages(int room_idx, int... idx) {
+        List<MessageVO> list = new ArrayList<>();
+        for (int message_idx : idx) {
+            list.add(message(room_idx, message_idx));
+        }
+        return list;
+    }
+
+    private static List<Integer> ids(List<MessageVO> list) {
+        List<Integer> ids = new ArrayList<>();
+        for (MessageVO vo : list) {
+            ids.add(vo.getMessage_idx());
+        }
+        return ids;
+    }
+
+    private void fill(int... idx) {
+        buffer.fill(buffer.beginFill(ROOM), messages(ROOM, idx), true);
+    }
+
+    @Test
+    public void missesUntilFilled() {
+        assertNull(buffer.all(ROOM));
+        ChatRecentMessageBuffer.RoomBuffer room = buffer.beginFill(ROOM);
+        assertNull(buffer.all(ROOM));
+        buffer.fill(room, messages(ROOM, 1, 2, 3), true);
+        assertEquals(Arrays.asList(1, 2, 3), ids(buffer.all(ROOM)));
+    }
+
+    @Test
+    public void messagesSavedDuringFillAreKept() {
+        ChatRecentMessageBuffer.RoomBuffer room = buffer.beginFill(ROOM);
+        buffer.onMessage(message(ROOM, 4));
+        buffer.fill(room, messages(ROOM, 1, 2, 3, 4), true);
+        assertEquals(Arrays.asList(1, 2, 3, 4), ids(buffer.all(ROOM)));
+
+        buffer.onMessage(message(ROOM, 5));
+        assertEquals(Arrays.asList(1, 2, 3, 4, 5), ids(buffer.all(ROOM)));
+    }
+
+    @Test
+    public void changeDuringFillAbortsFill() {
+        ChatRecentMessageBuffer.RoomBuffer room = buffer.beginFill(ROOM);
+        buffer.onDelete(ROOM, 2);
+        buffer.fill(room, messages(ROOM, 1, 2, 3), true);
+        assertNull(buffer.all(ROOM));
+    }
+
+    @Test
+    public void trimDropsOldestAndCompleteFlag() {
+        fill(1, 2, 3, 4, 5);
+        assertNotNull(buffer.all(ROOM));
+        buffer.onMessage(message(ROOM, 6));
+        assertNull(buffer.all(ROOM));
+        assertEquals(Arrays.asList(4, 5, 6), ids(buffer.page(ROOM, 0, 3)));
+        assertEquals(Arrays.asList(2, 3), ids(buffer.before(ROOM, 4, 2)));
+        // 버퍼보다 오래된 구간은 DB 조회
+        assertNull(buffer.before(ROOM, 3, 2));
+    }
+
+    @Test
+    public void pageBeforeAfter() {
+        fill(1, 2, 3, 4);
+        assertEquals(Arrays.asList(3, 4), ids(buffer.page(ROOM, 0, 2)));
+        assertEquals(Arrays.asList(1, 2), ids(buffer.page(ROOM, 2, 2)));
+        assertEquals(Arrays.asList(1, 2), ids(buffer.before(ROOM, 3, 5)));
+        assertEquals(Arrays.asList(3, 4), ids(buffer.after(ROOM, 2, 5)));
+    }
+
+    @Test
+    public void cursorAndWatermarkFollowRoomSeq() {
+        // 노드별 번호 블록 때문에 메시지 번호가 순번 순서와 다른 경우
+        buffer.fill(buffer.beginFill(ROOM), Arrays.asList(message(ROOM, 300, 1), message(ROOM, 101, 2), message(ROOM, 302, 3)), true);
+        assertEquals(Arrays.asList(300, 101), ids(buffer.before(ROOM, 3, 5)));
+        assertEquals(Arrays.asList(101, 302), ids(buffer.after(ROOM, 1, 5)));
+
+        buffer.onReadUpTo(ROOM, 20, 2);
+        List<MessageVO> list = buffer.all(ROOM);
+        assertNotNull(list.get(0).getMessage_readdate());
+        assertNotNull(list.get(1).getMessage_readdate());
+        assertNull(list.get(2).getMessage_readdate());
+    }
+
+    @Test
+    public void bypassedWhenRelayEnabled() {
+        ReflectionTestUtils.setField(buffer, "relayEnabled", true);
+        fill(1, 2);
+        buffer.onMessage(message(ROOM, 3));
+        assertNull(buffer.all(ROOM));
+        assertNull(buffer.before(ROOM, Integer.MAX_VALUE, 2));
+        assertEquals(0, buffer.getStats().get("rooms"));
+    }
+
+    @Test
+    public void deleteRemovesMessage() {
+        fill(1, 2, 3);
+        buffer.onDelete(ROOM, 2);
+        assertEquals(Arrays.asList(1, 3), ids(buffer.all(ROOM)));
+    }
+
+    @Test
+    public void returnedMessagesAreCopies() {
+        fill(1, 2);
+        List<MessageVO> first = buffer.all(ROOM);
+        buffer.onReadUpTo(ROOM, 20, 2);
+        buffer.onUpdate(ROOM, 1, message -> message.setAttach_idx(7));
+
+        // 이미 돌려준 목록은 바뀌지 않고, 다시 조회하면 변경이 보임
+        assertNull(first.get(0).getMessage_readdate());
+        assertNull(first.get(0).getAttach_idx());
+        List<MessageVO> second = buffer.all(ROOM);
+        assertNotNull(second.get(0).getMessage_readdate());
+        assertEquals(Integer.valueOf(7), second.get(0).getAttach_idx());
+
+        // 돌려준 객체를 고쳐도 버퍼에는 영향 없음
+        second.get(1).setMessage_content("changed");
+        assertEquals("message 2", buffer.all(ROOM).get(1).getMessage_content());
+    }
+
+    @Test
+    public void readUpToOnlyMarksReceiver() {
+        fill(1, 2, 3);
+        Timestamp before = new Timestamp(System.currentTimeMillis() - 1);
+        buffer.onReadUpTo(ROOM, 99, 3);
+        assertNull(buffer.all(ROOM).get(0).getMessage_readdate());
+        buffer.onReadUpTo(ROOM, 20, 2);
+        List<MessageVO> list = buffer.all(ROOM);
+        assertTrue(list.get(1).getMessage_readdate().after(before));
+        assertNull(list.get(2).getMessage_readdate());
+    }
+
+    @Test
+    public void updateOnlyTouchesGivenRoom() {
+        fill(1);
+        buffer.fill(buffer.beginFill(2), messages(2, 1), true);
+        buffer.onUpdate(2, 1, message -> message.setAttach_idx(9));
+        assertNull(buffer.all(ROOM).get(0).getAttach_idx());
+        assertEquals(Integer.valueOf(9), buffer.all(2).get(0).getAttach_idx());
+    }
+
+    @Test
+    public void leastRecentlyUsedRoomEvicted() {
+        fill(1);
+        buffer.fill(buffer.beginFill(2), messages(2, 1), true);
+        buffer.all(ROOM);
+        buffer.fill(buffer.beginFill(3), messages(3, 1), true);
+        assertNotNull(buffer.all(ROOM));
+        assertNull(buffer.all(2));
+        assertFalse(buffer.getStats().get("evictions").equals(0L));
+    }
+}
@@ -0,0 +1,197 @@
+package org.fitsync.service;
+
+import static org.junit.Assert.assertEquals;
+
+import java.lang.reflect.Proxy;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.fitsync.mapper.MessageMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class ChatUnreadCounterTest {
+
+    private ChatUnreadCounter counter;
+    // (room_idx, receiver_idx) → DB 의 안 읽은 메시지 수
+    private final Map<String, Integer> db = new HashMap<>();
+    private int queries;
+    // DB 조회 도중 실행할 작업 (동시 증감 재현용)
+    private Runnable duringQuery;
+
+    @Before
+    public void setUp() {
+        counter = new ChatUnreadCounter();
+        ReflectionTestUtils.setField(counter, "messageMapper", mapper());
+        ReflectionTestUtils.setField(counter, "messageWriteBehind", new ChatMessageWriteBehind());
+        ReflectionTestUtils.setField(counter, "reconcileBatchSize", 2);
+        ReflectionTestUtils.setField(counter, "maxEntries", 10);
+        ReflectionTestUtils.setField(counter, "idleMs", 60000L);
+    }
+
+    private MessageMapper mapper() {
+        return (MessageMapper) Proxy.newProxyInstance(getClass().getClassLoader(), new Class<?>[] { MessageMapper.class },
+                (proxy, method, args) -> {
+                    queries++;
+                    Runnable task = duringQuery;
+                    duringQuery = null;
+                    if (task != null) {
+                        task.run();
+                    }
+                    switch (method.getName()) {
+                    case "unreadCount":
+                        return db.getOrDefault(args[0] + ":" + args[1], 0);
+                    case "unreadCountByReceiver": {
+                        List<Map<String, Object>> rows = new ArrayList<>();
+                        for (Map.Entry<String, Integer> entry : db.entrySet()) {
+                            String[] parts = entry.getKey().split(":");
+                            if (parts[1].equals(String.valueOf(args[0]))) {
+                                rows.add(row(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), entry.getValue()));
+                            }
+                        }
+                        return rows;
+                    }
+                    case "unreadCountByRooms": {
+                        List<Map<String, Object>> rows = new ArrayList<>();
+                        for (Map.Entry<String, Integer> entry : db.entrySet()) {
+                            String[] parts = entry.getKey().split(":");
+                            if (((List<?>) args[0]).contains(Integer.parseInt(parts[0]))) {
+                                rows.add(row(Integer.parseInt(parts[0]), Integer.parseInt(parts[1]), entry.getValue()));
+                            }
+                        }
+                        return rows;
+                    }
+                    default:
+                        throw new UnsupportedOperationException(method.getName());
+                    }
+                });
+    }
+
+    private static Map<String, Object> row(int room_idx, int receiver_idx, int count) {
+        Map<String, Object> row = new HashMap<>();
+        row.put("ROOM_IDX", room_idx);
+        row.put("RECEIVER_IDX", receiver_idx);
+        row.put("UNREAD_COUNT", count);
+        return row;
+    }
+
+    @Test
+    public void seedsOnceThenCountsInMemory() {
+        db.put("1:7", 3);
+        assertEquals(3, counter.get(1, 7));
+        counter.increment(1, 7);
+        counter.decrement(1, 7, 10);
+        counter.increment(1, 7);
+        assertEquals(1, counter.get(1, 7));
+        assertEquals(1, queries);
+    }
+
+    @Test
+    public void incrementDuringSeedTriggersRecount() {
+        db.put("1:7", 3);
+        // 조회 도중 새 메시지 저장 (DB 에는 이미 반영된 상태)
+        duringQuery = () -> {
+            db.put("1:7", 4);
+            counter.increment(1, 7);
+        };
+        assertEquals(4, counter.get(1, 7));
+        assertEquals(2, queries);
+        counter.increment(1, 7);
+        assertEquals(5, counter.get(1, 7));
+        assertEquals(1L, counter.getStats().get("seed_retries"));
+    }
+
+    @Test
+    public void getAllSeedsMissingRoomsWithOneQuery() {
+        db.put("1:7", 2);
+        db.put("2:7", 5);
+        assertEquals(2, counter.get(1, 7));
+        Map<Integer, Integer> counts = counter.getAll(7, Arrays.asList(1, 2, 3));
+        assertEquals(Integer.valueOf(2), counts.get(1));
+        assertEquals(Integer.valueOf(5), counts.get(2));
+        assertEquals(Integer.valueOf(0), counts.get(3));
+        assertEquals(2, queries);
+        counter.increment(3, 7);
+        assertEquals(Integer.valueOf(1), counter.getAll(7, Arrays.asList(3)).get(3));
+        assertEquals(2, queries);
+    }
+
+    @Test
+    public void reconcileCorrectsDriftButSkipsCountersChangedDuringQuery() {
+        db.put("1:7", 2);
+        db.put("2:7", 2);
+        counter.get(1, 7);
+        counter.get(2, 7);
+        counter.increment(1, 7);
+        counter.increment(2, 7);
+
+        // room 2 는 대조 쿼리 도중 읽음 처리됨 → 보정하지 않음
+        duringQuery = () -> counter.decrement(2, 7, 3);
+        counter.reconcile();
+
+        assertEquals(2, counter.get(1, 7));
+        assertEquals(0, counter.get(2, 7));
+        assertEquals(1L, counter.getStats().get("corrected"));
+        assertEquals(1L, counter.getStats().get("reconcile_skipped"));
+    }
+
+    @Test
+    public void reconcileKeepsIncrementsRegisteredDuringFlush() {
+        db.put("1:7", 2);
+        counter.get(1, 7);
+
+        // 대기 중인 메시지 저장 도중 새 메시지 등록 (카운터에는 반영, DB 에는 아직 없음) → 보정하지 않음
+        ReflectionTestUtils.setField(counter, "messageWriteBehind", new ChatMessageWriteBehind() {
+            @Override
+            public boolean flushPending() {
+                counter.increment(1, 7);
+                return true;
+            }
+        });
+        counter.reconcile();
+
+        assertEquals(3, counter.get(1, 7));
+        assertEquals(0L, counter.getStats().get("corrected"));
+    }
+
+    @Test
+    public void readsDbEveryTimeWhenRelayEnabled() {
+        ReflectionTestUtils.setField(counter, "relayEnabled", true);
+        db.put("1:7", 2);
+        assertEquals(2, counter.get(1, 7));
+        counter.increment(1, 7);
+        assertEquals(2, counter.get(1, 7));
+        assertEquals(Integer.valueOf(2), counter.getAll(7, Arrays.asList(1, 2)).get(1));
+        assertEquals(3, queries);
+        assertEquals(0, counter.getStats().get("size"));
+    }
+
+    @Test
+    public void evictsLeastRecentlyReadOverLimit() throws Exception {
+        for (int room = 1; room <= 10; room++) {
+            counter.get(room, 7);
+            Thread.sleep(1);
+        }
+        counter.get(1, 7);
+        counter.get(11, 7);
+        assertEquals(9, counter.getStats().get("size"));
+        int before = queries;
+        counter.get(1, 7);
+        assertEquals(before, queries);
+        counter.get(2, 7);
+        assertEquals(before + 1, queries);
+    }
+
+    @Test
+    public void reconcileExpiresIdleCounters() {
+        ReflectionTestUtils.setField(counter, "idleMs", -1L);
+        counter.get(1, 7);
+        counter.reconcile();
+        assertEquals(0, counter.getStats().get("size"));
+        assertEquals(1L, counter.getStats().get("expirations"));
+    }
+}
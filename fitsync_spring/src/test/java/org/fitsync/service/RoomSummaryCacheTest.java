@@ -0,0 +1,189 @@
+package org.fitsync.service;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import org.fitsync.domain.MessageVO;
+import org.fitsync.domain.RoomVO;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+public class RoomSummaryCacheTest {
+
+    private static final int MEMBER = 10;
+
+    private RoomSummaryCache cache;
+    private AtomicInteger loads;
+
+    @Before
+    public void setUp() {
+        cache = new RoomSummaryCache();
+        ReflectionTestUtils.setField(cache, "ttlMs", 60_000L);
+        ReflectionTestUtils.setField(cache, "maxMembers", 100);
+        loads = new AtomicInteger();
+    }
+
+    private static RoomVO room(int room_idx) {
+        RoomVO room = new RoomVO();
+        room.setRoom_idx(room_idx);
+        return room;
+    }
+
+    private List<RoomVO> load() {
+        loads.incrementAndGet();
+        return new ArrayList<>(Arrays.asList(room(1), room(2)));
+    }
+
+    private static MessageVO message(int room_idx, int message_idx) {
+        MessageVO vo = new MessageVO(room_idx, MEMBER, 20, "hi");
+        vo.setMessage_idx(message_idx);
+        return vo;
+    }
+
+    @Test
+    public void cachesAfterFirstLoad() {
+        List<RoomVO> first = cache.get(MEMBER, this::load);
+        assertSame(first, cache.get(MEMBER, this::load));
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void loadsEveryTimeWhenRelayEnabled() {
+        ReflectionTestUtils.setField(cache, "relayEnabled", true);
+        cache.get(MEMBER, this::load);
+        cache.onMessage(message(1, 5));
+        cache.get(MEMBER, this::load);
+        assertEquals(2, loads.get());
+        assertEquals(0, cache.getStats().get("members"));
+    }
+
+    @Test
+    public void messageMovesRoomToFront() {
+        cache.get(MEMBER, this::load);
+        cache.onMessage(message(2, 100));
+        List<RoomVO> rooms = cache.get(MEMBER, this::load);
+        assertEquals(2, rooms.get(0).getRoom_idx());
+        assertEquals(100, rooms.get(0).getLast_message());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void messageDuringLoadIsNotLostToCache() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newSingleThreadExecutor();
+        try {
+            Future<List<RoomVO>> result = executor.submit(() -> cache.get(MEMBER, () -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return load();
+            }));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+
+            // 적재 중 저장된 메시지 (적재 결과에는 반영되지 않음)
+            cache.onMessage(message(2, 100));
+            release.countDown();
+            assertEquals(2, result.get(5, TimeUnit.SECONDS).size());
+
+            // 오래된 적재 결과는 캐시되지 않았으므로 다시 적재
+            cache.get(MEMBER, this::load);
+            assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void concurrentReadersShareOneLoad() throws Exception {
+        CountDownLatch loading = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        try {
+            List<Future<List<RoomVO>>> results = new ArrayList<>();
+            results.add(executor.submit(() -> cache.get(MEMBER, () -> {
+                loading.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return load();
+            })));
+            assertTrue(loading.await(5, TimeUnit.SECONDS));
+            for (int i = 0; i < 3; i++) {
+                results.add(executor.submit(() -> cache.get(MEMBER, this::load)));
+            }
+            // 다른 회원 조회는 적재를 기다리지 않음
+            assertEquals(2, cache.get(MEMBER + 1, this::load).size());
+
+            release.countDown();
+            for (Future<List<RoomVO>> result : results) {
+                assertEquals(2, result.get(5, TimeUnit.SECONDS).size());
+            }
+            assertEquals(2, loads.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void failedLoadIsNotCached() {
+        try {
+            cache.get(MEMBER, () -> {
+                throw new IllegalStateException("db down");
+            });
+        } catch (IllegalStateException expected) {
+            // 예외는 호출 측으로 전달
+        }
+        assertEquals(2, cache.get(MEMBER, this::load).size());
+        assertEquals(1, loads.get());
+    }
+
+    @Test
+    public void roomListReadsUnderMessageTrafficLoadOnce() {
+        // 채팅방 50개 목록을 메시지 10,000건 사이사이 조회해도 DB 적재는 1회
+        List<RoomVO> fifty = new ArrayList<>();
+        for (int room_idx = 1; room_idx <= 50; room_idx++) {
+            fifty.add(room(room_idx));
+        }
+        Supplier<List<RoomVO>> loader = () -> {
+            loads.incrementAndGet();
+            return fifty;
+        };
+
+        cache.get(MEMBER, loader);
+        for (int i = 1; i <= 10_000; i++) {
+            cache.onMessage(message(i % 50 + 1, i));
+            List<RoomVO> rooms = cache.get(MEMBER, loader);
+            assertEquals(50, rooms.size());
+            assertEquals(i, rooms.get(0).getLast_message());
+        }
+        assertEquals(1, loads.get());
+        assertEquals(10_000L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    public void invalidateForcesReload() {
+        cache.get(MEMBER, this::load);
+        cache.invalidate(MEMBER);
+        cache.get(MEMBER, this::load);
+        assertEquals(2, loads.get());
+    }
+}
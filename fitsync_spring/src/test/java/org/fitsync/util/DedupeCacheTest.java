@@ -0,0 +1,112 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class DedupeCacheTest {
+
+    @Test
+    public void secondMarkIsDuplicate() {
+        DedupeCache cache = new DedupeCache("test", 60_000, 100);
+        assertTrue(cache.markIfAbsent("a"));
+        assertFalse(cache.markIfAbsent("a"));
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertEquals(1L, cache.getStats().get("hits"));
+        assertEquals(1L, cache.getStats().get("misses"));
+    }
+
+    @Test
+    public void expiredKeyCanBeMarkedAgain() throws InterruptedException {
+        DedupeCache cache = new DedupeCache("test", 10, 100);
+        assertTrue(cache.markIfAbsent("a"));
+        Thread.sleep(30);
+        assertFalse(cache.contains("a"));
+        assertTrue(cache.markIfAbsent("a"));
+    }
+
+    @Test
+    public void oldestKeysEvictedAboveMaxSize() {
+        DedupeCache cache = new DedupeCache("test", 60_000, 3);
+        for (int i = 0; i < 5; i++) {
+            assertTrue(cache.markIfAbsent("k" + i));
+        }
+        assertEquals(3, cache.getStats().get("size"));
+        assertFalse(cache.contains("k0"));
+        assertFalse(cache.contains("k1"));
+        assertTrue(cache.contains("k4"));
+        assertEquals(2L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    public void duplicateMovesKeyToMostRecentlyUsed() {
+        DedupeCache cache = new DedupeCache("test", 60_000, 3);
+        assertTrue(cache.markIfAbsent("a"));
+        assertTrue(cache.markIfAbsent("b"));
+        assertTrue(cache.markIfAbsent("c"));
+        assertFalse(cache.markIfAbsent("a"));
+        assertTrue(cache.markIfAbsent("d"));
+        assertTrue(cache.contains("a"));
+        assertFalse(cache.contains("b"));
+        assertEquals(3, cache.getStats().get("size"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    public void removedKeysDoNotCountTowardMaxSize() {
+        DedupeCache cache = new DedupeCache("test", 60_000, 2);
+        assertTrue(cache.markIfAbsent("a"));
+        assertTrue(cache.markIfAbsent("b"));
+        cache.remove("a");
+        cache.remove("b");
+        assertTrue(cache.markIfAbsent("c"));
+        assertTrue(cache.markIfAbsent("d"));
+        assertTrue(cache.contains("c"));
+        assertTrue(cache.contains("d"));
+        assertEquals(0L, cache.getStats().get("evictions"));
+    }
+
+    @Test
+    public void removeAllowsRetry() {
+        DedupeCache cache = new DedupeCache("test", 60_000, 100);
+        assertTrue(cache.markIfAbsent("a"));
+        cache.remove("a");
+        assertFalse(cache.contains("a"));
+        assertTrue(cache.markIfAbsent("a"));
+        assertFalse(cache.markIfAbsent("a"));
+    }
+
+    @Test
+    public void concurrentMarkAcceptsOnce() throws InterruptedException {
+        DedupeCache cache = new DedupeCache("test", 60_000, 1000);
+        AtomicInteger accepted = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 200; i++) {
+                        if (cache.markIfAbsent("k" + i)) {
+                            accepted.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertEquals(200, accepted.get());
+    }
+}
@@ -0,0 +1,111 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Proxy;
+import java.util.Map;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import io.jsonwebtoken.JwtParser;
+
+public class JwtUtilTest {
+
+    private static final java.sql.Date BLOCK_DATE = java.sql.Date.valueOf("2026-01-31");
+
+    private JwtUtil jwtUtil;
+    // 서명 검증/파싱 횟수
+    private int parses;
+
+    @Before
+    public void setUp() {
+        jwtUtil = new JwtUtil();
+        ReflectionTestUtils.setField(jwtUtil, "secret", "test-secret-key-must-be-at-least-32-bytes!");
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 100);
+        jwtUtil.init();
+
+        // 실제 파서를 감싸 parseClaimsJws 호출 수만 집계
+        JwtParser parser = (JwtParser) ReflectionTestUtils.getField(jwtUtil, "parser");
+        ReflectionTestUtils.setField(jwtUtil, "parser", Proxy.newProxyInstance(getClass().getClassLoader(),
+                new Class<?>[] { JwtParser.class }, (proxy, method, args) -> {
+                    if (method.getName().equals("parseClaimsJws")) {
+                        parses++;
+                    }
+                    try {
+                        return method.invoke(parser, args);
+                    } catch (InvocationTargetException e) {
+                        throw e.getCause();
+                    }
+                }));
+    }
+
+    @SuppressWarnings("unchecked")
+    private int cacheSize() {
+        return ((Map<String, VerifiedToken>) ReflectionTestUtils.getField(jwtUtil, "verifiedTokens")).size();
+    }
+
+    @Test
+    public void verifiesEachTokenOnce() {
+        String token = jwtUtil.generateToken(7, BLOCK_DATE, 2, "user@fitsync.org");
+
+        VerifiedToken first = jwtUtil.verify(token);
+        assertNotNull(first);
+        assertEquals(7L, first.getUserIdx());
+        assertEquals("user@fitsync.org", first.getEmail());
+        assertEquals(BLOCK_DATE.getTime(), first.getBlockDate().getTime());
+        assertEquals(Integer.valueOf(2), first.getBlockCount());
+
+        // 요청마다 필터가 호출해도 파싱은 토큰당 1회
+        for (int i = 0; i < 10_000; i++) {
+            assertSame(first, jwtUtil.verify(token));
+            assertTrue(jwtUtil.validate(token));
+        }
+        assertEquals(1, parses);
+
+        jwtUtil.verify(jwtUtil.generateToken(8, BLOCK_DATE, 0, "other@fitsync.org"));
+        assertEquals(2, parses);
+    }
+
+    @Test
+    public void invalidTokensAreNotCached() {
+        String token = jwtUtil.generateToken(7, BLOCK_DATE, 0, "user@fitsync.org");
+        String tampered = token.substring(0, token.length() - 2) + (token.endsWith("AA") ? "BB" : "AA");
+
+        assertNull(jwtUtil.verify(tampered));
+        assertFalse(jwtUtil.validate(tampered));
+        assertEquals(2, parses);
+
+        // 빈 값은 파싱하지 않음
+        assertNull(jwtUtil.verify(null));
+        assertNull(jwtUtil.verify(""));
+        assertEquals(2, parses);
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    public void expiredTokenIsRejected() {
+        ReflectionTestUtils.setField(jwtUtil, "expirationMs", -60_000L);
+        String token = jwtUtil.generateToken(7, BLOCK_DATE, 0, "user@fitsync.org");
+
+        assertNull(jwtUtil.verify(token));
+        assertEquals(0, cacheSize());
+    }
+
+    @Test
+    public void cacheIsBoundedByMaxSize() {
+        ReflectionTestUtils.setField(jwtUtil, "cacheMaxSize", 3);
+        for (int idx = 1; idx <= 10; idx++) {
+            assertNotNull(jwtUtil.verify(jwtUtil.generateToken(idx, BLOCK_DATE, 0, "user@fitsync.org")));
+            assertTrue(cacheSize() <= 3);
+        }
+        assertEquals(10, parses);
+    }
+}
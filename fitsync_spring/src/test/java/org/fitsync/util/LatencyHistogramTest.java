@@ -0,0 +1,67 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+
+import org.junit.Test;
+
+public class LatencyHistogramTest {
+
+    @Test
+    public void bucketBoundsContainValue() {
+        long[] values = {0, 1, 15, 16, 17, 31, 32, 1000, 123_456, 1_000_000_000L, 1L << 40};
+        for (long value : values) {
+            int index = LatencyHistogram.bucketIndex(value);
+            long upper = LatencyHistogram.bucketUpperBound(index);
+            assertTrue("upper " + upper + " < " + value, upper >= value);
+            // 구간 폭은 값의 약 1/16 이내
+            assertTrue("upper " + upper + " too far from " + value, upper - value <= Math.max(1, value / 16));
+            if (index > 0) {
+                assertTrue(LatencyHistogram.bucketUpperBound(index - 1) < value);
+            }
+        }
+    }
+
+    @Test
+    public void bucketIndexIsMonotonic() {
+        int previous = -1;
+        for (long value = 0; value < 100_000; value += 7) {
+            int index = LatencyHistogram.bucketIndex(value);
+            assertTrue(index >= previous);
+            previous = index;
+        }
+    }
+
+    @Test
+    public void percentilesFollowRecordedDistribution() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        // 1ms 990건, 100ms 10건
+        for (int i = 0; i < 990; i++) {
+            histogram.record(1_000_000L);
+        }
+        for (int i = 0; i < 10; i++) {
+            histogram.record(100_000_000L);
+        }
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(1000L, snapshot.get("count"));
+        assertEquals(1.0, (double) snapshot.get("p50_ms"), 0.07);
+        assertEquals(1.0, (double) snapshot.get("p99_ms"), 0.07);
+        assertEquals(100.0, (double) snapshot.get("p999_ms"), 7.0);
+        assertEquals(100.0, (double) snapshot.get("max_ms"), 0.001);
+    }
+
+    @Test
+    public void resetClearsCounts() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        histogram.record(5_000_000L);
+        histogram.record(-1);
+        histogram.reset();
+
+        Map<String, Object> snapshot = histogram.snapshot();
+        assertEquals(0L, snapshot.get("count"));
+        assertEquals(0.0, (double) snapshot.get("max_ms"), 0.0);
+    }
+}
@@ -0,0 +1,48 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import java.util.HashMap;
+import java.util.Map;
+
+import org.fitsync.domain.MatchingPayload;
+import org.junit.Test;
+
+public class MatchingPayloadCodecTest {
+
+    @Test
+    public void roundTrip() {
+        Map<String, Object> map = new HashMap<>();
+        map.put("matching_idx", 1);
+        map.put("trainer_idx", 2);
+        map.put("user_idx", 3);
+        map.put("matching_total", 10);
+        MatchingPayload payload = MatchingPayload.from(map);
+
+        String json = MatchingPayloadCodec.encode(payload);
+        assertNotNull(json);
+        MatchingPayload decoded = MatchingPayloadCodec.decode(json);
+        assertEquals(Integer.valueOf(1), decoded.getMatching_idx());
+        assertEquals(Integer.valueOf(10), decoded.getMatching_total());
+        assertNull(decoded.getMatching_remain());
+    }
+
+    @Test
+    public void ignoresUnknownFields() {
+        MatchingPayload decoded = MatchingPayloadCodec.decode("{\"matching_idx\":5,\"extra\":\"x\"}");
+        assertEquals(Integer.valueOf(5), decoded.getMatching_idx());
+    }
+
+    @Test
+    public void malformedJsonIsNull() {
+        assertNull(MatchingPayloadCodec.decode(null));
+        assertNull(MatchingPayloadCodec.decode("  "));
+        assertNull(MatchingPayloadCodec.decode("{\"matching_idx\":"));
+        assertNull(MatchingPayloadCodec.decode("{\"matching_idx\":\"abc\"}"));
+        // 응답에 원본을 그대로 싣기 때문에 뒤에 붙은 문자가 있으면 거부
+        assertNull(MatchingPayloadCodec.decode("{\"matching_idx\":1} <script>"));
+        assertNull(MatchingPayloadCodec.decode("{\"matching_idx\":1}, {\"x\":2}"));
+    }
+}
@@ -0,0 +1,94 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class RateLimiterTest {
+
+    @Test
+    public void allowsBurstThenRejects() {
+        RateLimiter limiter = new RateLimiter("test", 5, 1, 16);
+        for (int i = 0; i < 5; i++) {
+            assertTrue("burst " + i, limiter.tryAcquire(1));
+        }
+        assertFalse(limiter.tryAcquire(1));
+
+        Map<String, Object> stats = limiter.getStats();
+        assertEquals(5L, stats.get("allowed"));
+        assertEquals(1L, stats.get("rejected"));
+    }
+
+    @Test
+    public void membersHaveSeparateBuckets() {
+        RateLimiter limiter = new RateLimiter("test", 1, 1, 16);
+        assertTrue(limiter.tryAcquire(1));
+        assertFalse(limiter.tryAcquire(1));
+        assertTrue(limiter.tryAcquire(2));
+        // 회원 번호 0 도 빈 칸과 구분되어야 함
+        assertTrue(limiter.tryAcquire(0));
+        assertFalse(limiter.tryAcquire(0));
+    }
+
+    @Test
+    public void refillsOverTime() throws InterruptedException {
+        // 분당 60000 개 = 1ms 마다 1개
+        RateLimiter limiter = new RateLimiter("test", 1, 60_000, 16);
+        assertTrue(limiter.tryAcquire(7));
+        assertFalse(limiter.tryAcquire(7));
+        Thread.sleep(20);
+        assertTrue(limiter.tryAcquire(7));
+    }
+
+    @Test
+    public void untrackedMembersPassWhenTableIsFull() {
+        RateLimiter limiter = new RateLimiter("test", 1, 1, 16);
+        int allowed = 0;
+        for (int member = 0; member < 1000; member++) {
+            if (limiter.tryAcquire(member)) {
+                allowed++;
+            }
+        }
+        assertEquals(1000, allowed);
+        assertTrue((long) limiter.getStats().get("untracked") > 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void rejectsBurstAboveLimit() {
+        new RateLimiter("test", 10_000, 1, 16);
+    }
+
+    @Test
+    public void concurrentAcquireNeverExceedsBurst() throws InterruptedException {
+        RateLimiter limiter = new RateLimiter("test", 100, 1, 16);
+        AtomicInteger allowed = new AtomicInteger();
+        int threads = 8;
+        CountDownLatch start = new CountDownLatch(1);
+        CountDownLatch done = new CountDownLatch(threads);
+        for (int t = 0; t < threads; t++) {
+            new Thread(() -> {
+                try {
+                    start.await();
+                    for (int i = 0; i < 100; i++) {
+                        if (limiter.tryAcquire(42)) {
+                            allowed.incrementAndGet();
+                        }
+                    }
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } finally {
+                    done.countDown();
+                }
+            }).start();
+        }
+        start.countDown();
+        done.await();
+        assertEquals(100, allowed.get());
+    }
+}
@@ -0,0 +1,50 @@
+package org.fitsync.util;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+
+public class SanctionCacheTest {
+
+    @Test
+    public void unblockedMemberServedFromCache() {
+        SanctionCache cache = new SanctionCache(60_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1, member -> { loads.incrementAndGet(); return null; });
+        cache.get(1, member -> { loads.incrementAndGet(); return null; });
+        assertEquals(1, loads.get());
+        assertEquals(1L, cache.getStats().get("hits"));
+    }
+
+    @Test
+    public void loadRacingInvalidationIsNotCached() {
+        SanctionCache cache = new SanctionCache(60_000, 100);
+        AtomicInteger loads = new AtomicInteger();
+        cache.get(1, member -> {
+            loads.incrementAndGet();
+            // 조회 도중 제재 적용
+            cache.invalidate(1);
+            return null;
+        });
+        cache.get(1, member -> { loads.incrementAndGet(); return null; });
+        assertEquals(2, loads.get());
+        assertEquals(1L, cache.getStats().get("stale_loads"));
+    }
+
+    @Test
+    public void fullCacheEvictsOldestEntryOnly() {
+        SanctionCache cache = new SanctionCache(60_000, 2);
+        AtomicInteger loads = new AtomicInteger();
+        for (int member_idx = 1; member_idx <= 3; member_idx++) {
+            cache.get(member_idx, member -> { loads.incrementAndGet(); return null; });
+        }
+        assertEquals(2, cache.getStats().get("size"));
+        assertEquals(1L, cache.getStats().get("evictions"));
+
+        cache.get(2, member -> { loads.incrementAndGet(); return null; });
+        cache.get(3, member -> { loads.incrementAndGet(); return null; });
+        assertEquals(3, loads.get());
+    }
+}
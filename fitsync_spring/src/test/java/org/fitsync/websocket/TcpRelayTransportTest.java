@@ -0,0 +1,141 @@
+package org.fitsync.websocket;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.Test;
+
+public class TcpRelayTransportTest {
+
+    private static final InetAddress LOOPBACK = InetAddress.getLoopbackAddress();
+
+    private static RelayFrame frame(String body) {
+        return new RelayFrame("a", "/topic/room/1", "application/json", System.currentTimeMillis(), body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static int port(TcpRelayTransport transport) {
+        return (Integer) transport.getStats().get("port");
+    }
+
+    @Test
+    public void deliversFramesBetweenNodesWithSameSecret() throws Exception {
+        BlockingQueue<RelayFrame> received = new LinkedBlockingQueue<>();
+        TcpRelayTransport receiver = new TcpRelayTransport(LOOPBACK, 0, "secret", Collections.emptyList(), 1, 10);
+        receiver.start(received::add);
+        TcpRelayTransport sender = new TcpRelayTransport(LOOPBACK, 0, "secret",
+                Collections.singletonList(new InetSocketAddress(LOOPBACK, port(receiver))), 1, 10);
+        sender.start(frame -> { });
+        try {
+            sender.publish(frame("hello"), 1);
+            RelayFrame frame = received.poll(5, TimeUnit.SECONDS);
+            assertNotNull(frame);
+            assertEquals("/topic/room/1", frame.getDestination());
+            assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), frame.getPayload());
+        } finally {
+            sender.stop();
+            receiver.stop();
+        }
+    }
+
+    @Test
+    public void rejectsPeerWithWrongSecret() throws Exception {
+        BlockingQueue<RelayFrame> received = new LinkedBlockingQueue<>();
+        TcpRelayTransport receiver = new TcpRelayTransport(LOOPBACK, 0, "secret", Collections.emptyList(), 1, 10);
+        receiver.start(received::add);
+        TcpRelayTransport sender = new TcpRelayTransport(LOOPBACK, 0, "other",
+                Collections.singletonList(new InetSocketAddress(LOOPBACK, port(receiver))), 1, 10);
+        sender.start(frame -> { });
+        try {
+            sender.publish(frame("hello"), 1);
+            assertNull(received.poll(1, TimeUnit.SECONDS));
+            assertTrue((Long) receiver.getStats().get("auth_failures") >= 1);
+        } finally {
+            sender.stop();
+            receiver.stop();
+        }
+    }
+
+    @Test
+    public void rejectsUnauthenticatedFrames() throws Exception {
+        BlockingQueue<RelayFrame> received = new LinkedBlockingQueue<>();
+        TcpRelayTransport receiver = new TcpRelayTransport(LOOPBACK, 0, "secret", Collections.emptyList(), 1, 10);
+        receiver.start(received::add);
+        try (Socket socket = new Socket(LOOPBACK, port(receiver))) {
+            // nonce 에 응답하지 않고 바로 프레임을 보냄
+            DataOutputStream out = new DataOutputStream(socket.getOutputStream());
+            frame("hello").writeTo(out);
+            out.flush();
+            assertNull(received.poll(1, TimeUnit.SECONDS));
+        } finally {
+            receiver.stop();
+        }
+    }
+
+    @Test
+    public void bindsToGivenAddress() throws Exception {
+        TcpRelayTransport receiver = new TcpRelayTransport(LOOPBACK, 0, "secret", Collections.emptyList(), 1, 10);
+        receiver.start(frame -> { });
+        try {
+            assertEquals(LOOPBACK.getHostAddress(), receiver.getStats().get("bind_address"));
+        } finally {
+            receiver.stop();
+        }
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void requiresSecret() {
+        new TcpRelayTransport(LOOPBACK, 0, "", Collections.emptyList(), 1, 10);
+    }
+
+    @Test
+    public void frameRoundTrip() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        frame("hello").writeTo(new DataOutputStream(bytes));
+        RelayFrame frame = RelayFrame.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+        assertEquals("a", frame.getOrigin());
+        assertEquals("application/json", frame.getContentType());
+        assertArrayEquals("hello".getBytes(StandardCharsets.UTF_8), frame.getPayload());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void rejectsOversizedFrameLength() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF("a");
+        out.writeUTF("/topic/room/1");
+        out.writeUTF("");
+        out.writeLong(0);
+        out.writeInt(Integer.MAX_VALUE);
+        RelayFrame.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void rejectsNegativeFrameLength() throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        DataOutputStream out = new DataOutputStream(bytes);
+        out.writeUTF("a");
+        out.writeUTF("/topic/room/1");
+        out.writeUTF("");
+        out.writeLong(0);
+        out.writeInt(-1);
+        RelayFrame.readFrom(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    }
+}